@@ -1,5 +1,7 @@
 package com.asyncflow.log;
 
+import com.asyncflow.log.model.event.ContextMap;
+import com.asyncflow.log.model.event.StructuredFields;
 import com.asyncflow.log.service.AsyncLogService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeansException;
@@ -7,7 +9,6 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -68,13 +69,14 @@ public class AsyncLogServiceFactory implements ApplicationContextAware {
     }
     
     /**
-     * 记录ERROR级别日志，带异常信息
+     * 记录ERROR级别日志，带异常对象
+     * 异常及其调用栈在消费线程上渲染
      * @param message 日志消息
      * @param throwable 异常对象
      * @return 是否成功提交到队列
      */
     public static boolean error(String message, Throwable throwable) {
-        return getDefault().error(message, throwable != null ? throwable.toString() : null);
+        return getDefault().error(message, throwable);
     }
     
     /**
@@ -87,6 +89,28 @@ public class AsyncLogServiceFactory implements ApplicationContextAware {
         return getDefault().error(message, context);
     }
     
+    /**
+     * 记录ERROR级别的参数化日志
+     * @param template 消息模板，使用"{}"作为占位符
+     * @param args 参数
+     * @return 是否成功提交到队列
+     */
+    public static boolean errorf(String template, Object... args) {
+        return getDefault().errorf(template, args);
+    }
+    
+    /**
+     * 记录ERROR级别的参数化日志
+     * @param template 消息模板，使用"{}"作为占位符
+     * @param args 参数
+     * @return 是否成功提交到队列
+     * @deprecated 只有一个String或Map参数时会匹配到其他重载，请使用{@link #errorf(String, Object...)}
+     */
+    @Deprecated
+    public static boolean error(String template, Object... args) {
+        return getDefault().errorf(template, args);
+    }
+    
     /**
      * 记录WARN级别日志
      * @param message 日志消息
@@ -106,6 +130,28 @@ public class AsyncLogServiceFactory implements ApplicationContextAware {
         return getDefault().warn(message, context);
     }
     
+    /**
+     * 记录WARN级别的参数化日志
+     * @param template 消息模板，使用"{}"作为占位符
+     * @param args 参数
+     * @return 是否成功提交到队列
+     */
+    public static boolean warnf(String template, Object... args) {
+        return getDefault().warnf(template, args);
+    }
+    
+    /**
+     * 记录WARN级别的参数化日志
+     * @param template 消息模板，使用"{}"作为占位符
+     * @param args 参数
+     * @return 是否成功提交到队列
+     * @deprecated 只有一个Map参数时会匹配到带上下文的重载，请使用{@link #warnf(String, Object...)}
+     */
+    @Deprecated
+    public static boolean warn(String template, Object... args) {
+        return getDefault().warnf(template, args);
+    }
+    
     /**
      * 记录INFO级别日志
      * @param message 日志消息
@@ -125,6 +171,28 @@ public class AsyncLogServiceFactory implements ApplicationContextAware {
         return getDefault().info(message, context);
     }
     
+    /**
+     * 记录INFO级别的参数化日志
+     * @param template 消息模板，使用"{}"作为占位符
+     * @param args 参数
+     * @return 是否成功提交到队列
+     */
+    public static boolean infof(String template, Object... args) {
+        return getDefault().infof(template, args);
+    }
+    
+    /**
+     * 记录INFO级别的参数化日志
+     * @param template 消息模板，使用"{}"作为占位符
+     * @param args 参数
+     * @return 是否成功提交到队列
+     * @deprecated 只有一个Map参数时会匹配到带上下文的重载，请使用{@link #infof(String, Object...)}
+     */
+    @Deprecated
+    public static boolean info(String template, Object... args) {
+        return getDefault().infof(template, args);
+    }
+    
     /**
      * 记录DEBUG级别日志
      * @param message 日志消息
@@ -144,6 +212,28 @@ public class AsyncLogServiceFactory implements ApplicationContextAware {
         return getDefault().debug(message, context);
     }
     
+    /**
+     * 记录DEBUG级别的参数化日志
+     * @param template 消息模板，使用"{}"作为占位符
+     * @param args 参数
+     * @return 是否成功提交到队列
+     */
+    public static boolean debugf(String template, Object... args) {
+        return getDefault().debugf(template, args);
+    }
+    
+    /**
+     * 记录DEBUG级别的参数化日志
+     * @param template 消息模板，使用"{}"作为占位符
+     * @param args 参数
+     * @return 是否成功提交到队列
+     * @deprecated 只有一个Map参数时会匹配到带上下文的重载，请使用{@link #debugf(String, Object...)}
+     */
+    @Deprecated
+    public static boolean debug(String template, Object... args) {
+        return getDefault().debugf(template, args);
+    }
+    
     /**
      * 记录指定级别的日志
      * @param level 日志级别
@@ -165,6 +255,42 @@ public class AsyncLogServiceFactory implements ApplicationContextAware {
         return getDefault().log(level, message, context);
     }
     
+    /**
+     * 记录指定级别的参数化日志，带上下文信息
+     * @param level 日志级别
+     * @param context 上下文信息，可为null
+     * @param template 消息模板，使用"{}"作为占位符
+     * @param args 参数
+     * @return 是否成功提交到队列
+     */
+    public static boolean log(String level, Map<String, String> context, String template, Object... args) {
+        return getDefault().log(level, context, template, args);
+    }
+    
+    /**
+     * 记录指定级别的参数化日志，带上下文和结构化字段
+     * @param level 日志级别
+     * @param context 上下文信息，可为null
+     * @param fields 结构化字段，可为null
+     * @param template 消息模板，使用"{}"作为占位符
+     * @param args 参数
+     * @return 是否成功提交到队列
+     */
+    public static boolean log(String level, Map<String, String> context, StructuredFields fields,
+                              String template, Object... args) {
+        return getDefault().log(level, context, fields, template, args);
+    }
+    
+    /**
+     * 判断指定级别和分类的日志是否需要输出
+     * @param level 日志级别
+     * @param category 分类，通常为类名
+     * @return 需要输出时返回true
+     */
+    public static boolean isEnabled(String level, String category) {
+        return getDefault().isEnabled(level, category);
+    }
+    
     /**
      * 创建上下文构建器
      * @return 上下文构建器
@@ -183,7 +309,9 @@ public class AsyncLogServiceFactory implements ApplicationContextAware {
      * 用于构建日志上下文信息
      */
     public static class ContextBuilder {
-        private final Map<String, String> context = new HashMap<>();
+        private final ContextMap.Builder context = ContextMap.builder();
+        
+        private final StructuredFields fields = StructuredFields.create();
         
         /**
          * 添加上下文项
@@ -207,12 +335,45 @@ public class AsyncLogServiceFactory implements ApplicationContextAware {
             return this;
         }
         
+        /**
+         * 添加long类型的结构化字段
+         * @param name 字段名
+         * @param value 值
+         * @return 上下文构建器
+         */
+        public ContextBuilder field(String name, long value) {
+            fields.add(name, value);
+            return this;
+        }
+        
+        /**
+         * 添加double类型的结构化字段
+         * @param name 字段名
+         * @param value 值
+         * @return 上下文构建器
+         */
+        public ContextBuilder field(String name, double value) {
+            fields.add(name, value);
+            return this;
+        }
+        
+        /**
+         * 添加boolean类型的结构化字段
+         * @param name 字段名
+         * @param value 值
+         * @return 上下文构建器
+         */
+        public ContextBuilder field(String name, boolean value) {
+            fields.add(name, value);
+            return this;
+        }
+        
         /**
          * 获取构建的上下文
          * @return 上下文Map
          */
         public Map<String, String> build() {
-            return new HashMap<>(context);
+            return context.build();
         }
         
         /**
@@ -221,7 +382,7 @@ public class AsyncLogServiceFactory implements ApplicationContextAware {
          * @return 是否成功提交到队列
          */
         public boolean error(String message) {
-            return getDefault().error(message, context);
+            return log("ERROR", message);
         }
         
         /**
@@ -230,7 +391,7 @@ public class AsyncLogServiceFactory implements ApplicationContextAware {
          * @return 是否成功提交到队列
          */
         public boolean warn(String message) {
-            return getDefault().warn(message, context);
+            return log("WARN", message);
         }
         
         /**
@@ -239,7 +400,7 @@ public class AsyncLogServiceFactory implements ApplicationContextAware {
          * @return 是否成功提交到队列
          */
         public boolean info(String message) {
-            return getDefault().info(message, context);
+            return log("INFO", message);
         }
         
         /**
@@ -248,7 +409,7 @@ public class AsyncLogServiceFactory implements ApplicationContextAware {
          * @return 是否成功提交到队列
          */
         public boolean debug(String message) {
-            return getDefault().debug(message, context);
+            return log("DEBUG", message);
         }
         
         /**
@@ -258,7 +419,11 @@ public class AsyncLogServiceFactory implements ApplicationContextAware {
          * @return 是否成功提交到队列
          */
         public boolean log(String level, String message) {
-            return getDefault().log(level, message, context);
+            if (fields.isEmpty()) {
+                return getDefault().log(level, message, context.build());
+            }
+            // 构建器可以重复使用，每条日志持有字段的副本；消息不含参数，按原样输出
+            return getDefault().log(level, context.build(), fields.copy(), message);
         }
     }
 } 
\ No newline at end of file
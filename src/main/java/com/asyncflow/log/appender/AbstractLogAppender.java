@@ -1,5 +1,6 @@
 package com.asyncflow.log.appender;
 
+import com.asyncflow.log.consumer.PartialBatchException;
 import com.asyncflow.log.model.event.LogEvent;
 import lombok.extern.slf4j.Slf4j;
 
@@ -84,6 +85,11 @@ public abstract class AbstractLogAppender implements LogAppender {
             int count = doAppendBatch(events);
             appendCount.addAndGet(count);
             return count;
+        } catch (PartialBatchException e) {
+            // 已写出的部分计入写入计数，剩余事件交由调用方处理
+            appendCount.addAndGet(e.getHandledCount());
+            log.error("批量写入日志事件中途失败，已写出: {}/{}", e.getHandledCount(), events.size(), e.getCause());
+            throw e;
         } catch (Exception e) {
             log.error("批量写入日志事件时发生异常: {}", e.getMessage(), e);
             return 0;
@@ -1,5 +1,7 @@
 package com.asyncflow.log.appender;
 
+import com.asyncflow.log.consumer.EventHandler;
+import com.asyncflow.log.queue.EventSequencer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -48,6 +50,49 @@ public class AppenderFactory {
     @Value("${async.log.appender.auto-flush:false}")
     private boolean autoFlush;
     
+    /**
+     * 分片数量（仅sharded类型使用）
+     */
+    @Value("${async.log.appender.shards:4}")
+    private int shards;
+    
+    /**
+     * 事件处理器类型：direct（消费循环直接写入）、pipelined（编码和写出分为两个阶段）
+     * 或ordered（在pipelined基础上按入队序号有序写出）
+     */
+    @Value("${async.log.handler.type:direct}")
+    private String handlerType;
+    
+    /**
+     * 流水线写出队列容量（字节块数，仅pipelined类型使用）
+     */
+    @Value("${async.log.handler.pipeline.queue-capacity:64}")
+    private int pipelineQueueCapacity;
+    
+    /**
+     * 流水线字节块大小（仅pipelined类型使用）
+     */
+    @Value("${async.log.handler.pipeline.chunk-size:65536}")
+    private int pipelineChunkSize;
+    
+    /**
+     * 未配置空洞超时时，空洞超时相对刷新间隔（消费循环凑批等待时间）的倍数
+     */
+    private static final int GAP_TIMEOUT_LINGER_FACTOR = 2;
+    
+    /**
+     * 有序写出时缺失序号的最长等待时间（毫秒，仅ordered类型使用）
+     * 必须大于刷新间隔，小于等于0时取刷新间隔的{@value #GAP_TIMEOUT_LINGER_FACTOR}倍
+     */
+    @Value("${async.log.handler.ordered.gap-timeout:0}")
+    private long orderedGapTimeout;
+    
+    /**
+     * 有序写出时重排序缓冲区的日志条数上限（仅ordered类型使用）
+     */
+    @Value("${async.log.handler.ordered.max-pending:100000}")
+    private int orderedMaxPending;
+    
     /**
      * 创建默认写入器
      * 根据配置创建指定类型的写入器
@@ -61,6 +106,10 @@ public class AppenderFactory {
             return createFileAppender();
         }
         
+        if ("sharded".equalsIgnoreCase(appenderType)) {
+            return createShardedFileAppender();
+        }
+        
         // 默认使用文件写入器
         log.warn("未知的写入器类型: {}, 使用默认的FileAppender", appenderType);
         return createFileAppender();
@@ -99,6 +148,65 @@ public class AppenderFactory {
         return appender;
     }
     
+    /**
+     * 创建分片文件写入器
+     * 每个消费者线程写自己的分片文件，写入时不在同一把锁上排队
+     * 
+     * @return 分片文件写入器
+     */
+    public ShardedFileAppender createShardedFileAppender() {
+        log.info("创建分片文件写入器，路径: {}, 文件名模式: {}, 分片数量: {}", filePath, fileNamePattern, shards);
+        
+        ShardedFileAppender appender = new ShardedFileAppender("ShardedFileAppender", filePath, fileNamePattern, shards);
+        appender.setAutoFlush(autoFlush);
+        
+        return appender;
+    }
+    
+    /**
+     * 创建事件处理器
+     * pipelined和ordered类型只支持单文件写入器，分片写入器本身已按消费线程拆分写入，继续使用直接写入
+     * 
+     * @param appender 日志写入器
+     * @return 事件处理器
+     */
+    public EventHandler createEventHandler(LogAppender appender) {
+        return createEventHandler(appender, null);
+    }
+    
+    /**
+     * 创建事件处理器，有序写出时接收事件序号分配器报告的丢弃序号
+     * 
+     * @param appender 日志写入器
+     * @param eventSequencer 事件序号分配器，为null时丢弃的序号只能等待空洞超时后跳过
+     * @return 事件处理器
+     */
+    public EventHandler createEventHandler(LogAppender appender, EventSequencer eventSequencer) {
+        log.info("创建事件处理器，类型: {}", handlerType);
+        
+        if ("pipelined".equalsIgnoreCase(handlerType) || "ordered".equalsIgnoreCase(handlerType)) {
+            if (appender instanceof FileAppender) {
+                log.info("创建流水线事件处理器，写出队列容量: {}, 字节块大小: {}", pipelineQueueCapacity, pipelineChunkSize);
+                PipelinedEventHandler handler = new PipelinedEventHandler((FileAppender) appender,
+                        pipelineQueueCapacity, pipelineChunkSize);
+                if ("ordered".equalsIgnoreCase(handlerType)) {
+                    long gapTimeout = getOrderedGapTimeout();
+                    log.info("开启有序写出，空洞超时: {}ms, 重排序缓冲上限: {}", gapTimeout, orderedMaxPending);
+                    handler.setOrdering(gapTimeout, orderedMaxPending, flushInterval);
+                    if (eventSequencer != null) {
+                        eventSequencer.setSkipListener(handler::skipSequence);
+                    }
+                }
+                return handler;
+            }
+            log.warn("流水线事件处理器需要FileAppender，当前写入器类型: {}, 使用直接写入", appender.getType());
+        } else if (!"direct".equalsIgnoreCase(handlerType)) {
+            log.warn("未知的事件处理器类型: {}, 使用直接写入", handlerType);
+        }
+        
+        return new LogEventHandler(appender, batchSize);
+    }
+    
     /**
      * 获取配置的写入器类型
      * 
@@ -144,6 +252,27 @@ public class AppenderFactory {
         return flushInterval;
     }
     
+    /**
+     * 获取有序写出的空洞超时时间，未配置时由刷新间隔推导
+     * 
+     * @return 空洞超时时间（毫秒）
+     */
+    public long getOrderedGapTimeout() {
+        if (orderedGapTimeout > 0) {
+            return orderedGapTimeout;
+        }
+        return Math.max(1L, flushInterval) * GAP_TIMEOUT_LINGER_FACTOR;
+    }
+    
+    /**
+     * 获取配置的分片数量
+     * 
+     * @return 分片数量
+     */
+    public int getShards() {
+        return shards;
+    }
+    
     /**
      * 获取配置的自动刷新
      * 
@@ -152,4 +281,13 @@ public class AppenderFactory {
     public boolean isAutoFlush() {
         return autoFlush;
     }
-} 
\ No newline at end of file
+    
+    /**
+     * 获取配置的事件处理器类型
+     * 
+     * @return 事件处理器类型
+     */
+    public String getHandlerType() {
+        return handlerType;
+    }
+}
\ No newline at end of file
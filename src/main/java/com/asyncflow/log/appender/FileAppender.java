@@ -1,24 +1,27 @@
 package com.asyncflow.log.appender;
 
+import com.asyncflow.log.consumer.PartialBatchException;
 import com.asyncflow.log.model.event.LogEvent;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.BufferedWriter;
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 文件日志写入器
- * 实现将日志事件写入文件的功能
+ * 实现将日志事件写入文件的功能。日志行由{@link LogLineEncoder}按字节拼接。
+ * 写入使用ReentrantLock和未继承的BufferedOutputStream（其内部锁同样基于java.util.concurrent），
+ * 在虚拟线程消费者上阻塞于文件I/O时不会钉住载体线程。
  */
 @Slf4j
 public class FileAppender extends AbstractLogAppender {
@@ -34,9 +37,9 @@ public class FileAppender extends AbstractLogAppender {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     
     /**
-     * 默认时间格式
+     * 写出缓冲区大小
      */
-    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
     
     /**
      * 默认文件名格式
@@ -69,9 +72,14 @@ public class FileAppender extends AbstractLogAppender {
     private LocalDate currentDate;
     
     /**
-     * 文件写入器
+     * 文件输出流
      */
-    private BufferedWriter writer;
+    private OutputStream writer;
+    
+    /**
+     * 日志行编码器，在锁内复用
+     */
+    private final LogLineEncoder encoder = new LogLineEncoder();
     
     /**
      * 锁
@@ -148,12 +156,9 @@ public class FileAppender extends AbstractLogAppender {
     protected boolean doAppend(LogEvent event) throws Exception {
         checkRotation();
         
-        String logText = formatLogEvent(event);
-        
         lock.lock();
         try {
-            writer.write(logText);
-            writer.newLine();
+            encoder.encode(event).writeTo(writer);
             
             if (autoFlush) {
                 writer.flush();
@@ -172,11 +177,13 @@ public class FileAppender extends AbstractLogAppender {
         int count = 0;
         lock.lock();
         try {
-            for (LogEvent event : events) {
-                String logText = formatLogEvent(event);
-                writer.write(logText);
-                writer.newLine();
-                count++;
+            try {
+                for (LogEvent event : events) {
+                    encoder.encode(event).writeTo(writer);
+                    count++;
+                }
+            } catch (Exception e) {
+                throw new PartialBatchException(count, e);
             }
             
             if (autoFlush) {
@@ -189,6 +196,42 @@ public class FileAppender extends AbstractLogAppender {
         }
     }
     
+    /**
+     * 写入已编码的日志字节
+     * 供{@link PipelinedEventHandler}的写出线程使用：渲染和编码已在消费线程完成，这里只做轮转检查和写出
+     * @param data 已编码的日志行
+     * @param offset 起始位置
+     * @param length 字节数
+     * @param events 包含的日志条数
+     * @return 成功写入的日志条数
+     */
+    public int appendEncoded(byte[] data, int offset, int length, int events) {
+        if (!isInitialized()) {
+            log.warn("写入器 {} 尚未初始化", name);
+            return 0;
+        }
+        
+        try {
+            checkRotation();
+            
+            lock.lock();
+            try {
+                writer.write(data, offset, length);
+                
+                if (autoFlush) {
+                    writer.flush();
+                }
+            } finally {
+                lock.unlock();
+            }
+            appendCount.addAndGet(events);
+            return events;
+        } catch (IOException e) {
+            log.error("写入已编码日志时发生异常: {}", e.getMessage(), e);
+            return 0;
+        }
+    }
+    
     @Override
     public void flush() {
         if (!isInitialized()) {
@@ -263,54 +306,10 @@ public class FileAppender extends AbstractLogAppender {
         }
         
         // 创建写入器，以追加模式打开文件
-        writer = new BufferedWriter(new FileWriter(file, true));
+        writer = new BufferedOutputStream(new FileOutputStream(file, true), OUTPUT_BUFFER_SIZE);
         log.info("打开日志文件: {}", fullPath);
     }
     
-    /**
-     * 格式化日志事件
-     * @param event 日志事件
-     * @return 格式化后的日志文本
-     */
-    private String formatLogEvent(LogEvent event) {
-        StringBuilder sb = new StringBuilder();
-        
-        // 添加时间戳
-        sb.append(event.getTimestamp().format(TIME_FORMATTER));
-        sb.append(" [");
-        
-        // 添加线程名称
-        String threadName = event.getThreadName();
-        if (threadName == null || threadName.isEmpty()) {
-            threadName = Thread.currentThread().getName();
-        }
-        sb.append(threadName);
-        sb.append("] ");
-        
-        // 添加日志级别
-        sb.append(event.getLevel());
-        sb.append(" ");
-        
-        // 添加位置信息
-        if (event.getClassName() != null && event.getMethodName() != null) {
-            sb.append(event.getClassName());
-            sb.append(".");
-            sb.append(event.getMethodName());
-            sb.append(" - ");
-        }
-        
-        // 添加日志消息
-        sb.append(event.getMessage());
-        
-        // 添加异常信息
-        if (event.getException() != null) {
-            sb.append(" - Exception: ");
-            sb.append(event.getException());
-        }
-        
-        return sb.toString();
-    }
-    
     /**
      * 设置文件路径
      * @param filePath 文件路径
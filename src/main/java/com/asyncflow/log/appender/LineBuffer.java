@@ -0,0 +1,198 @@
+package com.asyncflow.log.appender;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 可复用的字节行缓冲区
+ * 写入器把一条日志按字节拼接到这里再整体写出，已编码的符号直接复制字节，
+ * 只有消息等每次不同的内容才需要编码。非线程安全，由写入器在锁内使用。
+ */
+public class LineBuffer {
+    
+    /**
+     * 默认初始容量
+     */
+    private static final int DEFAULT_CAPACITY = 512;
+    
+    private static final byte[] LONG_MIN_VALUE = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+    
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+    
+    /**
+     * 浮点数格式化使用的字符缓冲区
+     */
+    private final StringBuilder scratch = new StringBuilder(24);
+    
+    /**
+     * 字节数组
+     */
+    private byte[] bytes;
+    
+    /**
+     * 已写入长度
+     */
+    private int length;
+    
+    /**
+     * 默认构造函数
+     */
+    public LineBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * 带初始容量的构造函数
+     * @param capacity 初始容量
+     */
+    public LineBuffer(int capacity) {
+        this.bytes = new byte[Math.max(16, capacity)];
+    }
+    
+    /**
+     * 追加字节
+     * @param data 字节数组
+     * @return 当前缓冲区
+     */
+    public LineBuffer append(byte[] data) {
+        ensureCapacity(data.length);
+        System.arraycopy(data, 0, bytes, length, data.length);
+        length += data.length;
+        return this;
+    }
+    
+    /**
+     * 追加单个ASCII字符
+     * @param c 字符
+     * @return 当前缓冲区
+     */
+    public LineBuffer append(char c) {
+        ensureCapacity(1);
+        bytes[length++] = (byte) c;
+        return this;
+    }
+    
+    /**
+     * 追加只包含ASCII字符的内容，例如时间戳
+     * @param text 文本
+     * @return 当前缓冲区
+     */
+    public LineBuffer appendAscii(CharSequence text) {
+        int size = text.length();
+        ensureCapacity(size);
+        for (int i = 0; i < size; i++) {
+            bytes[length++] = (byte) text.charAt(i);
+        }
+        return this;
+    }
+    
+    /**
+     * 以十进制追加long值，直接写入数字字节而不创建字符串
+     * @param value 值
+     * @return 当前缓冲区
+     */
+    public LineBuffer appendLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            return append(LONG_MIN_VALUE);
+        }
+        if (value < 0) {
+            append('-');
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        ensureCapacity(digits);
+        int end = length + digits;
+        for (int i = end - 1; i >= length; i--) {
+            bytes[i] = (byte) ('0' + (int) (value % 10));
+            value /= 10;
+        }
+        length = end;
+        return this;
+    }
+    
+    /**
+     * 追加double值，格式与{@link Double#toString(double)}相同，借助复用的字符缓冲区避免创建字符串
+     * @param value 值
+     * @return 当前缓冲区
+     */
+    public LineBuffer appendDouble(double value) {
+        scratch.setLength(0);
+        scratch.append(value);
+        return appendAscii(scratch);
+    }
+    
+    /**
+     * 追加boolean值
+     * @param value 值
+     * @return 当前缓冲区
+     */
+    public LineBuffer appendBoolean(boolean value) {
+        return append(value ? TRUE : FALSE);
+    }
+    
+    /**
+     * 按UTF-8编码追加字符串
+     * @param text 字符串，为null时追加"null"
+     * @return 当前缓冲区
+     */
+    public LineBuffer appendUtf8(String text) {
+        return append(String.valueOf(text).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * 写出缓冲区内容
+     * @param out 输出流
+     * @throws IOException IO异常
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes, 0, length);
+    }
+    
+    /**
+     * 复制缓冲区内容到字节数组
+     * @param target 目标数组，剩余空间不少于{@link #length()}
+     * @param offset 目标起始位置
+     */
+    public void copyTo(byte[] target, int offset) {
+        System.arraycopy(bytes, 0, target, offset, length);
+    }
+    
+    /**
+     * 清空缓冲区，保留已分配的数组
+     */
+    public void reset() {
+        length = 0;
+    }
+    
+    /**
+     * 获取已写入长度
+     * @return 字节数
+     */
+    public int length() {
+        return length;
+    }
+    
+    /**
+     * 以UTF-8解码当前内容，用于调试和测试
+     * @return 字符串
+     */
+    @Override
+    public String toString() {
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+    
+    private void ensureCapacity(int extra) {
+        int required = length + extra;
+        if (required > bytes.length) {
+            byte[] grown = new byte[Math.max(required, bytes.length * 2)];
+            System.arraycopy(bytes, 0, grown, 0, length);
+            bytes = grown;
+        }
+    }
+}
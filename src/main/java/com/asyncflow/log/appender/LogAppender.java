@@ -29,6 +29,19 @@ public interface LogAppender {
      */
     void flush();
     
+    /**
+     * 把当前线程登记为消费线程，由消费循环开始时调用
+     * 需要按线程拆分写入的写入器据此为消费线程分配专属资源
+     */
+    default void registerConsumerThread() {
+    }
+    
+    /**
+     * 注销当前线程的消费线程登记，由消费循环退出前调用
+     */
+    default void unregisterConsumerThread() {
+    }
+    
     /**
      * 初始化写入器
      * @return 是否初始化成功
@@ -1,6 +1,7 @@
 package com.asyncflow.log.appender;
 
 import com.asyncflow.log.consumer.EventHandler;
+import com.asyncflow.log.consumer.PartialBatchException;
 import com.asyncflow.log.model.event.LogEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.CollectionUtils;
@@ -80,14 +81,20 @@ public class LogEventHandler implements EventHandler {
     }
     
     @Override
+    @SuppressWarnings("unchecked")
     public int handleBatch(Iterable<LogEvent> events) {
         if (events == null) {
             return 0;
         }
         
-        // 将事件添加到批次列表
-        List<LogEvent> tempBatch = new ArrayList<>();
-        events.forEach(tempBatch::add);
+        // 消费者传入的已经是列表时直接使用，避免再复制一次
+        List<LogEvent> tempBatch;
+        if (events instanceof List) {
+            tempBatch = (List<LogEvent>) events;
+        } else {
+            tempBatch = new ArrayList<>();
+            events.forEach(tempBatch::add);
+        }
         
         if (CollectionUtils.isEmpty(tempBatch)) {
             return 0;
@@ -97,6 +104,11 @@ public class LogEventHandler implements EventHandler {
             int count = appender.append(tempBatch);
             processedCount.addAndGet(count);
             return count;
+        } catch (PartialBatchException e) {
+            // 交给消费者只重试尚未写出的事件
+            processedCount.addAndGet(e.getHandledCount());
+            errorCount.incrementAndGet();
+            throw e;
         } catch (Exception e) {
             log.error("批量处理日志事件异常: {}", e.getMessage(), e);
             errorCount.incrementAndGet();
@@ -119,6 +131,16 @@ public class LogEventHandler implements EventHandler {
         }
     }
     
+    @Override
+    public void onConsumerStart() {
+        appender.registerConsumerThread();
+    }
+    
+    @Override
+    public void onConsumerStop() {
+        appender.unregisterConsumerThread();
+    }
+    
     @Override
     public void initialize() {
         log.info("初始化日志事件处理器，批量大小: {}", batchSize);
@@ -0,0 +1,123 @@
+package com.asyncflow.log.appender;
+
+import com.asyncflow.log.clock.TimestampFormatter;
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.StructuredFields;
+import com.asyncflow.log.symbol.SymbolTable;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 日志行编码器
+ * 将日志事件编码为一行UTF-8字节，线程名、级别、类名和方法名使用符号表中缓存的编码。
+ * 编码器内部复用行缓冲区，不是线程安全的，每个写入线程或每把锁各持有一个。
+ */
+public class LogLineEncoder {
+    
+    /**
+     * 时间格式
+     */
+    private static final TimestampFormatter TIME_FORMATTER = new TimestampFormatter();
+    
+    /**
+     * 换行符
+     */
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+    
+    private static final byte[] LOCATION_SEPARATOR = " - ".getBytes(StandardCharsets.UTF_8);
+    
+    private static final byte[] FIELD_SEPARATOR = ", ".getBytes(StandardCharsets.UTF_8);
+    
+    private static final byte[] EXCEPTION_PREFIX = " - Exception: ".getBytes(StandardCharsets.UTF_8);
+    
+    /**
+     * 日志行缓冲区
+     */
+    private final LineBuffer line = new LineBuffer();
+    
+    /**
+     * 时间戳格式化缓冲区
+     */
+    private final StringBuilder timestamp = new StringBuilder(32);
+    
+    /**
+     * 符号表
+     */
+    private final SymbolTable symbols = SymbolTable.getDefault();
+    
+    /**
+     * 将日志事件编码到行缓冲区
+     * 格式：时间戳 [线程名] 级别 类名.方法名 - 消息 {字段=值, ...} - Exception: 异常，以换行结尾
+     * @param event 日志事件
+     * @return 行缓冲区，下一次编码前有效
+     */
+    public LineBuffer encode(LogEvent event) {
+        line.reset();
+        
+        // 添加时间戳
+        timestamp.setLength(0);
+        TIME_FORMATTER.format(event.getEpochNanos(), timestamp);
+        line.appendAscii(timestamp).append(' ').append('[');
+        
+        // 添加线程名称
+        String threadName = event.getThreadName();
+        if (threadName == null || threadName.isEmpty()) {
+            threadName = Thread.currentThread().getName();
+        }
+        line.append(symbols.intern(threadName).getBytes()).append(']').append(' ');
+        
+        // 添加日志级别
+        line.append(symbols.intern(String.valueOf(event.getLevel())).getBytes()).append(' ');
+        
+        // 添加位置信息
+        if (event.getClassName() != null && event.getMethodName() != null) {
+            line.append(symbols.intern(event.getClassName()).getBytes())
+                    .append('.')
+                    .append(symbols.intern(event.getMethodName()).getBytes())
+                    .append(LOCATION_SEPARATOR);
+        }
+        
+        // 添加日志消息
+        line.appendUtf8(event.getMessage());
+        
+        // 添加结构化字段，数值直接编码为字节
+        StructuredFields fields = event.getFields();
+        if (fields != null && !fields.isEmpty()) {
+            appendFields(fields);
+        }
+        
+        // 添加异常信息
+        if (event.getException() != null) {
+            line.append(EXCEPTION_PREFIX).appendUtf8(event.getException());
+        }
+        
+        line.append(LINE_SEPARATOR);
+        return line;
+    }
+    
+    /**
+     * 将结构化字段编码到行缓冲区
+     * @param fields 结构化字段
+     */
+    private void appendFields(StructuredFields fields) {
+        line.append(' ').append('{');
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                line.append(FIELD_SEPARATOR);
+            }
+            line.append(symbols.intern(fields.nameAt(i)).getBytes()).append('=');
+            switch (fields.typeAt(i)) {
+                case LONG:
+                    line.appendLong(fields.longAt(i));
+                    break;
+                case DOUBLE:
+                    line.appendDouble(fields.doubleAt(i));
+                    break;
+                default:
+                    line.appendBoolean(fields.booleanAt(i));
+                    break;
+            }
+        }
+        line.append('}');
+    }
+}
@@ -0,0 +1,906 @@
+package com.asyncflow.log.appender;
+
+import com.asyncflow.log.consumer.EventHandler;
+import com.asyncflow.log.model.event.LogEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 流水线日志事件处理器
+ * 把消费拆成两个阶段，中间用有界队列交接：
+ * 消费循环出队后渲染消息、异常并编码为UTF-8字节，攒成字节块交给写出队列；
+ * 独立的写出线程从写出队列取出字节块写入文件。
+ * 渲染和编码是CPU密集的，随消费循环数伸缩；文件写入由单个写出线程完成，
+ * 消费循环不再在系统调用和写入锁上等待。写出队列满时消费循环阻塞，反压传回事件队列。
+ * 写出线程按交接顺序写出字节块，同一个消费循环交出的日志保持出队顺序；
+ * 只有一个消费循环时，文件中的顺序与事件队列的顺序一致。
+ * 调用{@link #setOrdering(long, int)}后按入队序号有序写出：字节块记录其中连续序号的日志段，
+ * 写出线程经{@link Resequencer}按连续区间释放，多个消费循环并行编码时文件顺序仍与入队顺序一致。
+ * 有序写出时编码阶段按序号窗口反压：日志序号领先下一个待写出序号超过重排序缓冲上限，
+ * 或在途字节块（编码中、写出队列中和重排序缓冲区中的）达到上限时，消费循环先交出手中的字节块再阻塞；
+ * 持有下一个待写出序号的消费循环从不阻塞，重排序缓冲区不会绕过写出队列的反压无限增长，也不会因反压跳过序号。
+ * 关闭后交出的字节块在写出线程退出后由交出线程经同一个重排序缓冲区写出，与写出线程互斥。
+ * 生产者端丢弃的事件由{@link com.asyncflow.log.queue.EventSequencer}通过{@link #skipSequence(long)}报告，
+ * 写出线程把这些序号标记为丢弃，不必等待空洞超时，溢出策略持续丢弃日志时写出吞吐不受影响。
+ */
+@Slf4j
+public class PipelinedEventHandler implements EventHandler {
+    
+    /**
+     * 默认字节块大小
+     */
+    private static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+    
+    /**
+     * 默认写出队列容量（字节块数）
+     */
+    private static final int DEFAULT_QUEUE_CAPACITY = 64;
+    
+    /**
+     * 写出线程每次最多取出的字节块数
+     */
+    private static final int WRITE_DRAIN_LIMIT = 16;
+    
+    /**
+     * 有序写出时在途字节块上限相对写出队列容量的倍数
+     */
+    private static final int ORDERED_CHUNK_FACTOR = 2;
+    
+    /**
+     * 编码阶段等待序号窗口的单次最长时间（毫秒），写出线程推进序号后会提前唤醒
+     */
+    private static final long WINDOW_WAIT_MILLIS = 100L;
+    
+    /**
+     * 文件写入器
+     */
+    private final FileAppender appender;
+    
+    /**
+     * 字节块大小
+     */
+    private final int chunkSize;
+    
+    /**
+     * 写出队列
+     */
+    private final BlockingQueue<EncodedChunk> writeQueue;
+    
+    /**
+     * 已写出、可复用的字节块
+     */
+    private final BlockingQueue<EncodedChunk> freeChunks;
+    
+    /**
+     * 每个消费循环的日志行编码器
+     */
+    private final ThreadLocal<LogLineEncoder> encoders = ThreadLocal.withInitial(LogLineEncoder::new);
+    
+    /**
+     * 重排序缓冲区，为null时按交接顺序写出
+     */
+    private Resequencer<Segment> resequencer;
+    
+    /**
+     * 在途字节块数，获取字节块时增加，回收时减少
+     */
+    private final AtomicInteger inFlightChunks = new AtomicInteger();
+    
+    /**
+     * 有序写出时的在途字节块上限
+     */
+    private int maxInFlightChunks;
+    
+    /**
+     * 有序写出时的序号窗口，即重排序缓冲区的日志条数上限
+     */
+    private int reorderWindow;
+    
+    /**
+     * 生产者端报告的丢弃序号，由写出线程交给重排序缓冲区
+     */
+    private final ConcurrentLinkedQueue<Long> skippedSequences = new ConcurrentLinkedQueue<>();
+    
+    /**
+     * 唤醒写出线程的空字节块，不含日志，不参与写出
+     */
+    private final EncodedChunk wakeUp = new EncodedChunk(0, false);
+    
+    /**
+     * 等待序号窗口的锁，消费循环可能运行在虚拟线程上，不使用synchronized以免阻塞时占住载体线程
+     */
+    private final ReentrantLock windowLock = new ReentrantLock();
+    
+    /**
+     * 序号窗口推进的条件
+     */
+    private final Condition windowAdvanced = windowLock.newCondition();
+    
+    /**
+     * 等待序号窗口的消费循环数，写出线程据此决定是否唤醒
+     */
+    private volatile int windowWaiters;
+    
+    /**
+     * 交接锁：交出字节块时持有读锁，写出线程持有写锁确认退出，
+     * 写出线程退出后交出的字节块持有写锁直接写出
+     */
+    private final ReentrantReadWriteLock handOffLock = new ReentrantReadWriteLock();
+    
+    /**
+     * 写出线程是否已退出（或尚未启动），只在持有交接锁时修改
+     */
+    private volatile boolean writerExited = true;
+    
+    /**
+     * 运行状态
+     */
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    
+    /**
+     * 写出线程
+     */
+    private Thread writerThread;
+    
+    /**
+     * 已编码、尚未写出的日志条数
+     */
+    private final AtomicLong pendingEvents = new AtomicLong(0);
+    
+    /**
+     * 编码计数器
+     */
+    private final LongAdder encodedCount = new LongAdder();
+    
+    /**
+     * 写出计数器
+     */
+    private final LongAdder writtenCount = new LongAdder();
+    
+    /**
+     * 错误计数器
+     */
+    private final LongAdder errorCount = new LongAdder();
+    
+    /**
+     * 编码阶段累计耗时（纳秒）
+     */
+    private final LongAdder encodeNanos = new LongAdder();
+    
+    /**
+     * 写出阶段累计耗时（纳秒）
+     */
+    private final LongAdder writeNanos = new LongAdder();
+    
+    /**
+     * 构造函数
+     * @param appender 文件写入器
+     */
+    public PipelinedEventHandler(FileAppender appender) {
+        this(appender, DEFAULT_QUEUE_CAPACITY, DEFAULT_CHUNK_SIZE);
+    }
+    
+    /**
+     * 带参数的构造函数
+     * @param appender 文件写入器
+     * @param queueCapacity 写出队列容量（字节块数）
+     * @param chunkSize 字节块大小
+     */
+    public PipelinedEventHandler(FileAppender appender, int queueCapacity, int chunkSize) {
+        if (appender == null) {
+            throw new IllegalArgumentException("文件写入器不能为null");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("写出队列容量必须大于0: " + queueCapacity);
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("字节块大小必须大于0: " + chunkSize);
+        }
+        this.appender = appender;
+        this.chunkSize = chunkSize;
+        this.writeQueue = new ArrayBlockingQueue<>(queueCapacity);
+        this.freeChunks = new ArrayBlockingQueue<>(queueCapacity);
+    }
+    
+    @Override
+    public boolean handle(LogEvent event) {
+        if (event == null) {
+            return false;
+        }
+        return handleBatch(List.of(event)) == 1;
+    }
+    
+    @Override
+    public int handleBatch(Iterable<LogEvent> events) {
+        if (events == null) {
+            return 0;
+        }
+        
+        long start = System.nanoTime();
+        LogLineEncoder encoder = encoders.get();
+        EncodedChunk chunk = null;
+        int count = 0;
+        for (LogEvent event : events) {
+            if (event == null) {
+                continue;
+            }
+            if (resequencer != null) {
+                chunk = awaitWindow(chunk, event.getSequence());
+            }
+            if (chunk == null) {
+                chunk = acquireChunk();
+            }
+            try {
+                LineBuffer line = encoder.encode(event);
+                if (!chunk.fits(line.length()) && chunk.events > 0) {
+                    handOff(chunk);
+                    chunk = acquireChunk();
+                }
+                chunk.append(line, event.getSequence());
+                count++;
+            } catch (Exception e) {
+                log.error("编码日志事件异常: {}", e.getMessage(), e);
+                errorCount.increment();
+                // 有序写出时仍要交出该序号，避免写出端一直等待
+                chunk.skip(event.getSequence());
+            }
+        }
+        encodedCount.add(count);
+        encodeNanos.add(System.nanoTime() - start);
+        
+        if (chunk == null) {
+            return count;
+        }
+        if (chunk.isEmpty()) {
+            recycle(chunk);
+        } else {
+            handOff(chunk);
+        }
+        return count;
+    }
+    
+    @Override
+    public void handleException(LogEvent event, Throwable throwable) {
+        errorCount.increment();
+        log.error("处理日志事件发生异常: {}", throwable.getMessage(), throwable);
+        
+        // 尝试记录错误事件本身
+        try {
+            if (event != null) {
+                handle(event);
+            }
+        } catch (Exception e) {
+            log.error("记录异常事件时发生二次异常: {}", e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public void initialize() {
+        if (!appender.isInitialized()) {
+            appender.initialize();
+        }
+        if (running.compareAndSet(false, true)) {
+            handOffLock.writeLock().lock();
+            try {
+                writerExited = false;
+            } finally {
+                handOffLock.writeLock().unlock();
+            }
+            writerThread = new Thread(this::writeLoop, "async-log-pipeline-writer");
+            writerThread.setDaemon(true);
+            writerThread.start();
+            log.info("初始化流水线日志事件处理器，写出队列容量: {}, 字节块大小: {}",
+                    getWriteQueueCapacity(), chunkSize);
+        }
+    }
+    
+    @Override
+    public void close() {
+        if (running.compareAndSet(true, false)) {
+            // 写出线程写完剩余字节块后自行退出，关闭线程不与其并发写出
+            try {
+                writerThread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (writerThread.isAlive()) {
+                log.warn("流水线写出线程未能及时退出，剩余字节块由写出线程继续写出，待写出日志: {}", pendingEvents.get());
+            }
+            log.info("关闭流水线日志事件处理器，已编码: {}, 已写出: {}, 错误: {}",
+                    encodedCount.sum(), writtenCount.sum(), errorCount.sum());
+        }
+        appender.flush();
+    }
+    
+    /**
+     * 开启按入队序号有序写出，需在初始化前调用
+     * 事件序号由{@link com.asyncflow.log.queue.EventSequencer}在入队前分配
+     * @param gapTimeoutMillis 缺失序号的最长等待时间（毫秒），超时后跳过
+     * @param maxPendingEvents 重排序缓冲区的日志条数上限，领先下一个待写出序号超过该数量的日志在编码阶段阻塞
+     */
+    public void setOrdering(long gapTimeoutMillis, int maxPendingEvents) {
+        setOrdering(gapTimeoutMillis, maxPendingEvents, 0L);
+    }
+    
+    /**
+     * 开启按入队序号有序写出，需在初始化前调用
+     * 消费循环凑批时最多持有已出队的事件consumerLingerMillis毫秒，空洞超时必须大于该时间，
+     * 否则仍在凑批中的序号会被当作空洞跳过，随后按迟到日志乱序写出
+     * @param gapTimeoutMillis 缺失序号的最长等待时间（毫秒），超时后跳过
+     * @param maxPendingEvents 重排序缓冲区的日志条数上限，领先下一个待写出序号超过该数量的日志在编码阶段阻塞
+     * @param consumerLingerMillis 消费循环凑批的最长等待时间（毫秒）
+     */
+    public void setOrdering(long gapTimeoutMillis, int maxPendingEvents, long consumerLingerMillis) {
+        if (gapTimeoutMillis <= consumerLingerMillis) {
+            throw new IllegalArgumentException("空洞超时时间必须大于消费循环的凑批等待时间: gapTimeout="
+                    + gapTimeoutMillis + "ms, linger=" + consumerLingerMillis + "ms");
+        }
+        if (running.get()) {
+            throw new IllegalStateException("处理器已初始化，不能再开启有序写出");
+        }
+        this.resequencer = new Resequencer<>(gapTimeoutMillis, maxPendingEvents);
+        this.maxInFlightChunks = getWriteQueueCapacity() * ORDERED_CHUNK_FACTOR;
+        this.reorderWindow = maxPendingEvents;
+    }
+    
+    /**
+     * 写出线程主循环，停止后写完队列中剩余的字节块再退出
+     */
+    private void writeLoop() {
+        List<EncodedChunk> batch = new ArrayList<>(WRITE_DRAIN_LIMIT);
+        while (running.get() || !tryExit()) {
+            try {
+                EncodedChunk chunk = writeQueue.poll(pollTimeoutNanos(), TimeUnit.NANOSECONDS);
+                if (resequencer != null) {
+                    drainSkippedSequences();
+                }
+                if (chunk == null) {
+                    if (resequencer != null) {
+                        // 没有新的字节块时检查空洞是否超时
+                        resequencer.release(System.nanoTime(), this::writeSegment);
+                        signalWindow();
+                    }
+                    continue;
+                }
+                batch.add(chunk);
+                writeQueue.drainTo(batch, WRITE_DRAIN_LIMIT - 1);
+                long start = System.nanoTime();
+                for (EncodedChunk each : batch) {
+                    if (each == wakeUp) {
+                        continue;
+                    }
+                    if (resequencer != null) {
+                        resequence(each, start);
+                    } else {
+                        write(each);
+                    }
+                }
+                writeNanos.add(System.nanoTime() - start);
+                batch.clear();
+                signalWindow();
+            } catch (InterruptedException e) {
+                // 写出线程只在关闭后写完剩余字节块时退出，中断不丢弃已交出的日志
+                log.warn("流水线写出线程被中断，继续写出剩余字节块");
+            } catch (Exception e) {
+                log.error("流水线写出线程异常: {}", e.getMessage(), e);
+                batch.clear();
+            }
+        }
+    }
+    
+    /**
+     * 报告生产者端丢弃的事件序号，写出端不再等待该序号
+     * 在丢弃事件的线程上调用，不阻塞：序号先放入无锁队列，写出队列为空时顺带唤醒写出线程。
+     * 写出线程启动前报告的序号在启动后处理，退出后报告的序号由之后交出字节块的线程处理
+     * @param sequence 入队序号
+     */
+    public void skipSequence(long sequence) {
+        if (resequencer == null || sequence < 0) {
+            return;
+        }
+        skippedSequences.offer(sequence);
+        if (!writerExited && writeQueue.isEmpty()) {
+            writeQueue.offer(wakeUp);
+        }
+    }
+    
+    /**
+     * 把生产者端报告的丢弃序号交给重排序缓冲区
+     */
+    private void drainSkippedSequences() {
+        Long sequence;
+        long now = System.nanoTime();
+        while ((sequence = skippedSequences.poll()) != null) {
+            resequencer.skip(sequence, now, this::writeSegment);
+        }
+    }
+    
+    /**
+     * 停止后确认写出队列已空并退出
+     * 持有交接锁的写锁确认，确认期间没有交出线程正在放入字节块，之后交出的字节块由交出线程自行写出
+     * @return 可以退出时返回true
+     */
+    private boolean tryExit() {
+        if (!writeQueue.isEmpty() || !handOffLock.writeLock().tryLock()) {
+            return false;
+        }
+        try {
+            if (!writeQueue.isEmpty()) {
+                return false;
+            }
+            if (resequencer != null) {
+                // 停止后不再有新的日志段，按序号顺序写出剩余日志
+                resequencer.flush(this::writeSegment);
+            }
+            writerExited = true;
+            return true;
+        } finally {
+            handOffLock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * 有序写出时等待序号窗口
+     * 序号领先下一个待写出序号达到窗口大小，或在途字节块达到上限时阻塞，直到写出线程推进序号或回收字节块。
+     * 阻塞前先交出手中的字节块，其中可能含有写出线程正在等待的序号
+     * @param chunk 当前字节块，可能为null
+     * @param sequence 下一条日志的入队序号
+     * @return 当前字节块，已交出时返回null
+     */
+    private EncodedChunk awaitWindow(EncodedChunk chunk, long sequence) {
+        if (!outsideWindow(sequence)) {
+            return chunk;
+        }
+        if (chunk != null && !chunk.isEmpty()) {
+            handOff(chunk);
+            chunk = null;
+        }
+        windowLock.lock();
+        try {
+            windowWaiters++;
+            while (outsideWindow(sequence)) {
+                windowAdvanced.await(WINDOW_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            // 被中断时不再等待，由调用方决定是否退出
+            Thread.currentThread().interrupt();
+        } finally {
+            windowWaiters--;
+            windowLock.unlock();
+        }
+        return chunk;
+    }
+    
+    /**
+     * 判断序号是否在窗口之外
+     * 持有下一个待写出序号（及更早序号）的日志总在窗口内，写出顺序不会被反压挡住
+     * @param sequence 入队序号
+     * @return 需要等待时返回true
+     */
+    private boolean outsideWindow(long sequence) {
+        if (sequence < 0 || writerExited) {
+            return false;
+        }
+        long ahead = sequence - resequencer.getNextSequence();
+        return ahead > 0 && (ahead >= reorderWindow || inFlightChunks.get() >= maxInFlightChunks);
+    }
+    
+    /**
+     * 有消费循环等待序号窗口时唤醒它们重新检查
+     */
+    private void signalWindow() {
+        if (windowWaiters > 0) {
+            windowLock.lock();
+            try {
+                windowAdvanced.signalAll();
+            } finally {
+                windowLock.unlock();
+            }
+        }
+    }
+    
+    /**
+     * 计算写出线程等待字节块的时间，有序写出时不超过当前空洞的剩余超时时间
+     * @return 纳秒
+     */
+    private long pollTimeoutNanos() {
+        long timeout = TimeUnit.MILLISECONDS.toNanos(100);
+        if (resequencer != null) {
+            timeout = Math.min(timeout, resequencer.nanosUntilGapTimeout(System.nanoTime()));
+        }
+        return timeout;
+    }
+    
+    /**
+     * 把字节块中的日志段交给重排序缓冲区，连续的日志段立即写出
+     * @param chunk 字节块
+     * @param now 当前时间（纳秒）
+     */
+    private void resequence(EncodedChunk chunk, long now) {
+        List<Segment> segments = chunk.segments;
+        chunk.unwritten = segments.size();
+        for (int i = 0; i < segments.size(); i++) {
+            Segment segment = segments.get(i);
+            resequencer.offer(segment.sequence, segment.events, segment, now, this::writeSegment);
+        }
+    }
+    
+    /**
+     * 写出一个日志段，字节块中的日志段全部写出后回收字节块
+     * @param segment 日志段
+     */
+    private void writeSegment(Segment segment) {
+        EncodedChunk chunk = segment.chunk;
+        if (segment.lines > 0) {
+            int written = appender.appendEncoded(chunk.data, segment.start, segment.end - segment.start, segment.lines);
+            if (written < segment.lines) {
+                errorCount.add(segment.lines - written);
+            }
+            writtenCount.add(written);
+            pendingEvents.addAndGet(-segment.lines);
+        }
+        if (--chunk.unwritten == 0) {
+            recycle(chunk);
+        }
+    }
+    
+    /**
+     * 把字节块交给写出阶段
+     * 写出队列满时阻塞，等待被中断时继续等待，避免绕过写出顺序；
+     * 写出线程已退出（处理器已关闭或未初始化）时在当前线程写出，有序写出时同样经过重排序缓冲区，不丢失日志
+     * @param chunk 字节块
+     */
+    private void handOff(EncodedChunk chunk) {
+        pendingEvents.addAndGet(chunk.events);
+        handOffLock.readLock().lock();
+        try {
+            if (!writerExited) {
+                // 持有读锁期间写出线程不会退出，放入的字节块一定会被写出
+                putUninterruptibly(chunk);
+                return;
+            }
+        } finally {
+            handOffLock.readLock().unlock();
+        }
+        handOffLock.writeLock().lock();
+        try {
+            if (resequencer != null) {
+                drainSkippedSequences();
+                resequence(chunk, System.nanoTime());
+                resequencer.flush(this::writeSegment);
+            } else {
+                write(chunk);
+            }
+        } finally {
+            handOffLock.writeLock().unlock();
+        }
+    }
+    
+    private void putUninterruptibly(EncodedChunk chunk) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                writeQueue.put(chunk);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * 写出字节块并回收
+     * @param chunk 字节块
+     */
+    private void write(EncodedChunk chunk) {
+        int written = appender.appendEncoded(chunk.data, 0, chunk.length, chunk.events);
+        if (written < chunk.events) {
+            errorCount.add(chunk.events - written);
+        }
+        writtenCount.add(written);
+        pendingEvents.addAndGet(-chunk.events);
+        recycle(chunk);
+    }
+    
+    private EncodedChunk acquireChunk() {
+        inFlightChunks.incrementAndGet();
+        EncodedChunk chunk = freeChunks.poll();
+        return chunk != null ? chunk : new EncodedChunk(chunkSize, resequencer != null);
+    }
+    
+    /**
+     * 回收字节块，为超长日志扩容过的字节块不再复用
+     * @param chunk 字节块
+     */
+    private void recycle(EncodedChunk chunk) {
+        inFlightChunks.decrementAndGet();
+        if (chunk.data.length == chunkSize) {
+            chunk.reset();
+            freeChunks.offer(chunk);
+        }
+    }
+    
+    /**
+     * 获取写出队列中等待的字节块数
+     * @return 字节块数
+     */
+    public int getWriteQueueDepth() {
+        return writeQueue.size();
+    }
+    
+    /**
+     * 获取写出队列容量
+     * @return 字节块数
+     */
+    public int getWriteQueueCapacity() {
+        return writeQueue.size() + writeQueue.remainingCapacity();
+    }
+    
+    /**
+     * 获取已编码、尚未写出的日志条数
+     * @return 日志条数
+     */
+    public long getPendingEvents() {
+        return pendingEvents.get();
+    }
+    
+    /**
+     * 获取已编码的日志条数
+     * @return 编码计数
+     */
+    public long getEncodedCount() {
+        return encodedCount.sum();
+    }
+    
+    /**
+     * 获取已写出的日志条数
+     * @return 写出计数
+     */
+    public long getWrittenCount() {
+        return writtenCount.sum();
+    }
+    
+    /**
+     * 获取处理错误的日志条数
+     * @return 错误计数
+     */
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+    
+    /**
+     * 获取编码阶段累计耗时，所有消费循环之和
+     * @return 纳秒
+     */
+    public long getEncodeNanos() {
+        return encodeNanos.sum();
+    }
+    
+    /**
+     * 获取写出阶段累计耗时
+     * @return 纳秒
+     */
+    public long getWriteNanos() {
+        return writeNanos.sum();
+    }
+    
+    /**
+     * 是否按入队序号有序写出
+     * @return 开启有序写出返回true
+     */
+    public boolean isOrdered() {
+        return resequencer != null;
+    }
+    
+    /**
+     * 获取重排序缓冲区中等待的日志条数
+     * @return 日志条数，未开启有序写出时为0
+     */
+    public int getReorderPendingEvents() {
+        return resequencer != null ? resequencer.getPendingEvents() : 0;
+    }
+    
+    /**
+     * 获取在途字节块数，包括编码中、写出队列中和重排序缓冲区中的字节块
+     * @return 字节块数
+     */
+    public int getInFlightChunks() {
+        return inFlightChunks.get();
+    }
+    
+    /**
+     * 获取有序写出时的在途字节块上限
+     * @return 字节块数，未开启有序写出时为0
+     */
+    public int getMaxInFlightChunks() {
+        return maxInFlightChunks;
+    }
+    
+    /**
+     * 获取重排序时跳过的缺失序号数
+     * @return 序号数，未开启有序写出时为0
+     */
+    public long getSkippedSequenceCount() {
+        return resequencer != null ? resequencer.getSkippedCount() : 0L;
+    }
+    
+    /**
+     * 获取生产者端报告丢弃、写出端不再等待的序号数
+     * @return 序号数，未开启有序写出时为0
+     */
+    public long getDroppedSequenceCount() {
+        return resequencer != null ? resequencer.getDroppedCount() : 0L;
+    }
+    
+    /**
+     * 获取缺失序号被跳过后才到达、未能按顺序写出的日志条数
+     * @return 日志条数，未开启有序写出时为0
+     */
+    public long getLateEventCount() {
+        return resequencer != null ? resequencer.getLateCount() : 0L;
+    }
+    
+    /**
+     * 获取文件写入器
+     * @return 文件写入器
+     */
+    public FileAppender getAppender() {
+        return appender;
+    }
+    
+    /**
+     * 获取字节块大小
+     * @return 字节数
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+    
+    /**
+     * 已编码的字节块，由一个消费循环填充后整体交给写出线程
+     * 有序写出时同时记录其中的日志段，每段覆盖一段连续的入队序号
+     */
+    private static final class EncodedChunk {
+        
+        private byte[] data;
+        
+        private int length;
+        
+        private int events;
+        
+        /**
+         * 日志段，未开启有序写出时为null
+         */
+        private final List<Segment> segments;
+        
+        /**
+         * 尚未写出的日志段数，只由写出线程访问
+         */
+        private int unwritten;
+        
+        EncodedChunk(int capacity, boolean ordered) {
+            this.data = new byte[capacity];
+            this.segments = ordered ? new ArrayList<>() : null;
+        }
+        
+        boolean fits(int size) {
+            return length + size <= data.length;
+        }
+        
+        boolean isEmpty() {
+            return events == 0 && (segments == null || segments.isEmpty());
+        }
+        
+        /**
+         * 追加一行，单行超过字节块大小时扩容
+         * @param line 日志行
+         * @param sequence 入队序号
+         */
+        void append(LineBuffer line, long sequence) {
+            if (!fits(line.length())) {
+                data = Arrays.copyOf(data, length + line.length());
+            }
+            line.copyTo(data, length);
+            int start = length;
+            length += line.length();
+            events++;
+            if (segments == null) {
+                return;
+            }
+            Segment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (last != null && last.follows(sequence, start)) {
+                last.end = length;
+                last.events++;
+                last.lines++;
+            } else {
+                segments.add(new Segment(this, start, length, sequence, 1, 1));
+            }
+        }
+        
+        /**
+         * 记录编码失败的日志序号，作为不含字节的日志段交给写出端
+         * @param sequence 入队序号
+         */
+        void skip(long sequence) {
+            if (segments != null && sequence >= 0) {
+                segments.add(new Segment(this, length, length, sequence, 1, 0));
+            }
+        }
+        
+        void reset() {
+            length = 0;
+            events = 0;
+            unwritten = 0;
+            if (segments != null) {
+                segments.clear();
+            }
+        }
+    }
+    
+    /**
+     * 字节块中覆盖一段连续入队序号的日志段
+     */
+    private static final class Segment {
+        
+        private final EncodedChunk chunk;
+        
+        private final int start;
+        
+        private int end;
+        
+        private final long sequence;
+        
+        /**
+         * 覆盖的序号数
+         */
+        private int events;
+        
+        /**
+         * 包含的日志行数，编码失败的日志只占序号不占行
+         */
+        private int lines;
+        
+        Segment(EncodedChunk chunk, int start, int end, long sequence, int events, int lines) {
+            this.chunk = chunk;
+            this.start = start;
+            this.end = end;
+            this.sequence = sequence;
+            this.events = events;
+            this.lines = lines;
+        }
+        
+        /**
+         * 判断从start开始、序号为sequence的日志行能否接在本段之后
+         * @param sequence 入队序号
+         * @param start 字节起始位置
+         * @return 能接上返回true
+         */
+        boolean follows(long sequence, int start) {
+            if (end != start || lines != events) {
+                return false;
+            }
+            // 未分配序号的日志直接写出，彼此之间不需要连续
+            if (this.sequence < 0) {
+                return sequence < 0;
+            }
+            return sequence == this.sequence + events;
+        }
+    }
+}
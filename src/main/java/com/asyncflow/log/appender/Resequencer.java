@@ -0,0 +1,265 @@
+package com.asyncflow.log.appender;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 重排序缓冲区
+ * 按入队序号把乱序到达的日志段恢复为入队顺序：每个日志段覆盖一段连续序号，
+ * 只有从下一个期望序号开始的日志段才会释放，释放后接着释放紧随其后的日志段，即按连续区间整段释放。
+ * 等待缺失序号超过空洞超时时间，或缓冲的日志条数超过上限时，认为缺失的序号已丢失（如被溢出策略丢弃）并跳过；
+ * 跳过之后才到达的日志段直接释放。未分配序号（小于0）的日志段也直接释放。
+ * 已知被丢弃的序号通过{@link #skip(long, long, Consumer)}标记，按不含日志的日志段参与排序，不必等待空洞超时。
+ * 非线程安全，只由写出线程使用；统计值可以从其他线程读取。
+ * @param <T> 日志段类型
+ */
+public class Resequencer<T> {
+    
+    /**
+     * 按起始序号排序的待释放日志段
+     */
+    private final TreeMap<Long, Segment<T>> pending = new TreeMap<>();
+    
+    /**
+     * 空洞超时时间（纳秒）
+     */
+    private final long gapTimeoutNanos;
+    
+    /**
+     * 缓冲日志条数上限
+     */
+    private final int maxPendingEvents;
+    
+    /**
+     * 下一个期望的序号
+     */
+    private volatile long nextSequence;
+    
+    /**
+     * 缓冲中的日志条数
+     */
+    private volatile int pendingEvents;
+    
+    /**
+     * 正在等待的序号，用于判断空洞是否变化
+     */
+    private long waitingFor = -1L;
+    
+    /**
+     * 开始等待的时间
+     */
+    private long waitingSince;
+    
+    /**
+     * 按顺序释放的日志条数
+     */
+    private volatile long releasedCount;
+    
+    /**
+     * 跳过的序号数
+     */
+    private volatile long skippedCount;
+    
+    /**
+     * 跳过之后才到达的日志条数
+     */
+    private volatile long lateCount;
+    
+    /**
+     * 标记为丢弃的序号数
+     */
+    private volatile long droppedCount;
+    
+    /**
+     * 构造函数
+     * @param gapTimeoutMillis 空洞超时时间（毫秒）
+     * @param maxPendingEvents 缓冲日志条数上限
+     */
+    public Resequencer(long gapTimeoutMillis, int maxPendingEvents) {
+        if (gapTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("空洞超时时间必须大于0: " + gapTimeoutMillis);
+        }
+        if (maxPendingEvents <= 0) {
+            throw new IllegalArgumentException("缓冲日志条数上限必须大于0: " + maxPendingEvents);
+        }
+        this.gapTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(gapTimeoutMillis);
+        this.maxPendingEvents = maxPendingEvents;
+    }
+    
+    /**
+     * 放入一个日志段，并释放已连续的日志段
+     * @param sequence 起始序号
+     * @param events 覆盖的序号数
+     * @param item 日志段
+     * @param now 当前时间（纳秒）
+     * @param sink 释放的日志段按顺序交给该回调
+     */
+    public void offer(long sequence, int events, T item, long now, Consumer<T> sink) {
+        if (sequence < 0) {
+            sink.accept(item);
+            return;
+        }
+        if (sequence < nextSequence) {
+            // 所在序号已被跳过
+            lateCount += events;
+            sink.accept(item);
+            return;
+        }
+        pending.put(sequence, new Segment<>(events, item));
+        pendingEvents += events;
+        release(now, sink);
+    }
+    
+    /**
+     * 标记一个已丢弃的序号，相当于放入一个不含日志的日志段，并释放已连续的日志段
+     * 序号已被跳过或已在缓冲中时忽略
+     * @param sequence 被丢弃的序号
+     * @param now 当前时间（纳秒）
+     * @param sink 释放的日志段按顺序交给该回调，丢弃标记本身不交给回调
+     */
+    public void skip(long sequence, long now, Consumer<T> sink) {
+        if (sequence < nextSequence || isBuffered(sequence)) {
+            return;
+        }
+        pending.put(sequence, new Segment<>(1, null));
+        pendingEvents++;
+        release(now, sink);
+    }
+    
+    /**
+     * 释放已连续的日志段，缺失序号超时或缓冲超过上限时跳过空洞
+     * 写出线程在没有新日志段时也应定期调用，使超时的空洞得到处理
+     * @param now 当前时间（纳秒）
+     * @param sink 释放的日志段按顺序交给该回调
+     */
+    public void release(long now, Consumer<T> sink) {
+        releaseContiguous(sink);
+        while (!pending.isEmpty()) {
+            if (waitingFor != nextSequence) {
+                waitingFor = nextSequence;
+                waitingSince = now;
+            }
+            if (now - waitingSince < gapTimeoutNanos && pendingEvents <= maxPendingEvents) {
+                return;
+            }
+            long first = pending.firstKey();
+            skippedCount += first - nextSequence;
+            nextSequence = first;
+            releaseContiguous(sink);
+        }
+    }
+    
+    /**
+     * 按序号顺序释放全部缓冲的日志段，跳过所有空洞，关闭时调用
+     * @param sink 释放的日志段按顺序交给该回调
+     */
+    public void flush(Consumer<T> sink) {
+        while (!pending.isEmpty()) {
+            long first = pending.firstKey();
+            skippedCount += first - nextSequence;
+            nextSequence = first;
+            releaseContiguous(sink);
+        }
+    }
+    
+    /**
+     * 计算距离当前空洞超时还有多久，写出线程据此决定等待新日志段的时间
+     * @param now 当前时间（纳秒）
+     * @return 纳秒，没有缓冲的日志段时返回Long.MAX_VALUE
+     */
+    public long nanosUntilGapTimeout(long now) {
+        if (pending.isEmpty()) {
+            return Long.MAX_VALUE;
+        }
+        if (waitingFor != nextSequence) {
+            return gapTimeoutNanos;
+        }
+        return Math.max(0L, waitingSince + gapTimeoutNanos - now);
+    }
+    
+    private void releaseContiguous(Consumer<T> sink) {
+        Map.Entry<Long, Segment<T>> head;
+        while ((head = pending.firstEntry()) != null && head.getKey() == nextSequence) {
+            pending.pollFirstEntry();
+            Segment<T> segment = head.getValue();
+            nextSequence += segment.events;
+            pendingEvents -= segment.events;
+            if (segment.item == null) {
+                droppedCount += segment.events;
+                continue;
+            }
+            releasedCount += segment.events;
+            sink.accept(segment.item);
+        }
+    }
+    
+    private boolean isBuffered(long sequence) {
+        Map.Entry<Long, Segment<T>> floor = pending.floorEntry(sequence);
+        return floor != null && floor.getKey() + floor.getValue().events > sequence;
+    }
+    
+    /**
+     * 获取下一个期望的序号
+     * @return 序号
+     */
+    public long getNextSequence() {
+        return nextSequence;
+    }
+    
+    /**
+     * 获取缓冲中的日志条数
+     * @return 日志条数
+     */
+    public int getPendingEvents() {
+        return pendingEvents;
+    }
+    
+    /**
+     * 获取按顺序释放的日志条数
+     * @return 日志条数
+     */
+    public long getReleasedCount() {
+        return releasedCount;
+    }
+    
+    /**
+     * 获取跳过的序号数
+     * @return 序号数
+     */
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+    
+    /**
+     * 获取跳过之后才到达的日志条数
+     * @return 日志条数
+     */
+    public long getLateCount() {
+        return lateCount;
+    }
+    
+    /**
+     * 获取标记为丢弃的序号数
+     * @return 序号数
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+    
+    /**
+     * 待释放的日志段，丢弃标记的item为null
+     */
+    private static final class Segment<T> {
+        
+        private final int events;
+        
+        private final T item;
+        
+        Segment(int events, T item) {
+            this.events = events;
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,494 @@
+package com.asyncflow.log.appender;
+
+import com.asyncflow.log.consumer.PartialBatchException;
+import com.asyncflow.log.model.event.LogEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 分片文件日志写入器
+ * 消费循环开始时通过{@link #registerConsumerThread()}为消费线程认领一个分片，此后该线程只写自己的分片文件
+ * （如async-log-2026-10-17.part-0.log），写入路径上没有写入器级别的锁，多个消费者线程不再在同一把锁上排队。
+ * 只有登记的消费线程才会认领分片，其他线程（如线程池拒绝任务时由提交线程执行、同步降级写入）写入加锁的共享分片，
+ * 偶尔写入一次的线程不会长期占用分片。分片数量有上限，超出上限的消费线程同样写入共享分片；
+ * 消费线程注销或退出后，分片可以被新的消费线程重新认领。
+ * 每天的分片文件名记录在清单文件（如async-log-2026-10-17.manifest）中，
+ * 读取方通过{@link ShardedLogMerger}按时间戳合并为一条逻辑日志流。
+ * 每个分片的输出流只由持有线程写入，其内部锁不存在竞争；刷新和关闭可以在其他线程上进行。
+ */
+@Slf4j
+public class ShardedFileAppender extends AbstractLogAppender {
+    
+    /**
+     * 分片文件类型标识
+     */
+    private static final String SHARDED_TYPE = "sharded-file";
+    
+    /**
+     * 默认分片数量
+     */
+    public static final int DEFAULT_SHARD_COUNT = 4;
+    
+    /**
+     * 日期格式
+     */
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    
+    /**
+     * 写出缓冲区大小
+     */
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+    
+    /**
+     * 清单文件扩展名
+     */
+    private static final String MANIFEST_EXTENSION = ".manifest";
+    
+    /**
+     * 文件路径
+     */
+    private final String filePath;
+    
+    /**
+     * 文件名模式
+     */
+    private final String fileNamePattern;
+    
+    /**
+     * 可认领的分片，最后一个元素是加锁的共享分片
+     */
+    private final Shard[] shards;
+    
+    /**
+     * 当前消费线程认领的分片，未登记或未认领到分片的线程为null
+     */
+    private final ThreadLocal<Shard> currentShard = new ThreadLocal<>();
+    
+    /**
+     * 清单锁，只在分片打开新文件时使用
+     */
+    private final ReentrantLock manifestLock = new ReentrantLock();
+    
+    /**
+     * 清单对应的日期
+     */
+    private LocalDate manifestDate;
+    
+    /**
+     * 清单中的分片文件名
+     */
+    private final TreeSet<String> manifestParts = new TreeSet<>();
+    
+    /**
+     * 写入共享分片的事件数
+     */
+    private final LongAdder sharedWriteCount = new LongAdder();
+    
+    /**
+     * 是否自动刷新
+     */
+    private boolean autoFlush = false;
+    
+    /**
+     * 带参数的构造函数
+     * @param name 写入器名称
+     * @param filePath 文件路径
+     * @param fileNamePattern 文件名模式，%s为日期
+     * @param shardCount 可认领的分片数量
+     */
+    public ShardedFileAppender(String name, String filePath, String fileNamePattern, int shardCount) {
+        super(name, SHARDED_TYPE);
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("分片数量必须大于0: " + shardCount);
+        }
+        this.filePath = filePath;
+        this.fileNamePattern = fileNamePattern;
+        this.shards = new Shard[shardCount + 1];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard(i, i == shardCount);
+        }
+    }
+    
+    @Override
+    protected boolean doInitialize() {
+        try {
+            Path path = Paths.get(filePath);
+            if (!Files.exists(path)) {
+                Files.createDirectories(path);
+                log.info("创建日志目录: {}", filePath);
+            }
+            log.info("分片文件日志写入器初始化成功，目录: {}, 分片数量: {}", filePath, shards.length - 1);
+            return true;
+        } catch (IOException e) {
+            log.error("初始化分片文件日志写入器失败: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+    
+    @Override
+    protected void doClose() {
+        for (Shard shard : shards) {
+            shard.close();
+        }
+        log.info("关闭分片文件日志写入器: {}", filePath);
+    }
+    
+    @Override
+    protected boolean doAppend(LogEvent event) throws Exception {
+        Shard shard = acquireShard();
+        if (shard.shared) {
+            sharedWriteCount.increment();
+            shard.lock.lock();
+            try {
+                shard.write(event, LocalDate.now());
+                shard.finishWrite();
+            } finally {
+                shard.lock.unlock();
+            }
+        } else {
+            shard.write(event, LocalDate.now());
+            shard.finishWrite();
+        }
+        return true;
+    }
+    
+    @Override
+    protected int doAppendBatch(List<LogEvent> events) throws Exception {
+        Shard shard = acquireShard();
+        LocalDate today = LocalDate.now();
+        if (shard.shared) {
+            sharedWriteCount.add(events.size());
+            shard.lock.lock();
+            try {
+                return writeBatch(shard, events, today);
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return writeBatch(shard, events, today);
+    }
+    
+    private int writeBatch(Shard shard, List<LogEvent> events, LocalDate today) throws IOException {
+        int count = 0;
+        try {
+            for (LogEvent event : events) {
+                shard.write(event, today);
+                count++;
+            }
+        } catch (Exception e) {
+            throw new PartialBatchException(count, e);
+        }
+        shard.finishWrite();
+        return count;
+    }
+    
+    @Override
+    public void flush() {
+        if (!isInitialized()) {
+            return;
+        }
+        for (Shard shard : shards) {
+            shard.flush();
+        }
+    }
+    
+    /**
+     * 为当前消费线程认领一个分片
+     * 优先认领空闲分片或持有线程已退出的分片，都不可用时该线程使用共享分片
+     */
+    @Override
+    public void registerConsumerThread() {
+        Thread current = Thread.currentThread();
+        Shard shard = currentShard.get();
+        if (shard != null && shard.owner.get() == current) {
+            return;
+        }
+        for (int i = 0; i < shards.length - 1; i++) {
+            Shard candidate = shards[i];
+            Thread owner = candidate.owner.get();
+            // 线程退出或注销前的写入对认领分片的线程可见，分片可以安全地交给新线程
+            if ((owner == null || !owner.isAlive()) && candidate.owner.compareAndSet(owner, current)) {
+                currentShard.set(candidate);
+                log.debug("消费线程 {} 认领分片 {}", current.getName(), candidate.index);
+                return;
+            }
+        }
+        currentShard.remove();
+        log.debug("分片已全部被认领，消费线程 {} 使用共享分片", current.getName());
+    }
+    
+    /**
+     * 释放当前消费线程认领的分片，供其他消费线程认领
+     */
+    @Override
+    public void unregisterConsumerThread() {
+        Shard shard = currentShard.get();
+        currentShard.remove();
+        if (shard != null && shard.owner.compareAndSet(Thread.currentThread(), null)) {
+            log.debug("消费线程 {} 释放分片 {}", Thread.currentThread().getName(), shard.index);
+        }
+    }
+    
+    /**
+     * 获取当前线程写入的分片
+     * 登记的消费线程写入自己认领的分片，其他线程写入共享分片
+     * @return 分片
+     */
+    private Shard acquireShard() {
+        Shard shard = currentShard.get();
+        if (shard != null && shard.owner.get() == Thread.currentThread()) {
+            return shard;
+        }
+        return shards[shards.length - 1];
+    }
+    
+    /**
+     * 分片打开新文件时登记到当天的清单
+     * @param date 日期
+     * @param partFileName 分片文件名
+     */
+    private void registerPart(LocalDate date, String partFileName) throws IOException {
+        manifestLock.lock();
+        try {
+            if (!date.equals(manifestDate)) {
+                manifestDate = date;
+                manifestParts.clear();
+                Path existing = Paths.get(filePath, manifestFileName(date));
+                if (Files.exists(existing)) {
+                    // 重启后追加写入，保留此前登记的分片
+                    for (String part : Files.readAllLines(existing, StandardCharsets.UTF_8)) {
+                        if (!part.isEmpty()) {
+                            manifestParts.add(part);
+                        }
+                    }
+                }
+            }
+            if (manifestParts.add(partFileName)) {
+                writeManifest(date);
+            }
+        } finally {
+            manifestLock.unlock();
+        }
+    }
+    
+    /**
+     * 先写临时文件再替换，读取方不会看到写了一半的清单
+     */
+    private void writeManifest(LocalDate date) throws IOException {
+        Path manifest = Paths.get(filePath, manifestFileName(date));
+        Path temp = Paths.get(filePath, manifestFileName(date) + ".tmp");
+        Files.write(temp, String.join(System.lineSeparator(), manifestParts).getBytes(StandardCharsets.UTF_8));
+        try {
+            Files.move(temp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, manifest, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    /**
+     * 获取分片文件名
+     * 在文件名模式生成的文件名的扩展名之前插入".part-N"
+     * @param date 日期
+     * @param index 分片序号
+     * @return 分片文件名
+     */
+    public String partFileName(LocalDate date, int index) {
+        String base = String.format(fileNamePattern, date.format(DATE_FORMATTER));
+        int dot = base.lastIndexOf('.');
+        if (dot <= 0) {
+            return base + ".part-" + index;
+        }
+        return base.substring(0, dot) + ".part-" + index + base.substring(dot);
+    }
+    
+    /**
+     * 获取清单文件名
+     * @param date 日期
+     * @return 清单文件名
+     */
+    public String manifestFileName(LocalDate date) {
+        String base = String.format(fileNamePattern, date.format(DATE_FORMATTER));
+        int dot = base.lastIndexOf('.');
+        return (dot <= 0 ? base : base.substring(0, dot)) + MANIFEST_EXTENSION;
+    }
+    
+    /**
+     * 获取指定日期的清单文件
+     * @param date 日期
+     * @return 清单文件路径
+     */
+    public Path getManifestFile(LocalDate date) {
+        return Paths.get(filePath, manifestFileName(date));
+    }
+    
+    /**
+     * 获取可认领的分片数量
+     * @return 分片数量，不含共享分片
+     */
+    public int getShardCount() {
+        return shards.length - 1;
+    }
+    
+    /**
+     * 获取已被认领的分片数量
+     * @return 持有线程仍存活的分片数量
+     */
+    public int getClaimedShardCount() {
+        int count = 0;
+        for (int i = 0; i < shards.length - 1; i++) {
+            Thread owner = shards[i].owner.get();
+            if (owner != null && owner.isAlive()) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * 获取写入共享分片的事件数
+     * @return 事件数，持续增长说明分片数量少于写入线程数
+     */
+    public long getSharedWriteCount() {
+        return sharedWriteCount.sum();
+    }
+    
+    /**
+     * 获取文件路径
+     * @return 文件路径
+     */
+    public String getFilePath() {
+        return filePath;
+    }
+    
+    /**
+     * 获取文件名模式
+     * @return 文件名模式
+     */
+    public String getFileNamePattern() {
+        return fileNamePattern;
+    }
+    
+    /**
+     * 设置是否自动刷新
+     * @param autoFlush 是否自动刷新
+     */
+    public void setAutoFlush(boolean autoFlush) {
+        this.autoFlush = autoFlush;
+    }
+    
+    /**
+     * 获取是否自动刷新
+     * @return 是否自动刷新
+     */
+    public boolean isAutoFlush() {
+        return autoFlush;
+    }
+    
+    /**
+     * 分片
+     * 编码器和日期只由持有线程访问；输出流引用是volatile的，供其他线程刷新和关闭
+     */
+    private final class Shard {
+        
+        private final int index;
+        
+        private final boolean shared;
+        
+        /**
+         * 持有线程，共享分片不使用
+         */
+        private final AtomicReference<Thread> owner = new AtomicReference<>();
+        
+        /**
+         * 共享分片的写入锁
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+        
+        private final LogLineEncoder encoder = new LogLineEncoder();
+        
+        private LocalDate date;
+        
+        private volatile OutputStream out;
+        
+        Shard(int index, boolean shared) {
+            this.index = index;
+            this.shared = shared;
+        }
+        
+        void write(LogEvent event, LocalDate today) throws IOException {
+            if (!today.equals(date)) {
+                rotate(today);
+            }
+            encoder.encode(event).writeTo(out);
+        }
+        
+        void finishWrite() throws IOException {
+            if (autoFlush) {
+                out.flush();
+            }
+        }
+        
+        /**
+         * 打开当天的分片文件并登记到清单
+         */
+        private void rotate(LocalDate today) throws IOException {
+            OutputStream previous = out;
+            if (previous != null) {
+                previous.close();
+            }
+            String partFileName = partFileName(today, index);
+            Path file = Paths.get(filePath, partFileName);
+            date = today;
+            out = new BufferedOutputStream(new FileOutputStream(file.toFile(), true), OUTPUT_BUFFER_SIZE);
+            registerPart(today, partFileName);
+            log.info("打开分片日志文件: {}", file);
+        }
+        
+        void flush() {
+            OutputStream current = out;
+            if (current == null) {
+                return;
+            }
+            try {
+                current.flush();
+            } catch (IOException e) {
+                // 持有线程可能刚好轮转并关闭了旧文件
+                log.debug("刷新分片 {} 失败: {}", index, e.getMessage());
+            }
+        }
+        
+        void close() {
+            OutputStream current = out;
+            if (current == null) {
+                return;
+            }
+            try {
+                current.close();
+                log.info("关闭分片日志文件: {}", partFileName(date, index));
+            } catch (IOException e) {
+                log.error("关闭分片 {} 失败: {}", index, e.getMessage(), e);
+            } finally {
+                out = null;
+                date = null;
+                owner.set(null);
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.asyncflow.log.appender;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * 分片日志合并器
+ * 读取{@link ShardedFileAppender}生成的清单，按每条日志开头的时间戳把各分片归并为一条日志流。
+ * 以时间戳开头的行开始一条新日志，其余行（如异常调用栈）属于上一条日志。
+ * 同一分片内的日志保持写入顺序，时间戳相同的日志按分片在清单中的顺序输出。
+ */
+@Slf4j
+public final class ShardedLogMerger {
+    
+    /**
+     * 时间戳长度，格式为yyyy-MM-dd HH:mm:ss.SSS
+     */
+    private static final int TIMESTAMP_LENGTH = 23;
+    
+    private ShardedLogMerger() {
+    }
+    
+    /**
+     * 合并清单中的分片，写入目标文件
+     * @param manifest 清单文件
+     * @param target 目标文件，已存在时覆盖
+     * @return 合并的日志条数
+     * @throws IOException IO异常
+     */
+    public static long merge(Path manifest, Path target) throws IOException {
+        try (OutputStream out = Files.newOutputStream(target)) {
+            return merge(manifest, out);
+        }
+    }
+    
+    /**
+     * 合并清单中的分片，写入输出流
+     * 输出流不会被关闭
+     * @param manifest 清单文件
+     * @param out 输出流
+     * @return 合并的日志条数
+     * @throws IOException IO异常
+     */
+    public static long merge(Path manifest, OutputStream out) throws IOException {
+        List<String> parts = Files.readAllLines(manifest, StandardCharsets.UTF_8);
+        Path directory = manifest.toAbsolutePath().getParent();
+        List<Cursor> cursors = new ArrayList<>(parts.size());
+        PriorityQueue<Cursor> heads = new PriorityQueue<>();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long count = 0;
+        try {
+            for (String part : parts) {
+                if (part.isEmpty()) {
+                    continue;
+                }
+                Path file = directory.resolve(part);
+                if (!Files.exists(file)) {
+                    log.warn("清单中的分片文件不存在: {}", file);
+                    continue;
+                }
+                Cursor cursor = new Cursor(cursors.size(), Files.newBufferedReader(file, StandardCharsets.UTF_8));
+                cursors.add(cursor);
+                if (cursor.advance()) {
+                    heads.add(cursor);
+                }
+            }
+            while (!heads.isEmpty()) {
+                Cursor cursor = heads.poll();
+                for (String line : cursor.record) {
+                    writer.write(line);
+                    writer.write(System.lineSeparator());
+                }
+                count++;
+                if (cursor.advance()) {
+                    heads.add(cursor);
+                }
+            }
+            writer.flush();
+            return count;
+        } finally {
+            for (Cursor cursor : cursors) {
+                cursor.reader.close();
+            }
+        }
+    }
+    
+    /**
+     * 判断一行是否以时间戳开头
+     * @param line 行
+     * @return 以时间戳开头时返回true
+     */
+    static boolean isRecordStart(String line) {
+        return line.length() >= TIMESTAMP_LENGTH
+                && Character.isDigit(line.charAt(0))
+                && line.charAt(4) == '-'
+                && line.charAt(7) == '-'
+                && line.charAt(10) == ' '
+                && line.charAt(13) == ':'
+                && line.charAt(16) == ':'
+                && line.charAt(19) == '.';
+    }
+    
+    /**
+     * 分片读取游标，持有当前一条日志的全部行
+     */
+    private static final class Cursor implements Comparable<Cursor> {
+        
+        private final int order;
+        
+        private final BufferedReader reader;
+        
+        private final List<String> record = new ArrayList<>();
+        
+        private String timestamp;
+        
+        /**
+         * 已读出的下一条日志的首行
+         */
+        private String pending;
+        
+        Cursor(int order, BufferedReader reader) {
+            this.order = order;
+            this.reader = reader;
+        }
+        
+        /**
+         * 读取下一条日志
+         * @return 没有更多日志时返回false
+         */
+        boolean advance() throws IOException {
+            record.clear();
+            String first = pending != null ? pending : reader.readLine();
+            pending = null;
+            if (first == null) {
+                return false;
+            }
+            record.add(first);
+            timestamp = isRecordStart(first) ? first.substring(0, TIMESTAMP_LENGTH) : "";
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (isRecordStart(line)) {
+                    pending = line;
+                    break;
+                }
+                record.add(line);
+            }
+            return true;
+        }
+        
+        @Override
+        public int compareTo(Cursor other) {
+            int result = timestamp.compareTo(other.timestamp);
+            return result != 0 ? result : Integer.compare(order, other.order);
+        }
+    }
+}
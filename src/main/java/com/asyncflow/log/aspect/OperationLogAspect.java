@@ -3,6 +3,7 @@ package com.asyncflow.log.aspect;
 import com.asyncflow.log.annotation.OperationLog;
 import com.asyncflow.log.model.entity.OperationLogRecord;
 import com.asyncflow.log.service.OperationLogService;
+import com.asyncflow.log.symbol.SymbolTable;
 import com.asyncflow.log.util.JsonUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
@@ -20,6 +21,8 @@ import javax.servlet.http.HttpServletRequest;
 import java.lang.reflect.Method;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 操作日志切面
@@ -31,6 +34,11 @@ public class OperationLogAspect {
     
     private final OperationLogService operationLogService;
     
+    /**
+     * 方法全名缓存，避免每次调用都拼接"类名.方法名"
+     */
+    private final Map<Method, String> methodNames = new ConcurrentHashMap<>();
+    
     /**
      * 构造函数注入
      * @param operationLogService 操作日志服务
@@ -66,7 +74,7 @@ public class OperationLogAspect {
         // 准备日志记录对象
         OperationLogRecord logRecord = OperationLogRecord.builder()
                 .operationTime(LocalDateTime.now())
-                .method(method.getDeclaringClass().getName() + "." + method.getName())
+                .method(methodNameOf(method))
                 .build();
         
         // 设置请求相关信息
@@ -132,6 +140,17 @@ public class OperationLogAspect {
         return result;
     }
     
+    /**
+     * 获取方法全名
+     * 结果驻留在符号表中，同一方法的所有记录共享同一个字符串
+     * @param method 方法
+     * @return 类名.方法名
+     */
+    private String methodNameOf(Method method) {
+        return methodNames.computeIfAbsent(method, m -> 
+                SymbolTable.getDefault().internString(m.getDeclaringClass().getName() + "." + m.getName()));
+    }
+    
     /**
      * 获取请求IP地址
      */
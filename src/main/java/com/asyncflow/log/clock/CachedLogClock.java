@@ -0,0 +1,93 @@
+package com.asyncflow.log.clock;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 缓存时钟
+ * 由后台滴答线程按固定间隔刷新当前毫秒值，读取方只做一次volatile读。
+ * 时间戳精度为毫秒，最多落后一个刷新间隔，适合对时间精度要求不高但调用频繁的日志场景。
+ */
+@Slf4j
+public class CachedLogClock implements LogClock {
+    
+    /**
+     * 时钟名称
+     */
+    public static final String NAME = "cached";
+    
+    /**
+     * 当前时间（纪元纳秒，毫秒精度）
+     */
+    private volatile long currentNanos;
+    
+    /**
+     * 刷新间隔（纳秒）
+     */
+    private final long tickNanos;
+    
+    /**
+     * 滴答线程
+     */
+    private final Thread ticker;
+    
+    /**
+     * 是否运行中
+     */
+    private volatile boolean running = true;
+    
+    /**
+     * 构造函数
+     * @param tickMillis 刷新间隔（毫秒）
+     */
+    public CachedLogClock(long tickMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("时钟刷新间隔必须大于0: " + tickMillis);
+        }
+        this.tickNanos = tickMillis * 1_000_000L;
+        this.currentNanos = readSystemClock();
+        this.ticker = new Thread(this::tick, "async-log-clock");
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+        log.info("创建缓存时钟，刷新间隔: {}ms", tickMillis);
+    }
+    
+    @Override
+    public long epochNanos() {
+        return currentNanos;
+    }
+    
+    @Override
+    public String getName() {
+        return NAME;
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        ticker.interrupt();
+    }
+    
+    /**
+     * 是否运行中
+     * @return 滴答线程仍在刷新时返回true
+     */
+    public boolean isRunning() {
+        return running && ticker.isAlive();
+    }
+    
+    /**
+     * 滴答线程主循环
+     */
+    private void tick() {
+        while (running && !Thread.currentThread().isInterrupted()) {
+            currentNanos = readSystemClock();
+            LockSupport.parkNanos(tickNanos);
+        }
+    }
+    
+    private static long readSystemClock() {
+        return System.currentTimeMillis() * 1_000_000L;
+    }
+}
@@ -0,0 +1,26 @@
+package com.asyncflow.log.clock;
+
+/**
+ * 日志时钟接口
+ * 为日志事件提供纪元纳秒时间戳，不同实现在精度与开销之间取舍
+ */
+public interface LogClock {
+    
+    /**
+     * 获取当前时间
+     * @return 自1970-01-01T00:00:00Z起的纳秒数
+     */
+    long epochNanos();
+    
+    /**
+     * 获取时钟名称
+     * @return 时钟名称
+     */
+    String getName();
+    
+    /**
+     * 停止时钟，释放后台线程等资源
+     */
+    default void stop() {
+    }
+}
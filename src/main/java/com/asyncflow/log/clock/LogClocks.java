@@ -0,0 +1,98 @@
+package com.asyncflow.log.clock;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 日志时钟入口
+ * 持有全局的日志时钟，日志事件创建时通过{@link #epochNanos()}取得时间戳。
+ * 默认使用精确时钟，启动时可由配置替换为缓存时钟。
+ */
+@Slf4j
+public final class LogClocks {
+    
+    /**
+     * 每秒纳秒数
+     */
+    public static final long NANOS_PER_SECOND = 1_000_000_000L;
+    
+    /**
+     * 当前时钟
+     */
+    private static volatile LogClock clock = new PreciseLogClock();
+    
+    private LogClocks() {
+    }
+    
+    /**
+     * 获取当前时间
+     * @return 纪元纳秒
+     */
+    public static long epochNanos() {
+        return clock.epochNanos();
+    }
+    
+    /**
+     * 获取当前时钟
+     * @return 日志时钟
+     */
+    public static LogClock getClock() {
+        return clock;
+    }
+    
+    /**
+     * 替换时钟，被替换的时钟会被停止
+     * @param logClock 日志时钟
+     */
+    public static void setClock(LogClock logClock) {
+        if (logClock == null) {
+            throw new IllegalArgumentException("日志时钟不能为null");
+        }
+        LogClock previous = clock;
+        clock = logClock;
+        if (previous != logClock) {
+            previous.stop();
+        }
+        log.info("使用日志时钟: {}", logClock.getName());
+    }
+    
+    /**
+     * 根据名称创建时钟
+     * @param name 时钟名称：cached、precise
+     * @param tickMillis 缓存时钟的刷新间隔（毫秒）
+     * @return 日志时钟
+     */
+    public static LogClock create(String name, long tickMillis) {
+        if (CachedLogClock.NAME.equalsIgnoreCase(name)) {
+            return new CachedLogClock(tickMillis);
+        }
+        if (!PreciseLogClock.NAME.equalsIgnoreCase(name)) {
+            log.warn("未知的日志时钟: {}, 使用precise时钟", name);
+        }
+        return new PreciseLogClock();
+    }
+    
+    /**
+     * 将纪元纳秒转换为系统默认时区的本地时间
+     * @param epochNanos 纪元纳秒
+     * @return 本地时间
+     */
+    public static LocalDateTime toLocalDateTime(long epochNanos) {
+        Instant instant = Instant.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND),
+                Math.floorMod(epochNanos, NANOS_PER_SECOND));
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+    
+    /**
+     * 将系统默认时区的本地时间转换为纪元纳秒
+     * @param dateTime 本地时间
+     * @return 纪元纳秒
+     */
+    public static long toEpochNanos(LocalDateTime dateTime) {
+        Instant instant = dateTime.atZone(ZoneId.systemDefault()).toInstant();
+        return instant.getEpochSecond() * NANOS_PER_SECOND + instant.getNano();
+    }
+}
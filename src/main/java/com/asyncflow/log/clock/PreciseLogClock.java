@@ -0,0 +1,26 @@
+package com.asyncflow.log.clock;
+
+import java.time.Instant;
+
+/**
+ * 精确时钟
+ * 每次读取系统时钟，精度取决于操作系统（通常为微秒级）
+ */
+public class PreciseLogClock implements LogClock {
+    
+    /**
+     * 时钟名称
+     */
+    public static final String NAME = "precise";
+    
+    @Override
+    public long epochNanos() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+    
+    @Override
+    public String getName() {
+        return NAME;
+    }
+}
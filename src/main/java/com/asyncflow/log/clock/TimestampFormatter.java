@@ -0,0 +1,73 @@
+package com.asyncflow.log.clock;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 时间戳格式化器
+ * 按"yyyy-MM-dd HH:mm:ss.SSS"格式输出，同一秒内的事件复用缓存的秒级前缀，只拼接毫秒部分，
+ * 仅在跨秒时才经过DateTimeFormatter。缓存条目不可变，可在多线程间共享。
+ */
+public class TimestampFormatter {
+    
+    private static final DateTimeFormatter SECOND_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.");
+    
+    /**
+     * 最近一次格式化的秒及其前缀
+     */
+    private volatile CachedSecond cached = new CachedSecond(Long.MIN_VALUE, "");
+    
+    /**
+     * 将纪元纳秒格式化并追加到目标
+     * @param epochNanos 纪元纳秒
+     * @param target 目标
+     */
+    public void format(long epochNanos, StringBuilder target) {
+        long epochSecond = Math.floorDiv(epochNanos, LogClocks.NANOS_PER_SECOND);
+        int millis = (int) (Math.floorMod(epochNanos, LogClocks.NANOS_PER_SECOND) / 1_000_000L);
+        
+        CachedSecond current = cached;
+        if (current.epochSecond != epochSecond) {
+            String prefix = LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault())
+                    .format(SECOND_FORMATTER);
+            current = new CachedSecond(epochSecond, prefix);
+            cached = current;
+        }
+        target.append(current.prefix);
+        if (millis < 100) {
+            target.append('0');
+        }
+        if (millis < 10) {
+            target.append('0');
+        }
+        target.append(millis);
+    }
+    
+    /**
+     * 格式化纪元纳秒
+     * @param epochNanos 纪元纳秒
+     * @return 格式化后的时间戳
+     */
+    public String format(long epochNanos) {
+        StringBuilder sb = new StringBuilder(23);
+        format(epochNanos, sb);
+        return sb.toString();
+    }
+    
+    /**
+     * 缓存的秒级前缀
+     */
+    private static final class CachedSecond {
+        
+        private final long epochSecond;
+        
+        private final String prefix;
+        
+        private CachedSecond(long epochSecond, String prefix) {
+            this.epochSecond = epochSecond;
+            this.prefix = prefix;
+        }
+    }
+}
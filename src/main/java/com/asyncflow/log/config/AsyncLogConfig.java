@@ -24,12 +24,92 @@ public class AsyncLogConfig {
     @NotNull
     private AppenderConfig appender;
     
+    private ProducerConfig producer = new ProducerConfig();
+    
+    private EventConfig event = new EventConfig();
+    
+    private LevelConfig level = new LevelConfig();
+    
     @Data
     public static class QueueConfig {
         private String type = "linked";
         
         @Min(1000)
         private int capacity = 10000;
+        
+        private String waitStrategy = "blocking";
+        
+        @Min(0)
+        private int stripes = 0;
+        
+        @Min(1024)
+        private int offHeapBytes = 64 * 1024 * 1024;
+        
+        @Min(1024)
+        private long byteBudget = 32L * 1024 * 1024;
+        
+        private SpillConfig spill = new SpillConfig();
+        
+        private String overflowPolicy = "drop-newest";
+        
+        private OverflowConfig overflow = new OverflowConfig();
+    }
+    
+    @Data
+    public static class OverflowConfig {
+        @Min(0)
+        private long blockTimeout = 100;
+        
+        private double sampleRate = 0.1;
+    }
+    
+    @Data
+    public static class SpillConfig {
+        private boolean enabled = false;
+        
+        private String dir;
+        
+        @Min(1024)
+        private int segmentBytes = 64 * 1024 * 1024;
+        
+        @Min(0)
+        private long maxBytes = 1024L * 1024 * 1024;
+    }
+    
+    @Data
+    public static class ProducerConfig {
+        private ProducerBatchConfig batch = new ProducerBatchConfig();
+    }
+    
+    @Data
+    public static class ProducerBatchConfig {
+        private boolean enabled = false;
+        
+        @Min(1)
+        private int size = 64;
+        
+        @Min(1)
+        private long lingerMicros = 1000;
+    }
+    
+    @Data
+    public static class EventConfig {
+        private EventPoolConfig pool = new EventPoolConfig();
+    }
+    
+    @Data
+    public static class EventPoolConfig {
+        private boolean enabled = false;
+        
+        @Min(1)
+        private int size = 4096;
+    }
+    
+    @Data
+    public static class LevelConfig {
+        private String root = "DEBUG";
+        
+        private String categories = "";
     }
     
     @Data
@@ -0,0 +1,69 @@
+package com.asyncflow.log.config;
+
+import com.asyncflow.log.enums.LogLevel;
+import com.asyncflow.log.location.CallerLocator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 调用位置定位配置类
+ * 开启后未显式传入类名和方法名的日志会自动定位调用位置。
+ * 分类为逗号分隔的类名前缀列表，例如：com.example.order,com.example.pay；
+ * 跳过列表为业务封装的日志工具类或包（包以"."结尾），这些栈帧不作为调用位置
+ */
+@Slf4j
+@Configuration
+public class CallerLocationConfig {
+    
+    @Value("${async.log.location.level:DEBUG}")
+    private String level;
+    
+    @Value("${async.log.location.categories:}")
+    private String categories;
+    
+    @Value("${async.log.location.skip-prefixes:}")
+    private String skipPrefixes;
+    
+    /**
+     * 创建调用位置定位器
+     * 
+     * @return 调用位置定位器
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "async.log.location", name = "enabled", havingValue = "true")
+    public CallerLocator callerLocator() {
+        LogLevel threshold = LogLevel.fromCode(level != null ? level.trim() : null);
+        if (threshold == null) {
+            log.warn("未知的定位级别: {}, 使用DEBUG", level);
+            threshold = LogLevel.DEBUG;
+        }
+        List<String> categoryPrefixes = parsePrefixes(categories);
+        log.info("初始化调用位置定位器，级别阈值: {}, 分类: {}", threshold, categoryPrefixes);
+        return new CallerLocator(threshold, categoryPrefixes, parsePrefixes(skipPrefixes));
+    }
+    
+    /**
+     * 解析逗号分隔的前缀列表
+     * @param value 配置值
+     * @return 前缀列表
+     */
+    static List<String> parsePrefixes(String value) {
+        List<String> prefixes = new ArrayList<>();
+        if (value == null || value.trim().isEmpty()) {
+            return prefixes;
+        }
+        for (String item : value.split(",")) {
+            String prefix = item.trim();
+            if (!prefix.isEmpty()) {
+                prefixes.add(prefix);
+            }
+        }
+        return prefixes;
+    }
+}
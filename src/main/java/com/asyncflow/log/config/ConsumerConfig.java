@@ -2,10 +2,12 @@ package com.asyncflow.log.config;
 
 import com.asyncflow.log.consumer.ConsumerFactory;
 import com.asyncflow.log.consumer.ConsumerPool;
+import com.asyncflow.log.consumer.ConsumerScaler;
 import com.asyncflow.log.consumer.EventHandler;
 import com.asyncflow.log.queue.EventQueue;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -44,4 +46,18 @@ public class ConsumerConfig {
         
         return consumerPool;
     }
+    
+    /**
+     * 创建并注册消费者弹性伸缩控制器
+     * 仅在开启async.log.consumer.scaling.enabled时创建，由异步日志服务随消费者线程池启动
+     * 
+     * @param consumerPool 消费者线程池
+     * @return 弹性伸缩控制器
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(prefix = "async.log.consumer.scaling", name = "enabled", havingValue = "true")
+    public ConsumerScaler consumerScaler(ConsumerPool consumerPool) {
+        log.info("初始化消费者弹性伸缩控制器");
+        return consumerFactory.createConsumerScaler(consumerPool);
+    }
 } 
\ No newline at end of file
@@ -2,9 +2,10 @@ package com.asyncflow.log.config;
 
 import com.asyncflow.log.appender.AppenderFactory;
 import com.asyncflow.log.appender.LogAppender;
-import com.asyncflow.log.appender.LogEventHandler;
 import com.asyncflow.log.consumer.EventHandler;
+import com.asyncflow.log.queue.EventSequencer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -26,11 +27,12 @@ public class EventHandlerConfig {
     /**
      * 创建并注册事件处理器实例
      * 
+     * @param eventSequencer 事件序号分配器，开启有序写出时存在
      * @return 事件处理器实例
      */
     @Bean
-    public EventHandler eventHandler() {
+    public EventHandler eventHandler(ObjectProvider<EventSequencer> eventSequencer) {
         log.info("初始化事件处理器");
-        return new LogEventHandler(logAppender, appenderFactory.getBatchSize());
+        return appenderFactory.createEventHandler(logAppender, eventSequencer.getIfAvailable());
     }
 } 
\ No newline at end of file
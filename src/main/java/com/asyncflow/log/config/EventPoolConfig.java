@@ -0,0 +1,32 @@
+package com.asyncflow.log.config;
+
+import com.asyncflow.log.model.event.LogEventPool;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 日志事件对象池配置类
+ * 开启async.log.event.pool.enabled时注册对象池，日志事件工厂会从池中取出可复用事件
+ */
+@Slf4j
+@Configuration
+public class EventPoolConfig {
+    
+    @Value("${async.log.event.pool.size:4096}")
+    private int poolSize;
+    
+    /**
+     * 创建并注册日志事件对象池
+     * 
+     * @return 日志事件对象池
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "async.log.event.pool", name = "enabled", havingValue = "true")
+    public LogEventPool logEventPool() {
+        log.info("初始化日志事件对象池，容量: {}", poolSize);
+        return new LogEventPool(poolSize);
+    }
+}
@@ -0,0 +1,70 @@
+package com.asyncflow.log.config;
+
+import com.asyncflow.log.enums.LogLevel;
+import com.asyncflow.log.filter.LevelFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 日志级别过滤配置类
+ * 分类级别使用"前缀=级别"的逗号分隔列表配置，例如：com.asyncflow.log.queue=WARN,com.example=ERROR
+ */
+@Slf4j
+@Configuration
+public class LevelFilterConfig {
+    
+    @Value("${async.log.level.root:DEBUG}")
+    private String rootLevel;
+    
+    @Value("${async.log.level.categories:}")
+    private String categories;
+    
+    /**
+     * 创建日志级别过滤器
+     * 
+     * @return 日志级别过滤器
+     */
+    @Bean
+    public LevelFilter levelFilter() {
+        LogLevel root = LogLevel.fromCode(rootLevel != null ? rootLevel.trim() : null);
+        if (root == null) {
+            log.warn("未知的根日志级别: {}, 使用DEBUG", rootLevel);
+            root = LogLevel.DEBUG;
+        }
+        Map<String, LogLevel> levels = parseCategories(categories);
+        log.info("初始化日志级别过滤器，根级别: {}, 分类级别: {}", root, levels);
+        return new LevelFilter(root, levels);
+    }
+    
+    /**
+     * 解析分类级别配置
+     * @param value "前缀=级别"的逗号分隔列表
+     * @return 分类前缀到级别的映射
+     */
+    static Map<String, LogLevel> parseCategories(String value) {
+        Map<String, LogLevel> levels = new LinkedHashMap<>();
+        if (value == null || value.trim().isEmpty()) {
+            return levels;
+        }
+        for (String item : value.split(",")) {
+            int separator = item.indexOf('=');
+            if (separator <= 0) {
+                log.warn("忽略无效的分类级别配置: {}", item);
+                continue;
+            }
+            String category = item.substring(0, separator).trim();
+            LogLevel level = LogLevel.fromCode(item.substring(separator + 1).trim());
+            if (level == null) {
+                log.warn("忽略未知的日志级别: {}", item);
+                continue;
+            }
+            levels.put(category, level);
+        }
+        return levels;
+    }
+}
@@ -0,0 +1,36 @@
+package com.asyncflow.log.config;
+
+import com.asyncflow.log.clock.LogClock;
+import com.asyncflow.log.clock.LogClocks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 日志时钟配置类
+ * 根据配置创建日志时钟并设置为全局时钟
+ */
+@Slf4j
+@Configuration
+public class LogClockConfig {
+    
+    @Value("${async.log.clock.type:cached}")
+    private String clockType;
+    
+    @Value("${async.log.clock.tick-millis:1}")
+    private long tickMillis;
+    
+    /**
+     * 创建并注册日志时钟
+     * 
+     * @return 日志时钟
+     */
+    @Bean(destroyMethod = "stop")
+    public LogClock logClock() {
+        log.info("初始化日志时钟: {}, 刷新间隔: {}ms", clockType, tickMillis);
+        LogClock clock = LogClocks.create(clockType, tickMillis);
+        LogClocks.setClock(clock);
+        return clock;
+    }
+}
@@ -0,0 +1,36 @@
+package com.asyncflow.log.config;
+
+import com.asyncflow.log.id.LogIdGenerator;
+import com.asyncflow.log.id.LogIds;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 日志ID生成器配置类
+ * 根据配置创建日志ID生成器并设置为全局生成器
+ */
+@Slf4j
+@Configuration
+public class LogIdConfig {
+    
+    @Value("${async.log.id.generator:snowflake}")
+    private String generatorName;
+    
+    @Value("${async.log.id.node-id:-1}")
+    private long nodeId;
+    
+    /**
+     * 创建并注册日志ID生成器
+     * 
+     * @return 日志ID生成器
+     */
+    @Bean
+    public LogIdGenerator logIdGenerator() {
+        log.info("初始化日志ID生成器: {}, 节点号: {}", generatorName, nodeId);
+        LogIdGenerator generator = LogIds.create(generatorName, nodeId);
+        LogIds.setGenerator(generator);
+        return generator;
+    }
+}
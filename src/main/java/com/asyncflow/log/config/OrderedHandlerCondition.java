@@ -0,0 +1,23 @@
+package com.asyncflow.log.config;
+
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/**
+ * 有序写出条件
+ * async.log.handler.type为ordered（不区分大小写）时成立，与AppenderFactory选择事件处理器的判断一致，
+ * 保证事件序号分配器和有序写出的事件处理器同时启用
+ */
+public class OrderedHandlerCondition implements Condition {
+    
+    /**
+     * 事件处理器类型配置项
+     */
+    static final String HANDLER_TYPE_PROPERTY = "async.log.handler.type";
+    
+    @Override
+    public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        return "ordered".equalsIgnoreCase(context.getEnvironment().getProperty(HANDLER_TYPE_PROPERTY));
+    }
+}
@@ -1,10 +1,17 @@
 package com.asyncflow.log.config;
 
 import com.asyncflow.log.queue.EventQueue;
+import com.asyncflow.log.queue.EventSequencer;
+import com.asyncflow.log.queue.ProducerBatcher;
 import com.asyncflow.log.queue.QueueFactory;
+import com.asyncflow.log.queue.overflow.OverflowPolicy;
+import com.asyncflow.log.queue.overflow.OverflowPolicyFactory;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 
 /**
@@ -18,6 +25,9 @@ public class QueueConfig {
     @Autowired
     private QueueFactory queueFactory;
     
+    @Autowired
+    private OverflowPolicyFactory overflowPolicyFactory;
+    
     /**
      * 创建并注册事件队列实例
      * 
@@ -28,4 +38,48 @@ public class QueueConfig {
         log.info("初始化事件队列");
         return queueFactory.createQueue();
     }
-} 
\ No newline at end of file
+    
+    /**
+     * 创建并注册队列溢出策略
+     * 
+     * @param eventSequencer 事件序号分配器，开启有序写出时存在，丢弃事件时向其报告序号
+     * @return 溢出策略
+     */
+    @Bean
+    public OverflowPolicy overflowPolicy(ObjectProvider<EventSequencer> eventSequencer) {
+        log.info("初始化队列溢出策略");
+        return overflowPolicyFactory.createPolicy(eventSequencer.getIfAvailable());
+    }
+    
+    /**
+     * 创建并注册生产者端批量发布器
+     * 仅在开启async.log.producer.batch.enabled时创建
+     * 
+     * @param eventQueue 事件队列
+     * @param overflowPolicy 队列溢出策略
+     * @param eventSequencer 事件序号分配器，开启有序写出时存在
+     * @return 生产者端批量发布器
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(prefix = "async.log.producer.batch", name = "enabled", havingValue = "true")
+    public ProducerBatcher producerBatcher(EventQueue eventQueue, OverflowPolicy overflowPolicy,
+                                           ObjectProvider<EventSequencer> eventSequencer) {
+        log.info("初始化生产者端批量发布器");
+        ProducerBatcher batcher = queueFactory.createProducerBatcher(eventQueue, overflowPolicy);
+        batcher.setEventSequencer(eventSequencer.getIfAvailable());
+        return batcher;
+    }
+    
+    /**
+     * 创建并注册事件序号分配器
+     * 仅在async.log.handler.type为ordered（不区分大小写）时创建，入队前为事件分配序号，写出端据此恢复入队顺序
+     * 
+     * @return 事件序号分配器
+     */
+    @Bean
+    @Conditional(OrderedHandlerCondition.class)
+    public EventSequencer eventSequencer() {
+        log.info("初始化事件序号分配器");
+        return new EventSequencer();
+    }
+}
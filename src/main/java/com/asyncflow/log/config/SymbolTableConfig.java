@@ -0,0 +1,23 @@
+package com.asyncflow.log.config;
+
+import com.asyncflow.log.symbol.SymbolTable;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 符号表配置类
+ * 将全局符号表注册为Bean，供监控指标读取
+ */
+@Configuration
+public class SymbolTableConfig {
+    
+    /**
+     * 注册全局符号表
+     * 
+     * @return 全局符号表
+     */
+    @Bean
+    public SymbolTable symbolTable() {
+        return SymbolTable.getDefault();
+    }
+}
@@ -0,0 +1,35 @@
+package com.asyncflow.log.config;
+
+import com.asyncflow.log.model.event.ThrowableRenderer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 异常栈渲染配置类
+ * 根据配置创建异常栈渲染器并设置为全局渲染器
+ */
+@Slf4j
+@Configuration
+public class ThrowableRenderConfig {
+    
+    @Value("${async.log.exception.cache-size:1024}")
+    private int cacheSize;
+    
+    @Value("${async.log.exception.dedup:false}")
+    private boolean dedup;
+    
+    /**
+     * 创建并注册异常栈渲染器
+     * 
+     * @return 异常栈渲染器
+     */
+    @Bean
+    public ThrowableRenderer throwableRenderer() {
+        log.info("初始化异常栈渲染器，缓存大小: {}, 重复调用栈引用输出: {}", cacheSize, dedup);
+        ThrowableRenderer renderer = new ThrowableRenderer(cacheSize, dedup);
+        ThrowableRenderer.setDefault(renderer);
+        return renderer;
+    }
+}
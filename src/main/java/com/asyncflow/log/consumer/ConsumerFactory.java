@@ -12,6 +12,18 @@ import org.springframework.stereotype.Component;
 @Component
 public class ConsumerFactory {
     
+    /**
+     * 消费者类型：platform（平台线程池）或virtual（虚拟线程）
+     */
+    @Value("${async.log.consumer.type:platform}")
+    private String consumerType;
+    
+    /**
+     * 虚拟线程消费者数量（仅virtual类型使用）
+     */
+    @Value("${async.log.consumer.virtual-count:4}")
+    private int virtualCount;
+    
     /**
      * 核心线程数
      */
@@ -30,15 +42,78 @@ public class ConsumerFactory {
     @Value("${async.log.consumer.keep-alive:60}")
     private long keepAlive;
     
+    /**
+     * 每批最多处理的事件数量
+     */
+    @Value("${async.log.appender.batch-size:100}")
+    private int batchSize;
+    
+    /**
+     * 凑批的最长等待时间（毫秒）
+     */
+    @Value("${async.log.appender.flush-interval:1000}")
+    private long flushInterval;
+    
+    /**
+     * 弹性伸缩采样间隔（毫秒）
+     */
+    @Value("${async.log.consumer.scaling.sample-interval:1000}")
+    private long scalingSampleInterval;
+    
+    /**
+     * 队列使用率达到该值时倾向扩容
+     */
+    @Value("${async.log.consumer.scaling.scale-up-usage:0.5}")
+    private double scaleUpUsage;
+    
+    /**
+     * 队列使用率不超过该值时才允许缩容
+     */
+    @Value("${async.log.consumer.scaling.scale-down-usage:0.1}")
+    private double scaleDownUsage;
+    
+    /**
+     * 忙碌比例达到该值时倾向扩容
+     */
+    @Value("${async.log.consumer.scaling.scale-up-busy:0.8}")
+    private double scaleUpBusy;
+    
+    /**
+     * 忙碌比例不超过该值时才允许缩容
+     */
+    @Value("${async.log.consumer.scaling.scale-down-busy:0.3}")
+    private double scaleDownBusy;
+    
+    /**
+     * 扩容前需要连续满足条件的采样次数
+     */
+    @Value("${async.log.consumer.scaling.scale-up-samples:2}")
+    private int scaleUpSamples;
+    
+    /**
+     * 缩容前需要连续满足条件的采样次数
+     */
+    @Value("${async.log.consumer.scaling.scale-down-samples:10}")
+    private int scaleDownSamples;
+    
     /**
      * 创建默认消费者线程池
+     * 根据配置的消费者类型创建平台线程池或虚拟线程消费者
      * 
      * @return 消费者线程池
      */
     public ConsumerPool createConsumerPool() {
-        log.info("创建消费者线程池，核心线程数: {}, 最大线程数: {}, 存活时间: {}秒", 
-                coreSize, maxSize, keepAlive);
-        return new ThreadPoolConsumer(coreSize, maxSize, keepAlive);
+        if ("virtual".equalsIgnoreCase(consumerType)) {
+            return createVirtualConsumerPool(virtualCount, batchSize, flushInterval);
+        }
+        
+        if (!"platform".equalsIgnoreCase(consumerType)) {
+            log.warn("未知的消费者类型: {}, 使用默认的ThreadPoolConsumer", consumerType);
+        }
+        
+        log.info("创建消费者线程池，核心线程数: {}, 最大线程数: {}, 存活时间: {}秒, 批量大小: {}, 批量等待: {}ms", 
+                coreSize, maxSize, keepAlive, batchSize, flushInterval);
+        return new ThreadPoolConsumer(coreSize, maxSize, keepAlive, batchSize, flushInterval);
     }
     
     /**
@@ -55,6 +130,49 @@ public class ConsumerFactory {
         return new ThreadPoolConsumer(coreSize, maxSize, keepAlive);
     }
     
+    /**
+     * 创建虚拟线程消费者
+     * 
+     * @param consumerCount 消费者虚拟线程数
+     * @param batchSize 每批最多处理的事件数量
+     * @param flushInterval 凑批的最长等待时间（毫秒）
+     * @return 消费者线程池
+     */
+    public ConsumerPool createVirtualConsumerPool(int consumerCount, int batchSize, long flushInterval) {
+        log.info("创建虚拟线程消费者，消费者数量: {}, 批量大小: {}, 批量等待: {}ms", 
+                consumerCount, batchSize, flushInterval);
+        return new VirtualThreadConsumer(consumerCount, batchSize, flushInterval);
+    }
+    
+    /**
+     * 创建消费者弹性伸缩控制器
+     * 只支持平台线程池，消费循环数在核心线程数和最大线程数之间伸缩
+     * 
+     * @param consumerPool 消费者线程池
+     * @return 弹性伸缩控制器
+     */
+    public ConsumerScaler createConsumerScaler(ConsumerPool consumerPool) {
+        if (!(consumerPool instanceof ThreadPoolConsumer)) {
+            throw new IllegalStateException("弹性伸缩只支持platform类型的消费者: " + consumerType);
+        }
+        log.info("创建消费者弹性伸缩控制器，采样间隔: {}ms, 扩容阈值: 使用率{}/忙碌{}, 缩容阈值: 使用率{}/忙碌{}",
+                scalingSampleInterval, scaleUpUsage, scaleUpBusy, scaleDownUsage, scaleDownBusy);
+        ConsumerScaler scaler = new ConsumerScaler((ThreadPoolConsumer) consumerPool, scalingSampleInterval);
+        scaler.setUsageThresholds(scaleUpUsage, scaleDownUsage);
+        scaler.setBusyThresholds(scaleUpBusy, scaleDownBusy);
+        scaler.setSampleCounts(scaleUpSamples, scaleDownSamples);
+        return scaler;
+    }
+    
+    /**
+     * 获取配置的消费者类型
+     * 
+     * @return 消费者类型
+     */
+    public String getConsumerType() {
+        return consumerType;
+    }
+    
     /**
      * 获取配置的核心线程数
      * 
@@ -81,4 +199,22 @@ public class ConsumerFactory {
     public long getKeepAlive() {
         return keepAlive;
     }
+    
+    /**
+     * 获取配置的批量大小
+     * 
+     * @return 每批最多处理的事件数量
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    /**
+     * 获取配置的凑批等待时间
+     * 
+     * @return 凑批的最长等待时间（毫秒）
+     */
+    public long getFlushInterval() {
+        return flushInterval;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,299 @@
+package com.asyncflow.log.consumer;
+
+import com.asyncflow.log.queue.EventQueue;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 消费者弹性伸缩控制器
+ * 定期采样事件队列使用率和消费循环的忙碌比例（处理耗时占采样周期的比例），
+ * 在{@link ThreadPoolConsumer}的最少和最多消费循环数之间逐个增加或退役消费循环。
+ * 扩容和缩容使用不同的阈值，并要求连续多次采样都满足条件，两个阈值之间的区间不触发调整，
+ * 避免在阈值附近来回伸缩：突发流量很快扩容，流量回落后较慢地缩容。
+ */
+@Slf4j
+public class ConsumerScaler {
+    
+    /**
+     * 伸缩的消费者线程池
+     */
+    private final ThreadPoolConsumer consumerPool;
+    
+    /**
+     * 采样间隔（毫秒）
+     */
+    private final long sampleInterval;
+    
+    /**
+     * 队列使用率达到该值时倾向扩容
+     */
+    private double scaleUpUsage = 0.5;
+    
+    /**
+     * 队列使用率不超过该值时才允许缩容
+     */
+    private double scaleDownUsage = 0.1;
+    
+    /**
+     * 忙碌比例达到该值时倾向扩容
+     */
+    private double scaleUpBusy = 0.8;
+    
+    /**
+     * 忙碌比例不超过该值时才允许缩容
+     */
+    private double scaleDownBusy = 0.3;
+    
+    /**
+     * 扩容前需要连续满足条件的采样次数
+     */
+    private int scaleUpSamples = 2;
+    
+    /**
+     * 缩容前需要连续满足条件的采样次数
+     */
+    private int scaleDownSamples = 10;
+    
+    /**
+     * 运行状态
+     */
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    
+    /**
+     * 采样线程
+     */
+    private ScheduledExecutorService sampler;
+    
+    /**
+     * 连续满足扩容条件的次数
+     */
+    private int upStreak;
+    
+    /**
+     * 连续满足缩容条件的次数
+     */
+    private int downStreak;
+    
+    /**
+     * 上次采样时的累计忙碌时间
+     */
+    private long lastBusyNanos;
+    
+    /**
+     * 上次采样的时间
+     */
+    private long lastSampleNanos;
+    
+    /**
+     * 最近一次采样的队列使用率
+     */
+    private volatile double lastUsage;
+    
+    /**
+     * 最近一次采样的忙碌比例
+     */
+    private volatile double lastBusyRatio;
+    
+    /**
+     * 扩容次数
+     */
+    private final LongAdder scaleUpCount = new LongAdder();
+    
+    /**
+     * 缩容次数
+     */
+    private final LongAdder scaleDownCount = new LongAdder();
+    
+    /**
+     * 构造函数
+     * @param consumerPool 消费者线程池
+     * @param sampleInterval 采样间隔（毫秒）
+     */
+    public ConsumerScaler(ThreadPoolConsumer consumerPool, long sampleInterval) {
+        if (consumerPool == null) {
+            throw new IllegalArgumentException("消费者线程池不能为null");
+        }
+        if (sampleInterval <= 0) {
+            throw new IllegalArgumentException("采样间隔必须大于0: " + sampleInterval);
+        }
+        this.consumerPool = consumerPool;
+        this.sampleInterval = sampleInterval;
+    }
+    
+    /**
+     * 启动采样线程
+     */
+    public void start() {
+        if (scaleDownUsage > scaleUpUsage || scaleDownBusy > scaleUpBusy) {
+            throw new IllegalStateException("缩容阈值不能高于扩容阈值");
+        }
+        if (running.compareAndSet(false, true)) {
+            lastSampleNanos = System.nanoTime();
+            lastBusyNanos = consumerPool.getBusyNanos();
+            sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "async-log-consumer-scaler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sampler.scheduleWithFixedDelay(this::sampleSafely, sampleInterval, sampleInterval, TimeUnit.MILLISECONDS);
+            log.info("启动消费者弹性伸缩，消费循环数: {}-{}, 采样间隔: {}ms, 队列使用率阈值: {}/{}, 忙碌比例阈值: {}/{}",
+                    consumerPool.getMinConsumers(), consumerPool.getMaxConsumers(), sampleInterval,
+                    scaleDownUsage, scaleUpUsage, scaleDownBusy, scaleUpBusy);
+        }
+    }
+    
+    /**
+     * 停止采样线程，已增加的消费循环保持不变，随线程池一起关闭
+     */
+    public void shutdown() {
+        if (running.compareAndSet(true, false)) {
+            log.info("关闭消费者弹性伸缩");
+            sampler.shutdown();
+            try {
+                sampler.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    private void sampleSafely() {
+        try {
+            sample();
+        } catch (Exception e) {
+            log.error("消费者伸缩采样异常", e);
+        }
+    }
+    
+    /**
+     * 采样一次并按需调整消费循环数
+     * 由采样线程定期调用，不应并发调用
+     */
+    public void sample() {
+        long now = System.nanoTime();
+        long busy = consumerPool.getBusyNanos();
+        long elapsed = now - lastSampleNanos;
+        int consumers = Math.max(1, consumerPool.getConsumerCount());
+        double busyRatio = elapsed > 0 ? Math.min(1.0, (double) (busy - lastBusyNanos) / elapsed / consumers) : 0.0;
+        lastSampleNanos = now;
+        lastBusyNanos = busy;
+        
+        EventQueue queue = consumerPool.getEventQueue();
+        double usage = queue != null ? queue.getUsage() : 0.0;
+        lastUsage = usage;
+        lastBusyRatio = busyRatio;
+        
+        if (usage >= scaleUpUsage || busyRatio >= scaleUpBusy) {
+            downStreak = 0;
+            if (++upStreak >= scaleUpSamples) {
+                upStreak = 0;
+                if (consumerPool.addConsumer()) {
+                    scaleUpCount.increment();
+                    log.info("队列使用率 {}, 忙碌比例 {}, 扩容到 {} 个消费循环",
+                            format(usage), format(busyRatio), consumerPool.getTargetConsumerCount());
+                }
+            }
+        } else if (usage <= scaleDownUsage && busyRatio <= scaleDownBusy) {
+            upStreak = 0;
+            if (++downStreak >= scaleDownSamples) {
+                downStreak = 0;
+                if (consumerPool.retireConsumer()) {
+                    scaleDownCount.increment();
+                    log.info("队列使用率 {}, 忙碌比例 {}, 缩容到 {} 个消费循环",
+                            format(usage), format(busyRatio), consumerPool.getTargetConsumerCount());
+                }
+            }
+        } else {
+            // 处于两个阈值之间，保持当前规模
+            upStreak = 0;
+            downStreak = 0;
+        }
+    }
+    
+    private static String format(double value) {
+        return String.format("%.2f", value);
+    }
+    
+    /**
+     * 设置扩容和缩容的队列使用率阈值
+     * @param scaleUpUsage 使用率达到该值时倾向扩容
+     * @param scaleDownUsage 使用率不超过该值时才允许缩容
+     */
+    public void setUsageThresholds(double scaleUpUsage, double scaleDownUsage) {
+        this.scaleUpUsage = scaleUpUsage;
+        this.scaleDownUsage = scaleDownUsage;
+    }
+    
+    /**
+     * 设置扩容和缩容的忙碌比例阈值
+     * @param scaleUpBusy 忙碌比例达到该值时倾向扩容
+     * @param scaleDownBusy 忙碌比例不超过该值时才允许缩容
+     */
+    public void setBusyThresholds(double scaleUpBusy, double scaleDownBusy) {
+        this.scaleUpBusy = scaleUpBusy;
+        this.scaleDownBusy = scaleDownBusy;
+    }
+    
+    /**
+     * 设置触发伸缩需要的连续采样次数
+     * @param scaleUpSamples 扩容前连续满足条件的次数
+     * @param scaleDownSamples 缩容前连续满足条件的次数
+     */
+    public void setSampleCounts(int scaleUpSamples, int scaleDownSamples) {
+        this.scaleUpSamples = Math.max(1, scaleUpSamples);
+        this.scaleDownSamples = Math.max(1, scaleDownSamples);
+    }
+    
+    /**
+     * 获取最近一次采样的队列使用率
+     * @return 队列使用率
+     */
+    public double getLastUsage() {
+        return lastUsage;
+    }
+    
+    /**
+     * 获取最近一次采样的忙碌比例
+     * @return 忙碌比例
+     */
+    public double getLastBusyRatio() {
+        return lastBusyRatio;
+    }
+    
+    /**
+     * 获取扩容次数
+     * @return 扩容次数
+     */
+    public long getScaleUpCount() {
+        return scaleUpCount.sum();
+    }
+    
+    /**
+     * 获取缩容次数
+     * @return 缩容次数
+     */
+    public long getScaleDownCount() {
+        return scaleDownCount.sum();
+    }
+    
+    /**
+     * 获取伸缩的消费者线程池
+     * @return 消费者线程池
+     */
+    public ThreadPoolConsumer getConsumerPool() {
+        return consumerPool;
+    }
+    
+    /**
+     * 获取采样间隔
+     * @return 采样间隔（毫秒）
+     */
+    public long getSampleInterval() {
+        return sampleInterval;
+    }
+}
@@ -17,6 +17,8 @@ public interface EventHandler {
     
     /**
      * 批量处理日志事件
+     * 写出中途失败时应抛出{@link PartialBatchException}并带上已写出的事件数，
+     * 消费者只把剩余事件交给{@link #handleException}；抛出其他异常时整批视为未写出
      * @param events 日志事件列表
      * @return 成功处理的事件数量
      */
@@ -29,6 +31,19 @@ public interface EventHandler {
      */
     void handleException(LogEvent event, Throwable throwable);
     
+    /**
+     * 消费循环开始时在其所在线程上调用
+     * 处理器可以为消费线程分配专属资源，如分片写入器的独占分片；不经过消费循环写入的线程不会收到该通知
+     */
+    default void onConsumerStart() {
+    }
+    
+    /**
+     * 消费循环退出前在其所在线程上调用，释放{@link #onConsumerStart}分配的资源
+     */
+    default void onConsumerStop() {
+    }
+    
     /**
      * 初始化处理器
      */
@@ -0,0 +1,22 @@
+package com.asyncflow.log.consumer;
+
+import lombok.Getter;
+
+/**
+ * 批量处理部分失败异常
+ * 批量写出在中途失败时抛出，携带失败前已按顺序写出的事件数。
+ * 消费者据此只对尚未写出的事件调用{@link EventHandler#handleException}，已写出的日志不会重复写出。
+ */
+@Getter
+public class PartialBatchException extends RuntimeException {
+    
+    /**
+     * 失败前已写出的事件数，即批次中前handledCount个事件已写出
+     */
+    private final int handledCount;
+    
+    public PartialBatchException(int handledCount, Throwable cause) {
+        super("批量处理在第" + (handledCount + 1) + "个事件处失败: " + cause.getMessage(), cause);
+        this.handledCount = handledCount;
+    }
+}
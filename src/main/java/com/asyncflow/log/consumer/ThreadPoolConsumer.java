@@ -1,14 +1,21 @@
 package com.asyncflow.log.consumer;
 
 import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.PooledLogEvent;
 import com.asyncflow.log.queue.EventQueue;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 基于ThreadPoolExecutor的消费者线程池实现
+ * 启动时运行coreSize个消费循环，之后可以在coreSize和maxSize之间增加或退役消费循环，
+ * 由{@link ConsumerScaler}根据队列深度和消费者忙碌时间驱动。
+ * 每个消费循环独占一个线程，因此线程池按maxSize创建线程，退役后的空闲线程在存活时间后回收。
  */
 @Slf4j
 public class ThreadPoolConsumer implements ConsumerPool {
@@ -28,6 +35,16 @@ public class ThreadPoolConsumer implements ConsumerPool {
      */
     private static final long DEFAULT_KEEP_ALIVE = 60L;
     
+    /**
+     * 默认批量大小（逐条处理）
+     */
+    private static final int DEFAULT_BATCH_SIZE = 1;
+    
+    /**
+     * 默认批量等待时间（毫秒）
+     */
+    private static final long DEFAULT_FLUSH_INTERVAL = 1000L;
+    
     /**
      * 线程池
      */
@@ -43,6 +60,16 @@ public class ThreadPoolConsumer implements ConsumerPool {
      */
     private EventHandler eventHandler;
     
+    /**
+     * 每批最多处理的事件数量
+     */
+    private final int batchSize;
+    
+    /**
+     * 凑批的最长等待时间（毫秒）
+     */
+    private final long flushInterval;
+    
     /**
      * 消费者线程运行标志
      */
@@ -53,6 +80,31 @@ public class ThreadPoolConsumer implements ConsumerPool {
      */
     private final ConsumerTask consumerTask = new ConsumerTask();
     
+    /**
+     * 最少消费循环数
+     */
+    private final int minConsumers;
+    
+    /**
+     * 最多消费循环数
+     */
+    private final int maxConsumers;
+    
+    /**
+     * 运行中的消费循环数
+     */
+    private final AtomicInteger consumerCount = new AtomicInteger();
+    
+    /**
+     * 目标消费循环数，多出的循环在处理完当前批次后退出
+     */
+    private final AtomicInteger targetConsumers = new AtomicInteger();
+    
+    /**
+     * 消费循环处理事件的累计耗时（纳秒）
+     */
+    private final LongAdder busyNanos = new LongAdder();
+    
     /**
      * 默认构造函数
      */
@@ -68,9 +120,27 @@ public class ThreadPoolConsumer implements ConsumerPool {
      * @param keepAlive 线程存活时间（秒）
      */
     public ThreadPoolConsumer(int coreSize, int maxSize, long keepAlive) {
+        this(coreSize, maxSize, keepAlive, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL);
+    }
+    
+    /**
+     * 带批量参数的构造函数
+     * 
+     * @param coreSize 核心线程数
+     * @param maxSize 最大线程数
+     * @param keepAlive 线程存活时间（秒）
+     * @param batchSize 每批最多处理的事件数量
+     * @param flushInterval 凑批的最长等待时间（毫秒）
+     */
+    public ThreadPoolConsumer(int coreSize, int maxSize, long keepAlive, int batchSize, long flushInterval) {
+        this.batchSize = Math.max(1, batchSize);
+        this.flushInterval = Math.max(1L, flushInterval);
+        this.minConsumers = Math.max(1, coreSize);
+        this.maxConsumers = Math.max(this.minConsumers, maxSize);
+        // 任务队列无界时线程数不会超过核心线程数，因此按最大消费循环数设置核心线程数
         this.executor = new ThreadPoolExecutor(
-                coreSize,
-                maxSize,
+                maxConsumers,
+                maxConsumers,
                 keepAlive, 
                 TimeUnit.SECONDS,
                 new LinkedBlockingQueue<>(),
@@ -87,9 +157,12 @@ public class ThreadPoolConsumer implements ConsumerPool {
                 },
                 new ThreadPoolExecutor.CallerRunsPolicy()
         );
+        if (keepAlive > 0) {
+            executor.allowCoreThreadTimeOut(true);
+        }
         
-        log.info("创建ThreadPoolConsumer，核心线程数: {}, 最大线程数: {}, 存活时间: {}秒", 
-                coreSize, maxSize, keepAlive);
+        log.info("创建ThreadPoolConsumer，核心线程数: {}, 最大线程数: {}, 存活时间: {}秒, 批量大小: {}, 批量等待: {}ms", 
+                coreSize, maxSize, keepAlive, this.batchSize, this.flushInterval);
     }
     
     @Override
@@ -109,8 +182,10 @@ public class ThreadPoolConsumer implements ConsumerPool {
             eventHandler.initialize();
             
             // 提交消费者任务
-            for (int i = 0; i < executor.getCorePoolSize(); i++) {
-                executor.submit(consumerTask);
+            targetConsumers.set(minConsumers);
+            consumerCount.set(minConsumers);
+            for (int i = 0; i < minConsumers; i++) {
+                executor.execute(consumerTask);
             }
         } else {
             log.warn("消费者线程池已经启动");
@@ -219,26 +294,157 @@ public class ThreadPoolConsumer implements ConsumerPool {
         return executor.isTerminated();
     }
     
+    /**
+     * 增加一个消费循环
+     * @return 已达到最大消费循环数或线程池未运行时返回false
+     */
+    public boolean addConsumer() {
+        if (!running.get()) {
+            return false;
+        }
+        while (true) {
+            int target = targetConsumers.get();
+            if (target >= maxConsumers) {
+                return false;
+            }
+            if (targetConsumers.compareAndSet(target, target + 1)) {
+                break;
+            }
+        }
+        // 目标上调时可能还有等待退出的循环，让它继续运行即可，不需要新的线程
+        while (true) {
+            int live = consumerCount.get();
+            if (live >= targetConsumers.get()) {
+                return true;
+            }
+            if (consumerCount.compareAndSet(live, live + 1)) {
+                break;
+            }
+        }
+        try {
+            executor.execute(consumerTask);
+        } catch (RejectedExecutionException e) {
+            consumerCount.decrementAndGet();
+            targetConsumers.decrementAndGet();
+            return false;
+        }
+        log.info("增加消费循环，当前目标数: {}", targetConsumers.get());
+        return true;
+    }
+    
+    /**
+     * 退役一个消费循环
+     * 多出的循环在处理完当前批次后退出，线程在存活时间后回收
+     * @return 已达到最少消费循环数或线程池未运行时返回false
+     */
+    public boolean retireConsumer() {
+        if (!running.get()) {
+            return false;
+        }
+        while (true) {
+            int target = targetConsumers.get();
+            if (target <= minConsumers) {
+                return false;
+            }
+            if (targetConsumers.compareAndSet(target, target - 1)) {
+                log.info("退役消费循环，当前目标数: {}", target - 1);
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * 获取运行中的消费循环数
+     * @return 消费循环数
+     */
+    public int getConsumerCount() {
+        return consumerCount.get();
+    }
+    
+    /**
+     * 获取目标消费循环数
+     * @return 目标消费循环数
+     */
+    public int getTargetConsumerCount() {
+        return targetConsumers.get();
+    }
+    
+    /**
+     * 获取最少消费循环数
+     * @return 最少消费循环数
+     */
+    public int getMinConsumers() {
+        return minConsumers;
+    }
+    
+    /**
+     * 获取最多消费循环数
+     * @return 最多消费循环数
+     */
+    public int getMaxConsumers() {
+        return maxConsumers;
+    }
+    
+    /**
+     * 获取消费循环处理事件的累计耗时
+     * @return 累计耗时（纳秒）
+     */
+    public long getBusyNanos() {
+        return busyNanos.sum();
+    }
+    
+    /**
+     * 获取批量大小
+     * @return 每批最多处理的事件数量
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    /**
+     * 获取凑批等待时间
+     * @return 凑批的最长等待时间（毫秒）
+     */
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+    
     /**
      * 消费者任务
-     * 不断从队列中获取日志事件并处理
+     * 不断从队列中批量获取日志事件并处理，
+     * 每批最多batchSize个事件或等待flushInterval毫秒，只有一个事件时按单条处理
      */
     private class ConsumerTask implements Runnable {
         @Override
         public void run() {
             log.info("消费者线程启动: {}", Thread.currentThread().getName());
+            eventHandler.onConsumerStart();
             
+            boolean retired = false;
             while (running.get() && !Thread.currentThread().isInterrupted()) {
+                if (shouldRetire()) {
+                    retired = true;
+                    break;
+                }
                 try {
-                    // 从队列中获取日志事件
-                    LogEvent event = eventQueue.take();
+                    // 从队列中批量获取日志事件
+                    List<LogEvent> batch = eventQueue.drain(batchSize, flushInterval);
+                    if (batch.isEmpty()) {
+                        continue;
+                    }
                     
                     // 处理日志事件
-                    try {
-                        eventHandler.handle(event);
-                    } catch (Exception e) {
-                        log.error("处理日志事件异常", e);
-                        eventHandler.handleException(event, e);
+                    long start = System.nanoTime();
+                    if (batch.size() == 1) {
+                        handleEvent(batch.get(0));
+                    } else {
+                        handleBatch(batch);
+                    }
+                    busyNanos.add(System.nanoTime() - start);
+                    
+                    // 写出后归还可复用事件
+                    for (LogEvent event : batch) {
+                        PooledLogEvent.releaseIfPooled(event);
                     }
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
@@ -248,7 +454,57 @@ public class ThreadPoolConsumer implements ConsumerPool {
                 }
             }
             
+            eventHandler.onConsumerStop();
+            if (!retired) {
+                consumerCount.decrementAndGet();
+            }
             log.info("消费者线程退出: {}", Thread.currentThread().getName());
         }
+        
+        /**
+         * 运行中的循环多于目标数时，由当前循环退出
+         * @return 当前循环应退出时返回true
+         */
+        private boolean shouldRetire() {
+            while (true) {
+                int live = consumerCount.get();
+                if (live <= targetConsumers.get()) {
+                    return false;
+                }
+                if (consumerCount.compareAndSet(live, live - 1)) {
+                    return true;
+                }
+            }
+        }
+        
+        /**
+         * 处理单个日志事件
+         * @param event 日志事件
+         */
+        private void handleEvent(LogEvent event) {
+            try {
+                eventHandler.handle(event);
+            } catch (Exception e) {
+                log.error("处理日志事件异常", e);
+                eventHandler.handleException(event, e);
+            }
+        }
+        
+        /**
+         * 批量处理日志事件
+         * @param batch 日志事件列表
+         */
+        private void handleBatch(List<LogEvent> batch) {
+            try {
+                eventHandler.handleBatch(batch);
+            } catch (Exception e) {
+                // 部分写出时只处理尚未写出的事件，避免重复写出
+                int handled = e instanceof PartialBatchException ? ((PartialBatchException) e).getHandledCount() : 0;
+                log.error("批量处理日志事件异常，批量大小: {}，已写出: {}", batch.size(), handled, e);
+                for (int i = handled; i < batch.size(); i++) {
+                    eventHandler.handleException(batch.get(i), e);
+                }
+            }
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,405 @@
+package com.asyncflow.log.consumer;
+
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.PooledLogEvent;
+import com.asyncflow.log.queue.EventQueue;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 基于虚拟线程的消费者线程池实现
+ * 每个消费者是一个长期运行的虚拟线程，循环从队列批量取出事件交给处理器。
+ * 写入器阻塞在文件或网络I/O上时虚拟线程会让出载体线程，少量载体线程即可支撑较多消费者。
+ * 消费循环中只使用java.util.concurrent的锁和条件等待，不进入synchronized块，避免把虚拟线程钉在载体线程上；
+ * 写入器应遵循同样的约束（例如{@link com.asyncflow.log.appender.FileAppender}使用ReentrantLock）。
+ * 适合写入器以阻塞I/O为主、消费者数量远多于CPU核数的场景；CPU核数很少时虚拟线程调度本身的开销
+ * 会使尾延迟高于平台线程池，此时应继续使用默认的平台线程实现。
+ */
+@Slf4j
+public class VirtualThreadConsumer implements ConsumerPool {
+    
+    /**
+     * 默认消费者数量
+     */
+    private static final int DEFAULT_CONSUMER_COUNT = 4;
+    
+    /**
+     * 默认批量大小（逐条处理）
+     */
+    private static final int DEFAULT_BATCH_SIZE = 1;
+    
+    /**
+     * 默认批量等待时间（毫秒）
+     */
+    private static final long DEFAULT_FLUSH_INTERVAL = 1000L;
+    
+    /**
+     * 消费者线程名前缀
+     */
+    private static final String THREAD_NAME_PREFIX = "log-consumer-virtual-";
+    
+    /**
+     * 消费者数量
+     */
+    private final int consumerCount;
+    
+    /**
+     * 每批最多处理的事件数量
+     */
+    private final int batchSize;
+    
+    /**
+     * 凑批的最长等待时间（毫秒）
+     */
+    private final long flushInterval;
+    
+    /**
+     * 消费者虚拟线程
+     */
+    private final Thread[] consumers;
+    
+    /**
+     * 处理submit提交的单个事件，每个任务一个虚拟线程
+     */
+    private final ExecutorService taskExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    
+    /**
+     * 事件队列
+     */
+    private EventQueue eventQueue;
+    
+    /**
+     * 事件处理器
+     */
+    private EventHandler eventHandler;
+    
+    /**
+     * 消费者运行标志
+     */
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    
+    /**
+     * 是否已关闭
+     */
+    private volatile boolean shutdown;
+    
+    /**
+     * 正在处理事件的消费者和任务数
+     */
+    private final AtomicInteger activeCount = new AtomicInteger();
+    
+    /**
+     * 等待执行的submit任务数
+     */
+    private final AtomicInteger pendingTasks = new AtomicInteger();
+    
+    /**
+     * 已处理的批次和任务数
+     */
+    private final LongAdder completedCount = new LongAdder();
+    
+    /**
+     * 默认构造函数
+     */
+    public VirtualThreadConsumer() {
+        this(DEFAULT_CONSUMER_COUNT, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL);
+    }
+    
+    /**
+     * 带参数的构造函数
+     *
+     * @param consumerCount 消费者虚拟线程数
+     * @param batchSize 每批最多处理的事件数量
+     * @param flushInterval 凑批的最长等待时间（毫秒）
+     */
+    public VirtualThreadConsumer(int consumerCount, int batchSize, long flushInterval) {
+        if (consumerCount <= 0) {
+            throw new IllegalArgumentException("消费者数量必须大于0: " + consumerCount);
+        }
+        this.consumerCount = consumerCount;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushInterval = Math.max(1L, flushInterval);
+        this.consumers = new Thread[consumerCount];
+        
+        log.info("创建VirtualThreadConsumer，消费者数量: {}, 批量大小: {}, 批量等待: {}ms",
+                consumerCount, this.batchSize, this.flushInterval);
+    }
+    
+    @Override
+    public void start() {
+        if (eventQueue == null) {
+            throw new IllegalStateException("事件队列未设置");
+        }
+        
+        if (eventHandler == null) {
+            throw new IllegalStateException("事件处理器未设置");
+        }
+        
+        if (shutdown) {
+            throw new IllegalStateException("消费者线程池已关闭，不能重新启动");
+        }
+        
+        if (running.compareAndSet(false, true)) {
+            log.info("启动虚拟线程消费者");
+            
+            // 初始化事件处理器
+            eventHandler.initialize();
+            
+            Thread.Builder builder = Thread.ofVirtual().name(THREAD_NAME_PREFIX, 0);
+            for (int i = 0; i < consumerCount; i++) {
+                consumers[i] = builder.start(this::consume);
+            }
+        } else {
+            log.warn("虚拟线程消费者已经启动");
+        }
+    }
+    
+    @Override
+    public void shutdown() {
+        if (running.compareAndSet(true, false)) {
+            log.info("关闭虚拟线程消费者");
+            shutdown = true;
+            taskExecutor.shutdown();
+            
+            // 等待消费者处理完当前批次，最多等待一个凑批周期
+            awaitConsumers(flushInterval + 1000L);
+            closeHandler();
+        }
+    }
+    
+    @Override
+    public void shutdownNow() {
+        if (running.compareAndSet(true, false)) {
+            log.info("立即关闭虚拟线程消费者");
+            shutdown = true;
+            taskExecutor.shutdownNow();
+            for (Thread consumer : consumers) {
+                if (consumer != null) {
+                    consumer.interrupt();
+                }
+            }
+            closeHandler();
+        }
+    }
+    
+    @Override
+    public boolean submit(LogEvent event) {
+        if (!running.get()) {
+            log.warn("消费者线程池已关闭，无法提交任务");
+            return false;
+        }
+        
+        try {
+            pendingTasks.incrementAndGet();
+            taskExecutor.execute(() -> {
+                pendingTasks.decrementAndGet();
+                activeCount.incrementAndGet();
+                try {
+                    handleEvent(event);
+                    PooledLogEvent.releaseIfPooled(event);
+                } finally {
+                    activeCount.decrementAndGet();
+                    completedCount.increment();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            pendingTasks.decrementAndGet();
+            log.error("提交任务被拒绝", e);
+            return false;
+        }
+    }
+    
+    @Override
+    public void setEventQueue(EventQueue eventQueue) {
+        this.eventQueue = eventQueue;
+    }
+    
+    @Override
+    public EventQueue getEventQueue() {
+        return eventQueue;
+    }
+    
+    @Override
+    public void setEventHandler(EventHandler eventHandler) {
+        this.eventHandler = eventHandler;
+    }
+    
+    @Override
+    public EventHandler getEventHandler() {
+        return eventHandler;
+    }
+    
+    @Override
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+    
+    @Override
+    public int getQueueSize() {
+        return pendingTasks.get();
+    }
+    
+    @Override
+    public long getCompletedTaskCount() {
+        return completedCount.sum();
+    }
+    
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+    
+    @Override
+    public boolean isTerminated() {
+        if (!shutdown || !taskExecutor.isTerminated()) {
+            return false;
+        }
+        for (Thread consumer : consumers) {
+            if (consumer != null && consumer.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * 获取消费者数量
+     * @return 消费者虚拟线程数
+     */
+    public int getConsumerCount() {
+        return consumerCount;
+    }
+    
+    /**
+     * 获取批量大小
+     * @return 每批最多处理的事件数量
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    /**
+     * 获取凑批等待时间
+     * @return 凑批的最长等待时间（毫秒）
+     */
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+    
+    /**
+     * 消费循环
+     * 每批最多batchSize个事件或等待flushInterval毫秒，只有一个事件时按单条处理
+     */
+    private void consume() {
+        String name = Thread.currentThread().getName();
+        log.info("消费者虚拟线程启动: {}", name);
+        eventHandler.onConsumerStart();
+        
+        while (running.get() && !Thread.currentThread().isInterrupted()) {
+            try {
+                // 队列的条件等待基于LockSupport，等待期间虚拟线程会卸载
+                List<LogEvent> batch = eventQueue.drain(batchSize, flushInterval);
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                
+                activeCount.incrementAndGet();
+                try {
+                    if (batch.size() == 1) {
+                        handleEvent(batch.get(0));
+                    } else {
+                        handleBatch(batch);
+                    }
+                } finally {
+                    activeCount.decrementAndGet();
+                    completedCount.increment();
+                }
+                
+                // 写出后归还可复用事件
+                for (LogEvent event : batch) {
+                    PooledLogEvent.releaseIfPooled(event);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.info("消费者虚拟线程被中断: {}", name);
+            } catch (Exception e) {
+                log.error("消费者虚拟线程异常: {}", name, e);
+            }
+        }
+        
+        eventHandler.onConsumerStop();
+        log.info("消费者虚拟线程退出: {}", name);
+    }
+    
+    /**
+     * 处理单个日志事件
+     * @param event 日志事件
+     */
+    private void handleEvent(LogEvent event) {
+        try {
+            eventHandler.handle(event);
+        } catch (Exception e) {
+            log.error("处理日志事件异常", e);
+            eventHandler.handleException(event, e);
+        }
+    }
+    
+    /**
+     * 批量处理日志事件
+     * @param batch 日志事件列表
+     */
+    private void handleBatch(List<LogEvent> batch) {
+        try {
+            eventHandler.handleBatch(batch);
+        } catch (Exception e) {
+            // 部分写出时只处理尚未写出的事件，避免重复写出
+            int handled = e instanceof PartialBatchException ? ((PartialBatchException) e).getHandledCount() : 0;
+            log.error("批量处理日志事件异常，批量大小: {}，已写出: {}", batch.size(), handled, e);
+            for (int i = handled; i < batch.size(); i++) {
+                eventHandler.handleException(batch.get(i), e);
+            }
+        }
+    }
+    
+    /**
+     * 等待消费者退出
+     * @param timeoutMillis 最长等待时间（毫秒）
+     */
+    private void awaitConsumers(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            for (Thread consumer : consumers) {
+                long remaining = deadline - System.nanoTime();
+                if (consumer == null || remaining <= 0) {
+                    continue;
+                }
+                consumer.join(Duration.ofNanos(remaining));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * 关闭事件处理器
+     */
+    private void closeHandler() {
+        if (eventHandler != null) {
+            try {
+                eventHandler.close();
+            } catch (Exception e) {
+                log.error("关闭事件处理器异常", e);
+            }
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package com.asyncflow.log.controller;
 
 import com.asyncflow.log.consumer.ConsumerPool;
+import com.asyncflow.log.filter.LevelFilter;
 import com.asyncflow.log.monitor.AsyncLogMetrics;
 import com.asyncflow.log.queue.EventQueue;
+import com.asyncflow.log.queue.PriorityLaneEventQueue;
+import com.asyncflow.log.queue.SequencedEventQueue;
+import com.asyncflow.log.queue.SpillEventQueue;
+import com.asyncflow.log.queue.overflow.OverflowPolicy;
+import com.asyncflow.log.queue.wait.WaitStrategy;
 import com.asyncflow.log.service.AsyncLogService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,6 +43,12 @@ public class AsyncLogMonitorController {
     @Autowired(required = false)
     private AsyncLogMetrics asyncLogMetrics;
     
+    @Autowired(required = false)
+    private OverflowPolicy overflowPolicy;
+    
+    @Autowired(required = false)
+    private LevelFilter levelFilter;
+    
     /**
      * 获取系统状态
      * @return 包含系统状态信息的响应
@@ -53,7 +65,47 @@ public class AsyncLogMonitorController {
         Map<String, Object> queueStats = new HashMap<>();
         queueStats.put("size", eventQueue.size());
         queueStats.put("capacity", eventQueue.capacity());
-        queueStats.put("usage", String.format("%.2f%%", (double) eventQueue.size() / eventQueue.capacity() * 100));
+        queueStats.put("usage", String.format("%.2f%%", eventQueue.getUsage() * 100));
+        if (eventQueue instanceof SequencedEventQueue) {
+            WaitStrategy waitStrategy = ((SequencedEventQueue) eventQueue).getWaitStrategy();
+            Map<String, Object> waitStats = new HashMap<>();
+            waitStats.put("name", waitStrategy.getName());
+            waitStats.put("wakeup_count", waitStrategy.getWakeupCount());
+            waitStats.put("wakeup_latency_avg_us", String.format("%.2f", waitStrategy.getAverageWakeupLatencyNanos() / 1000));
+            waitStats.put("wakeup_latency_max_us", String.format("%.2f", waitStrategy.getMaxWakeupLatencyNanos() / 1000.0));
+            queueStats.put("wait_strategy", waitStats);
+        }
+        if (eventQueue instanceof PriorityLaneEventQueue) {
+            PriorityLaneEventQueue laneQueue = (PriorityLaneEventQueue) eventQueue;
+            Map<String, Object> laneStats = new HashMap<>();
+            for (String lane : PriorityLaneEventQueue.LANE_NAMES) {
+                Map<String, Object> stats = new HashMap<>();
+                stats.put("size", laneQueue.getLaneSize(lane));
+                stats.put("capacity", laneQueue.getLaneCapacity(lane));
+                stats.put("dropped", laneQueue.getLaneDroppedCount(lane));
+                laneStats.put(lane, stats);
+            }
+            queueStats.put("lanes", laneStats);
+        }
+        if (eventQueue instanceof SpillEventQueue) {
+            SpillEventQueue spillQueue = (SpillEventQueue) eventQueue;
+            Map<String, Object> spillStats = new HashMap<>();
+            spillStats.put("spilling", spillQueue.isSpilling());
+            spillStats.put("spilled_bytes", spillQueue.getSpilledBytes());
+            spillStats.put("spilled_events", spillQueue.getSpilledCount());
+            spillStats.put("backlog_events", spillQueue.getBacklogEvents());
+            spillStats.put("backlog_bytes", spillQueue.getBacklogBytes());
+            spillStats.put("replayed_events", spillQueue.getReplayedCount());
+            spillStats.put("corrupt_records", spillQueue.getCorruptCount());
+            spillStats.put("rejected_events", spillQueue.getRejectedCount());
+            spillStats.put("segments", spillQueue.getSegmentCount());
+            queueStats.put("spill", spillStats);
+        }
+        if (overflowPolicy != null) {
+            Map<String, Object> overflowStats = new HashMap<>(overflowPolicy.getCounters());
+            overflowStats.put("policy", overflowPolicy.getName());
+            queueStats.put("overflow", overflowStats);
+        }
         status.put("queue", queueStats);
         
         // 消费者状态
@@ -63,6 +115,16 @@ public class AsyncLogMonitorController {
         consumerStats.put("is_shutdown", consumerPool.isShutdown());
         status.put("consumer", consumerStats);
         
+        // 日志级别
+        if (levelFilter != null) {
+            Map<String, Object> levelStats = new HashMap<>();
+            levelStats.put("root", levelFilter.getRootLevel().getCode());
+            Map<String, String> categories = new HashMap<>();
+            levelFilter.getCategoryLevels().forEach((category, level) -> categories.put(category, level.getCode()));
+            levelStats.put("categories", categories);
+            status.put("level", levelStats);
+        }
+        
         return ResponseEntity.ok(status);
     }
     
@@ -0,0 +1,70 @@
+package com.asyncflow.log.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 日志级别
+ * 按严重程度从高到低声明，序号越小越严重，级别比较直接使用序号。
+ */
+@Getter
+@AllArgsConstructor
+public enum LogLevel {
+    
+    ERROR("ERROR", "错误"),
+    WARN("WARN", "警告"),
+    INFO("INFO", "信息"),
+    DEBUG("DEBUG", "调试");
+    
+    private final String code;
+    private final String desc;
+    
+    /**
+     * 在给定阈值下是否输出
+     * @param threshold 阈值级别
+     * @return 不低于阈值的严重程度时返回true
+     */
+    public boolean isEnabledFor(LogLevel threshold) {
+        return ordinal() <= threshold.ordinal();
+    }
+    
+    /**
+     * 根据级别代码查找级别，忽略大小写
+     * @param code 级别代码
+     * @return 日志级别，未知代码返回null
+     */
+    public static LogLevel fromCode(String code) {
+        if (code == null) {
+            return null;
+        }
+        switch (code) {
+            case "ERROR":
+                return ERROR;
+            case "WARN":
+                return WARN;
+            case "INFO":
+                return INFO;
+            case "DEBUG":
+                return DEBUG;
+            default:
+                break;
+        }
+        for (LogLevel level : values()) {
+            if (level.code.equalsIgnoreCase(code)) {
+                return level;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * 根据级别代码查找级别，未知代码返回默认级别
+     * @param code 级别代码
+     * @param defaultLevel 默认级别
+     * @return 日志级别
+     */
+    public static LogLevel fromCode(String code, LogLevel defaultLevel) {
+        LogLevel level = fromCode(code);
+        return level != null ? level : defaultLevel;
+    }
+}
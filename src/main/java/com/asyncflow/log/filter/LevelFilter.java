@@ -0,0 +1,229 @@
+package com.asyncflow.log.filter;
+
+import com.asyncflow.log.enums.LogLevel;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 日志级别过滤器
+ * 在创建事件和入队之前判断日志是否需要输出。阈值可按分类（通常为类名）前缀配置，
+ * 按"."分段取最长匹配的前缀，都不匹配时使用根级别。
+ * 配置保存在不可变快照中，修改时整体替换，读取方只需一次volatile读；
+ * 级别高于所有阈值或低于所有阈值时直接返回，不查前缀表。
+ * 分类的解析结果缓存在快照内，配置变更后随旧快照一起丢弃。
+ */
+@Slf4j
+public class LevelFilter {
+
+    /**
+     * 每个快照最多缓存的分类数，超过后不再缓存新分类
+     */
+    private static final int MAX_CACHED_CATEGORIES = 4096;
+
+    /**
+     * 当前配置快照
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * 构造函数
+     * @param rootLevel 根级别
+     */
+    public LevelFilter(LogLevel rootLevel) {
+        this(rootLevel, Collections.emptyMap());
+    }
+
+    /**
+     * 构造函数
+     * @param rootLevel 根级别
+     * @param categoryLevels 分类前缀对应的级别
+     */
+    public LevelFilter(LogLevel rootLevel, Map<String, LogLevel> categoryLevels) {
+        if (rootLevel == null) {
+            throw new IllegalArgumentException("根级别不能为null");
+        }
+        this.snapshot = new Snapshot(rootLevel, new LinkedHashMap<>(categoryLevels));
+    }
+
+    /**
+     * 判断指定级别在根级别下是否输出
+     * @param level 日志级别
+     * @return 需要输出时返回true
+     */
+    public boolean isEnabled(LogLevel level) {
+        return level.isEnabledFor(snapshot.rootLevel);
+    }
+
+    /**
+     * 判断指定级别在分类下是否输出
+     * @param level 日志级别
+     * @param category 分类，通常为类名，为null时使用根级别
+     * @return 需要输出时返回true
+     */
+    public boolean isEnabled(LogLevel level, String category) {
+        Snapshot current = snapshot;
+        int ordinal = level.ordinal();
+        if (ordinal > current.mostVerbose) {
+            return false;
+        }
+        if (ordinal <= current.leastVerbose) {
+            return true;
+        }
+        return level.isEnabledFor(current.resolve(category));
+    }
+
+    /**
+     * 判断指定级别是否输出取决于分类，即不能只凭根级别和各分类级别的范围得出结论
+     * 返回false时可以不定位调用方，直接按null分类判断
+     * @param level 日志级别
+     * @return 需要按分类判断时返回true
+     */
+    public boolean dependsOnCategory(LogLevel level) {
+        Snapshot current = snapshot;
+        int ordinal = level.ordinal();
+        return ordinal <= current.mostVerbose && ordinal > current.leastVerbose;
+    }
+
+    /**
+     * 判断字符串级别在分类下是否输出，未知级别按INFO处理
+     * @param level 日志级别代码
+     * @param category 分类
+     * @return 需要输出时返回true
+     */
+    public boolean isEnabled(String level, String category) {
+        return isEnabled(LogLevel.fromCode(level, LogLevel.INFO), category);
+    }
+
+    /**
+     * 获取分类的生效级别
+     * @param category 分类
+     * @return 生效级别
+     */
+    public LogLevel getEffectiveLevel(String category) {
+        return snapshot.resolve(category);
+    }
+
+    /**
+     * 获取根级别
+     * @return 根级别
+     */
+    public LogLevel getRootLevel() {
+        return snapshot.rootLevel;
+    }
+
+    /**
+     * 设置根级别
+     * @param level 根级别
+     */
+    public synchronized void setRootLevel(LogLevel level) {
+        if (level == null) {
+            throw new IllegalArgumentException("根级别不能为null");
+        }
+        snapshot = new Snapshot(level, snapshot.categoryLevels);
+        log.info("设置根日志级别: {}", level);
+    }
+
+    /**
+     * 设置分类级别
+     * @param category 分类前缀
+     * @param level 日志级别，为null时移除该分类
+     */
+    public synchronized void setLevel(String category, LogLevel level) {
+        if (category == null || category.isEmpty()) {
+            setRootLevel(level);
+            return;
+        }
+        Map<String, LogLevel> levels = new LinkedHashMap<>(snapshot.categoryLevels);
+        if (level == null) {
+            levels.remove(category);
+        } else {
+            levels.put(category, level);
+        }
+        snapshot = new Snapshot(snapshot.rootLevel, levels);
+        log.info("设置分类日志级别: {} -> {}", category, level);
+    }
+
+    /**
+     * 获取所有分类级别
+     * @return 分类前缀到级别的只读映射
+     */
+    public Map<String, LogLevel> getCategoryLevels() {
+        return Collections.unmodifiableMap(snapshot.categoryLevels);
+    }
+
+    /**
+     * 不可变的级别配置快照
+     */
+    private static final class Snapshot {
+
+        private final LogLevel rootLevel;
+
+        private final Map<String, LogLevel> categoryLevels;
+
+        /**
+         * 所有阈值中最宽松的序号，级别序号大于它时一定不输出
+         */
+        private final int mostVerbose;
+
+        /**
+         * 所有阈值中最严格的序号，级别序号不大于它时一定输出
+         */
+        private final int leastVerbose;
+
+        /**
+         * 分类解析结果缓存
+         */
+        private final ConcurrentHashMap<String, LogLevel> resolved = new ConcurrentHashMap<>();
+
+        Snapshot(LogLevel rootLevel, Map<String, LogLevel> categoryLevels) {
+            this.rootLevel = rootLevel;
+            this.categoryLevels = categoryLevels;
+            int most = rootLevel.ordinal();
+            int least = rootLevel.ordinal();
+            for (LogLevel level : categoryLevels.values()) {
+                most = Math.max(most, level.ordinal());
+                least = Math.min(least, level.ordinal());
+            }
+            this.mostVerbose = most;
+            this.leastVerbose = least;
+        }
+
+        /**
+         * 解析分类的生效级别
+         * @param category 分类
+         * @return 生效级别
+         */
+        LogLevel resolve(String category) {
+            if (category == null || categoryLevels.isEmpty()) {
+                return rootLevel;
+            }
+            LogLevel level = resolved.get(category);
+            if (level == null) {
+                level = longestMatch(category);
+                if (resolved.size() < MAX_CACHED_CATEGORIES) {
+                    resolved.put(category, level);
+                }
+            }
+            return level;
+        }
+
+        private LogLevel longestMatch(String category) {
+            String prefix = category;
+            while (true) {
+                LogLevel level = categoryLevels.get(prefix);
+                if (level != null) {
+                    return level;
+                }
+                int dot = prefix.lastIndexOf('.');
+                if (dot <= 0) {
+                    return rootLevel;
+                }
+                prefix = prefix.substring(0, dot);
+            }
+        }
+    }
+}
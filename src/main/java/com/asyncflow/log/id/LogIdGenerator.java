@@ -0,0 +1,20 @@
+package com.asyncflow.log.id;
+
+/**
+ * 日志ID生成器接口
+ * 为每个日志事件生成64位的long型ID
+ */
+public interface LogIdGenerator {
+    
+    /**
+     * 生成下一个ID
+     * @return 日志ID
+     */
+    long nextId();
+    
+    /**
+     * 获取生成器名称
+     * @return 生成器名称
+     */
+    String getName();
+}
@@ -0,0 +1,81 @@
+package com.asyncflow.log.id;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.InetAddress;
+
+/**
+ * 日志ID生成入口
+ * 持有全局的日志ID生成器，日志事件创建时通过{@link #nextId()}取得ID。
+ * 默认使用根据主机名和进程号推导节点号的Snowflake生成器，启动时可由配置替换。
+ */
+@Slf4j
+public final class LogIds {
+    
+    /**
+     * 当前生成器
+     */
+    private static volatile LogIdGenerator generator = new SnowflakeIdGenerator(defaultNodeId());
+    
+    private LogIds() {
+    }
+    
+    /**
+     * 生成下一个日志ID
+     * @return 日志ID
+     */
+    public static long nextId() {
+        return generator.nextId();
+    }
+    
+    /**
+     * 获取当前生成器
+     * @return 日志ID生成器
+     */
+    public static LogIdGenerator getGenerator() {
+        return generator;
+    }
+    
+    /**
+     * 替换生成器
+     * @param idGenerator 日志ID生成器
+     */
+    public static void setGenerator(LogIdGenerator idGenerator) {
+        if (idGenerator == null) {
+            throw new IllegalArgumentException("日志ID生成器不能为null");
+        }
+        generator = idGenerator;
+        log.info("使用日志ID生成器: {}", idGenerator.getName());
+    }
+    
+    /**
+     * 根据名称创建生成器
+     * @param name 生成器名称：snowflake、random
+     * @param nodeId 节点号，小于0时根据主机名和进程号推导
+     * @return 日志ID生成器
+     */
+    public static LogIdGenerator create(String name, long nodeId) {
+        if (RandomIdGenerator.NAME.equalsIgnoreCase(name)) {
+            return new RandomIdGenerator();
+        }
+        if (!SnowflakeIdGenerator.NAME.equalsIgnoreCase(name)) {
+            log.warn("未知的日志ID生成器: {}, 使用默认的snowflake生成器", name);
+        }
+        return new SnowflakeIdGenerator(nodeId >= 0 ? nodeId : defaultNodeId());
+    }
+    
+    /**
+     * 根据主机名和进程号推导节点号
+     * @return 节点号（0~1023）
+     */
+    public static long defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "localhost";
+        }
+        int hash = (host + "#" + ProcessHandle.current().pid()).hashCode();
+        return (hash ^ (hash >>> 16)) & SnowflakeIdGenerator.MAX_NODE_ID;
+    }
+}
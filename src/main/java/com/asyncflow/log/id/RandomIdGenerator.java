@@ -0,0 +1,25 @@
+package com.asyncflow.log.id;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 随机日志ID生成器
+ * 使用线程本地随机数生成非负long，不依赖SecureRandom，但ID不按时间排序
+ */
+public class RandomIdGenerator implements LogIdGenerator {
+    
+    /**
+     * 生成器名称
+     */
+    public static final String NAME = "random";
+    
+    @Override
+    public long nextId() {
+        return ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+    }
+    
+    @Override
+    public String getName() {
+        return NAME;
+    }
+}
@@ -0,0 +1,154 @@
+package com.asyncflow.log.id;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake风格的日志ID生成器
+ * ID布局（从高位到低位）：1位符号位（恒为0）、41位毫秒时间戳（相对2024-01-01）、10位节点号、12位序号。
+ * ID按时间递增，可以直接按ID范围定位某段时间内的日志。
+ * 每个线程一次通过CAS预留一小段序号，之后在线程本地分配，不加锁且多线程下几乎不竞争。
+ * 同一毫秒内序号用完时借用下一毫秒，系统时钟回拨时沿用上次的时间戳继续递增，不会阻塞等待。
+ */
+public class SnowflakeIdGenerator implements LogIdGenerator {
+    
+    /**
+     * 生成器名称
+     */
+    public static final String NAME = "snowflake";
+    
+    /**
+     * 起始时间（2024-01-01T00:00:00Z）
+     */
+    public static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    
+    /**
+     * 节点号位数
+     */
+    public static final int NODE_BITS = 10;
+    
+    /**
+     * 序号位数
+     */
+    public static final int SEQUENCE_BITS = 12;
+    
+    /**
+     * 最大节点号
+     */
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    
+    /**
+     * 每个线程一次预留的序号数
+     */
+    private static final int BLOCK_SIZE = 16;
+    
+    /**
+     * 每毫秒的序号数
+     */
+    private static final long SEQUENCES_PER_MILLI = 1L << SEQUENCE_BITS;
+    
+    /**
+     * 节点号
+     */
+    private final long nodeId;
+    
+    /**
+     * 全局分配状态：（相对毫秒 << 序号位数）| 已分配序号
+     */
+    private final AtomicLong state = new AtomicLong(0);
+    
+    /**
+     * 线程本地预留的序号段：[下一个状态值, 段结束状态值, 预留时的毫秒]
+     */
+    private final ThreadLocal<long[]> block = ThreadLocal.withInitial(() -> new long[3]);
+    
+    /**
+     * 构造函数
+     * @param nodeId 节点号（0~1023）
+     */
+    public SnowflakeIdGenerator(long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("节点号必须在0到" + MAX_NODE_ID + "之间: " + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+    
+    @Override
+    public long nextId() {
+        long[] local = block.get();
+        long millis = currentMillis();
+        // 跨毫秒后丢弃旧段，避免低频线程输出过期的时间戳
+        if (local[0] >= local[1] || local[2] != millis) {
+            reserve(local, millis);
+        }
+        long value = local[0]++;
+        return ((value >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS))
+                | (nodeId << SEQUENCE_BITS)
+                | (value & (SEQUENCES_PER_MILLI - 1));
+    }
+    
+    @Override
+    public String getName() {
+        return NAME;
+    }
+    
+    /**
+     * 获取节点号
+     * @return 节点号
+     */
+    public long getNodeId() {
+        return nodeId;
+    }
+    
+    /**
+     * 从ID中解析生成时间
+     * @param id 日志ID
+     * @return 毫秒时间戳
+     */
+    public static long extractTimestamp(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+    
+    /**
+     * 生成指定时间的最小ID，可用于按时间范围查询
+     * @param epochMillis 毫秒时间戳
+     * @return 该毫秒内可能出现的最小ID
+     */
+    public static long minIdAt(long epochMillis) {
+        return (epochMillis - EPOCH_MILLIS) << (NODE_BITS + SEQUENCE_BITS);
+    }
+    
+    /**
+     * 通过CAS从全局状态预留一段序号
+     * @param local 线程本地序号段
+     * @param millis 当前相对毫秒
+     */
+    private void reserve(long[] local, long millis) {
+        while (true) {
+            long current = state.get();
+            long start = Math.max(current, millis << SEQUENCE_BITS);
+            long sequence = start & (SEQUENCES_PER_MILLI - 1);
+            long end;
+            if (sequence + BLOCK_SIZE <= SEQUENCES_PER_MILLI) {
+                end = start + BLOCK_SIZE;
+            } else {
+                // 本毫秒剩余序号不足一段，只取剩余部分
+                end = (start | (SEQUENCES_PER_MILLI - 1)) + 1;
+            }
+            if (state.compareAndSet(current, end)) {
+                local[0] = start;
+                local[1] = end;
+                local[2] = millis;
+                return;
+            }
+        }
+    }
+    
+    /**
+     * 获取相对起始时间的当前毫秒
+     * @return 相对毫秒
+     */
+    private static long currentMillis() {
+        return System.currentTimeMillis() - EPOCH_MILLIS;
+    }
+}
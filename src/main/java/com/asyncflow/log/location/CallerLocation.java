@@ -0,0 +1,62 @@
+package com.asyncflow.log.location;
+
+/**
+ * 调用位置
+ * 类名和方法名已驻留在符号表中，同一调用方法的所有事件共享同一个实例
+ */
+public final class CallerLocation {
+    
+    /**
+     * 类名
+     */
+    private final String className;
+    
+    /**
+     * 方法名
+     */
+    private final String methodName;
+    
+    /**
+     * 是否在定位器的分类范围内
+     */
+    private final boolean included;
+    
+    CallerLocation(String className, String methodName) {
+        this(className, methodName, true);
+    }
+    
+    CallerLocation(String className, String methodName, boolean included) {
+        this.className = className;
+        this.methodName = methodName;
+        this.included = included;
+    }
+    
+    /**
+     * 获取类名
+     * @return 类名
+     */
+    public String getClassName() {
+        return className;
+    }
+    
+    /**
+     * 获取方法名
+     * @return 方法名
+     */
+    public String getMethodName() {
+        return methodName;
+    }
+    
+    /**
+     * 判断是否在定位器的分类范围内
+     * @return 在分类范围内时返回true
+     */
+    boolean isIncluded() {
+        return included;
+    }
+    
+    @Override
+    public String toString() {
+        return className + "." + methodName;
+    }
+}
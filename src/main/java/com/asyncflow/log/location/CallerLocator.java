@@ -0,0 +1,276 @@
+package com.asyncflow.log.location;
+
+import com.asyncflow.log.enums.LogLevel;
+import com.asyncflow.log.symbol.SymbolTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * 调用位置定位器
+ * 使用{@link StackWalker}从当前线程栈顶向下查找第一个不属于日志门面的栈帧，作为日志的调用位置。
+ * 栈帧按需惰性获取，通常只需读取最上面一批栈帧，不会像{@link Throwable#getStackTrace()}那样复制整条调用栈。
+ * 定位结果按调用方法缓存，同一方法反复记录日志时只需遍历栈帧，不再驻留类名和方法名。
+ * 是否定位由级别阈值控制，在遍历栈帧之前判断；配置分类前缀后，只有这些类中的调用会附带位置。
+ */
+public class CallerLocator {
+    
+    /**
+     * 日志门面，这些类（及其内部类）和包中的栈帧会被跳过。以"."结尾的表示包，否则表示类
+     */
+    public static final List<String> FACADE_PREFIXES = Collections.unmodifiableList(Arrays.asList(
+            "com.asyncflow.log.service.AsyncLogService",
+            "com.asyncflow.log.service.impl.AsyncLogServiceImpl",
+            "com.asyncflow.log.AsyncLogServiceFactory",
+            "com.asyncflow.log.location.CallerLocator",
+            "org.springframework.aop."));
+    
+    /**
+     * 最多缓存的调用方法数，超过后不再缓存新方法
+     */
+    private static final int MAX_CACHED_SITES = 4096;
+    
+    /**
+     * 栈遍历器，不保留Class引用，默认隐藏反射帧
+     */
+    private final StackWalker walker = StackWalker.getInstance();
+    
+    /**
+     * 遍历函数，提前创建避免每次定位分配lambda
+     */
+    private final Function<Stream<StackWalker.StackFrame>, CallerLocation> finder = this::findCaller;
+    
+    /**
+     * 需要跳过的类或包
+     */
+    private final String[] skipPrefixes;
+    
+    /**
+     * 需要附带位置的类名前缀，为空时不限制
+     */
+    private final String[] categories;
+    
+    /**
+     * 定位的级别阈值，低于该级别的日志不遍历栈帧
+     */
+    private final LogLevel threshold;
+    
+    /**
+     * 类名驻留表
+     */
+    private final SymbolTable symbols;
+    
+    /**
+     * 调用位置缓存：类名 -> 方法名 -> 位置
+     */
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, CallerLocation>> sites = new ConcurrentHashMap<>();
+    
+    /**
+     * 已缓存的调用方法数
+     */
+    private final AtomicInteger siteCount = new AtomicInteger();
+    
+    /**
+     * 栈遍历次数
+     */
+    private final LongAdder walkCount = new LongAdder();
+    
+    /**
+     * 位置缓存命中次数
+     */
+    private final LongAdder hitCount = new LongAdder();
+    
+    /**
+     * 构造函数，对所有级别和所有类定位
+     */
+    public CallerLocator() {
+        this(LogLevel.DEBUG, Collections.emptyList(), Collections.emptyList());
+    }
+    
+    /**
+     * 构造函数
+     * @param threshold 定位的级别阈值
+     * @param categories 需要附带位置的类名前缀，为空时不限制
+     * @param extraSkipPrefixes 额外需要跳过的类或包，用于业务自己封装的日志工具类
+     */
+    public CallerLocator(LogLevel threshold, Collection<String> categories, Collection<String> extraSkipPrefixes) {
+        this(threshold, categories, extraSkipPrefixes, SymbolTable.getDefault());
+    }
+    
+    /**
+     * 构造函数
+     * @param threshold 定位的级别阈值
+     * @param categories 需要附带位置的类名前缀，为空时不限制
+     * @param extraSkipPrefixes 额外需要跳过的类或包
+     * @param symbols 类名和方法名的驻留表
+     */
+    public CallerLocator(LogLevel threshold, Collection<String> categories, Collection<String> extraSkipPrefixes,
+                         SymbolTable symbols) {
+        if (threshold == null) {
+            throw new IllegalArgumentException("定位级别阈值不能为null");
+        }
+        List<String> skip = new ArrayList<>(FACADE_PREFIXES);
+        skip.addAll(extraSkipPrefixes);
+        this.skipPrefixes = skip.toArray(new String[0]);
+        this.categories = categories.toArray(new String[0]);
+        this.threshold = threshold;
+        this.symbols = symbols;
+    }
+    
+    /**
+     * 判断指定级别的日志是否需要定位
+     * @param level 日志级别代码，未知级别按INFO处理
+     * @return 需要定位时返回true
+     */
+    public boolean isEnabled(String level) {
+        return LogLevel.fromCode(level, LogLevel.INFO).isEnabledFor(threshold);
+    }
+    
+    /**
+     * 定位当前线程的调用位置
+     * @param level 日志级别代码
+     * @return 调用位置，级别未开启、调用方不在分类范围内或找不到调用方时返回null
+     */
+    public CallerLocation locate(String level) {
+        if (!isEnabled(level)) {
+            return null;
+        }
+        return locate();
+    }
+    
+    /**
+     * 不判断级别，定位当前线程的调用位置
+     * @return 调用位置，调用方不在分类范围内或找不到调用方时返回null
+     */
+    public CallerLocation locate() {
+        walkCount.increment();
+        CallerLocation location = walker.walk(finder);
+        return location != null && location.isIncluded() ? location : null;
+    }
+    
+    /**
+     * 不判断级别和分类范围，定位当前线程的调用方，用于按调用方类名判断分类级别
+     * @return 调用位置，找不到调用方时返回null
+     */
+    public CallerLocation locateCaller() {
+        walkCount.increment();
+        return walker.walk(finder);
+    }
+    
+    /**
+     * 用已定位的调用方判断是否附带位置，不再遍历栈帧
+     * @param level 日志级别代码
+     * @param caller 由本定位器{@link #locateCaller()}定位的调用方
+     * @return 调用位置，级别未开启、调用方不在分类范围内或调用方为null时返回null
+     */
+    public CallerLocation locate(String level, CallerLocation caller) {
+        if (caller == null || !caller.isIncluded() || !isEnabled(level)) {
+            return null;
+        }
+        return caller;
+    }
+    
+    /**
+     * 获取栈遍历次数
+     * @return 遍历次数
+     */
+    public long getWalkCount() {
+        return walkCount.sum();
+    }
+    
+    /**
+     * 获取位置缓存命中率
+     * @return 命中率，没有遍历时返回0
+     */
+    public double getHitRate() {
+        long walks = walkCount.sum();
+        return walks == 0 ? 0.0 : (double) hitCount.sum() / walks;
+    }
+    
+    /**
+     * 获取已缓存的调用方法数
+     * @return 调用方法数
+     */
+    public int getCachedSiteCount() {
+        return siteCount.get();
+    }
+    
+    /**
+     * 获取定位的级别阈值
+     * @return 级别阈值
+     */
+    public LogLevel getThreshold() {
+        return threshold;
+    }
+    
+    private CallerLocation findCaller(Stream<StackWalker.StackFrame> frames) {
+        StackWalker.StackFrame frame = frames
+                .filter(candidate -> !isSkipped(candidate.getClassName()))
+                .findFirst()
+                .orElse(null);
+        return frame != null ? lookup(frame.getClassName(), frame.getMethodName()) : null;
+    }
+    
+    /**
+     * 查找或创建调用位置
+     * @param className 类名
+     * @param methodName 方法名
+     * @return 调用位置
+     */
+    private CallerLocation lookup(String className, String methodName) {
+        ConcurrentHashMap<String, CallerLocation> methods = sites.get(className);
+        if (methods != null) {
+            CallerLocation location = methods.get(methodName);
+            if (location != null) {
+                hitCount.increment();
+                return location;
+            }
+        }
+        CallerLocation location = new CallerLocation(symbols.internString(className),
+                symbols.internString(methodName), isIncluded(className));
+        if (siteCount.get() < MAX_CACHED_SITES) {
+            if (methods == null) {
+                methods = sites.computeIfAbsent(className, key -> new ConcurrentHashMap<>());
+            }
+            CallerLocation existing = methods.putIfAbsent(methodName, location);
+            if (existing != null) {
+                return existing;
+            }
+            siteCount.incrementAndGet();
+        }
+        return location;
+    }
+    
+    private boolean isSkipped(String className) {
+        for (String prefix : skipPrefixes) {
+            if (className.startsWith(prefix)
+                    && (className.length() == prefix.length()
+                    || prefix.endsWith(".")
+                    || className.charAt(prefix.length()) == '$')) {
+                return true;
+            }
+        }
+        // CGLIB代理类
+        return className.contains("$$");
+    }
+    
+    private boolean isIncluded(String className) {
+        if (categories.length == 0) {
+            return true;
+        }
+        for (String prefix : categories) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
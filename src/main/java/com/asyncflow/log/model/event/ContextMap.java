@@ -0,0 +1,343 @@
+package com.asyncflow.log.model.event;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * 紧凑的不可变上下文Map
+ * 键值交替存放在一个字符串数组中，适合日志上下文这类条目很少的场景：没有节点和桶数组，
+ * 查找按顺序比较，遍历不产生额外对象（使用{@link #forEach(BiConsumer)}时）。
+ * 修改通过{@link #with(String, String)}返回新实例，原实例可以在线程间安全共享。
+ * 键会被驻留，同名键在所有事件间共享同一个字符串对象。
+ */
+public final class ContextMap extends AbstractMap<String, String> {
+    
+    /**
+     * 共享的空实例
+     */
+    public static final ContextMap EMPTY = new ContextMap(new String[0]);
+    
+    /**
+     * 驻留表最多保存的键数量，超过后不再驻留新键
+     */
+    private static final int MAX_INTERNED_KEYS = 1024;
+    
+    /**
+     * 键驻留表
+     */
+    private static final ConcurrentHashMap<String, String> INTERNED_KEYS = new ConcurrentHashMap<>();
+    
+    /**
+     * 键值交替存放：[key0, value0, key1, value1, ...]
+     */
+    private final String[] entries;
+    
+    /**
+     * 条目视图，第一次访问时创建
+     */
+    private transient Set<Entry<String, String>> entrySet;
+    
+    private ContextMap(String[] entries) {
+        this.entries = entries;
+    }
+    
+    /**
+     * 从任意Map创建上下文，已是ContextMap时直接返回
+     * @param source 源Map，可以为null
+     * @return 上下文
+     */
+    public static ContextMap of(Map<String, String> source) {
+        if (source instanceof ContextMap) {
+            return (ContextMap) source;
+        }
+        if (source == null || source.isEmpty()) {
+            return EMPTY;
+        }
+        String[] entries = new String[source.size() * 2];
+        int index = 0;
+        for (Map.Entry<String, String> entry : source.entrySet()) {
+            if (index == entries.length) {
+                // 源Map在复制过程中被并发修改
+                break;
+            }
+            entries[index++] = intern(entry.getKey());
+            entries[index++] = entry.getValue();
+        }
+        if (index < entries.length) {
+            String[] trimmed = new String[index];
+            System.arraycopy(entries, 0, trimmed, 0, index);
+            entries = trimmed;
+        }
+        return new ContextMap(entries);
+    }
+    
+    /**
+     * 创建单条目的上下文
+     * @param key 键
+     * @param value 值
+     * @return 上下文
+     */
+    public static ContextMap of(String key, String value) {
+        return EMPTY.with(key, value);
+    }
+    
+    /**
+     * 创建上下文构建器
+     * @return 上下文构建器
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    /**
+     * 返回添加或替换一个条目后的新上下文
+     * @param key 键
+     * @param value 值
+     * @return 新上下文
+     */
+    public ContextMap with(String key, String value) {
+        int index = indexOf(key);
+        String[] copy;
+        if (index >= 0) {
+            copy = entries.clone();
+            copy[index + 1] = value;
+        } else {
+            copy = new String[entries.length + 2];
+            System.arraycopy(entries, 0, copy, 0, entries.length);
+            copy[entries.length] = intern(key);
+            copy[entries.length + 1] = value;
+        }
+        return new ContextMap(copy);
+    }
+    
+    /**
+     * 返回合并另一组上下文后的新上下文，同名键以参数为准
+     * @param other 另一组上下文
+     * @return 新上下文
+     */
+    public ContextMap withAll(Map<String, String> other) {
+        if (other == null || other.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return of(other);
+        }
+        ContextMap result = this;
+        for (Map.Entry<String, String> entry : other.entrySet()) {
+            result = result.with(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+    
+    /**
+     * 返回移除一个条目后的新上下文
+     * @param key 键
+     * @return 新上下文，不包含该键时返回当前实例
+     */
+    public ContextMap without(String key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return this;
+        }
+        if (entries.length == 2) {
+            return EMPTY;
+        }
+        String[] copy = new String[entries.length - 2];
+        System.arraycopy(entries, 0, copy, 0, index);
+        System.arraycopy(entries, index + 2, copy, index, entries.length - index - 2);
+        return new ContextMap(copy);
+    }
+    
+    @Override
+    public int size() {
+        return entries.length >> 1;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return entries.length == 0;
+    }
+    
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+    
+    @Override
+    public String get(Object key) {
+        int index = indexOf(key);
+        return index >= 0 ? entries[index + 1] : null;
+    }
+    
+    /**
+     * 依次处理每个条目，不创建条目对象
+     * @param action 处理函数
+     */
+    @Override
+    public void forEach(BiConsumer<? super String, ? super String> action) {
+        for (int i = 0; i < entries.length; i += 2) {
+            action.accept(entries[i], entries[i + 1]);
+        }
+    }
+    
+    /**
+     * 获取第index个条目的键
+     * @param index 条目下标
+     * @return 键
+     */
+    public String keyAt(int index) {
+        return entries[index << 1];
+    }
+    
+    /**
+     * 获取第index个条目的值
+     * @param index 条目下标
+     * @return 值
+     */
+    public String valueAt(int index) {
+        return entries[(index << 1) + 1];
+    }
+    
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        Set<Entry<String, String>> view = entrySet;
+        if (view == null) {
+            view = new EntrySet();
+            entrySet = view;
+        }
+        return view;
+    }
+    
+    /**
+     * 查找键所在的数组下标
+     * @param key 键
+     * @return 键的下标，不存在时返回-1
+     */
+    private int indexOf(Object key) {
+        if (key == null) {
+            return -1;
+        }
+        // 驻留的键先按引用比较，命中时不需要逐字符比较
+        for (int i = 0; i < entries.length; i += 2) {
+            if (entries[i] == key) {
+                return i;
+            }
+        }
+        for (int i = 0; i < entries.length; i += 2) {
+            if (entries[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * 驻留键
+     * @param key 键
+     * @return 驻留后的键
+     */
+    static String intern(String key) {
+        if (key == null) {
+            throw new IllegalArgumentException("上下文键不能为null");
+        }
+        String interned = INTERNED_KEYS.get(key);
+        if (interned != null) {
+            return interned;
+        }
+        if (INTERNED_KEYS.size() >= MAX_INTERNED_KEYS) {
+            return key;
+        }
+        interned = INTERNED_KEYS.putIfAbsent(key, key);
+        return interned != null ? interned : key;
+    }
+    
+    /**
+     * 上下文构建器
+     * 逐条添加后一次性生成上下文，避免每次添加都复制数组。构建器本身不是线程安全的。
+     */
+    public static final class Builder {
+        
+        private String[] entries = new String[8];
+        
+        private int length;
+        
+        private Builder() {
+        }
+        
+        /**
+         * 添加或替换一个条目
+         * @param key 键
+         * @param value 值
+         * @return 当前构建器
+         */
+        public Builder put(String key, String value) {
+            String interned = intern(key);
+            for (int i = 0; i < length; i += 2) {
+                if (entries[i] == interned || entries[i].equals(interned)) {
+                    entries[i + 1] = value;
+                    return this;
+                }
+            }
+            if (length == entries.length) {
+                String[] grown = new String[entries.length * 2];
+                System.arraycopy(entries, 0, grown, 0, length);
+                entries = grown;
+            }
+            entries[length++] = interned;
+            entries[length++] = value;
+            return this;
+        }
+        
+        /**
+         * 生成上下文，构建器之后仍可继续使用
+         * @return 上下文
+         */
+        public ContextMap build() {
+            if (length == 0) {
+                return EMPTY;
+            }
+            String[] copy = new String[length];
+            System.arraycopy(entries, 0, copy, 0, length);
+            return new ContextMap(copy);
+        }
+    }
+    
+    /**
+     * 条目视图
+     */
+    private final class EntrySet extends AbstractSet<Entry<String, String>> {
+        
+        @Override
+        public int size() {
+            return ContextMap.this.size();
+        }
+        
+        @Override
+        public Iterator<Entry<String, String>> iterator() {
+            return new Iterator<Entry<String, String>>() {
+                private int index;
+                
+                @Override
+                public boolean hasNext() {
+                    return index < entries.length;
+                }
+                
+                @Override
+                public Entry<String, String> next() {
+                    if (index >= entries.length) {
+                        throw new NoSuchElementException();
+                    }
+                    Entry<String, String> entry = new SimpleImmutableEntry<>(entries[index], entries[index + 1]);
+                    index += 2;
+                    return entry;
+                }
+            };
+        }
+    }
+}
@@ -11,10 +11,17 @@ public interface LogEvent {
     
     /**
      * 获取日志时间戳
+     * 由{@link #getEpochNanos()}按系统默认时区换算，只在需要时生成
      * @return 日志时间戳
      */
     LocalDateTime getTimestamp();
     
+    /**
+     * 获取日志时间戳（纪元纳秒）
+     * @return 自1970-01-01T00:00:00Z起的纳秒数，为0表示未设置
+     */
+    long getEpochNanos();
+    
     /**
      * 获取日志级别
      * @return 日志级别
@@ -57,9 +64,44 @@ public interface LogEvent {
      */
     String getException();
     
+    /**
+     * 获取类型化的结构化字段
+     * @return 结构化字段，没有时返回null
+     */
+    StructuredFields getFields();
+    
+    /**
+     * 获取尚未渲染的异常对象
+     * @return 异常对象，没有或已被异常信息覆盖时返回null
+     */
+    Throwable getThrowable();
+    
     /**
      * 获取日志ID
+     * 64位ID，默认按生成时间递增
+     * @return 日志ID
+     */
+    long getId();
+    
+    /**
+     * 获取日志ID的字符串形式
      * @return 日志ID
      */
     String getLogId();
-} 
\ No newline at end of file
+    
+    /**
+     * 获取入队序号
+     * 开启有序写出时在入队前分配，全局递增
+     * @return 入队序号，未分配时为-1
+     */
+    long getSequence();
+    
+    /**
+     * 估算事件在内存中保留的字节数
+     * 用于按字节预算限制队列，只需粗略但廉价的估算
+     * @return 估算字节数
+     */
+    default long estimateSize() {
+        return LogEventSizeEstimator.estimate(this);
+    }
+}
@@ -1,10 +1,16 @@
 package com.asyncflow.log.model.event;
 
+import com.asyncflow.log.clock.LogClocks;
+import com.asyncflow.log.id.LogIds;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 /**
  * 日志事件数据传输对象
@@ -13,24 +19,154 @@ import java.util.UUID;
 @Data
 public class LogEventDTO implements LogEvent {
     
+    /**
+     * 未渲染异常对象的估算保留字节数
+     */
+    private static final long THROWABLE_OVERHEAD = 512;
+    
+    private long id;
+    
+    /**
+     * 日志ID的字符串形式，第一次读取时由id生成
+     */
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private String logId;
+    
+    /**
+     * 入队序号，为-1表示未分配
+     */
+    @EqualsAndHashCode.Exclude
+    private long sequence = -1L;
+    
+    /**
+     * 时间戳（纪元纳秒），为0表示未设置
+     */
+    private long epochNanos;
+    
+    /**
+     * 时间戳的本地时间形式，第一次读取时由epochNanos生成
+     */
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private LocalDateTime timestamp;
     private String level;
     private String message;
-    private Map<String, String> context;
+    
+    /**
+     * 尚未渲染的参数化消息，第一次读取消息时渲染
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private ParameterizedMessage pendingMessage;
+    
+    /**
+     * 上下文信息，总是不可变的紧凑Map
+     */
+    private ContextMap context;
+    
+    /**
+     * 类型化的结构化字段，没有字段时为null
+     */
+    @Setter(AccessLevel.NONE)
+    private StructuredFields fields;
     private String threadName;
     private String className;
     private String methodName;
+    
+    /**
+     * 异常信息，携带异常对象时第一次读取才渲染
+     */
     private String exception;
     
+    /**
+     * 尚未渲染的异常对象，调用栈在第一次读取异常信息时渲染
+     */
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Throwable throwable;
+    
     /**
      * 默认构造函数
      * 自动生成日志ID和时间戳
      */
     public LogEventDTO() {
-        this.logId = UUID.randomUUID().toString();
-        this.timestamp = LocalDateTime.now();
-        this.context = new HashMap<>();
+        this.id = LogIds.nextId();
+        this.epochNanos = LogClocks.epochNanos();
+        this.context = ContextMap.EMPTY;
+    }
+    
+    /**
+     * 指定日志ID、时间戳和上下文的构造函数
+     * 不生成默认值，供可复用的事件在每次复用时自行填充
+     * @param id 日志ID
+     * @param epochNanos 时间戳（纪元纳秒）
+     * @param context 上下文信息
+     */
+    protected LogEventDTO(long id, long epochNanos, Map<String, String> context) {
+        this.id = id;
+        this.epochNanos = epochNanos;
+        this.context = ContextMap.of(context);
+    }
+    
+    /**
+     * 设置日志ID
+     * @param id 日志ID
+     */
+    public void setId(long id) {
+        this.id = id;
+        this.logId = null;
+    }
+    
+    /**
+     * 获取日志ID的字符串形式
+     * @return 日志ID
+     */
+    @Override
+    public String getLogId() {
+        String value = logId;
+        if (value == null) {
+            value = Long.toString(id);
+            logId = value;
+        }
+        return value;
+    }
+    
+    /**
+     * 设置时间戳
+     * @param epochNanos 纪元纳秒，为0表示未设置
+     */
+    public void setEpochNanos(long epochNanos) {
+        this.epochNanos = epochNanos;
+        this.timestamp = null;
+    }
+    
+    /**
+     * 获取时间戳的本地时间形式
+     * @return 系统默认时区的本地时间，未设置时返回null
+     */
+    @Override
+    public LocalDateTime getTimestamp() {
+        LocalDateTime value = timestamp;
+        if (value == null && epochNanos != 0) {
+            value = LogClocks.toLocalDateTime(epochNanos);
+            timestamp = value;
+        }
+        return value;
+    }
+    
+    /**
+     * 以本地时间设置时间戳
+     * @param timestamp 系统默认时区的本地时间，为null表示未设置
+     */
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.epochNanos = timestamp != null ? LogClocks.toEpochNanos(timestamp) : 0L;
+        this.timestamp = timestamp;
     }
     
     /**
@@ -52,7 +188,7 @@ public class LogEventDTO implements LogEvent {
      */
     public LogEventDTO(String level, String message, Map<String, String> context) {
         this(level, message);
-        this.context = context;
+        this.context = ContextMap.of(context);
     }
     
     /**
@@ -62,20 +198,223 @@ public class LogEventDTO implements LogEvent {
      * @return 当前对象
      */
     public LogEventDTO addContext(String key, String value) {
-        this.context.put(key, value);
+        this.context = context.with(key, value);
+        return this;
+    }
+    
+    /**
+     * 设置上下文信息
+     * 普通Map会被复制为不可变的紧凑Map，调用方之后对原Map的修改不会影响事件
+     * @param context 上下文信息，为null时使用空上下文
+     */
+    public void setContext(Map<String, String> context) {
+        this.context = ContextMap.of(context);
+    }
+    
+    /**
+     * 添加long类型的结构化字段
+     * @param name 字段名
+     * @param value 值
+     * @return 当前对象
+     */
+    public LogEventDTO withField(String name, long value) {
+        mutableFields().add(name, value);
+        return this;
+    }
+    
+    /**
+     * 添加double类型的结构化字段
+     * @param name 字段名
+     * @param value 值
+     * @return 当前对象
+     */
+    public LogEventDTO withField(String name, double value) {
+        mutableFields().add(name, value);
+        return this;
+    }
+    
+    /**
+     * 添加boolean类型的结构化字段
+     * @param name 字段名
+     * @param value 值
+     * @return 当前对象
+     */
+    public LogEventDTO withField(String name, boolean value) {
+        mutableFields().add(name, value);
+        return this;
+    }
+    
+    /**
+     * 设置结构化字段
+     * 事件直接持有传入的实例，调用方之后不能再修改它
+     * @param fields 结构化字段，可以为null
+     * @return 当前对象
+     */
+    public LogEventDTO withFields(StructuredFields fields) {
+        this.fields = fields;
+        return this;
+    }
+    
+    /**
+     * 清空结构化字段，保留已分配的数组供复用事件使用
+     */
+    protected void clearFields() {
+        if (fields != null) {
+            fields.clear();
+        }
+    }
+    
+    private StructuredFields mutableFields() {
+        StructuredFields current = fields;
+        if (current == null) {
+            current = new StructuredFields();
+            fields = current;
+        }
+        return current;
+    }
+    
+    /**
+     * 获取日志消息
+     * 参数化消息在此时才渲染，通常发生在消费线程上
+     * @return 日志消息
+     */
+    @Override
+    public String getMessage() {
+        ParameterizedMessage pending = pendingMessage;
+        if (pending != null) {
+            message = pending.render();
+            pendingMessage = null;
+        }
+        return message;
+    }
+    
+    /**
+     * 设置日志消息，会丢弃尚未渲染的参数化消息
+     * @param message 日志消息
+     */
+    public void setMessage(String message) {
+        this.message = message;
+        this.pendingMessage = null;
+    }
+    
+    /**
+     * 设置参数化消息
+     * 在调用线程上对参数做快照，渲染推迟到第一次读取消息时。
+     * 结尾未被占位符使用的异常作为异常对象记录，调用栈同样推迟渲染。
+     * @param template 消息模板，使用"{}"作为占位符
+     * @param args 参数
+     * @return 当前对象
+     */
+    public LogEventDTO withTemplate(String template, Object... args) {
+        ParameterizedMessage captured = ParameterizedMessage.capture(template, args);
+        this.message = null;
+        this.pendingMessage = captured;
+        if (captured.getThrowable() != null) {
+            setThrowable(captured.getThrowable());
+        }
+        return this;
+    }
+    
+    /**
+     * 设置已捕获的参数化消息，渲染推迟到第一次读取消息时
+     * @param message 参数化消息
+     * @return 当前对象
+     */
+    public LogEventDTO withPendingMessage(ParameterizedMessage message) {
+        this.message = null;
+        this.pendingMessage = message;
         return this;
     }
     
+    /**
+     * 获取尚未渲染的参数化消息
+     * @return 参数化消息，已渲染或没有时返回null
+     */
+    public ParameterizedMessage getPendingMessage() {
+        return pendingMessage;
+    }
+    
+    /**
+     * 是否存在尚未渲染的参数化消息
+     * @return 存在时返回true
+     */
+    public boolean hasPendingMessage() {
+        return pendingMessage != null;
+    }
+    
+    /**
+     * 估算消息部分保留的字节数，不触发渲染
+     * @return 估算字节数
+     */
+    long estimateMessageSize() {
+        ParameterizedMessage pending = pendingMessage;
+        return pending != null ? pending.estimateSize() : LogEventSizeEstimator.estimate(message);
+    }
+    
     /**
      * 设置异常信息
      * @param exception 异常信息
      * @return 当前对象
      */
     public LogEventDTO withException(String exception) {
-        this.exception = exception;
+        setException(exception);
+        return this;
+    }
+    
+    /**
+     * 设置异常对象
+     * 调用线程只保存引用，调用栈在第一次读取异常信息时渲染
+     * @param throwable 异常对象
+     * @return 当前对象
+     */
+    public LogEventDTO withThrowable(Throwable throwable) {
+        setThrowable(throwable);
         return this;
     }
     
+    /**
+     * 设置异常信息，会丢弃尚未渲染的异常对象
+     * @param exception 异常信息
+     */
+    public void setException(String exception) {
+        this.exception = exception;
+        this.throwable = null;
+    }
+    
+    /**
+     * 设置异常对象，会覆盖已有的异常信息
+     * @param throwable 异常对象
+     */
+    public void setThrowable(Throwable throwable) {
+        this.throwable = throwable;
+        this.exception = null;
+    }
+    
+    /**
+     * 获取异常信息
+     * 异常对象在此时才渲染为带调用栈的文本，通常发生在消费线程上
+     * @return 异常信息
+     */
+    @Override
+    public String getException() {
+        String value = exception;
+        if (value == null && throwable != null) {
+            value = ThrowableRenderer.getDefault().render(throwable);
+            exception = value;
+        }
+        return value;
+    }
+    
+    /**
+     * 估算异常部分保留的字节数，不触发渲染
+     * @return 估算字节数
+     */
+    long estimateExceptionSize() {
+        return exception == null && throwable != null
+                ? THROWABLE_OVERHEAD
+                : LogEventSizeEstimator.estimate(exception);
+    }
+    
     /**
      * 设置调用位置信息
      * @param className 类名
@@ -1,5 +1,7 @@
 package com.asyncflow.log.model.event;
 
+import com.asyncflow.log.symbol.SymbolTable;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
@@ -8,11 +10,35 @@ import java.util.Map;
 
 /**
  * 日志事件工厂类
- * 提供多种创建日志事件的方法
+ * 提供多种创建日志事件的方法，启用对象池时从池中取出可复用事件
  */
 @Component
 public class LogEventFactory {
     
+    /**
+     * 日志事件对象池，未启用时每次新建事件
+     */
+    @Autowired(required = false)
+    private LogEventPool eventPool;
+    
+    /**
+     * 符号表，类名、方法名和线程名驻留后在事件间共享
+     */
+    private final SymbolTable symbols = SymbolTable.getDefault();
+    
+    /**
+     * 创建或从对象池取出日志事件
+     * @param level 日志级别
+     * @param message 日志消息
+     * @return 日志事件对象
+     */
+    private LogEventDTO newEvent(String level, String message) {
+        if (eventPool != null) {
+            return eventPool.acquire(level, message);
+        }
+        return new LogEventDTO(level, message);
+    }
+    
     /**
      * 创建基础日志事件
      * @param level 日志级别
@@ -20,7 +46,7 @@ public class LogEventFactory {
      * @return 日志事件对象
      */
     public LogEventDTO createLogEvent(String level, String message) {
-        return new LogEventDTO(level, message);
+        return newEvent(level, message);
     }
     
     /**
@@ -31,7 +57,41 @@ public class LogEventFactory {
      * @return 日志事件对象
      */
     public LogEventDTO createLogEvent(String level, String message, Map<String, String> context) {
-        return new LogEventDTO(level, message, context);
+        LogEventDTO event = newEvent(level, message);
+        event.setContext(context);
+        return event;
+    }
+    
+    /**
+     * 创建参数化消息的日志事件
+     * 消息在第一次读取时才按模板渲染
+     * @param level 日志级别
+     * @param context 上下文信息，可为null
+     * @param template 消息模板，使用"{}"作为占位符
+     * @param args 参数
+     * @return 日志事件对象
+     */
+    public LogEventDTO createTemplateLogEvent(String level, Map<String, String> context, String template, Object... args) {
+        LogEventDTO event = newEvent(level, null);
+        if (context != null) {
+            event.setContext(context);
+        }
+        return event.withTemplate(template, args);
+    }
+    
+    /**
+     * 创建带结构化字段的参数化消息日志事件
+     * @param level 日志级别
+     * @param context 上下文信息，可为null
+     * @param fields 结构化字段，事件直接持有该实例，可为null
+     * @param template 消息模板，使用"{}"作为占位符
+     * @param args 参数
+     * @return 日志事件对象
+     */
+    public LogEventDTO createStructuredLogEvent(String level, Map<String, String> context, StructuredFields fields,
+                                                String template, Object... args) {
+        return createTemplateLogEvent(level, context, template, args)
+                .withFields(fields);
     }
     
     /**
@@ -42,10 +102,23 @@ public class LogEventFactory {
      * @return 日志事件对象
      */
     public LogEventDTO createLogEventWithException(String level, String message, String exception) {
-        return new LogEventDTO(level, message)
+        return newEvent(level, message)
                 .withException(exception);
     }
     
+    /**
+     * 创建带异常对象的日志事件
+     * 只保存异常引用，调用栈在第一次读取异常信息时渲染
+     * @param level 日志级别
+     * @param message 日志消息
+     * @param throwable 异常对象
+     * @return 日志事件对象
+     */
+    public LogEventDTO createLogEventWithThrowable(String level, String message, Throwable throwable) {
+        return newEvent(level, message)
+                .withThrowable(throwable);
+    }
+    
     /**
      * 创建带调用位置信息的日志事件
      * @param level 日志级别
@@ -55,8 +128,8 @@ public class LogEventFactory {
      * @return 日志事件对象
      */
     public LogEventDTO createLogEventWithLocation(String level, String message, String className, String methodName) {
-        return new LogEventDTO(level, message)
-                .withLocation(className, methodName);
+        return newEvent(level, message)
+                .withLocation(symbols.internString(className), symbols.internString(methodName));
     }
     
     /**
@@ -71,9 +144,10 @@ public class LogEventFactory {
      */
     public LogEventDTO createFullLogEvent(String level, String message, Map<String, String> context,
                                         String className, String methodName, String exception) {
-        LogEventDTO event = new LogEventDTO(level, message, context);
+        LogEventDTO event = newEvent(level, message);
+        event.setContext(context);
         if (className != null && methodName != null) {
-            event.withLocation(className, methodName);
+            event.withLocation(symbols.internString(className), symbols.internString(methodName));
         }
         if (exception != null) {
             event.withException(exception);
@@ -126,7 +200,7 @@ public class LogEventFactory {
      * @return 日志事件对象
      */
     public LogEventDTO createLogEventWithTimestamp(String level, String message, LocalDateTime timestamp) {
-        LogEventDTO event = new LogEventDTO(level, message);
+        LogEventDTO event = newEvent(level, message);
         event.setTimestamp(timestamp);
         return event;
     }
@@ -139,8 +213,8 @@ public class LogEventFactory {
      * @return 日志事件对象
      */
     public LogEventDTO createLogEventWithThread(String level, String message, String threadName) {
-        LogEventDTO event = new LogEventDTO(level, message);
-        event.setThreadName(threadName);
+        LogEventDTO event = newEvent(level, message);
+        event.setThreadName(symbols.internString(threadName));
         return event;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,237 @@
+package com.asyncflow.log.model.event;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 日志事件对象池
+ * 基于预分配环形数组的有界无锁池，生产者线程取出事件，消费者线程写出后归还。
+ * 池为空时新建事件，池已满时丢弃归还的事件交给GC回收，不会阻塞任何一方。
+ */
+@Slf4j
+public class LogEventPool {
+    
+    /**
+     * 默认容量
+     */
+    private static final int DEFAULT_CAPACITY = 4096;
+    
+    /**
+     * 空闲事件
+     */
+    private final AtomicReferenceArray<PooledLogEvent> slots;
+    
+    /**
+     * 槽位序号，用于判断槽位可写还是可读
+     */
+    private final AtomicLongArray sequences;
+    
+    /**
+     * 下标掩码
+     */
+    private final int mask;
+    
+    /**
+     * 容量
+     */
+    private final int capacity;
+    
+    /**
+     * 归还序号
+     */
+    private final AtomicLong tail = new AtomicLong(0);
+    
+    /**
+     * 取出序号
+     */
+    private final AtomicLong head = new AtomicLong(0);
+    
+    /**
+     * 取出次数
+     */
+    private final LongAdder acquiredCount = new LongAdder();
+    
+    /**
+     * 池为空时新建的事件数
+     */
+    private final LongAdder createdCount = new LongAdder();
+    
+    /**
+     * 归还到池中的事件数
+     */
+    private final LongAdder recycledCount = new LongAdder();
+    
+    /**
+     * 池已满时丢弃的事件数
+     */
+    private final LongAdder discardedCount = new LongAdder();
+    
+    /**
+     * 默认构造函数，使用默认容量
+     */
+    public LogEventPool() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * 带容量的构造函数，创建时预先填满
+     * @param capacity 容量，会向上取整为2的幂
+     */
+    public LogEventPool(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("对象池容量无效: " + capacity);
+        }
+        int highest = Integer.highestOneBit(capacity);
+        this.capacity = highest == capacity ? capacity : highest << 1;
+        this.mask = this.capacity - 1;
+        this.slots = new AtomicReferenceArray<>(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+        for (int i = 0; i < this.capacity; i++) {
+            offer(new PooledLogEvent(this));
+        }
+        log.info("创建LogEventPool，容量: {}", this.capacity);
+    }
+    
+    /**
+     * 取出一个事件并初始化
+     * @param level 日志级别
+     * @param message 日志消息
+     * @return 可复用事件
+     */
+    public PooledLogEvent acquire(String level, String message) {
+        PooledLogEvent event = poll();
+        if (event == null) {
+            createdCount.increment();
+            event = new PooledLogEvent(this);
+        }
+        acquiredCount.increment();
+        return event.activate(level, message);
+    }
+    
+    /**
+     * 归还事件，由{@link PooledLogEvent#release()}调用
+     * @param event 已重置的事件
+     */
+    void release(PooledLogEvent event) {
+        if (offer(event)) {
+            recycledCount.increment();
+        } else {
+            discardedCount.increment();
+        }
+    }
+    
+    /**
+     * 获取池中空闲事件数
+     * @return 空闲事件数
+     */
+    public int getAvailable() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+    
+    /**
+     * 获取容量
+     * @return 容量
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    /**
+     * 获取取出次数
+     * @return 取出次数
+     */
+    public long getAcquiredCount() {
+        return acquiredCount.sum();
+    }
+    
+    /**
+     * 获取池为空时新建的事件数
+     * @return 新建事件数
+     */
+    public long getCreatedCount() {
+        return createdCount.sum();
+    }
+    
+    /**
+     * 获取归还到池中的事件数
+     * @return 归还事件数
+     */
+    public long getRecycledCount() {
+        return recycledCount.sum();
+    }
+    
+    /**
+     * 获取池已满时丢弃的事件数
+     * @return 丢弃事件数
+     */
+    public long getDiscardedCount() {
+        return discardedCount.sum();
+    }
+    
+    /**
+     * 获取命中率，即取出时无需新建事件的比例
+     * @return 命中率
+     */
+    public double getHitRate() {
+        long acquired = getAcquiredCount();
+        return acquired > 0 ? 1.0 - (double) getCreatedCount() / acquired : 1.0;
+    }
+    
+    /**
+     * 尝试放入空闲事件
+     * @param event 事件
+     * @return 池已满时返回false
+     */
+    private boolean offer(PooledLogEvent event) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, event);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+    
+    /**
+     * 尝试取出空闲事件
+     * @return 池为空时返回null
+     */
+    private PooledLogEvent poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long diff = sequences.get(index) - (position + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    PooledLogEvent event = slots.get(index);
+                    slots.lazySet(index, null);
+                    sequences.set(index, position + capacity);
+                    return event;
+                }
+                position = head.get();
+            } else if (diff < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+}
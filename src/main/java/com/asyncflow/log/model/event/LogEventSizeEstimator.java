@@ -0,0 +1,112 @@
+package com.asyncflow.log.model.event;
+
+import java.util.Map;
+
+/**
+ * 日志事件内存占用估算器
+ * 按对象头、引用和字符串长度粗略估算事件在堆中保留的字节数，只读取长度不遍历字符内容。
+ * 字符串按每字符2字节估算，对中文等非Latin-1内容不会低估。
+ */
+public final class LogEventSizeEstimator {
+    
+    /**
+     * 事件对象本身（对象头+字段引用+long型ID和时间戳）的估算大小
+     */
+    static final int EVENT_OVERHEAD = 64;
+    
+    /**
+     * 字符串对象（String对象+数组头）的估算大小
+     */
+    static final int STRING_OVERHEAD = 40;
+    
+    /**
+     * Map对象本身的估算大小
+     */
+    static final int MAP_OVERHEAD = 64;
+    
+    /**
+     * 紧凑上下文（对象+数组头）的估算大小
+     */
+    static final int CONTEXT_OVERHEAD = 40;
+    
+    /**
+     * Map每个条目（节点+桶位）的估算大小
+     */
+    static final int MAP_ENTRY_OVERHEAD = 40;
+    
+    private LogEventSizeEstimator() {
+    }
+    
+    /**
+     * 估算日志事件的保留字节数
+     * @param event 日志事件
+     * @return 估算字节数
+     */
+    public static long estimate(LogEvent event) {
+        long size = EVENT_OVERHEAD;
+        size += estimate(event.getLevel());
+        // 参数化消息按模板和参数估算，避免在生产线程上提前渲染
+        size += event instanceof LogEventDTO
+                ? ((LogEventDTO) event).estimateMessageSize()
+                : estimate(event.getMessage());
+        size += estimate(event.getThreadName());
+        size += estimate(event.getClassName());
+        size += estimate(event.getMethodName());
+        // 异常对象同样按固定开销估算，调用栈留给消费线程渲染
+        size += event instanceof LogEventDTO
+                ? ((LogEventDTO) event).estimateExceptionSize()
+                : estimate(event.getException());
+        size += estimate(event.getContext());
+        StructuredFields fields = event.getFields();
+        if (fields != null) {
+            size += fields.estimateSize();
+        }
+        return size;
+    }
+    
+    /**
+     * 估算字符串的保留字节数
+     * @param value 字符串，可以为null
+     * @return 估算字节数
+     */
+    public static long estimate(String value) {
+        return value == null ? 0 : STRING_OVERHEAD + 2L * value.length();
+    }
+    
+    /**
+     * 估算上下文的保留字节数
+     * @param context 上下文，可以为null
+     * @return 估算字节数
+     */
+    public static long estimate(Map<String, String> context) {
+        if (context == null) {
+            return 0;
+        }
+        if (context instanceof ContextMap) {
+            return estimate((ContextMap) context);
+        }
+        long size = MAP_OVERHEAD;
+        for (Map.Entry<String, String> entry : context.entrySet()) {
+            size += MAP_ENTRY_OVERHEAD + estimate(entry.getKey()) + estimate(entry.getValue());
+        }
+        return size;
+    }
+    
+    /**
+     * 估算紧凑上下文的保留字节数
+     * 键是驻留的共享字符串，只计算值和数组本身
+     * @param context 上下文
+     * @return 估算字节数
+     */
+    public static long estimate(ContextMap context) {
+        if (context.isEmpty()) {
+            // 空上下文是共享实例
+            return 0;
+        }
+        long size = CONTEXT_OVERHEAD + 8L * context.size();
+        for (int i = 0; i < context.size(); i++) {
+            size += estimate(context.valueAt(i));
+        }
+        return size;
+    }
+}
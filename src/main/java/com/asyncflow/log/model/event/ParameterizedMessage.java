@@ -0,0 +1,292 @@
+package com.asyncflow.log.model.event;
+
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * 参数化日志消息
+ * 在调用线程上只保存模板和参数，按"{}"占位符拼接的工作推迟到消费线程第一次读取消息时进行。
+ * 参数在捕获时做快照：不可变类型（字符串、包装类型、枚举、时间类型等）直接保留引用，
+ * 基本类型数组复制一份，其余可能被调用方继续修改的对象立即转为字符串，避免渲染时读到已变化的状态。
+ * 参数个数多于占位符且最后一个参数为异常时，该异常作为事件的异常信息而不参与拼接。
+ */
+public final class ParameterizedMessage {
+
+    /**
+     * 占位符
+     */
+    private static final String PLACEHOLDER = "{}";
+
+    /**
+     * 转义字符，"\{}"按字面输出"{}"
+     */
+    private static final char ESCAPE = '\\';
+
+    /**
+     * 每个参数的估算保留字节数
+     */
+    private static final int ARGUMENT_OVERHEAD = 32;
+
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    /**
+     * 消息模板
+     */
+    private final String template;
+
+    /**
+     * 参数快照
+     */
+    private final Object[] arguments;
+
+    /**
+     * 未被占位符使用的结尾异常
+     */
+    private final Throwable throwable;
+
+    private ParameterizedMessage(String template, Object[] arguments, Throwable throwable) {
+        this.template = template;
+        this.arguments = arguments;
+        this.throwable = throwable;
+    }
+
+    /**
+     * 在调用线程上捕获模板和参数
+     * @param template 消息模板
+     * @param args 参数，不会被保留引用
+     * @return 参数化消息
+     */
+    public static ParameterizedMessage capture(String template, Object... args) {
+        if (args == null || args.length == 0) {
+            return new ParameterizedMessage(template, NO_ARGUMENTS, null);
+        }
+        int count = args.length;
+        Throwable throwable = null;
+        Object last = args[count - 1];
+        if (last instanceof Throwable && countPlaceholders(template) < count) {
+            throwable = (Throwable) last;
+            count--;
+        }
+        Object[] snapshot = new Object[count];
+        for (int i = 0; i < count; i++) {
+            snapshot[i] = snapshot(args[i]);
+        }
+        return new ParameterizedMessage(template, snapshot, throwable);
+    }
+
+    /**
+     * 渲染消息
+     * @return 填充参数后的消息
+     */
+    public String render() {
+        return format(template, arguments);
+    }
+
+    /**
+     * 获取消息模板
+     * @return 消息模板
+     */
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * 获取参数快照
+     * @return 参数快照的副本
+     */
+    public Object[] getArguments() {
+        return arguments.clone();
+    }
+
+    /**
+     * 获取结尾异常
+     * @return 未被占位符使用的异常，没有时返回null
+     */
+    public Throwable getThrowable() {
+        return throwable;
+    }
+
+    /**
+     * 获取各参数的字符串形式，与渲染时拼接进消息的内容一致
+     * 供需要把事件移出Java堆的场景使用：参数转为字符串，按模板拼接仍推迟到渲染时
+     * @return 参数的字符串形式
+     */
+    public String[] renderArguments() {
+        String[] rendered = new String[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            Object argument = arguments[i];
+            rendered[i] = argument instanceof String ? (String) argument : toDisplayString(argument);
+        }
+        return rendered;
+    }
+
+    /**
+     * 由模板和已转为字符串的参数还原参数化消息
+     * @param template 消息模板
+     * @param arguments 由{@link #renderArguments()}得到的参数字符串
+     * @return 参数化消息，不带结尾异常
+     */
+    public static ParameterizedMessage ofRendered(String template, String[] arguments) {
+        return new ParameterizedMessage(template, arguments.length == 0 ? NO_ARGUMENTS : arguments.clone(), null);
+    }
+
+    /**
+     * 估算渲染前保留的字节数
+     * @return 估算字节数
+     */
+    long estimateSize() {
+        long size = LogEventSizeEstimator.estimate(template) + ARGUMENT_OVERHEAD;
+        for (Object argument : arguments) {
+            size += argument instanceof String
+                    ? LogEventSizeEstimator.estimate((String) argument)
+                    : ARGUMENT_OVERHEAD;
+        }
+        return size;
+    }
+
+    /**
+     * 按占位符拼接消息
+     * @param template 消息模板
+     * @param args 参数
+     * @return 拼接后的消息
+     */
+    public static String format(String template, Object... args) {
+        if (template == null) {
+            return null;
+        }
+        if (args == null || args.length == 0) {
+            return template;
+        }
+        StringBuilder sb = new StringBuilder(template.length() + 16 * args.length);
+        int from = 0;
+        int argIndex = 0;
+        while (argIndex < args.length) {
+            int index = template.indexOf(PLACEHOLDER, from);
+            if (index < 0) {
+                break;
+            }
+            if (index > 0 && template.charAt(index - 1) == ESCAPE) {
+                // 转义的占位符按字面输出
+                sb.append(template, from, index - 1).append(PLACEHOLDER);
+                from = index + PLACEHOLDER.length();
+                continue;
+            }
+            sb.append(template, from, index);
+            appendArgument(sb, args[argIndex++]);
+            from = index + PLACEHOLDER.length();
+        }
+        sb.append(template, from, template.length());
+        return sb.toString();
+    }
+
+    /**
+     * 统计模板中未转义的占位符数量
+     * @param template 消息模板
+     * @return 占位符数量
+     */
+    static int countPlaceholders(String template) {
+        if (template == null) {
+            return 0;
+        }
+        int count = 0;
+        int index = template.indexOf(PLACEHOLDER);
+        while (index >= 0) {
+            if (index == 0 || template.charAt(index - 1) != ESCAPE) {
+                count++;
+            }
+            index = template.indexOf(PLACEHOLDER, index + PLACEHOLDER.length());
+        }
+        return count;
+    }
+
+    /**
+     * 对参数做快照
+     * @param argument 参数
+     * @return 可安全延迟渲染的值
+     */
+    private static Object snapshot(Object argument) {
+        if (argument == null || isImmutable(argument)) {
+            return argument;
+        }
+        Class<?> type = argument.getClass();
+        if (type.isArray() && type.getComponentType().isPrimitive()) {
+            return copyPrimitiveArray(argument);
+        }
+        // 可变对象及对象数组在调用线程上立即渲染
+        return toDisplayString(argument);
+    }
+
+    private static boolean isImmutable(Object argument) {
+        return argument instanceof String
+                || argument instanceof Number && argument.getClass().getName().startsWith("java.lang.")
+                || argument instanceof Boolean
+                || argument instanceof Character
+                || argument instanceof Enum
+                || argument instanceof UUID
+                || argument instanceof Class
+                || argument instanceof TemporalAccessor && argument.getClass().getName().startsWith("java.time.");
+    }
+
+    private static Object copyPrimitiveArray(Object array) {
+        if (array instanceof int[]) {
+            return ((int[]) array).clone();
+        } else if (array instanceof long[]) {
+            return ((long[]) array).clone();
+        } else if (array instanceof byte[]) {
+            return ((byte[]) array).clone();
+        } else if (array instanceof char[]) {
+            return ((char[]) array).clone();
+        } else if (array instanceof double[]) {
+            return ((double[]) array).clone();
+        } else if (array instanceof float[]) {
+            return ((float[]) array).clone();
+        } else if (array instanceof short[]) {
+            return ((short[]) array).clone();
+        }
+        return ((boolean[]) array).clone();
+    }
+
+    private static void appendArgument(StringBuilder sb, Object argument) {
+        if (argument instanceof String) {
+            sb.append((String) argument);
+        } else {
+            sb.append(toDisplayString(argument));
+        }
+    }
+
+    /**
+     * 将参数转为字符串，数组按元素输出，toString抛出异常时输出占位信息而不中断日志
+     * @param argument 参数
+     * @return 字符串形式
+     */
+    private static String toDisplayString(Object argument) {
+        if (argument == null) {
+            return "null";
+        }
+        try {
+            if (argument instanceof Object[]) {
+                return Arrays.deepToString((Object[]) argument);
+            } else if (argument instanceof int[]) {
+                return Arrays.toString((int[]) argument);
+            } else if (argument instanceof long[]) {
+                return Arrays.toString((long[]) argument);
+            } else if (argument instanceof byte[]) {
+                return Arrays.toString((byte[]) argument);
+            } else if (argument instanceof char[]) {
+                return Arrays.toString((char[]) argument);
+            } else if (argument instanceof double[]) {
+                return Arrays.toString((double[]) argument);
+            } else if (argument instanceof float[]) {
+                return Arrays.toString((float[]) argument);
+            } else if (argument instanceof short[]) {
+                return Arrays.toString((short[]) argument);
+            } else if (argument instanceof boolean[]) {
+                return Arrays.toString((boolean[]) argument);
+            }
+            return String.valueOf(argument);
+        } catch (RuntimeException e) {
+            return "[" + argument.getClass().getName() + ".toString()失败: " + e + "]";
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.asyncflow.log.model.event;
+
+import com.asyncflow.log.clock.LogClocks;
+import com.asyncflow.log.id.LogIds;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * 可复用的日志事件
+ * 从{@link LogEventPool}中取出后填充字段，写出或丢弃后重置并归还对象池，
+ * 上下文是不可变的{@link ContextMap}，归还时只需重置为共享的空实例。
+ * 归还后事件可能立即被其他线程复用，归还方不能再访问该事件。
+ */
+public class PooledLogEvent extends LogEventDTO {
+    
+    private static final AtomicIntegerFieldUpdater<PooledLogEvent> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(PooledLogEvent.class, "state");
+    
+    /**
+     * 使用中
+     */
+    private static final int IN_USE = 0;
+    
+    /**
+     * 已归还
+     */
+    private static final int RELEASED = 1;
+    
+    /**
+     * 所属对象池
+     */
+    private final LogEventPool pool;
+    
+    /**
+     * 状态，防止重复归还
+     */
+    private volatile int state = RELEASED;
+    
+    /**
+     * 构造函数
+     * @param pool 所属对象池
+     */
+    PooledLogEvent(LogEventPool pool) {
+        super(0L, 0L, null);
+        this.pool = pool;
+    }
+    
+    /**
+     * 取出时初始化事件
+     * @param level 日志级别
+     * @param message 日志消息
+     * @return 当前对象
+     */
+    PooledLogEvent activate(String level, String message) {
+        state = IN_USE;
+        setId(LogIds.nextId());
+        setEpochNanos(LogClocks.epochNanos());
+        setLevel(level);
+        setMessage(message);
+        setContext(null);
+        return this;
+    }
+    
+    /**
+     * 是否已归还对象池
+     * @return 已归还返回true
+     */
+    public boolean isReleased() {
+        return state == RELEASED;
+    }
+    
+    /**
+     * 重置并归还对象池，重复调用时忽略
+     */
+    public void release() {
+        if (!STATE.compareAndSet(this, IN_USE, RELEASED)) {
+            return;
+        }
+        setId(0L);
+        setSequence(-1L);
+        setEpochNanos(0L);
+        setLevel(null);
+        setMessage(null);
+        setThreadName(null);
+        setClassName(null);
+        setMethodName(null);
+        setException(null);
+        setContext(null);
+        clearFields();
+        pool.release(this);
+    }
+    
+    /**
+     * 如果是可复用事件则归还对象池
+     * 只能由事件的最终处理方（写出或丢弃事件的一方）调用一次
+     * @param event 日志事件
+     */
+    public static void releaseIfPooled(LogEvent event) {
+        if (event instanceof PooledLogEvent) {
+            ((PooledLogEvent) event).release();
+        }
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        return this == o;
+    }
+    
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+}
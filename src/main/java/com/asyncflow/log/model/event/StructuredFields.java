@@ -0,0 +1,386 @@
+package com.asyncflow.log.model.event;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 类型化的结构化字段
+ * 用于记录耗时、计数、状态码、开关等数值型字段，值按类型保存在基本类型数组中，不装箱也不转为字符串。
+ * 所有数值共用一个long数组，double按位存储，boolean存为0/1，字段类型单独记录。
+ * 写入器可以通过{@link #forEach(Visitor)}或按下标读取，直接把数值编码为文本、JSON或二进制；
+ * 序列化为JSON时输出为以字段名为键的对象，数值直接写出。
+ * 字段在调用线程上写入，随事件发布后只读，实例本身不是线程安全的。
+ */
+@JsonSerialize(using = StructuredFields.JsonWriter.class)
+public final class StructuredFields {
+    
+    /**
+     * 字段类型
+     */
+    public enum Type {
+        LONG,
+        DOUBLE,
+        BOOLEAN
+    }
+    
+    private static final Type[] TYPES = Type.values();
+    
+    /**
+     * 默认初始容量
+     */
+    private static final int DEFAULT_CAPACITY = 4;
+    
+    /**
+     * 每个字段的估算保留字节数（名称引用、类型和数值）
+     */
+    static final int FIELD_OVERHEAD = 13;
+    
+    /**
+     * 字段名
+     */
+    private String[] names;
+    
+    /**
+     * 字段类型序号
+     */
+    private byte[] types;
+    
+    /**
+     * 字段值，double按位存储，boolean存为0/1
+     */
+    private long[] values;
+    
+    /**
+     * 字段数量
+     */
+    private int size;
+    
+    /**
+     * 默认构造函数
+     */
+    public StructuredFields() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * 带初始容量的构造函数
+     * @param capacity 初始容量
+     */
+    public StructuredFields(int capacity) {
+        int initial = Math.max(1, capacity);
+        this.names = new String[initial];
+        this.types = new byte[initial];
+        this.values = new long[initial];
+    }
+    
+    /**
+     * 创建空的字段集合
+     * @return 字段集合
+     */
+    public static StructuredFields create() {
+        return new StructuredFields();
+    }
+    
+    /**
+     * 添加或替换long字段
+     * @param name 字段名
+     * @param value 值
+     * @return 当前对象
+     */
+    public StructuredFields add(String name, long value) {
+        return put(name, Type.LONG, value);
+    }
+    
+    /**
+     * 添加或替换double字段
+     * @param name 字段名
+     * @param value 值
+     * @return 当前对象
+     */
+    public StructuredFields add(String name, double value) {
+        return put(name, Type.DOUBLE, Double.doubleToRawLongBits(value));
+    }
+    
+    /**
+     * 添加或替换boolean字段
+     * @param name 字段名
+     * @param value 值
+     * @return 当前对象
+     */
+    public StructuredFields add(String name, boolean value) {
+        return put(name, Type.BOOLEAN, value ? 1L : 0L);
+    }
+    
+    /**
+     * 获取字段数量
+     * @return 字段数量
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * 是否没有字段
+     * @return 没有字段时返回true
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * 查找字段下标
+     * @param name 字段名
+     * @return 下标，不存在时返回-1
+     */
+    public int indexOf(String name) {
+        if (name == null) {
+            return -1;
+        }
+        for (int i = 0; i < size; i++) {
+            if (names[i] == name) {
+                return i;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * 获取第index个字段的名称
+     * @param index 字段下标
+     * @return 字段名
+     */
+    public String nameAt(int index) {
+        checkIndex(index);
+        return names[index];
+    }
+    
+    /**
+     * 获取第index个字段的类型
+     * @param index 字段下标
+     * @return 字段类型
+     */
+    public Type typeAt(int index) {
+        checkIndex(index);
+        return TYPES[types[index]];
+    }
+    
+    /**
+     * 获取第index个字段的long值
+     * double字段按位返回，boolean字段返回0或1
+     * @param index 字段下标
+     * @return 值
+     */
+    public long longAt(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+    
+    /**
+     * 获取第index个字段的double值，long和boolean字段按数值转换
+     * @param index 字段下标
+     * @return 值
+     */
+    public double doubleAt(int index) {
+        checkIndex(index);
+        return types[index] == Type.DOUBLE.ordinal()
+                ? Double.longBitsToDouble(values[index])
+                : values[index];
+    }
+    
+    /**
+     * 获取第index个字段的boolean值，数值字段非0时为true
+     * @param index 字段下标
+     * @return 值
+     */
+    public boolean booleanAt(int index) {
+        checkIndex(index);
+        return values[index] != 0;
+    }
+    
+    /**
+     * 依次访问每个字段，不创建中间对象
+     * @param visitor 访问器
+     */
+    public void forEach(Visitor visitor) {
+        for (int i = 0; i < size; i++) {
+            long value = values[i];
+            switch (TYPES[types[i]]) {
+                case LONG:
+                    visitor.visitLong(names[i], value);
+                    break;
+                case DOUBLE:
+                    visitor.visitDouble(names[i], Double.longBitsToDouble(value));
+                    break;
+                default:
+                    visitor.visitBoolean(names[i], value != 0);
+                    break;
+            }
+        }
+    }
+    
+    /**
+     * 清空字段，保留已分配的数组供复用
+     */
+    public void clear() {
+        Arrays.fill(names, 0, size, null);
+        size = 0;
+    }
+    
+    /**
+     * 复制字段集合
+     * @return 副本
+     */
+    public StructuredFields copy() {
+        StructuredFields copy = new StructuredFields(size);
+        System.arraycopy(names, 0, copy.names, 0, size);
+        System.arraycopy(types, 0, copy.types, 0, size);
+        System.arraycopy(values, 0, copy.values, 0, size);
+        copy.size = size;
+        return copy;
+    }
+    
+    /**
+     * 估算保留的字节数
+     * @return 估算字节数
+     */
+    long estimateSize() {
+        return (long) names.length * FIELD_OVERHEAD;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof StructuredFields)) {
+            return false;
+        }
+        StructuredFields other = (StructuredFields) o;
+        return size == other.size
+                && Arrays.equals(names, 0, size, other.names, 0, size)
+                && Arrays.equals(types, 0, size, other.types, 0, size)
+                && Arrays.equals(values, 0, size, other.values, 0, size);
+    }
+    
+    @Override
+    public int hashCode() {
+        int hash = size;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + names[i].hashCode();
+            hash = 31 * hash + Long.hashCode(values[i]);
+        }
+        return hash;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(16 * size + 2).append('{');
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(names[i]).append('=');
+            switch (TYPES[types[i]]) {
+                case LONG:
+                    sb.append(values[i]);
+                    break;
+                case DOUBLE:
+                    sb.append(Double.longBitsToDouble(values[i]));
+                    break;
+                default:
+                    sb.append(values[i] != 0);
+                    break;
+            }
+        }
+        return sb.append('}').toString();
+    }
+    
+    private StructuredFields put(String name, Type type, long value) {
+        int index = indexOf(name);
+        if (index < 0) {
+            if (size == names.length) {
+                int capacity = names.length * 2;
+                names = Arrays.copyOf(names, capacity);
+                types = Arrays.copyOf(types, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            index = size++;
+            // 字段名与上下文键共用驻留表
+            names[index] = ContextMap.intern(name);
+        }
+        types[index] = (byte) type.ordinal();
+        values[index] = value;
+        return this;
+    }
+    
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("字段下标越界: " + index + ", 字段数量: " + size);
+        }
+    }
+    
+    /**
+     * 字段访问器
+     */
+    public interface Visitor {
+        
+        /**
+         * 访问long字段
+         * @param name 字段名
+         * @param value 值
+         */
+        void visitLong(String name, long value);
+        
+        /**
+         * 访问double字段
+         * @param name 字段名
+         * @param value 值
+         */
+        void visitDouble(String name, double value);
+        
+        /**
+         * 访问boolean字段
+         * @param name 字段名
+         * @param value 值
+         */
+        void visitBoolean(String name, boolean value);
+    }
+    
+    /**
+     * JSON序列化器，按字段类型直接写出数值
+     */
+    public static final class JsonWriter extends JsonSerializer<StructuredFields> {
+        
+        @Override
+        public void serialize(StructuredFields fields, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < fields.size; i++) {
+                String name = fields.names[i];
+                long value = fields.values[i];
+                switch (TYPES[fields.types[i]]) {
+                    case LONG:
+                        generator.writeNumberField(name, value);
+                        break;
+                    case DOUBLE:
+                        generator.writeNumberField(name, Double.longBitsToDouble(value));
+                        break;
+                    default:
+                        generator.writeBooleanField(name, value != 0);
+                        break;
+                }
+            }
+            generator.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.asyncflow.log.model.event;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 异常堆栈渲染器
+ * 按与{@link Throwable#printStackTrace()}相同的格式输出异常、原因链和被抑制的异常。
+ * 每段调用栈按栈帧计算指纹，渲染结果缓存起来，同一位置反复抛出的异常只需拼接异常头，不再逐帧格式化。
+ * 开启去重后，同一条异常链在第一次完整输出时附带指纹，之后只输出异常头和对该指纹的引用。
+ * 缓存达到上限时整体清空，保证内存有界。
+ */
+public class ThrowableRenderer {
+
+    /**
+     * 默认缓存的栈段数量
+     */
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    /**
+     * 换行符
+     */
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    /**
+     * 全局渲染器
+     */
+    private static volatile ThrowableRenderer defaultRenderer = new ThrowableRenderer(DEFAULT_CACHE_SIZE, false);
+
+    /**
+     * 栈段渲染结果缓存
+     */
+    private final ConcurrentHashMap<FramesKey, String> frameCache = new ConcurrentHashMap<>();
+
+    /**
+     * 已完整输出过的异常链指纹
+     */
+    private final Set<Long> emittedTraces = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 缓存上限
+     */
+    private final int cacheSize;
+
+    /**
+     * 是否以引用代替重复的调用栈
+     */
+    private final boolean deduplicate;
+
+    /**
+     * 渲染次数
+     */
+    private final LongAdder renderCount = new LongAdder();
+
+    /**
+     * 栈段查找次数
+     */
+    private final LongAdder frameLookupCount = new LongAdder();
+
+    /**
+     * 栈段缓存命中次数
+     */
+    private final LongAdder frameHitCount = new LongAdder();
+
+    /**
+     * 以引用代替完整调用栈的次数
+     */
+    private final LongAdder referenceCount = new LongAdder();
+
+    /**
+     * 构造函数
+     * @param cacheSize 最多缓存的栈段数量
+     * @param deduplicate 是否以引用代替重复的调用栈
+     */
+    public ThrowableRenderer(int cacheSize, boolean deduplicate) {
+        if (cacheSize <= 0) {
+            throw new IllegalArgumentException("异常栈缓存大小必须大于0: " + cacheSize);
+        }
+        this.cacheSize = cacheSize;
+        this.deduplicate = deduplicate;
+    }
+
+    /**
+     * 获取全局渲染器
+     * @return 全局渲染器
+     */
+    public static ThrowableRenderer getDefault() {
+        return defaultRenderer;
+    }
+
+    /**
+     * 替换全局渲染器
+     * @param renderer 渲染器
+     */
+    public static void setDefault(ThrowableRenderer renderer) {
+        if (renderer == null) {
+            throw new IllegalArgumentException("异常栈渲染器不能为null");
+        }
+        defaultRenderer = renderer;
+    }
+
+    /**
+     * 渲染异常
+     * @param throwable 异常
+     * @return 异常头及调用栈，throwable为null时返回null
+     */
+    public String render(Throwable throwable) {
+        if (throwable == null) {
+            return null;
+        }
+        renderCount.increment();
+        StringBuilder sb = new StringBuilder(512);
+        if (deduplicate) {
+            long fingerprint = fingerprint(throwable);
+            String tag = Long.toHexString(fingerprint);
+            if (!emittedTraces.add(fingerprint)) {
+                referenceCount.increment();
+                sb.append(throwable).append(LINE_SEPARATOR)
+                        .append("\t... 调用栈同 #").append(tag);
+                return sb.toString();
+            }
+            if (emittedTraces.size() > cacheSize) {
+                emittedTraces.clear();
+                emittedTraces.add(fingerprint);
+            }
+            appendThrowable(sb, throwable);
+            sb.append(LINE_SEPARATOR).append("\t#").append(tag);
+            return sb.toString();
+        }
+        appendThrowable(sb, throwable);
+        return sb.toString();
+    }
+
+    /**
+     * 计算整条异常链的指纹
+     * 由各层异常类型和栈帧决定，与异常消息无关
+     * @param throwable 异常
+     * @return 64位指纹
+     */
+    public static long fingerprint(Throwable throwable) {
+        long hash = 1125899906842597L;
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Throwable current = throwable; current != null && seen.add(current); current = current.getCause()) {
+            hash = mix(hash, current.getClass().getName().hashCode());
+            for (StackTraceElement frame : current.getStackTrace()) {
+                hash = mix(hash, frameHash(frame));
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * 获取渲染次数
+     * @return 渲染次数
+     */
+    public long getRenderCount() {
+        return renderCount.sum();
+    }
+
+    /**
+     * 获取以引用代替完整调用栈的次数
+     * @return 次数
+     */
+    public long getReferenceCount() {
+        return referenceCount.sum();
+    }
+
+    /**
+     * 获取栈段缓存命中率
+     * @return 命中率，没有查找时返回0
+     */
+    public double getCacheHitRate() {
+        long lookups = frameLookupCount.sum();
+        return lookups == 0 ? 0.0 : (double) frameHitCount.sum() / lookups;
+    }
+
+    /**
+     * 获取缓存的栈段数量
+     * @return 栈段数量
+     */
+    public int getCacheSize() {
+        return frameCache.size();
+    }
+
+    /**
+     * 是否以引用代替重复的调用栈
+     * @return 开启去重时返回true
+     */
+    public boolean isDeduplicate() {
+        return deduplicate;
+    }
+
+    private void appendThrowable(StringBuilder sb, Throwable throwable) {
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        seen.add(throwable);
+        sb.append(throwable);
+        StackTraceElement[] trace = throwable.getStackTrace();
+        sb.append(frames(trace, 0, ""));
+        appendNested(sb, throwable, trace, "", seen);
+        // 去掉结尾换行，与其他字段拼接时由写入器决定换行
+        int end = sb.length() - LINE_SEPARATOR.length();
+        if (end >= 0 && sb.indexOf(LINE_SEPARATOR, end) == end) {
+            sb.setLength(end);
+        }
+    }
+
+    /**
+     * 追加被抑制的异常和原因链
+     */
+    private void appendNested(StringBuilder sb, Throwable throwable, StackTraceElement[] trace,
+                              String prefix, Set<Throwable> seen) {
+        for (Throwable suppressed : throwable.getSuppressed()) {
+            appendEnclosed(sb, suppressed, trace, "Suppressed: ", prefix + "\t", seen);
+        }
+        Throwable cause = throwable.getCause();
+        if (cause != null) {
+            appendEnclosed(sb, cause, trace, "Caused by: ", prefix, seen);
+        }
+    }
+
+    private void appendEnclosed(StringBuilder sb, Throwable throwable, StackTraceElement[] enclosingTrace,
+                                String caption, String prefix, Set<Throwable> seen) {
+        if (!seen.add(throwable)) {
+            sb.append(prefix).append(caption).append("[CIRCULAR REFERENCE: ").append(throwable).append(']')
+                    .append(LINE_SEPARATOR);
+            return;
+        }
+        StackTraceElement[] trace = throwable.getStackTrace();
+        int common = commonFrames(trace, enclosingTrace);
+        sb.append(prefix).append(caption).append(throwable);
+        sb.append(frames(trace, common, prefix));
+        appendNested(sb, throwable, trace, prefix, seen);
+    }
+
+    /**
+     * 获取一段调用栈的渲染结果，包括开头的换行
+     * @param trace 栈帧
+     * @param common 与外层异常相同的结尾帧数，这些帧折叠为"... n more"
+     * @param prefix 缩进
+     * @return 渲染结果
+     */
+    private String frames(StackTraceElement[] trace, int common, String prefix) {
+        FramesKey key = new FramesKey(trace, common, prefix);
+        frameLookupCount.increment();
+        String rendered = frameCache.get(key);
+        if (rendered != null) {
+            frameHitCount.increment();
+            return rendered;
+        }
+        StringBuilder sb = new StringBuilder(64 * (trace.length - common + 1));
+        sb.append(LINE_SEPARATOR);
+        for (int i = 0; i < trace.length - common; i++) {
+            sb.append(prefix).append("\tat ").append(trace[i]).append(LINE_SEPARATOR);
+        }
+        if (common > 0) {
+            sb.append(prefix).append("\t... ").append(common).append(" more").append(LINE_SEPARATOR);
+        }
+        rendered = sb.toString();
+        if (frameCache.size() >= cacheSize) {
+            frameCache.clear();
+        }
+        frameCache.put(key, rendered);
+        return rendered;
+    }
+
+    private static int commonFrames(StackTraceElement[] trace, StackTraceElement[] enclosingTrace) {
+        int m = trace.length - 1;
+        int n = enclosingTrace.length - 1;
+        while (m >= 0 && n >= 0 && trace[m].equals(enclosingTrace[n])) {
+            m--;
+            n--;
+        }
+        return trace.length - 1 - m;
+    }
+
+    private static int frameHash(StackTraceElement frame) {
+        int hash = frame.getClassName().hashCode();
+        hash = 31 * hash + frame.getMethodName().hashCode();
+        return 31 * hash + frame.getLineNumber();
+    }
+
+    private static long mix(long hash, int value) {
+        return (hash ^ value) * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * 栈段缓存键
+     * 指纹用于快速定位，命中后仍逐帧比较，指纹碰撞不会输出错误的调用栈
+     */
+    private static final class FramesKey {
+
+        private final StackTraceElement[] trace;
+
+        private final int common;
+
+        private final String prefix;
+
+        private final int hash;
+
+        FramesKey(StackTraceElement[] trace, int common, String prefix) {
+            this.trace = trace;
+            this.common = common;
+            this.prefix = prefix;
+            long value = mix(common, prefix.length());
+            for (int i = 0; i < trace.length - common; i++) {
+                value = mix(value, frameHash(trace[i]));
+            }
+            this.hash = (int) (value ^ (value >>> 32));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FramesKey)) {
+                return false;
+            }
+            FramesKey other = (FramesKey) o;
+            return hash == other.hash
+                    && common == other.common
+                    && prefix.equals(other.prefix)
+                    && Arrays.equals(trace, 0, trace.length - common,
+                            other.trace, 0, other.trace.length - other.common);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
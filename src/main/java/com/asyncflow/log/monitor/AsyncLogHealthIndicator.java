@@ -62,7 +62,8 @@ public class AsyncLogHealthIndicator implements HealthIndicator {
             // 检查队列状态
             int queueSize = eventQueue.size();
             int queueCapacity = eventQueue.capacity();
-            double queueUsage = (double) queueSize / queueCapacity;
+            // 由队列自身计算使用率，按字节限制的队列反映的是内存占用
+            double queueUsage = eventQueue.getUsage();
             
             builder.withDetail("queue.size", queueSize);
             builder.withDetail("queue.capacity", queueCapacity);
@@ -1,8 +1,22 @@
 package com.asyncflow.log.monitor;
 
+import com.asyncflow.log.appender.PipelinedEventHandler;
 import com.asyncflow.log.consumer.ConsumerPool;
+import com.asyncflow.log.consumer.ConsumerScaler;
+import com.asyncflow.log.consumer.EventHandler;
+import com.asyncflow.log.consumer.ThreadPoolConsumer;
+import com.asyncflow.log.location.CallerLocator;
+import com.asyncflow.log.model.event.LogEventPool;
+import com.asyncflow.log.model.event.ThrowableRenderer;
 import com.asyncflow.log.queue.EventQueue;
+import com.asyncflow.log.queue.PriorityLaneEventQueue;
+import com.asyncflow.log.queue.ProducerBatcher;
+import com.asyncflow.log.queue.SequencedEventQueue;
+import com.asyncflow.log.queue.SpillEventQueue;
+import com.asyncflow.log.queue.overflow.OverflowPolicy;
+import com.asyncflow.log.queue.wait.WaitStrategy;
 import com.asyncflow.log.service.AsyncLogService;
+import com.asyncflow.log.symbol.SymbolTable;
 import io.micrometer.core.instrument.*;
 import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.extern.slf4j.Slf4j;
@@ -43,6 +57,54 @@ public class AsyncLogMetrics implements MeterBinder {
     @Autowired
     private ConsumerPool consumerPool;
     
+    /**
+     * 队列溢出策略
+     */
+    @Autowired(required = false)
+    private OverflowPolicy overflowPolicy;
+    
+    /**
+     * 生产者端批量发布器
+     */
+    @Autowired(required = false)
+    private ProducerBatcher producerBatcher;
+    
+    /**
+     * 日志事件对象池
+     */
+    @Autowired(required = false)
+    private LogEventPool eventPool;
+    
+    /**
+     * 符号表
+     */
+    @Autowired(required = false)
+    private SymbolTable symbolTable;
+    
+    /**
+     * 异常栈渲染器
+     */
+    @Autowired(required = false)
+    private ThrowableRenderer throwableRenderer;
+    
+    /**
+     * 调用位置定位器
+     */
+    @Autowired(required = false)
+    private CallerLocator callerLocator;
+    
+    /**
+     * 消费者弹性伸缩控制器
+     */
+    @Autowired(required = false)
+    private ConsumerScaler consumerScaler;
+    
+    /**
+     * 事件处理器
+     */
+    @Autowired(required = false)
+    private EventHandler eventHandler;
+    
     /**
      * 记录处理成功的日志事件数
      */
@@ -119,10 +181,65 @@ public class AsyncLogMetrics implements MeterBinder {
             .description("队列总容量")
             .register(registry);
         
-        Gauge.builder("asynclog.queue.usage", () -> (double) eventQueue.size() / eventQueue.capacity())
+        Gauge.builder("asynclog.queue.usage", eventQueue::getUsage)
             .description("队列使用率")
             .register(registry);
         
+        // 注册等待策略唤醒延迟指标
+        if (eventQueue instanceof SequencedEventQueue) {
+            bindWaitStrategy(registry, ((SequencedEventQueue) eventQueue).getWaitStrategy());
+        }
+        
+        // 注册优先级通道指标
+        if (eventQueue instanceof PriorityLaneEventQueue) {
+            bindPriorityLanes(registry, (PriorityLaneEventQueue) eventQueue);
+        }
+        
+        // 注册磁盘溢出指标
+        if (eventQueue instanceof SpillEventQueue) {
+            bindSpill(registry, (SpillEventQueue) eventQueue);
+        }
+        
+        // 注册溢出策略指标
+        if (overflowPolicy != null) {
+            bindOverflowPolicy(registry, overflowPolicy);
+        }
+        
+        // 注册生产者端批量发布指标
+        if (producerBatcher != null) {
+            bindProducerBatcher(registry, producerBatcher);
+        }
+        
+        // 注册日志事件对象池指标
+        if (eventPool != null) {
+            bindEventPool(registry, eventPool);
+        }
+        
+        // 注册符号表指标
+        if (symbolTable != null) {
+            bindSymbolTable(registry, symbolTable);
+        }
+        
+        // 注册异常栈渲染指标
+        if (throwableRenderer != null) {
+            bindThrowableRenderer(registry, throwableRenderer);
+        }
+        
+        // 注册调用位置定位指标
+        if (callerLocator != null) {
+            bindCallerLocator(registry, callerLocator);
+        }
+        
+        // 注册消费者弹性伸缩指标
+        if (consumerScaler != null) {
+            bindConsumerScaler(registry, consumerScaler);
+        }
+        
+        // 注册流水线各阶段指标
+        if (eventHandler instanceof PipelinedEventHandler) {
+            bindPipeline(registry, (PipelinedEventHandler) eventHandler);
+        }
+        
         // 注册消费者线程池指标
         Gauge.builder("asynclog.consumer.active_threads", consumerPool::getActiveCount)
             .description("活跃线程数")
@@ -157,4 +274,308 @@ public class AsyncLogMetrics implements MeterBinder {
             .description("日志事件处理成功率")
             .register(registry);
     }
-} 
\ No newline at end of file
+    
+    /**
+     * 注册等待策略指标，按策略名称打标签
+     * @param registry 指标注册表
+     * @param waitStrategy 等待策略
+     */
+    private void bindWaitStrategy(MeterRegistry registry, WaitStrategy waitStrategy) {
+        Tags tags = Tags.of("strategy", waitStrategy.getName());
+        
+        Gauge.builder("asynclog.queue.wakeup.count", waitStrategy::getWakeupCount)
+            .tags(tags)
+            .description("消费者从等待中被唤醒的次数")
+            .register(registry);
+        
+        Gauge.builder("asynclog.queue.wakeup.latency.avg", waitStrategy::getAverageWakeupLatencyNanos)
+            .tags(tags)
+            .baseUnit("nanoseconds")
+            .description("从事件发布到消费者被唤醒的平均延迟")
+            .register(registry);
+        
+        Gauge.builder("asynclog.queue.wakeup.latency.max", waitStrategy::getMaxWakeupLatencyNanos)
+            .tags(tags)
+            .baseUnit("nanoseconds")
+            .description("从事件发布到消费者被唤醒的最大延迟")
+            .register(registry);
+    }
+    
+    /**
+     * 注册优先级通道指标，按通道名称打标签
+     * @param registry 指标注册表
+     * @param laneQueue 优先级通道队列
+     */
+    private void bindPriorityLanes(MeterRegistry registry, PriorityLaneEventQueue laneQueue) {
+        for (String lane : PriorityLaneEventQueue.LANE_NAMES) {
+            Tags tags = Tags.of("lane", lane);
+            
+            Gauge.builder("asynclog.queue.lane.size", () -> laneQueue.getLaneSize(lane))
+                .tags(tags)
+                .description("优先级通道中的事件数量")
+                .register(registry);
+            
+            Gauge.builder("asynclog.queue.lane.capacity", () -> laneQueue.getLaneCapacity(lane))
+                .tags(tags)
+                .description("优先级通道容量")
+                .register(registry);
+            
+            Gauge.builder("asynclog.queue.lane.dropped", () -> laneQueue.getLaneDroppedCount(lane))
+                .tags(tags)
+                .description("优先级通道已满时拒绝的事件数量")
+                .register(registry);
+        }
+    }
+    
+    /**
+     * 注册磁盘溢出指标
+     * 回放事件数注册为计数器，回放速率可由监控系统按时间求导得到
+     * @param registry 指标注册表
+     * @param spillQueue 磁盘溢出队列
+     */
+    private void bindSpill(MeterRegistry registry, SpillEventQueue spillQueue) {
+        FunctionCounter.builder("asynclog.queue.spill.bytes", spillQueue, SpillEventQueue::getSpilledBytes)
+            .baseUnit("bytes")
+            .description("累计溢出到磁盘的字节数")
+            .register(registry);
+        
+        FunctionCounter.builder("asynclog.queue.spill.events", spillQueue, SpillEventQueue::getSpilledCount)
+            .description("累计溢出到磁盘的事件数")
+            .register(registry);
+        
+        Gauge.builder("asynclog.queue.spill.backlog.events", spillQueue::getBacklogEvents)
+            .description("磁盘上等待回放的事件数")
+            .register(registry);
+        
+        Gauge.builder("asynclog.queue.spill.backlog.bytes", spillQueue::getBacklogBytes)
+            .baseUnit("bytes")
+            .description("磁盘上等待回放的字节数")
+            .register(registry);
+        
+        FunctionCounter.builder("asynclog.queue.spill.replayed", spillQueue, SpillEventQueue::getReplayedCount)
+            .description("累计从磁盘回放的事件数")
+            .register(registry);
+        
+        FunctionCounter.builder("asynclog.queue.spill.corrupt", spillQueue, SpillEventQueue::getCorruptCount)
+            .description("累计跳过的损坏或版本不兼容的溢出记录数")
+            .register(registry);
+        
+        FunctionCounter.builder("asynclog.queue.spill.rejected", spillQueue, SpillEventQueue::getRejectedCount)
+            .description("累计因溢出积压达到上限或超过段文件大小而拒绝的事件数")
+            .register(registry);
+    }
+    
+    /**
+     * 注册溢出策略指标，按策略名称打标签
+     * 每个计数注册为asynclog.overflow.{计数名称}
+     * @param registry 指标注册表
+     * @param policy 溢出策略
+     */
+    private void bindOverflowPolicy(MeterRegistry registry, OverflowPolicy policy) {
+        Tags tags = Tags.of("policy", policy.getName());
+        for (String counter : policy.getCounters().keySet()) {
+            FunctionCounter.builder("asynclog.overflow." + counter, policy, p -> p.getCounters().get(counter))
+                .tags(tags)
+                .description("队列溢出策略计数: " + counter)
+                .register(registry);
+        }
+    }
+    
+    /**
+     * 注册生产者端批量发布指标
+     * @param registry 指标注册表
+     * @param batcher 生产者端批量发布器
+     */
+    private void bindProducerBatcher(MeterRegistry registry, ProducerBatcher batcher) {
+        FunctionCounter.builder("asynclog.producer.batch.published", batcher, ProducerBatcher::getPublishedBatchCount)
+            .description("生产者端已发布的批次数")
+            .register(registry);
+        
+        FunctionCounter.builder("asynclog.producer.batch.events", batcher, ProducerBatcher::getPublishedEventCount)
+            .description("生产者端批量发布的事件数")
+            .register(registry);
+        
+        FunctionCounter.builder("asynclog.producer.batch.rejected", batcher, ProducerBatcher::getRejectedEventCount)
+            .description("批量发布时被队列拒绝的事件数")
+            .register(registry);
+        
+        Gauge.builder("asynclog.producer.batch.buffered", batcher::getBufferedCount)
+            .description("生产者缓冲区中尚未发布的事件数")
+            .register(registry);
+    }
+    
+    /**
+     * 注册日志事件对象池指标
+     * 新建事件数的增长速率即为稳态下每秒分配的事件对象数
+     * @param registry 指标注册表
+     * @param pool 日志事件对象池
+     */
+    private void bindEventPool(MeterRegistry registry, LogEventPool pool) {
+        Gauge.builder("asynclog.event.pool.available", pool::getAvailable)
+            .description("对象池中的空闲事件数")
+            .register(registry);
+        
+        FunctionCounter.builder("asynclog.event.pool.acquired", pool, LogEventPool::getAcquiredCount)
+            .description("从对象池取出事件的次数")
+            .register(registry);
+        
+        FunctionCounter.builder("asynclog.event.pool.created", pool, LogEventPool::getCreatedCount)
+            .description("对象池为空时新建的事件数")
+            .register(registry);
+        
+        FunctionCounter.builder("asynclog.event.pool.discarded", pool, LogEventPool::getDiscardedCount)
+            .description("对象池已满时丢弃的归还事件数")
+            .register(registry);
+        
+        Gauge.builder("asynclog.event.pool.hit_rate", pool::getHitRate)
+            .description("取出事件时无需新建的比例")
+            .register(registry);
+    }
+    
+    /**
+     * 注册符号表指标
+     * @param registry 指标注册表
+     * @param table 符号表
+     */
+    private void bindSymbolTable(MeterRegistry registry, SymbolTable table) {
+        Gauge.builder("asynclog.symbol.size", table::size)
+            .description("符号表中已登记的符号数")
+            .register(registry);
+        
+        FunctionCounter.builder("asynclog.symbol.lookups", table, SymbolTable::getLookupCount)
+            .description("符号表查找次数")
+            .register(registry);
+        
+        FunctionCounter.builder("asynclog.symbol.overflow", table, SymbolTable::getOverflowCount)
+            .description("符号表已满未能登记的次数")
+            .register(registry);
+        
+        Gauge.builder("asynclog.symbol.hit_rate", table::getHitRate)
+            .description("查找时符号已存在的比例")
+            .register(registry);
+    }
+    
+    /**
+     * 注册异常栈渲染指标
+     * @param registry 指标注册表
+     * @param renderer 异常栈渲染器
+     */
+    private void bindThrowableRenderer(MeterRegistry registry, ThrowableRenderer renderer) {
+        FunctionCounter.builder("asynclog.exception.rendered", renderer, ThrowableRenderer::getRenderCount)
+            .description("渲染的异常数")
+            .register(registry);
+        
+        FunctionCounter.builder("asynclog.exception.references", renderer, ThrowableRenderer::getReferenceCount)
+            .description("以引用代替完整调用栈的异常数")
+            .register(registry);
+        
+        Gauge.builder("asynclog.exception.cache_size", renderer::getCacheSize)
+            .description("缓存的调用栈段数")
+            .register(registry);
+        
+        Gauge.builder("asynclog.exception.cache_hit_rate", renderer::getCacheHitRate)
+            .description("调用栈段缓存命中率")
+            .register(registry);
+    }
+    
+    /**
+     * 注册调用位置定位指标
+     * @param registry 指标注册表
+     * @param locator 调用位置定位器
+     */
+    private void bindCallerLocator(MeterRegistry registry, CallerLocator locator) {
+        FunctionCounter.builder("asynclog.location.walks", locator, CallerLocator::getWalkCount)
+            .description("调用栈遍历次数")
+            .register(registry);
+        
+        Gauge.builder("asynclog.location.sites", locator::getCachedSiteCount)
+            .description("缓存的调用方法数")
+            .register(registry);
+        
+        Gauge.builder("asynclog.location.hit_rate", locator::getHitRate)
+            .description("调用位置缓存命中率")
+            .register(registry);
+    }
+    
+    /**
+     * 注册消费者弹性伸缩指标
+     * @param registry 指标注册表
+     * @param scaler 弹性伸缩控制器
+     */
+    private void bindConsumerScaler(MeterRegistry registry, ConsumerScaler scaler) {
+        ThreadPoolConsumer pool = scaler.getConsumerPool();
+        Gauge.builder("asynclog.consumer.loops", pool::getConsumerCount)
+            .description("运行中的消费循环数")
+            .register(registry);
+        
+        Gauge.builder("asynclog.consumer.busy_ratio", scaler::getLastBusyRatio)
+            .description("最近一次采样的消费循环忙碌比例")
+            .register(registry);
+        
+        FunctionCounter.builder("asynclog.consumer.scale_up", scaler, ConsumerScaler::getScaleUpCount)
+            .description("扩容次数")
+            .register(registry);
+        
+        FunctionCounter.builder("asynclog.consumer.scale_down", scaler, ConsumerScaler::getScaleDownCount)
+            .description("缩容次数")
+            .register(registry);
+    }
+    
+    /**
+     * 注册流水线事件处理器指标
+     * 出队阶段的深度即事件队列大小，这里补充编码阶段交给写出阶段的队列深度和两个阶段的累计耗时
+     * @param registry 指标注册表
+     * @param handler 流水线事件处理器
+     */
+    private void bindPipeline(MeterRegistry registry, PipelinedEventHandler handler) {
+        Gauge.builder("asynclog.pipeline.write_queue", handler::getWriteQueueDepth)
+            .description("等待写出的字节块数")
+            .register(registry);
+        
+        Gauge.builder("asynclog.pipeline.pending_events", handler::getPendingEvents)
+            .description("已编码、尚未写出的日志事件数")
+            .register(registry);
+        
+        FunctionCounter.builder("asynclog.pipeline.encoded", handler, PipelinedEventHandler::getEncodedCount)
+            .description("编码阶段处理的日志事件数")
+            .register(registry);
+        
+        FunctionCounter.builder("asynclog.pipeline.written", handler, PipelinedEventHandler::getWrittenCount)
+            .description("写出阶段写入的日志事件数")
+            .register(registry);
+        
+        FunctionCounter.builder("asynclog.pipeline.encode_time", handler, h -> h.getEncodeNanos() / 1e9)
+            .description("编码阶段累计耗时")
+            .baseUnit("seconds")
+            .register(registry);
+        
+        FunctionCounter.builder("asynclog.pipeline.write_time", handler, h -> h.getWriteNanos() / 1e9)
+            .description("写出阶段累计耗时")
+            .baseUnit("seconds")
+            .register(registry);
+        
+        if (handler.isOrdered()) {
+            Gauge.builder("asynclog.pipeline.reorder_pending", handler::getReorderPendingEvents)
+                .description("重排序缓冲区中等待前序日志的日志事件数")
+                .register(registry);
+            
+            Gauge.builder("asynclog.pipeline.chunks_in_flight", handler::getInFlightChunks)
+                .description("编码中、写出队列中和重排序缓冲区中的字节块数，达到上限时编码阶段阻塞")
+                .register(registry);
+            
+            FunctionCounter.builder("asynclog.pipeline.reorder_skipped", handler,
+                    PipelinedEventHandler::getSkippedSequenceCount)
+                .description("等待超时后跳过的缺失序号数")
+                .register(registry);
+            
+            FunctionCounter.builder("asynclog.pipeline.reorder_dropped", handler,
+                    PipelinedEventHandler::getDroppedSequenceCount)
+                .description("生产者端报告丢弃、无需等待超时的序号数")
+                .register(registry);
+            
+            FunctionCounter.builder("asynclog.pipeline.reorder_late", handler, PipelinedEventHandler::getLateEventCount)
+                .description("序号被跳过后才到达的日志事件数")
+                .register(registry);
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.asyncflow.log.queue;
+
+import com.asyncflow.log.model.event.LogEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按字节预算限制的事件队列
+ * 不限制事件条数，而是按{@link LogEvent#estimateSize()}估算的保留字节数之和限制队列，
+ * 使一条携带大段请求参数的操作日志和一条单行INFO日志按各自的实际内存占用计入容量。
+ * 入队时记录每个事件的估算大小，出队时按记录值扣减，事件在队列中被修改也不会导致计数漂移。
+ * 估算大小超过整个字节预算的事件永远无法入队，各入队方法都立即拒绝，不会等待。
+ */
+@Slf4j
+public class ByteBudgetEventQueue implements EventQueue {
+    
+    /**
+     * 默认字节预算（32MB）
+     */
+    private static final long DEFAULT_BUDGET_BYTES = 32L * 1024 * 1024;
+    
+    /**
+     * 初始数组长度
+     */
+    private static final int INITIAL_SLOTS = 1024;
+    
+    /**
+     * 字节预算
+     */
+    private final long budgetBytes;
+    
+    /**
+     * 锁
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    /**
+     * 队列非空条件
+     */
+    private final Condition notEmpty = lock.newCondition();
+    
+    /**
+     * 队列未满条件
+     */
+    private final Condition notFull = lock.newCondition();
+    
+    /**
+     * 环形事件数组，按需扩容
+     */
+    private LogEvent[] events = new LogEvent[INITIAL_SLOTS];
+    
+    /**
+     * 与事件数组对应的估算大小
+     */
+    private long[] sizes = new long[INITIAL_SLOTS];
+    
+    /**
+     * 队首下标
+     */
+    private int head;
+    
+    /**
+     * 事件数量
+     */
+    private volatile int count;
+    
+    /**
+     * 已使用的估算字节数
+     */
+    private volatile long usedBytes;
+    
+    /**
+     * 因超过整个字节预算被拒绝的事件数
+     */
+    private final LongAdder oversizedCount = new LongAdder();
+    
+    /**
+     * 默认构造函数，使用默认字节预算
+     */
+    public ByteBudgetEventQueue() {
+        this(DEFAULT_BUDGET_BYTES);
+    }
+    
+    /**
+     * 带字节预算的构造函数
+     * @param budgetBytes 字节预算
+     */
+    public ByteBudgetEventQueue(long budgetBytes) {
+        if (budgetBytes <= 0) {
+            throw new IllegalArgumentException("字节预算必须大于0: " + budgetBytes);
+        }
+        this.budgetBytes = budgetBytes;
+        log.info("创建ByteBudgetEventQueue，字节预算: {}", budgetBytes);
+    }
+    
+    @Override
+    public boolean offer(LogEvent event) throws InterruptedException {
+        if (event == null) {
+            log.warn("尝试添加null事件到队列");
+            return false;
+        }
+        long size = event.estimateSize();
+        if (rejectOversized(event, size)) {
+            return false;
+        }
+        lock.lock();
+        try {
+            return tryEnqueue(event, size);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public void put(LogEvent event) throws InterruptedException {
+        if (event == null) {
+            log.warn("尝试添加null事件到队列");
+            return;
+        }
+        long size = event.estimateSize();
+        if (rejectOversized(event, size)) {
+            return;
+        }
+        lock.lockInterruptibly();
+        try {
+            while (!tryEnqueue(event, size)) {
+                notFull.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public boolean offer(LogEvent event, long timeout) throws InterruptedException {
+        if (event == null) {
+            log.warn("尝试添加null事件到队列");
+            return false;
+        }
+        long size = event.estimateSize();
+        if (rejectOversized(event, size)) {
+            return false;
+        }
+        long nanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (!tryEnqueue(event, size)) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public LogEvent poll() {
+        lock.lock();
+        try {
+            return count > 0 ? dequeue() : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public LogEvent take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                notEmpty.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public LogEvent poll(long timeout) throws InterruptedException {
+        long nanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public int drainTo(Collection<LogEvent> collection, int maxElements) {
+        lock.lock();
+        try {
+            int drained = 0;
+            while (drained < maxElements && count > 0) {
+                collection.add(dequeue());
+                drained++;
+            }
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public int size() {
+        return count;
+    }
+    
+    /**
+     * 获取队列容量
+     * 按字节计量，返回值为字节预算（超过int范围时截断）
+     * @return 字节预算
+     */
+    @Override
+    public int capacity() {
+        return (int) Math.min(Integer.MAX_VALUE, budgetBytes);
+    }
+    
+    @Override
+    public boolean isFull() {
+        return usedBytes >= budgetBytes;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return count == 0;
+    }
+    
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            while (count > 0) {
+                dequeue();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * 获取队列的使用率
+     * @return 已使用的估算字节数占字节预算的比例
+     */
+    @Override
+    public double getUsage() {
+        return (double) usedBytes / budgetBytes;
+    }
+    
+    /**
+     * 获取已使用的估算字节数
+     * @return 字节数
+     */
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+    
+    /**
+     * 获取因超过整个字节预算被拒绝的事件数
+     * @return 事件数
+     */
+    public long getOversizedCount() {
+        return oversizedCount.sum();
+    }
+    
+    /**
+     * 获取字节预算
+     * @return 字节数
+     */
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+    
+    /**
+     * 拒绝估算大小超过整个字节预算的事件，这类事件等待多久也无法入队
+     * @param event 日志事件
+     * @param size 估算大小
+     * @return 被拒绝时返回true
+     */
+    private boolean rejectOversized(LogEvent event, long size) {
+        if (size <= budgetBytes) {
+            return false;
+        }
+        oversizedCount.increment();
+        log.warn("日志事件估算大小{}字节超过字节预算{}字节，拒绝入队: {}", size, budgetBytes, event.getLogId());
+        return true;
+    }
+    
+    /**
+     * 尝试入队，调用方必须持有锁
+     * @param event 日志事件
+     * @param size 估算大小
+     * @return 超出字节预算时返回false
+     */
+    private boolean tryEnqueue(LogEvent event, long size) {
+        if (usedBytes + size > budgetBytes) {
+            return false;
+        }
+        if (count == events.length) {
+            grow();
+        }
+        int index = (head + count) % events.length;
+        events[index] = event;
+        sizes[index] = size;
+        usedBytes += size;
+        count++;
+        notEmpty.signal();
+        return true;
+    }
+    
+    /**
+     * 出队，调用方必须持有锁且队列非空
+     * @return 队首事件
+     */
+    private LogEvent dequeue() {
+        LogEvent event = events[head];
+        events[head] = null;
+        usedBytes -= sizes[head];
+        head = (head + 1) % events.length;
+        count--;
+        // 等待中的生产者所需空间各不相同，全部唤醒后各自重新判断
+        notFull.signalAll();
+        return event;
+    }
+    
+    /**
+     * 数组已满时扩容为两倍，调用方必须持有锁
+     */
+    private void grow() {
+        int length = events.length;
+        LogEvent[] newEvents = new LogEvent[length * 2];
+        long[] newSizes = new long[length * 2];
+        for (int i = 0; i < count; i++) {
+            int index = (head + i) % length;
+            newEvents[i] = events[index];
+            newSizes[i] = sizes[index];
+        }
+        events = newEvents;
+        sizes = newSizes;
+        head = 0;
+    }
+}
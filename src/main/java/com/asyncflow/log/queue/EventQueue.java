@@ -2,6 +2,11 @@ package com.asyncflow.log.queue;
 
 import com.asyncflow.log.model.event.LogEvent;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 /**
  * 事件队列接口
  * 定义日志事件队列的基本操作
@@ -32,12 +37,40 @@ public interface EventQueue {
      */
     boolean offer(LogEvent event, long timeout) throws InterruptedException;
     
+    /**
+     * 批量添加日志事件到队列，队列已满时不等待
+     * 按顺序添加，遇到队列已满即停止，未添加的事件由调用方处理
+     * @param events 日志事件列表
+     * @return 成功添加的事件数量，即列表中前多少个事件已入队
+     * @throws InterruptedException 如果在添加过程中被中断
+     */
+    default int offerAll(List<LogEvent> events) throws InterruptedException {
+        int accepted = 0;
+        for (LogEvent event : events) {
+            if (!offer(event)) {
+                break;
+            }
+            accepted++;
+        }
+        return accepted;
+    }
+    
     /**
      * 从队列中获取日志事件，如果队列为空则返回null
      * @return 日志事件，如果队列为空则返回null
      */
     LogEvent poll();
     
+    /**
+     * 为即将写入的事件腾出空位，移除并返回一个最旧的事件，供丢弃最旧事件的溢出策略使用
+     * 默认移除队首事件；按级别分道或分片的队列从该事件将要写入的通道或分片中移除，不会挤掉其他通道的事件
+     * @param incoming 即将写入的事件
+     * @return 被移除的事件，没有可移除的事件时返回null
+     */
+    default LogEvent evictFor(LogEvent incoming) {
+        return poll();
+    }
+    
     /**
      * 从队列中获取日志事件，如果队列为空则阻塞等待
      * @return 日志事件
@@ -53,6 +86,55 @@ public interface EventQueue {
      */
     LogEvent poll(long timeout) throws InterruptedException;
     
+    /**
+     * 将队列中已有的事件批量转移到集合中，不等待
+     * @param collection 目标集合
+     * @param maxElements 最多转移的事件数量
+     * @return 实际转移的事件数量
+     */
+    int drainTo(Collection<LogEvent> collection, int maxElements);
+    
+    /**
+     * 批量获取日志事件
+     * 首个事件的等待与后续收集共享同一个lingerMillis时间窗口，
+     * 直到收集满maxElements个事件或时间窗口结束，单次调用最多阻塞约lingerMillis毫秒
+     * @param maxElements 最多获取的事件数量
+     * @param lingerMillis 等待的最长时间（毫秒）
+     * @return 事件列表，超时且无事件时返回空列表
+     * @throws InterruptedException 如果在等待过程中被中断
+     */
+    default List<LogEvent> drain(int maxElements, long lingerMillis) throws InterruptedException {
+        List<LogEvent> batch = new ArrayList<>(Math.min(maxElements, 1024));
+        if (maxElements <= 0) {
+            return batch;
+        }
+        
+        // 时间窗口从调用开始计算，首个事件的等待也计入其中
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        LogEvent first = poll(lingerMillis);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+        
+        // 在剩余的时间窗口内继续收集
+        while (batch.size() < maxElements) {
+            if (drainTo(batch, maxElements - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            LogEvent event = poll(Math.max(1L, TimeUnit.NANOSECONDS.toMillis(remaining)));
+            if (event == null) {
+                break;
+            }
+            batch.add(event);
+        }
+        return batch;
+    }
+    
     /**
      * 获取队列中的事件数量
      * @return 事件数量
@@ -0,0 +1,113 @@
+package com.asyncflow.log.queue;
+
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.LogEventDTO;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/**
+ * 事件序号分配器
+ * 在事件入队前分配全局递增的序号，写出端按序号把多个消费循环并行编码的日志恢复为入队顺序。
+ * 生产者端批量发布时一次为整批分配连续序号，只做一次原子操作。
+ * 序号分配后未能入队的事件（被溢出策略丢弃、等待入队被中断等）由丢弃方通过{@link #skip(LogEvent)}报告，
+ * 写出端据此立即跳过这些序号，不必等待空洞超时；未报告的空洞仍由写出端的重排序缓冲区超时跳过。
+ */
+public class EventSequencer {
+    
+    /**
+     * 下一个待分配的序号
+     */
+    private final AtomicLong nextSequence = new AtomicLong(0);
+    
+    /**
+     * 丢弃序号监听器，通常为有序写出的事件处理器
+     */
+    private volatile LongConsumer skipListener;
+    
+    /**
+     * 报告丢弃的序号数
+     */
+    private final LongAdder skippedCount = new LongAdder();
+    
+    /**
+     * 为事件分配序号
+     * @param event 日志事件，不是LogEventDTO时不分配
+     */
+    public void stamp(LogEvent event) {
+        if (event instanceof LogEventDTO) {
+            ((LogEventDTO) event).setSequence(nextSequence.getAndIncrement());
+        }
+    }
+    
+    /**
+     * 为一批事件分配连续序号
+     * @param events 日志事件列表
+     */
+    public void stamp(List<LogEvent> events) {
+        int size = events.size();
+        if (size == 0) {
+            return;
+        }
+        long sequence = nextSequence.getAndAdd(size);
+        for (int i = 0; i < size; i++) {
+            LogEvent event = events.get(i);
+            if (event instanceof LogEventDTO) {
+                ((LogEventDTO) event).setSequence(sequence);
+            }
+            sequence++;
+        }
+    }
+    
+    /**
+     * 报告已分配序号、但未能入队的事件，在释放可复用事件之前调用
+     * @param event 被丢弃的日志事件，未分配序号时忽略
+     */
+    public void skip(LogEvent event) {
+        long sequence = event.getSequence();
+        if (sequence < 0) {
+            return;
+        }
+        skippedCount.increment();
+        LongConsumer listener = skipListener;
+        if (listener != null) {
+            listener.accept(sequence);
+        }
+    }
+    
+    /**
+     * 报告一批未能入队的事件
+     * @param events 被丢弃的日志事件列表
+     */
+    public void skip(List<LogEvent> events) {
+        for (int i = 0; i < events.size(); i++) {
+            skip(events.get(i));
+        }
+    }
+    
+    /**
+     * 设置丢弃序号监听器
+     * @param skipListener 监听器，在丢弃事件的线程上调用，不能阻塞
+     */
+    public void setSkipListener(LongConsumer skipListener) {
+        this.skipListener = skipListener;
+    }
+    
+    /**
+     * 获取报告丢弃的序号数
+     * @return 序号数
+     */
+    public long getSkippedCount() {
+        return skippedCount.sum();
+    }
+    
+    /**
+     * 获取下一个待分配的序号，即已分配的序号数
+     * @return 序号
+     */
+    public long getNextSequence() {
+        return nextSequence.get();
+    }
+}
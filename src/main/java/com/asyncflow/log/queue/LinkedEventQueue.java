@@ -3,6 +3,7 @@ package com.asyncflow.log.queue;
 import com.asyncflow.log.model.event.LogEvent;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.Collection;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
@@ -86,6 +87,11 @@ public class LinkedEventQueue implements EventQueue {
         return queue.poll(timeout, TimeUnit.MILLISECONDS);
     }
     
+    @Override
+    public int drainTo(Collection<LogEvent> collection, int maxElements) {
+        return queue.drainTo(collection, maxElements);
+    }
+    
     @Override
     public int size() {
         return queue.size();
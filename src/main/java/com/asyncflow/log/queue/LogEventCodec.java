@@ -0,0 +1,268 @@
+package com.asyncflow.log.queue;
+
+import com.asyncflow.log.model.event.ContextMap;
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.LogEventDTO;
+import com.asyncflow.log.model.event.ParameterizedMessage;
+import com.asyncflow.log.model.event.StructuredFields;
+import com.asyncflow.log.symbol.SymbolTable;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * 日志事件二进制编解码器
+ * 将日志事件编码为紧凑的二进制记录，供堆外队列、磁盘溢出等需要把事件移出Java堆的场景使用。
+ * 字符串按"长度+UTF-8字节"编码，长度为-1表示null；结构化字段按"名称+类型+8字节数值"编码，数值不经过字符串。
+ * 尚未渲染的参数化消息按"模板+参数字符串"编码，按模板拼接推迟到解码后第一次读取消息时，即消费线程上；
+ * 参数的字符串转换仍在编码线程上进行。异常对象无法移出Java堆，编码时在调用线程上渲染为带调用栈的文本。
+ */
+public final class LogEventCodec {
+    
+    /**
+     * 编码格式版本
+     */
+    private static final byte VERSION = 6;
+    
+    /**
+     * 消息已渲染为字符串
+     */
+    private static final byte RENDERED_MESSAGE = 0;
+    
+    /**
+     * 消息为模板加参数字符串，解码后才拼接
+     */
+    private static final byte PARAMETERIZED_MESSAGE = 1;
+    
+    /**
+     * 表示null字符串的长度
+     */
+    private static final int NULL_LENGTH = -1;
+    
+    private static final StructuredFields.Type[] FIELD_TYPES = StructuredFields.Type.values();
+    
+    /**
+     * 符号表
+     */
+    private static final SymbolTable SYMBOLS = SymbolTable.getDefault();
+    
+    private LogEventCodec() {
+    }
+    
+    /**
+     * 判断记录的编码版本是否可以解码
+     * @param version 记录首字节
+     * @return 与当前编码格式版本一致时返回true
+     */
+    public static boolean isSupportedVersion(byte version) {
+        return version == VERSION;
+    }
+    
+    /**
+     * 将日志事件编码到缓冲区当前位置
+     * @param event 日志事件
+     * @param target 目标缓冲区
+     * @return 写入的字节数
+     * @throws BufferOverflowException 如果缓冲区剩余空间不足
+     */
+    public static int encode(LogEvent event, ByteBuffer target) {
+        int start = target.position();
+        target.put(VERSION);
+        target.putLong(event.getId());
+        target.putLong(event.getSequence());
+        target.putLong(event.getEpochNanos());
+        
+        putString(target, event.getLevel());
+        putMessage(target, event);
+        putSymbol(target, event.getThreadName());
+        putSymbol(target, event.getClassName());
+        putSymbol(target, event.getMethodName());
+        putString(target, event.getException());
+        
+        Map<String, String> context = event.getContext();
+        if (context == null) {
+            target.putInt(NULL_LENGTH);
+        } else if (context instanceof ContextMap) {
+            ContextMap compact = (ContextMap) context;
+            target.putInt(compact.size());
+            for (int i = 0; i < compact.size(); i++) {
+                putString(target, compact.keyAt(i));
+                putString(target, compact.valueAt(i));
+            }
+        } else {
+            target.putInt(context.size());
+            for (Map.Entry<String, String> entry : context.entrySet()) {
+                putString(target, entry.getKey());
+                putString(target, entry.getValue());
+            }
+        }
+        
+        StructuredFields fields = event.getFields();
+        int fieldCount = fields != null ? fields.size() : 0;
+        target.putInt(fieldCount);
+        for (int i = 0; i < fieldCount; i++) {
+            putSymbol(target, fields.nameAt(i));
+            target.put((byte) fields.typeAt(i).ordinal());
+            target.putLong(fields.longAt(i));
+        }
+        return target.position() - start;
+    }
+    
+    /**
+     * 从缓冲区当前位置解码日志事件
+     * @param source 源缓冲区
+     * @return 日志事件
+     */
+    public static LogEventDTO decode(ByteBuffer source) {
+        byte version = source.get();
+        if (version != VERSION) {
+            throw new IllegalStateException("不支持的事件编码版本: " + version);
+        }
+        
+        LogEventDTO event = new LogEventDTO();
+        event.setId(source.getLong());
+        event.setSequence(source.getLong());
+        event.setEpochNanos(source.getLong());
+        
+        event.setLevel(getString(source));
+        getMessage(source, event);
+        event.setThreadName(SYMBOLS.internString(getString(source)));
+        event.setClassName(SYMBOLS.internString(getString(source)));
+        event.setMethodName(SYMBOLS.internString(getString(source)));
+        event.setException(getString(source));
+        
+        int contextSize = source.getInt();
+        if (contextSize == NULL_LENGTH) {
+            event.setContext(null);
+        } else {
+            ContextMap.Builder context = ContextMap.builder();
+            for (int i = 0; i < contextSize; i++) {
+                context.put(getString(source), getString(source));
+            }
+            event.setContext(context.build());
+        }
+        
+        int fieldCount = source.getInt();
+        if (fieldCount > 0) {
+            StructuredFields fields = new StructuredFields(fieldCount);
+            for (int i = 0; i < fieldCount; i++) {
+                String name = getString(source);
+                int ordinal = source.get();
+                if (ordinal < 0 || ordinal >= FIELD_TYPES.length) {
+                    throw new IllegalStateException("不支持的字段类型: " + ordinal);
+                }
+                StructuredFields.Type type = FIELD_TYPES[ordinal];
+                long value = source.getLong();
+                if (type == StructuredFields.Type.LONG) {
+                    fields.add(name, value);
+                } else if (type == StructuredFields.Type.DOUBLE) {
+                    fields.add(name, Double.longBitsToDouble(value));
+                } else {
+                    fields.add(name, value != 0);
+                }
+            }
+            event.withFields(fields);
+        }
+        return event;
+    }
+    
+    /**
+     * 写入消息，尚未渲染的参数化消息只写入模板和参数字符串
+     * @param target 目标缓冲区
+     * @param event 日志事件
+     */
+    private static void putMessage(ByteBuffer target, LogEvent event) {
+        ParameterizedMessage pending = event instanceof LogEventDTO ? ((LogEventDTO) event).getPendingMessage() : null;
+        if (pending == null) {
+            target.put(RENDERED_MESSAGE);
+            putString(target, event.getMessage());
+            return;
+        }
+        String[] arguments = pending.renderArguments();
+        target.put(PARAMETERIZED_MESSAGE);
+        putString(target, pending.getTemplate());
+        target.putInt(arguments.length);
+        for (String argument : arguments) {
+            putString(target, argument);
+        }
+    }
+    
+    /**
+     * 读取消息
+     * @param source 源缓冲区
+     * @param event 解码中的日志事件
+     */
+    private static void getMessage(ByteBuffer source, LogEventDTO event) {
+        byte kind = source.get();
+        if (kind == RENDERED_MESSAGE) {
+            event.setMessage(getString(source));
+            return;
+        }
+        if (kind != PARAMETERIZED_MESSAGE) {
+            throw new IllegalStateException("不支持的消息编码类型: " + kind);
+        }
+        String template = getString(source);
+        String[] arguments = new String[source.getInt()];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = getString(source);
+        }
+        event.withPendingMessage(ParameterizedMessage.ofRendered(template, arguments));
+    }
+    
+    /**
+     * 写入字符串
+     * @param target 目标缓冲区
+     * @param value 字符串，可以为null
+     */
+    private static void putString(ByteBuffer target, String value) {
+        if (value == null) {
+            target.putInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        target.putInt(bytes.length);
+        target.put(bytes);
+    }
+    
+    /**
+     * 写入类名、方法名、线程名等重复出现的字符串，使用符号表中缓存的编码
+     * @param target 目标缓冲区
+     * @param value 字符串，可以为null
+     */
+    private static void putSymbol(ByteBuffer target, String value) {
+        if (value == null) {
+            target.putInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = SYMBOLS.intern(value).getBytes();
+        target.putInt(bytes.length);
+        target.put(bytes);
+    }
+    
+    /**
+     * 读取字符串
+     * @param source 源缓冲区
+     * @return 字符串，可能为null
+     */
+    private static String getString(ByteBuffer source) {
+        int length = source.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        if (length < 0 || length > source.remaining()) {
+            throw new IllegalStateException("字符串长度无效: " + length);
+        }
+        String value;
+        if (source.hasArray()) {
+            value = new String(source.array(), source.arrayOffset() + source.position(), length, StandardCharsets.UTF_8);
+            source.position(source.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            source.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+}
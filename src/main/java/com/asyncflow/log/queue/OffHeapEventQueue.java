@@ -0,0 +1,455 @@
+package com.asyncflow.log.queue;
+
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.PooledLogEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 堆外序列化事件队列
+ * 入队时把日志事件编码为二进制记录写入一块直接内存（DirectByteBuffer）组成的环形缓冲区，
+ * 出队时再解码为事件对象。积压的事件不占用Java堆，下游阻塞时也不会把大量事件对象晋升到老年代。
+ * 编码和解码都在锁外进行，锁内只做字节拷贝。容量以字节为单位。
+ * 记录格式：[int 长度][编码后的事件]，长度为-1表示从缓冲区头部继续。
+ */
+@Slf4j
+public class OffHeapEventQueue implements EventQueue {
+    
+    /**
+     * 默认容量（64MB）
+     */
+    private static final int DEFAULT_CAPACITY_BYTES = 64 * 1024 * 1024;
+    
+    /**
+     * 记录头长度
+     */
+    private static final int HEADER_BYTES = Integer.BYTES;
+    
+    /**
+     * 回绕标记
+     */
+    private static final int WRAP_MARKER = -1;
+    
+    /**
+     * 线程本地编码/解码缓冲区的初始大小
+     */
+    private static final int INITIAL_SCRATCH_BYTES = 4096;
+    
+    /**
+     * 堆外缓冲区
+     */
+    private final ByteBuffer buffer;
+    
+    /**
+     * 容量（字节）
+     */
+    private final int capacityBytes;
+    
+    /**
+     * 线程本地的临时缓冲区，用于锁外编码和解码
+     */
+    private final ThreadLocal<ByteBuffer[]> scratch = ThreadLocal.withInitial(
+            () -> new ByteBuffer[]{ByteBuffer.allocate(INITIAL_SCRATCH_BYTES)});
+    
+    /**
+     * 锁
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    /**
+     * 队列非空条件
+     */
+    private final Condition notEmpty = lock.newCondition();
+    
+    /**
+     * 队列未满条件
+     */
+    private final Condition notFull = lock.newCondition();
+    
+    /**
+     * 读位置
+     */
+    private int readIndex;
+    
+    /**
+     * 写位置
+     */
+    private int writeIndex;
+    
+    /**
+     * 已使用字节数（包含回绕浪费的尾部空间）
+     */
+    private volatile int usedBytes;
+    
+    /**
+     * 事件数量
+     */
+    private volatile int count;
+    
+    /**
+     * 默认构造函数，使用默认容量
+     */
+    public OffHeapEventQueue() {
+        this(DEFAULT_CAPACITY_BYTES);
+    }
+    
+    /**
+     * 带容量的构造函数
+     * @param capacityBytes 容量（字节）
+     */
+    public OffHeapEventQueue(int capacityBytes) {
+        if (capacityBytes <= HEADER_BYTES) {
+            throw new IllegalArgumentException("堆外队列容量过小: " + capacityBytes);
+        }
+        this.capacityBytes = capacityBytes;
+        this.buffer = ByteBuffer.allocateDirect(capacityBytes);
+        log.info("创建OffHeapEventQueue，容量: {}字节", capacityBytes);
+    }
+    
+    @Override
+    public boolean offer(LogEvent event) throws InterruptedException {
+        if (event == null) {
+            log.warn("尝试添加null事件到队列");
+            return false;
+        }
+        ByteBuffer encoded = encode(event);
+        if (encoded == null) {
+            return false;
+        }
+        boolean written;
+        lock.lock();
+        try {
+            written = tryWrite(encoded);
+        } finally {
+            lock.unlock();
+        }
+        if (written) {
+            // 事件已编码进堆外缓冲区，原对象可以复用
+            PooledLogEvent.releaseIfPooled(event);
+        }
+        return written;
+    }
+    
+    @Override
+    public void put(LogEvent event) throws InterruptedException {
+        if (event == null) {
+            log.warn("尝试添加null事件到队列");
+            return;
+        }
+        ByteBuffer encoded = encode(event);
+        if (encoded == null) {
+            return;
+        }
+        lock.lockInterruptibly();
+        try {
+            while (!tryWrite(encoded)) {
+                notFull.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+        PooledLogEvent.releaseIfPooled(event);
+    }
+    
+    @Override
+    public boolean offer(LogEvent event, long timeout) throws InterruptedException {
+        if (event == null) {
+            log.warn("尝试添加null事件到队列");
+            return false;
+        }
+        ByteBuffer encoded = encode(event);
+        if (encoded == null) {
+            return false;
+        }
+        long nanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (!tryWrite(encoded)) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+        PooledLogEvent.releaseIfPooled(event);
+        return true;
+    }
+    
+    @Override
+    public LogEvent poll() {
+        ByteBuffer record;
+        lock.lock();
+        try {
+            record = tryReadInto(scratchBuffer(INITIAL_SCRATCH_BYTES));
+        } finally {
+            lock.unlock();
+        }
+        return record != null ? decode(record) : null;
+    }
+    
+    @Override
+    public LogEvent take() throws InterruptedException {
+        ByteBuffer record;
+        lock.lockInterruptibly();
+        try {
+            while ((record = tryReadInto(scratchBuffer(INITIAL_SCRATCH_BYTES))) == null) {
+                notEmpty.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return decode(record);
+    }
+    
+    @Override
+    public LogEvent poll(long timeout) throws InterruptedException {
+        long nanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+        ByteBuffer record;
+        lock.lockInterruptibly();
+        try {
+            while ((record = tryReadInto(scratchBuffer(INITIAL_SCRATCH_BYTES))) == null) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return decode(record);
+    }
+    
+    @Override
+    public int drainTo(Collection<LogEvent> collection, int maxElements) {
+        // 一次加锁拷贝多条记录，解码在锁外进行
+        ByteBuffer records = scratchBuffer(INITIAL_SCRATCH_BYTES);
+        records.clear();
+        int drained = 0;
+        lock.lock();
+        try {
+            while (drained < maxElements && count > 0) {
+                int length = peekRecordLength();
+                if (records.remaining() < HEADER_BYTES + length) {
+                    if (drained > 0) {
+                        break;
+                    }
+                    records = scratchBuffer(HEADER_BYTES + length);
+                    records.clear();
+                }
+                records.putInt(length);
+                copyRecord(length, records);
+                drained++;
+            }
+        } finally {
+            lock.unlock();
+        }
+        
+        records.flip();
+        for (int i = 0; i < drained; i++) {
+            int length = records.getInt();
+            int end = records.position() + length;
+            collection.add(LogEventCodec.decode(records));
+            records.position(end);
+        }
+        return drained;
+    }
+    
+    @Override
+    public int size() {
+        return count;
+    }
+    
+    /**
+     * 获取队列容量
+     * 堆外队列按字节计量，返回值为容量字节数
+     * @return 容量（字节）
+     */
+    @Override
+    public int capacity() {
+        return capacityBytes;
+    }
+    
+    @Override
+    public boolean isFull() {
+        return usedBytes >= capacityBytes;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return count == 0;
+    }
+    
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            readIndex = 0;
+            writeIndex = 0;
+            usedBytes = 0;
+            count = 0;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * 获取队列的使用率
+     * @return 已使用字节数占容量的比例
+     */
+    @Override
+    public double getUsage() {
+        return (double) usedBytes / capacityBytes;
+    }
+    
+    /**
+     * 获取已使用的字节数
+     * @return 已使用字节数
+     */
+    public int getUsedBytes() {
+        return usedBytes;
+    }
+    
+    /**
+     * 在锁外将事件编码到线程本地缓冲区，空间不足时扩容重试
+     * @param event 日志事件
+     * @return 编码结果（已flip），单条记录超过队列容量时返回null
+     */
+    private ByteBuffer encode(LogEvent event) {
+        ByteBuffer target = scratchBuffer(INITIAL_SCRATCH_BYTES);
+        while (true) {
+            target.clear();
+            try {
+                LogEventCodec.encode(event, target);
+                target.flip();
+                if (HEADER_BYTES + target.remaining() > capacityBytes) {
+                    log.warn("日志事件编码后超过堆外队列容量，丢弃日志: {}字节", target.remaining());
+                    return null;
+                }
+                return target;
+            } catch (BufferOverflowException e) {
+                target = scratchBuffer(target.capacity() * 2);
+            }
+        }
+    }
+    
+    /**
+     * 将记录解码为事件
+     * @param record 记录内容（已flip）
+     * @return 日志事件
+     */
+    private LogEvent decode(ByteBuffer record) {
+        return LogEventCodec.decode(record);
+    }
+    
+    /**
+     * 获取至少为指定大小的线程本地缓冲区
+     * @param minBytes 最小字节数
+     * @return 缓冲区
+     */
+    private ByteBuffer scratchBuffer(int minBytes) {
+        ByteBuffer[] holder = scratch.get();
+        if (holder[0].capacity() < minBytes) {
+            holder[0] = ByteBuffer.allocate(Math.max(minBytes, holder[0].capacity() * 2));
+        }
+        return holder[0];
+    }
+    
+    /**
+     * 尝试写入一条记录，调用方必须持有锁
+     * @param encoded 编码后的事件（已flip）
+     * @return 空间不足时返回false
+     */
+    private boolean tryWrite(ByteBuffer encoded) {
+        int length = encoded.remaining();
+        int total = HEADER_BYTES + length;
+        int tailRoom = capacityBytes - writeIndex;
+        int required = tailRoom >= total ? total : tailRoom + total;
+        if (required > capacityBytes - usedBytes) {
+            return false;
+        }
+        
+        if (tailRoom < total) {
+            // 尾部空间不足，写入回绕标记后从头部开始
+            if (tailRoom >= HEADER_BYTES) {
+                buffer.putInt(writeIndex, WRAP_MARKER);
+            }
+            writeIndex = 0;
+        }
+        
+        buffer.putInt(writeIndex, length);
+        buffer.put(writeIndex + HEADER_BYTES, encoded, encoded.position(), length);
+        writeIndex += total;
+        if (writeIndex == capacityBytes) {
+            writeIndex = 0;
+        }
+        usedBytes += required;
+        count++;
+        notEmpty.signal();
+        return true;
+    }
+    
+    /**
+     * 尝试读取一条记录到目标缓冲区，调用方必须持有锁
+     * @param target 目标缓冲区
+     * @return 记录内容（已flip），队列为空时返回null
+     */
+    private ByteBuffer tryReadInto(ByteBuffer target) {
+        if (count == 0) {
+            return null;
+        }
+        int length = peekRecordLength();
+        if (target.capacity() < length) {
+            target = scratchBuffer(length);
+        }
+        target.clear();
+        copyRecord(length, target);
+        target.flip();
+        return target;
+    }
+    
+    /**
+     * 跳过回绕空间并返回下一条记录的长度，调用方必须持有锁且队列非空
+     * @return 记录长度
+     */
+    private int peekRecordLength() {
+        int tailRoom = capacityBytes - readIndex;
+        if (tailRoom < HEADER_BYTES || buffer.getInt(readIndex) == WRAP_MARKER) {
+            usedBytes -= tailRoom;
+            readIndex = 0;
+        }
+        return buffer.getInt(readIndex);
+    }
+    
+    /**
+     * 拷贝下一条记录的内容并移动读位置，调用方必须持有锁且已调用peekRecordLength
+     * @param length 记录长度
+     * @param target 目标缓冲区
+     */
+    private void copyRecord(int length, ByteBuffer target) {
+        target.put(target.position(), buffer, readIndex + HEADER_BYTES, length);
+        target.position(target.position() + length);
+        int total = HEADER_BYTES + length;
+        readIndex += total;
+        if (readIndex == capacityBytes) {
+            readIndex = 0;
+        }
+        usedBytes -= total;
+        count--;
+        if (count == 0) {
+            // 队列已空，重置读写位置减少回绕
+            readIndex = 0;
+            writeIndex = 0;
+            usedBytes = 0;
+        }
+        notFull.signal();
+    }
+}
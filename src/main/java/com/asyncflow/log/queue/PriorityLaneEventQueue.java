@@ -0,0 +1,280 @@
+package com.asyncflow.log.queue;
+
+import com.asyncflow.log.enums.LogLevel;
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.queue.wait.BlockingWaitStrategy;
+import com.asyncflow.log.queue.wait.WaitStrategy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按日志级别分道的优先级事件队列
+ * ERROR、WARN、INFO、DEBUG各自拥有独立容量的通道，低级别日志写满自己的通道不会挤占高级别日志的空间；
+ * 消费者总是优先取出ERROR，其次WARN，再到INFO和DEBUG。未知级别归入INFO通道。
+ */
+@Slf4j
+public class PriorityLaneEventQueue implements EventQueue {
+    
+    /**
+     * 通道名称，按优先级从高到低排列，下标与{@link LogLevel}的序号一致
+     */
+    public static final String[] LANE_NAMES = laneNames();
+    
+    /**
+     * 未知级别使用的通道（INFO）
+     */
+    private static final LogLevel DEFAULT_LANE = LogLevel.INFO;
+    
+    /**
+     * 通道数组，下标即优先级
+     */
+    private final Lane[] lanes;
+    
+    /**
+     * 总容量
+     */
+    private final int capacity;
+    
+    /**
+     * 消费者等待策略，跨通道统一等待和唤醒
+     */
+    private final WaitStrategy waitStrategy = new BlockingWaitStrategy();
+    
+    /**
+     * 所有通道使用相同容量的构造函数
+     * @param laneCapacity 每个通道的容量
+     */
+    public PriorityLaneEventQueue(int laneCapacity) {
+        this(laneCapacity, laneCapacity, laneCapacity, laneCapacity);
+    }
+    
+    /**
+     * 分别指定各通道容量的构造函数
+     * @param errorCapacity ERROR通道容量
+     * @param warnCapacity WARN通道容量
+     * @param infoCapacity INFO通道容量
+     * @param debugCapacity DEBUG通道容量
+     */
+    public PriorityLaneEventQueue(int errorCapacity, int warnCapacity, int infoCapacity, int debugCapacity) {
+        int[] capacities = {errorCapacity, warnCapacity, infoCapacity, debugCapacity};
+        this.lanes = new Lane[LANE_NAMES.length];
+        int total = 0;
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(new RingEventQueue(capacities[i]));
+            total += lanes[i].queue.capacity();
+        }
+        this.capacity = total;
+        log.info("创建PriorityLaneEventQueue，ERROR: {}, WARN: {}, INFO: {}, DEBUG: {}", 
+                lanes[0].queue.capacity(), lanes[1].queue.capacity(), 
+                lanes[2].queue.capacity(), lanes[3].queue.capacity());
+    }
+    
+    @Override
+    public boolean offer(LogEvent event) throws InterruptedException {
+        if (event == null) {
+            log.warn("尝试添加null事件到队列");
+            return false;
+        }
+        Lane lane = laneOf(event);
+        if (lane.queue.tryPublish(event)) {
+            waitStrategy.signalAllWhenBlocking();
+            return true;
+        }
+        lane.dropped.increment();
+        return false;
+    }
+    
+    @Override
+    public void put(LogEvent event) throws InterruptedException {
+        if (event == null) {
+            log.warn("尝试添加null事件到队列");
+            return;
+        }
+        laneOf(event).queue.put(event);
+        waitStrategy.signalAllWhenBlocking();
+    }
+    
+    @Override
+    public boolean offer(LogEvent event, long timeout) throws InterruptedException {
+        if (event == null) {
+            log.warn("尝试添加null事件到队列");
+            return false;
+        }
+        Lane lane = laneOf(event);
+        if (lane.queue.offer(event, timeout)) {
+            waitStrategy.signalAllWhenBlocking();
+            return true;
+        }
+        lane.dropped.increment();
+        return false;
+    }
+    
+    @Override
+    public LogEvent poll() {
+        for (Lane lane : lanes) {
+            LogEvent event = lane.queue.poll();
+            if (event != null) {
+                return event;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * 从事件所属的通道中移除最旧的事件，不会为低级别日志挤掉高级别日志
+     */
+    @Override
+    public LogEvent evictFor(LogEvent incoming) {
+        return laneOf(incoming).queue.poll();
+    }
+    
+    @Override
+    public LogEvent take() throws InterruptedException {
+        LogEvent event;
+        while ((event = poll()) == null) {
+            waitStrategy.waitFor(() -> !isEmpty(), Long.MAX_VALUE);
+        }
+        return event;
+    }
+    
+    @Override
+    public LogEvent poll(long timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        LogEvent event;
+        while ((event = poll()) == null) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            waitStrategy.waitFor(() -> !isEmpty(), remaining);
+        }
+        return event;
+    }
+    
+    @Override
+    public int drainTo(Collection<LogEvent> collection, int maxElements) {
+        int count = 0;
+        for (int i = 0; i < lanes.length && count < maxElements; i++) {
+            count += lanes[i].queue.drainTo(collection, maxElements - count);
+        }
+        return count;
+    }
+    
+    @Override
+    public int size() {
+        int size = 0;
+        for (Lane lane : lanes) {
+            size += lane.queue.size();
+        }
+        return size;
+    }
+    
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+    
+    @Override
+    public boolean isFull() {
+        return size() >= capacity;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        for (Lane lane : lanes) {
+            if (!lane.queue.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public void clear() {
+        for (Lane lane : lanes) {
+            lane.queue.clear();
+        }
+    }
+    
+    @Override
+    public double getUsage() {
+        return (double) size() / capacity;
+    }
+    
+    /**
+     * 获取通道中的事件数量
+     * @param laneName 通道名称（日志级别）
+     * @return 事件数量
+     */
+    public int getLaneSize(String laneName) {
+        return lanes[laneIndex(laneName)].queue.size();
+    }
+    
+    /**
+     * 获取通道容量
+     * @param laneName 通道名称（日志级别）
+     * @return 通道容量
+     */
+    public int getLaneCapacity(String laneName) {
+        return lanes[laneIndex(laneName)].queue.capacity();
+    }
+    
+    /**
+     * 获取通道因已满而拒绝的事件数量
+     * @param laneName 通道名称（日志级别）
+     * @return 拒绝数量
+     */
+    public long getLaneDroppedCount(String laneName) {
+        return lanes[laneIndex(laneName)].dropped.sum();
+    }
+    
+    /**
+     * 获取事件所属通道
+     * @param event 日志事件
+     * @return 通道
+     */
+    private Lane laneOf(LogEvent event) {
+        return lanes[laneIndex(event.getLevel())];
+    }
+    
+    /**
+     * 根据日志级别计算通道下标
+     * @param level 日志级别
+     * @return 通道下标
+     */
+    private static int laneIndex(String level) {
+        return LogLevel.fromCode(level, DEFAULT_LANE).ordinal();
+    }
+    
+    private static String[] laneNames() {
+        LogLevel[] levels = LogLevel.values();
+        String[] names = new String[levels.length];
+        for (LogLevel level : levels) {
+            names[level.ordinal()] = level.getCode();
+        }
+        return names;
+    }
+    
+    /**
+     * 优先级通道
+     */
+    private static class Lane {
+        
+        /**
+         * 通道队列
+         */
+        private final RingEventQueue queue;
+        
+        /**
+         * 拒绝计数
+         */
+        private final LongAdder dropped = new LongAdder();
+        
+        Lane(RingEventQueue queue) {
+            this.queue = queue;
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.asyncflow.log.queue;
+
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.PooledLogEvent;
+import com.asyncflow.log.queue.overflow.OverflowPolicy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 生产者端批量发布器
+ * 每个生产者线程持有一个线程本地缓冲区，事件先写入缓冲区，攒满batchSize个或最早的事件
+ * 等待超过lingerMicros微秒后作为一批通过{@link EventQueue#offerAll(List)}发布，
+ * 把每个事件一次的队列同步开销分摊到整批上。
+ * 后台清扫线程定期发布空闲线程缓冲区中超时的事件，并回收已结束线程的缓冲区。
+ * 代价是事件最多延迟lingerMicros（加一个清扫周期）才对消费者可见。
+ */
+@Slf4j
+public class ProducerBatcher {
+    
+    /**
+     * 事件队列
+     */
+    private final EventQueue eventQueue;
+    
+    /**
+     * 队列溢出策略，为null时直接丢弃
+     */
+    private final OverflowPolicy overflowPolicy;
+    
+    /**
+     * 事件序号分配器，为null时不分配序号
+     */
+    private EventSequencer eventSequencer;
+    
+    /**
+     * 每批事件数
+     */
+    private final int batchSize;
+    
+    /**
+     * 最长缓冲时间（纳秒）
+     */
+    private final long lingerNanos;
+    
+    /**
+     * 所有线程的缓冲区，供清扫线程遍历
+     */
+    private final List<Buffer> buffers = new CopyOnWriteArrayList<>();
+    
+    /**
+     * 当前线程的缓冲区
+     */
+    private final ThreadLocal<Buffer> localBuffer = ThreadLocal.withInitial(this::register);
+    
+    /**
+     * 运行状态
+     */
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    
+    /**
+     * 清扫线程
+     */
+    private ScheduledExecutorService sweeper;
+    
+    /**
+     * 已发布的批次数
+     */
+    private final LongAdder publishedBatches = new LongAdder();
+    
+    /**
+     * 已发布的事件数
+     */
+    private final LongAdder publishedEvents = new LongAdder();
+    
+    /**
+     * 发布时被队列拒绝的事件数
+     */
+    private final LongAdder rejectedEvents = new LongAdder();
+    
+    /**
+     * 构造函数
+     * @param eventQueue 事件队列
+     * @param overflowPolicy 队列溢出策略，可以为null
+     * @param batchSize 每批事件数
+     * @param lingerMicros 最长缓冲时间（微秒）
+     */
+    public ProducerBatcher(EventQueue eventQueue, OverflowPolicy overflowPolicy, int batchSize, long lingerMicros) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("批量大小必须大于0: " + batchSize);
+        }
+        if (lingerMicros <= 0) {
+            throw new IllegalArgumentException("缓冲时间必须大于0: " + lingerMicros);
+        }
+        this.eventQueue = eventQueue;
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MICROSECONDS.toNanos(lingerMicros);
+    }
+    
+    /**
+     * 启动清扫线程
+     */
+    public void start() {
+        if (running.compareAndSet(false, true)) {
+            sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "async-log-batch-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(TimeUnit.NANOSECONDS.toMicros(lingerNanos), 100);
+            sweeper.scheduleAtFixedRate(this::sweep, period, period, TimeUnit.MICROSECONDS);
+            log.info("启动生产者批量发布器，批量大小: {}, 缓冲时间: {}微秒", batchSize, 
+                    TimeUnit.NANOSECONDS.toMicros(lingerNanos));
+        }
+    }
+    
+    /**
+     * 停止清扫线程并发布所有缓冲区中的事件
+     */
+    public void shutdown() {
+        if (running.compareAndSet(true, false)) {
+            log.info("关闭生产者批量发布器");
+            sweeper.shutdown();
+            try {
+                sweeper.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flushAll();
+        }
+    }
+    
+    /**
+     * 添加事件到当前线程的缓冲区，攒满一批时立即发布
+     * @param event 日志事件
+     * @return 事件进入缓冲区或已发布返回true；批量发布时被拒绝且溢出策略也未接收的事件会使本次返回false
+     */
+    public boolean submit(LogEvent event) {
+        if (event == null) {
+            return false;
+        }
+        Buffer buffer = localBuffer.get();
+        buffer.lock.lock();
+        try {
+            if (buffer.events.isEmpty()) {
+                buffer.firstNanos = System.nanoTime();
+            }
+            buffer.events.add(event);
+            buffer.size = buffer.events.size();
+            if (buffer.size >= batchSize) {
+                return publish(buffer);
+            }
+            return true;
+        } finally {
+            buffer.lock.unlock();
+        }
+    }
+    
+    /**
+     * 发布当前线程缓冲区中的事件
+     */
+    public void flush() {
+        Buffer buffer = localBuffer.get();
+        buffer.lock.lock();
+        try {
+            publish(buffer);
+        } finally {
+            buffer.lock.unlock();
+        }
+    }
+    
+    /**
+     * 发布所有线程缓冲区中的事件
+     */
+    public void flushAll() {
+        for (Buffer buffer : buffers) {
+            buffer.lock.lock();
+            try {
+                publish(buffer);
+            } finally {
+                buffer.lock.unlock();
+            }
+        }
+    }
+    
+    /**
+     * 设置事件序号分配器，需在启动前设置
+     * @param eventSequencer 事件序号分配器，为null时不分配序号
+     */
+    public void setEventSequencer(EventSequencer eventSequencer) {
+        this.eventSequencer = eventSequencer;
+    }
+    
+    /**
+     * 获取已发布的批次数
+     * @return 批次数
+     */
+    public long getPublishedBatchCount() {
+        return publishedBatches.sum();
+    }
+    
+    /**
+     * 获取已发布的事件数
+     * @return 事件数
+     */
+    public long getPublishedEventCount() {
+        return publishedEvents.sum();
+    }
+    
+    /**
+     * 获取发布时被队列拒绝的事件数
+     * @return 事件数
+     */
+    public long getRejectedEventCount() {
+        return rejectedEvents.sum();
+    }
+    
+    /**
+     * 获取所有缓冲区中尚未发布的事件数
+     * @return 事件数
+     */
+    public int getBufferedCount() {
+        int count = 0;
+        for (Buffer buffer : buffers) {
+            count += buffer.size;
+        }
+        return count;
+    }
+    
+    /**
+     * 获取缓冲区数量
+     * @return 缓冲区数量
+     */
+    public int getBufferCount() {
+        return buffers.size();
+    }
+    
+    /**
+     * 获取每批事件数
+     * @return 每批事件数
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    /**
+     * 为当前线程创建并登记缓冲区
+     * @return 缓冲区
+     */
+    private Buffer register() {
+        Buffer buffer = new Buffer(Thread.currentThread(), batchSize);
+        buffers.add(buffer);
+        return buffer;
+    }
+    
+    /**
+     * 清扫：发布超时的缓冲区，回收已结束线程的缓冲区
+     */
+    private void sweep() {
+        try {
+            long now = System.nanoTime();
+            for (Buffer buffer : buffers) {
+                Thread owner = buffer.owner.get();
+                boolean dead = owner == null || !owner.isAlive();
+                if (buffer.size > 0 && (dead || now - buffer.firstNanos >= lingerNanos)) {
+                    // 生产者正在写入时跳过，由生产者自己发布或等下一轮
+                    if (buffer.lock.tryLock()) {
+                        try {
+                            publish(buffer);
+                        } finally {
+                            buffer.lock.unlock();
+                        }
+                    }
+                }
+                if (dead && buffer.size == 0) {
+                    buffers.remove(buffer);
+                }
+            }
+        } catch (Exception e) {
+            log.error("清扫生产者缓冲区异常: {}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 发布缓冲区中的事件，调用方必须持有缓冲区锁
+     * @param buffer 缓冲区
+     * @return 所有事件都被接收返回true
+     */
+    private boolean publish(Buffer buffer) {
+        List<LogEvent> events = buffer.events;
+        if (events.isEmpty()) {
+            return true;
+        }
+        boolean allAccepted = true;
+        // 第一个尚未确定去向（入队、溢出策略接收或已丢弃）的事件
+        int undecided = 0;
+        try {
+            if (eventSequencer != null) {
+                // 发布时才分配序号，整批序号连续，缓冲时间不会让写出端等待
+                eventSequencer.stamp(events);
+            }
+            int accepted = eventQueue.offerAll(events);
+            undecided = accepted;
+            publishedBatches.increment();
+            publishedEvents.add(accepted);
+            for (int i = accepted; i < events.size(); i++) {
+                rejectedEvents.increment();
+                if (!handleOverflow(events.get(i))) {
+                    allAccepted = false;
+                }
+                undecided = i + 1;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("批量发布日志事件被中断，丢弃{}个事件", events.size() - undecided);
+            if (eventSequencer != null) {
+                eventSequencer.skip(events.subList(undecided, events.size()));
+            }
+            allAccepted = false;
+        } finally {
+            events.clear();
+            buffer.size = 0;
+        }
+        return allAccepted;
+    }
+    
+    /**
+     * 处理被队列拒绝的事件
+     * @param event 日志事件
+     * @return 事件最终被接收返回true
+     * @throws InterruptedException 如果在等待过程中被中断
+     */
+    private boolean handleOverflow(LogEvent event) throws InterruptedException {
+        if (overflowPolicy != null) {
+            return overflowPolicy.onOverflow(event, eventQueue);
+        }
+        log.warn("日志队列已满，丢弃日志: {}", event.getMessage());
+        if (eventSequencer != null) {
+            eventSequencer.skip(event);
+        }
+        PooledLogEvent.releaseIfPooled(event);
+        return false;
+    }
+    
+    /**
+     * 线程本地缓冲区
+     * 正常情况下只有所属线程访问，锁几乎无竞争；清扫线程用tryLock避免阻塞生产者
+     */
+    private static final class Buffer {
+        
+        private final WeakReference<Thread> owner;
+        
+        private final ReentrantLock lock = new ReentrantLock();
+        
+        private final List<LogEvent> events;
+        
+        /**
+         * 缓冲事件数，供清扫线程无锁读取
+         */
+        private volatile int size;
+        
+        /**
+         * 缓冲区中最早事件的写入时间
+         */
+        private volatile long firstNanos;
+        
+        Buffer(Thread owner, int batchSize) {
+            this.owner = new WeakReference<>(owner);
+            this.events = new ArrayList<>(batchSize);
+        }
+    }
+}
@@ -1,9 +1,18 @@
 package com.asyncflow.log.queue;
 
+import com.asyncflow.log.queue.overflow.OverflowPolicy;
+import com.asyncflow.log.queue.wait.BlockingWaitStrategy;
+import com.asyncflow.log.queue.wait.BusySpinWaitStrategy;
+import com.asyncflow.log.queue.wait.SleepingWaitStrategy;
+import com.asyncflow.log.queue.wait.WaitStrategy;
+import com.asyncflow.log.queue.wait.YieldingWaitStrategy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 /**
  * 队列工厂类
  * 用于创建不同类型的事件队列
@@ -24,6 +33,87 @@ public class QueueFactory {
     @Value("${async.log.queue.capacity:10000}")
     private int queueCapacity;
     
+    /**
+     * 消费者等待策略（仅sequenced队列使用）
+     */
+    @Value("${async.log.queue.wait-strategy:blocking}")
+    private String waitStrategy;
+    
+    /**
+     * 分片数（仅striped队列使用），0表示使用CPU核数
+     */
+    @Value("${async.log.queue.stripes:0}")
+    private int stripes;
+    
+    /**
+     * 各优先级通道容量（仅priority队列使用），0表示使用队列容量
+     */
+    @Value("${async.log.queue.lanes.error-capacity:0}")
+    private int errorLaneCapacity;
+    
+    @Value("${async.log.queue.lanes.warn-capacity:0}")
+    private int warnLaneCapacity;
+    
+    @Value("${async.log.queue.lanes.info-capacity:0}")
+    private int infoLaneCapacity;
+    
+    @Value("${async.log.queue.lanes.debug-capacity:0}")
+    private int debugLaneCapacity;
+    
+    /**
+     * 堆外缓冲区大小（仅off-heap队列使用），单位字节
+     */
+    @Value("${async.log.queue.off-heap-bytes:67108864}")
+    private int offHeapBytes;
+    
+    /**
+     * 字节预算（仅bytes队列使用）
+     */
+    @Value("${async.log.queue.byte-budget:33554432}")
+    private long byteBudget;
+    
+    /**
+     * 生产者端每批事件数
+     */
+    @Value("${async.log.producer.batch.size:64}")
+    private int producerBatchSize;
+    
+    /**
+     * 生产者端最长缓冲时间（微秒）
+     */
+    @Value("${async.log.producer.batch.linger-micros:1000}")
+    private long producerLingerMicros;
+    
+    /**
+     * 是否启用磁盘溢出
+     */
+    @Value("${async.log.queue.spill.enabled:false}")
+    private boolean spillEnabled;
+    
+    /**
+     * 溢出段文件目录，为空时使用日志目录下的spill子目录
+     */
+    @Value("${async.log.queue.spill.dir:}")
+    private String spillDir;
+    
+    /**
+     * 单个溢出段文件大小（字节）
+     */
+    @Value("${async.log.queue.spill.segment-bytes:67108864}")
+    private int spillSegmentBytes;
+    
+    /**
+     * 溢出积压的最大字节数
+     */
+    @Value("${async.log.queue.spill.max-bytes:1073741824}")
+    private long spillMaxBytes;
+    
+    /**
+     * 日志文件目录
+     */
+    @Value("${async.log.appender.file-path:logs/async}")
+    private String logFilePath;
+    
     /**
      * 创建默认队列
      * 根据配置创建指定类型的队列
@@ -33,10 +123,51 @@ public class QueueFactory {
     public EventQueue createQueue() {
         log.info("创建队列，类型: {}, 容量: {}", queueType, queueCapacity);
         
+        EventQueue queue = createMemoryQueue();
+        if (spillEnabled) {
+            Path directory = spillDir == null || spillDir.isEmpty() 
+                    ? Paths.get(logFilePath, "spill") : Paths.get(spillDir);
+            return createSpillQueue(queue, directory, spillSegmentBytes, spillMaxBytes);
+        }
+        return queue;
+    }
+    
+    /**
+     * 根据配置的队列类型创建内存队列
+     * 
+     * @return 事件队列
+     */
+    private EventQueue createMemoryQueue() {
         if ("linked".equalsIgnoreCase(queueType)) {
             return createLinkedQueue(queueCapacity);
         }
         
+        if ("ring".equalsIgnoreCase(queueType)) {
+            return createRingQueue(queueCapacity);
+        }
+        
+        if ("sequenced".equalsIgnoreCase(queueType)) {
+            return createSequencedQueue(queueCapacity, createWaitStrategy(waitStrategy));
+        }
+        
+        if ("striped".equalsIgnoreCase(queueType)) {
+            return createStripedQueue(queueCapacity, stripes);
+        }
+        
+        if ("priority".equalsIgnoreCase(queueType)) {
+            return createPriorityLaneQueue(
+                    laneCapacity(errorLaneCapacity), laneCapacity(warnLaneCapacity),
+                    laneCapacity(infoLaneCapacity), laneCapacity(debugLaneCapacity));
+        }
+        
+        if ("off-heap".equalsIgnoreCase(queueType)) {
+            return createOffHeapQueue(offHeapBytes);
+        }
+        
+        if ("bytes".equalsIgnoreCase(queueType)) {
+            return createByteBudgetQueue(byteBudget);
+        }
+        
         // 默认使用LinkedEventQueue
         log.warn("未知的队列类型: {}, 使用默认的LinkedEventQueue", queueType);
         return createLinkedQueue(queueCapacity);
@@ -62,6 +193,137 @@ public class QueueFactory {
         return createLinkedQueue(queueCapacity);
     }
     
+    /**
+     * 创建指定容量的RingEventQueue
+     * 
+     * @param capacity 队列容量，会向上取整为2的幂
+     * @return RingEventQueue实例
+     */
+    public RingEventQueue createRingQueue(int capacity) {
+        log.info("创建RingEventQueue，容量: {}", capacity);
+        return new RingEventQueue(capacity);
+    }
+    
+    /**
+     * 创建指定容量和等待策略的SequencedEventQueue
+     * 
+     * @param capacity 队列容量，会向上取整为2的幂
+     * @param waitStrategy 消费者等待策略
+     * @return SequencedEventQueue实例
+     */
+    public SequencedEventQueue createSequencedQueue(int capacity, WaitStrategy waitStrategy) {
+        log.info("创建SequencedEventQueue，容量: {}, 等待策略: {}", capacity, waitStrategy.getName());
+        return new SequencedEventQueue(capacity, waitStrategy);
+    }
+    
+    /**
+     * 创建指定容量和分片数的StripedEventQueue
+     * 
+     * @param capacity 队列总容量
+     * @param stripes 分片数，小于等于0时使用CPU核数
+     * @return StripedEventQueue实例
+     */
+    public StripedEventQueue createStripedQueue(int capacity, int stripes) {
+        log.info("创建StripedEventQueue，容量: {}, 分片数: {}", capacity, stripes);
+        return new StripedEventQueue(capacity, stripes);
+    }
+    
+    /**
+     * 创建按日志级别分道的PriorityLaneEventQueue
+     * 
+     * @param errorCapacity ERROR通道容量
+     * @param warnCapacity WARN通道容量
+     * @param infoCapacity INFO通道容量
+     * @param debugCapacity DEBUG通道容量
+     * @return PriorityLaneEventQueue实例
+     */
+    public PriorityLaneEventQueue createPriorityLaneQueue(int errorCapacity, int warnCapacity, 
+                                                         int infoCapacity, int debugCapacity) {
+        log.info("创建PriorityLaneEventQueue，ERROR: {}, WARN: {}, INFO: {}, DEBUG: {}", 
+                errorCapacity, warnCapacity, infoCapacity, debugCapacity);
+        return new PriorityLaneEventQueue(errorCapacity, warnCapacity, infoCapacity, debugCapacity);
+    }
+    
+    /**
+     * 创建指定字节容量的OffHeapEventQueue
+     * 
+     * @param capacityBytes 堆外缓冲区大小（字节）
+     * @return OffHeapEventQueue实例
+     */
+    public OffHeapEventQueue createOffHeapQueue(int capacityBytes) {
+        log.info("创建OffHeapEventQueue，容量: {}字节", capacityBytes);
+        return new OffHeapEventQueue(capacityBytes);
+    }
+    
+    /**
+     * 创建按字节预算限制的ByteBudgetEventQueue
+     * 
+     * @param budgetBytes 字节预算
+     * @return ByteBudgetEventQueue实例
+     */
+    public ByteBudgetEventQueue createByteBudgetQueue(long budgetBytes) {
+        log.info("创建ByteBudgetEventQueue，字节预算: {}", budgetBytes);
+        return new ByteBudgetEventQueue(budgetBytes);
+    }
+    
+    /**
+     * 创建支持磁盘溢出的SpillEventQueue
+     * 
+     * @param delegate 内存队列
+     * @param directory 段文件目录
+     * @param segmentBytes 单个段文件大小（字节）
+     * @param maxBytes 溢出积压的最大字节数
+     * @return SpillEventQueue实例
+     */
+    public SpillEventQueue createSpillQueue(EventQueue delegate, Path directory, int segmentBytes, long maxBytes) {
+        log.info("创建SpillEventQueue，目录: {}, 段大小: {}字节", directory, segmentBytes);
+        return new SpillEventQueue(delegate, directory, segmentBytes, maxBytes);
+    }
+    
+    /**
+     * 创建生产者端批量发布器
+     * 
+     * @param eventQueue 事件队列
+     * @param overflowPolicy 队列溢出策略
+     * @return ProducerBatcher实例
+     */
+    public ProducerBatcher createProducerBatcher(EventQueue eventQueue, OverflowPolicy overflowPolicy) {
+        log.info("创建ProducerBatcher，批量大小: {}, 缓冲时间: {}微秒", producerBatchSize, producerLingerMicros);
+        return new ProducerBatcher(eventQueue, overflowPolicy, producerBatchSize, producerLingerMicros);
+    }
+    
+    /**
+     * 根据名称创建等待策略
+     * 
+     * @param name 策略名称：busy-spin、yield、sleep、blocking
+     * @return 等待策略
+     */
+    public WaitStrategy createWaitStrategy(String name) {
+        if (BusySpinWaitStrategy.NAME.equalsIgnoreCase(name)) {
+            return new BusySpinWaitStrategy();
+        }
+        if (YieldingWaitStrategy.NAME.equalsIgnoreCase(name)) {
+            return new YieldingWaitStrategy();
+        }
+        if (SleepingWaitStrategy.NAME.equalsIgnoreCase(name)) {
+            return new SleepingWaitStrategy();
+        }
+        if (!BlockingWaitStrategy.NAME.equalsIgnoreCase(name)) {
+            log.warn("未知的等待策略: {}, 使用默认的blocking策略", name);
+        }
+        return new BlockingWaitStrategy();
+    }
+    
+    /**
+     * 计算通道容量，未配置时使用队列容量
+     * 
+     * @param configured 配置的通道容量
+     * @return 通道容量
+     */
+    private int laneCapacity(int configured) {
+        return configured > 0 ? configured : queueCapacity;
+    }
+    
     /**
      * 获取配置的队列类型
      * 
@@ -79,4 +341,49 @@ public class QueueFactory {
     public int getQueueCapacity() {
         return queueCapacity;
     }
-} 
\ No newline at end of file
+    
+    /**
+     * 获取配置的等待策略
+     * 
+     * @return 等待策略名称
+     */
+    public String getWaitStrategy() {
+        return waitStrategy;
+    }
+    
+    /**
+     * 获取配置的分片数
+     * 
+     * @return 分片数，0表示使用CPU核数
+     */
+    public int getStripes() {
+        return stripes;
+    }
+    
+    /**
+     * 获取配置的堆外缓冲区大小
+     * 
+     * @return 堆外缓冲区大小（字节）
+     */
+    public int getOffHeapBytes() {
+        return offHeapBytes;
+    }
+    
+    /**
+     * 获取配置的字节预算
+     * 
+     * @return 字节预算
+     */
+    public long getByteBudget() {
+        return byteBudget;
+    }
+    
+    /**
+     * 是否启用磁盘溢出
+     * 
+     * @return 启用返回true
+     */
+    public boolean isSpillEnabled() {
+        return spillEnabled;
+    }
+}
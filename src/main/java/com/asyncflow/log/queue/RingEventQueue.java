@@ -0,0 +1,437 @@
+package com.asyncflow.log.queue;
+
+import com.asyncflow.log.model.event.LogEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 基于预分配环形数组实现的事件队列
+ * 容量向上取整为2的幂，生产者通过CAS竞争序号，适用于多生产者、单个或少量消费者的场景。
+ * 每个槽位维护一个序号用于判断槽位是否可写/可读，入队过程不分配节点，也不持有锁。
+ * 仅在队列为空（或已满）且需要阻塞等待时才使用锁和条件变量。
+ */
+@Slf4j
+public class RingEventQueue implements EventQueue {
+
+    /**
+     * 默认队列容量
+     */
+    private static final int DEFAULT_CAPACITY = 10000;
+
+    /**
+     * 进入阻塞等待前的自旋次数
+     */
+    private static final int SPIN_TRIES = 100;
+
+    /**
+     * 环形数组
+     */
+    private final LogEvent[] buffer;
+
+    /**
+     * 槽位序号，用于标识槽位当前可写还是可读
+     */
+    private final AtomicLongArray sequences;
+
+    /**
+     * 下标掩码
+     */
+    private final int mask;
+
+    /**
+     * 队列容量
+     */
+    private final int capacity;
+
+    /**
+     * 生产者序号（下一个待写入的位置）
+     */
+    private final AtomicLong tail = new AtomicLong(0);
+
+    /**
+     * 消费者序号（下一个待读取的位置）
+     */
+    private final AtomicLong head = new AtomicLong(0);
+
+    /**
+     * 阻塞等待使用的锁
+     */
+    private final ReentrantLock waitLock = new ReentrantLock();
+
+    /**
+     * 队列非空条件
+     */
+    private final Condition notEmpty = waitLock.newCondition();
+
+    /**
+     * 队列未满条件
+     */
+    private final Condition notFull = waitLock.newCondition();
+
+    /**
+     * 等待数据的消费者数量
+     */
+    private final AtomicInteger waitingConsumers = new AtomicInteger(0);
+
+    /**
+     * 等待空位的生产者数量
+     */
+    private final AtomicInteger waitingProducers = new AtomicInteger(0);
+
+    /**
+     * 默认构造函数，使用默认容量
+     */
+    public RingEventQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * 带容量的构造函数
+     * @param capacity 队列容量，会向上取整为2的幂
+     */
+    public RingEventQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("队列容量必须大于0: " + capacity);
+        }
+        this.capacity = roundToPowerOfTwo(capacity);
+        this.mask = this.capacity - 1;
+        this.buffer = new LogEvent[this.capacity];
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+        log.info("创建RingEventQueue，请求容量: {}, 实际容量: {}", capacity, this.capacity);
+    }
+
+    @Override
+    public boolean offer(LogEvent event) throws InterruptedException {
+        if (event == null) {
+            log.warn("尝试添加null事件到队列");
+            return false;
+        }
+        return tryPublish(event);
+    }
+
+    @Override
+    public void put(LogEvent event) throws InterruptedException {
+        if (event == null) {
+            log.warn("尝试添加null事件到队列");
+            return;
+        }
+        while (!tryPublish(event)) {
+            awaitNotFull(Long.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public boolean offer(LogEvent event, long timeout) throws InterruptedException {
+        if (event == null) {
+            log.warn("尝试添加null事件到队列");
+            return false;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        while (!tryPublish(event)) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            awaitNotFull(remaining);
+        }
+        return true;
+    }
+
+    /**
+     * 批量添加事件
+     * 一次CAS认领连续的多个序号，再逐个写入槽位，整批只唤醒一次消费者。
+     * 列表中不能包含null事件。
+     */
+    @Override
+    public int offerAll(List<LogEvent> events) throws InterruptedException {
+        int requested = events.size();
+        if (requested == 0) {
+            return 0;
+        }
+        long position;
+        int claimed;
+        while (true) {
+            position = tail.get();
+            long free = capacity - (position - head.get());
+            claimed = (int) Math.min(requested, free);
+            if (claimed <= 0) {
+                return 0;
+            }
+            if (tail.compareAndSet(position, position + claimed)) {
+                break;
+            }
+        }
+        for (int i = 0; i < claimed; i++) {
+            long sequence = position + i;
+            int index = (int) (sequence & mask);
+            // 槽位的上一轮事件已被消费者认领，等待其释放
+            while (sequences.get(index) != sequence) {
+                Thread.onSpinWait();
+            }
+            buffer[index] = events.get(i);
+            sequences.set(index, sequence + 1);
+        }
+        signalNotEmpty();
+        return claimed;
+    }
+    
+    @Override
+    public LogEvent poll() {
+        return tryConsume();
+    }
+
+    @Override
+    public LogEvent take() throws InterruptedException {
+        LogEvent event;
+        while ((event = tryConsume()) == null) {
+            awaitNotEmpty(Long.MAX_VALUE);
+        }
+        return event;
+    }
+
+    @Override
+    public LogEvent poll(long timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        LogEvent event;
+        while ((event = tryConsume()) == null) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            awaitNotEmpty(remaining);
+        }
+        return event;
+    }
+
+    @Override
+    public int drainTo(Collection<LogEvent> collection, int maxElements) {
+        int count = 0;
+        LogEvent event;
+        while (count < maxElements && (event = tryConsume()) != null) {
+            collection.add(event);
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public int size() {
+        // 先读head再读tail，保证差值不会为负
+        long currentHead = head.get();
+        long currentTail = tail.get();
+        long size = currentTail - currentHead;
+        if (size < 0) {
+            return 0;
+        }
+        return (int) Math.min(size, capacity);
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public boolean isFull() {
+        return size() >= capacity;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public void clear() {
+        while (tryConsume() != null) {
+            // 逐个出队直到为空
+        }
+    }
+
+    @Override
+    public double getUsage() {
+        return (double) size() / capacity;
+    }
+
+    /**
+     * 尝试将事件写入环形数组
+     * @param event 日志事件
+     * @return 队列已满时返回false
+     */
+    protected boolean tryPublish(LogEvent event) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long sequence = sequences.get(index);
+            long diff = sequence - position;
+            if (diff == 0) {
+                // 槽位可写，CAS认领该序号
+                if (tail.compareAndSet(position, position + 1)) {
+                    buffer[index] = event;
+                    // 使用volatile写发布，与等待方的计数检查构成先行关系
+                    sequences.set(index, position + 1);
+                    signalNotEmpty();
+                    return true;
+                }
+                position = tail.get();
+            } else if (diff < 0) {
+                // 槽位仍被上一轮数据占用，队列已满
+                return false;
+            } else {
+                // 其他生产者已认领该序号，重新读取
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * 尝试从环形数组读取事件
+     * @return 队列为空时返回null
+     */
+    protected LogEvent tryConsume() {
+        long position = head.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long sequence = sequences.get(index);
+            long diff = sequence - (position + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    LogEvent event = buffer[index];
+                    buffer[index] = null;
+                    // 释放槽位供下一轮写入
+                    sequences.set(index, position + capacity);
+                    signalNotFull();
+                    return event;
+                }
+                position = head.get();
+            } else if (diff < 0) {
+                // 槽位尚未发布，队列为空
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * 等待队列中出现可读事件
+     * 先短暂自旋，仍为空时再进入条件等待
+     * @param timeoutNanos 最长等待时间（纳秒）
+     * @throws InterruptedException 如果在等待过程中被中断
+     */
+    protected void awaitNotEmpty(long timeoutNanos) throws InterruptedException {
+        for (int i = 0; i < SPIN_TRIES; i++) {
+            if (!isEmpty()) {
+                return;
+            }
+            Thread.onSpinWait();
+        }
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        waitLock.lockInterruptibly();
+        try {
+            waitingConsumers.incrementAndGet();
+            try {
+                if (isEmpty()) {
+                    if (timeoutNanos == Long.MAX_VALUE) {
+                        notEmpty.await();
+                    } else {
+                        notEmpty.awaitNanos(timeoutNanos);
+                    }
+                }
+            } finally {
+                waitingConsumers.decrementAndGet();
+            }
+        } finally {
+            waitLock.unlock();
+        }
+    }
+
+    /**
+     * 等待队列出现空位
+     * @param timeoutNanos 最长等待时间（纳秒）
+     * @throws InterruptedException 如果在等待过程中被中断
+     */
+    protected void awaitNotFull(long timeoutNanos) throws InterruptedException {
+        for (int i = 0; i < SPIN_TRIES; i++) {
+            if (!isFull()) {
+                return;
+            }
+            Thread.onSpinWait();
+        }
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        waitLock.lockInterruptibly();
+        try {
+            waitingProducers.incrementAndGet();
+            try {
+                if (isFull()) {
+                    if (timeoutNanos == Long.MAX_VALUE) {
+                        notFull.await();
+                    } else {
+                        notFull.awaitNanos(timeoutNanos);
+                    }
+                }
+            } finally {
+                waitingProducers.decrementAndGet();
+            }
+        } finally {
+            waitLock.unlock();
+        }
+    }
+
+    /**
+     * 发布事件后唤醒等待中的消费者
+     * 没有消费者等待时只有一次volatile读，不会触碰锁
+     */
+    protected void signalNotEmpty() {
+        if (waitingConsumers.get() > 0) {
+            waitLock.lock();
+            try {
+                notEmpty.signalAll();
+            } finally {
+                waitLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 释放槽位后唤醒等待中的生产者
+     */
+    protected void signalNotFull() {
+        if (waitingProducers.get() > 0) {
+            waitLock.lock();
+            try {
+                notFull.signalAll();
+            } finally {
+                waitLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 将容量向上取整为2的幂
+     * @param value 原始容量
+     * @return 不小于原始容量的最小2的幂
+     */
+    private static int roundToPowerOfTwo(int value) {
+        if (value > (1 << 30)) {
+            throw new IllegalArgumentException("队列容量过大: " + value);
+        }
+        int highest = Integer.highestOneBit(value);
+        return highest == value ? value : highest << 1;
+    }
+}
@@ -0,0 +1,60 @@
+package com.asyncflow.log.queue;
+
+import com.asyncflow.log.queue.wait.BlockingWaitStrategy;
+import com.asyncflow.log.queue.wait.WaitStrategy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 基于序号屏障的事件队列（Disruptor风格）
+ * 生产者沿用RingEventQueue的CAS序号认领与槽位发布，
+ * 消费者在序号屏障上按可插拔的等待策略等待下一个序号可读：
+ * 忙等待、让步、休眠或阻塞，分别对应不同的延迟与CPU占用取舍。
+ */
+@Slf4j
+public class SequencedEventQueue extends RingEventQueue {
+    
+    /**
+     * 消费者等待策略
+     */
+    private final WaitStrategy waitStrategy;
+    
+    /**
+     * 带容量的构造函数，使用阻塞等待策略
+     * @param capacity 队列容量，会向上取整为2的幂
+     */
+    public SequencedEventQueue(int capacity) {
+        this(capacity, new BlockingWaitStrategy());
+    }
+    
+    /**
+     * 带容量和等待策略的构造函数
+     * @param capacity 队列容量，会向上取整为2的幂
+     * @param waitStrategy 消费者等待策略
+     */
+    public SequencedEventQueue(int capacity, WaitStrategy waitStrategy) {
+        super(capacity);
+        if (waitStrategy == null) {
+            throw new IllegalArgumentException("等待策略不能为空");
+        }
+        this.waitStrategy = waitStrategy;
+        log.info("创建SequencedEventQueue，容量: {}, 等待策略: {}", capacity(), waitStrategy.getName());
+    }
+    
+    @Override
+    protected void awaitNotEmpty(long timeoutNanos) throws InterruptedException {
+        waitStrategy.waitFor(() -> !isEmpty(), timeoutNanos);
+    }
+    
+    @Override
+    protected void signalNotEmpty() {
+        waitStrategy.signalAllWhenBlocking();
+    }
+    
+    /**
+     * 获取消费者等待策略
+     * @return 等待策略
+     */
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+}
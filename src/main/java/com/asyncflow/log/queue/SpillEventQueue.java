@@ -0,0 +1,747 @@
+package com.asyncflow.log.queue;
+
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.PooledLogEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 支持磁盘溢出的事件队列
+ * 装饰一个内存队列，内存队列已满时不再丢弃事件，而是将事件编码后追加写入内存映射的段文件。
+ * 一旦开始溢出，后续事件都写入段文件，直到消费者把溢出的事件全部回放完毕，以保证事件顺序。
+ * 消费者先取内存队列中的事件，再按写入顺序回放段文件，回放完的段文件会被删除。
+ * 段文件格式：连续的[int 长度][编码后的事件]记录，长度为0表示段结束。
+ * 长度字段在事件内容写完之后才写入，进程异常退出后重启时可以从已有段文件中恢复完整的记录。
+ * 恢复时校验每条记录的长度和编码版本：版本不兼容的记录（如升级前写入的段）不计入积压，回放时跳过；
+ * 全部记录都无法解码的段改名隔离，保留以便排查。回放时解码失败的记录同样跳过并计数，不会阻塞后续记录。
+ */
+@Slf4j
+public class SpillEventQueue implements EventQueue {
+    
+    /**
+     * 默认段文件大小（64MB）
+     */
+    private static final int DEFAULT_SEGMENT_BYTES = 64 * 1024 * 1024;
+    
+    /**
+     * 记录头长度
+     */
+    private static final int HEADER_BYTES = Integer.BYTES;
+    
+    /**
+     * 段文件名前缀
+     */
+    private static final String SEGMENT_PREFIX = "spill-";
+    
+    /**
+     * 段文件名后缀
+     */
+    private static final String SEGMENT_SUFFIX = ".seg";
+    
+    /**
+     * 隔离段文件的后缀
+     */
+    private static final String QUARANTINE_SUFFIX = ".corrupt";
+    
+    /**
+     * 消费者等待内存队列时的最长单次等待时间（毫秒），到期后重新检查段文件
+     */
+    private static final long SPILL_CHECK_MILLIS = 10;
+    
+    /**
+     * 超大事件警告的最短间隔，持续出现超大事件时不逐条记录
+     */
+    private static final long OVERSIZED_WARN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    
+    /**
+     * 被装饰的内存队列
+     */
+    private final EventQueue delegate;
+    
+    /**
+     * 段文件目录
+     */
+    private final Path directory;
+    
+    /**
+     * 单个段文件大小
+     */
+    private final int segmentBytes;
+    
+    /**
+     * 溢出积压的最大字节数，超过后拒绝事件
+     */
+    private final long maxSpillBytes;
+    
+    /**
+     * 段文件读写锁
+     */
+    private final ReentrantLock spillLock = new ReentrantLock();
+    
+    /**
+     * 尚未回放完的段文件，队首为正在回放的段，队尾为正在写入的段
+     */
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    
+    /**
+     * 下一个段文件序号
+     */
+    private long nextSegmentId;
+    
+    /**
+     * 是否处于溢出状态，处于溢出状态时新事件直接写入段文件
+     */
+    private volatile boolean spilling;
+    
+    /**
+     * 溢出积压的事件数
+     */
+    private final AtomicLong backlogEvents = new AtomicLong(0);
+    
+    /**
+     * 溢出积压的字节数
+     */
+    private final AtomicLong backlogBytes = new AtomicLong(0);
+    
+    /**
+     * 累计溢出的字节数
+     */
+    private final LongAdder spilledBytes = new LongAdder();
+    
+    /**
+     * 累计溢出的事件数
+     */
+    private final LongAdder spilledCount = new LongAdder();
+    
+    /**
+     * 累计回放的事件数
+     */
+    private final LongAdder replayedCount = new LongAdder();
+    
+    /**
+     * 累计跳过的损坏或版本不兼容的记录数
+     */
+    private final LongAdder corruptCount = new LongAdder();
+    
+    /**
+     * 累计因溢出积压达到上限或编码后超过段文件大小而拒绝的事件数
+     */
+    private final LongAdder rejectedCount = new LongAdder();
+    
+    /**
+     * 溢出积压是否已达上限，只在进入和离开该状态时记录日志（由spillLock保护）
+     */
+    private boolean backlogFull;
+    
+    /**
+     * 积压达到上限时的拒绝事件数，离开该状态时据此计算期间拒绝的数量（由spillLock保护）
+     */
+    private long rejectedAtBacklogFull;
+    
+    /**
+     * 上次记录超大事件警告的时间（纳秒，由spillLock保护）
+     */
+    private long lastOversizedWarnNanos;
+    
+    /**
+     * 使用默认段文件大小的构造函数
+     * @param delegate 内存队列
+     * @param directory 段文件目录
+     * @param maxSpillBytes 溢出积压的最大字节数
+     */
+    public SpillEventQueue(EventQueue delegate, Path directory, long maxSpillBytes) {
+        this(delegate, directory, DEFAULT_SEGMENT_BYTES, maxSpillBytes);
+    }
+    
+    /**
+     * 构造函数
+     * @param delegate 内存队列
+     * @param directory 段文件目录
+     * @param segmentBytes 单个段文件大小
+     * @param maxSpillBytes 溢出积压的最大字节数
+     */
+    public SpillEventQueue(EventQueue delegate, Path directory, int segmentBytes, long maxSpillBytes) {
+        if (segmentBytes <= HEADER_BYTES * 2) {
+            throw new IllegalArgumentException("段文件大小过小: " + segmentBytes);
+        }
+        this.delegate = delegate;
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSpillBytes = maxSpillBytes;
+        try {
+            Files.createDirectories(directory);
+            recoverSegments();
+        } catch (IOException e) {
+            throw new IllegalStateException("初始化溢出目录失败: " + directory, e);
+        }
+        log.info("创建SpillEventQueue，目录: {}, 段大小: {}字节, 最大积压: {}字节, 恢复事件数: {}",
+                directory, segmentBytes, maxSpillBytes, backlogEvents.get());
+    }
+    
+    @Override
+    public boolean offer(LogEvent event) throws InterruptedException {
+        if (event == null) {
+            log.warn("尝试添加null事件到队列");
+            return false;
+        }
+        if (!spilling && delegate.offer(event)) {
+            return true;
+        }
+        return spill(event);
+    }
+    
+    /**
+     * 添加事件，内存队列已满时写入段文件而不阻塞
+     */
+    @Override
+    public void put(LogEvent event) throws InterruptedException {
+        if (!offer(event) && event != null) {
+            // 段文件积压也已达上限，退化为等待内存队列
+            delegate.put(event);
+        }
+    }
+    
+    /**
+     * 添加事件，内存队列已满时写入段文件而不等待
+     */
+    @Override
+    public boolean offer(LogEvent event, long timeout) throws InterruptedException {
+        return offer(event);
+    }
+    
+    @Override
+    public LogEvent poll() {
+        LogEvent event = delegate.poll();
+        if (event != null) {
+            return event;
+        }
+        return backlogEvents.get() > 0 ? replay() : null;
+    }
+    
+    /**
+     * 只从内存队列中腾出空位，不回放段文件中的事件
+     */
+    @Override
+    public LogEvent evictFor(LogEvent incoming) {
+        return delegate.evictFor(incoming);
+    }
+    
+    @Override
+    public LogEvent take() throws InterruptedException {
+        LogEvent event;
+        while ((event = poll(SPILL_CHECK_MILLIS)) == null) {
+            // 继续等待
+        }
+        return event;
+    }
+    
+    @Override
+    public LogEvent poll(long timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        while (true) {
+            LogEvent event = poll();
+            if (event != null) {
+                return event;
+            }
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                return null;
+            }
+            // 溢出状态下生产者不会唤醒内存队列上的等待者，因此分段等待
+            event = delegate.poll(Math.min(remaining, SPILL_CHECK_MILLIS));
+            if (event != null) {
+                return event;
+            }
+        }
+    }
+    
+    @Override
+    public int drainTo(Collection<LogEvent> collection, int maxElements) {
+        int drained = delegate.drainTo(collection, maxElements);
+        if (drained < maxElements && backlogEvents.get() > 0) {
+            drained += replayTo(collection, maxElements - drained);
+        }
+        return drained;
+    }
+    
+    @Override
+    public int size() {
+        return (int) Math.min(Integer.MAX_VALUE, delegate.size() + backlogEvents.get());
+    }
+    
+    @Override
+    public int capacity() {
+        return delegate.capacity();
+    }
+    
+    /**
+     * 判断队列是否已满
+     * 只有内存队列已满且溢出积压达到上限时才视为已满
+     */
+    @Override
+    public boolean isFull() {
+        return delegate.isFull() && backlogBytes.get() >= maxSpillBytes;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty() && backlogEvents.get() == 0;
+    }
+    
+    @Override
+    public void clear() {
+        delegate.clear();
+        spillLock.lock();
+        try {
+            while (!segments.isEmpty()) {
+                segments.pollFirst().delete();
+            }
+            backlogEvents.set(0);
+            backlogBytes.set(0);
+            spilling = false;
+        } finally {
+            spillLock.unlock();
+        }
+    }
+    
+    /**
+     * 获取内存队列的使用率
+     * 溢出积压不计入使用率，单独通过{@link #getBacklogBytes()}观察
+     */
+    @Override
+    public double getUsage() {
+        return delegate.getUsage();
+    }
+    
+    /**
+     * 获取被装饰的内存队列
+     * @return 内存队列
+     */
+    public EventQueue getDelegate() {
+        return delegate;
+    }
+    
+    /**
+     * 是否处于溢出状态
+     * @return 处于溢出状态返回true
+     */
+    public boolean isSpilling() {
+        return spilling;
+    }
+    
+    /**
+     * 获取累计溢出的字节数
+     * @return 字节数
+     */
+    public long getSpilledBytes() {
+        return spilledBytes.sum();
+    }
+    
+    /**
+     * 获取累计溢出的事件数
+     * @return 事件数
+     */
+    public long getSpilledCount() {
+        return spilledCount.sum();
+    }
+    
+    /**
+     * 获取溢出积压的事件数
+     * @return 事件数
+     */
+    public long getBacklogEvents() {
+        return backlogEvents.get();
+    }
+    
+    /**
+     * 获取溢出积压的字节数
+     * @return 字节数
+     */
+    public long getBacklogBytes() {
+        return backlogBytes.get();
+    }
+    
+    /**
+     * 获取累计回放的事件数
+     * @return 事件数
+     */
+    public long getReplayedCount() {
+        return replayedCount.sum();
+    }
+    
+    /**
+     * 获取累计跳过的损坏或版本不兼容的记录数
+     * @return 记录数
+     */
+    public long getCorruptCount() {
+        return corruptCount.sum();
+    }
+    
+    /**
+     * 获取累计因溢出积压达到上限或编码后超过段文件大小而拒绝的事件数
+     * @return 事件数
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+    
+    /**
+     * 获取当前段文件数量
+     * @return 段文件数量
+     */
+    public int getSegmentCount() {
+        spillLock.lock();
+        try {
+            return segments.size();
+        } finally {
+            spillLock.unlock();
+        }
+    }
+    
+    /**
+     * 将事件追加写入段文件
+     * 事件直接编码到映射内存中，不经过中间缓冲区
+     * @param event 日志事件
+     * @return 溢出积压已达上限或写入失败时返回false
+     */
+    private boolean spill(LogEvent event) {
+        spillLock.lock();
+        try {
+            if (backlogBytes.get() >= maxSpillBytes) {
+                rejectedCount.increment();
+                if (!backlogFull) {
+                    backlogFull = true;
+                    rejectedAtBacklogFull = rejectedCount.sum() - 1;
+                    log.warn("溢出积压已达上限: {}字节，回放腾出空间前新事件将被拒绝", maxSpillBytes);
+                }
+                return false;
+            }
+            Segment segment = segments.peekLast();
+            if (segment == null || segment.sealed) {
+                segment = openSegment();
+            }
+            int written = segment.append(event);
+            if (written < 0) {
+                // 当前段剩余空间不足，封存后写入新段
+                segment.seal();
+                segment = openSegment();
+                written = segment.append(event);
+                if (written < 0) {
+                    rejectedCount.increment();
+                    long now = System.nanoTime();
+                    if (lastOversizedWarnNanos == 0 || now - lastOversizedWarnNanos >= OVERSIZED_WARN_INTERVAL_NANOS) {
+                        lastOversizedWarnNanos = now;
+                        log.warn("日志事件编码后超过段文件大小: {}字节，事件被拒绝，累计拒绝: {}",
+                                segmentBytes, rejectedCount.sum());
+                    }
+                    return false;
+                }
+            }
+            if (backlogFull) {
+                backlogFull = false;
+                log.info("溢出积压回落到上限以下，恢复溢出，期间拒绝事件: {}", rejectedCount.sum() - rejectedAtBacklogFull);
+            }
+            if (!spilling) {
+                spilling = true;
+                log.warn("内存队列已满，开始溢出到磁盘: {}", directory);
+            }
+            backlogEvents.incrementAndGet();
+            backlogBytes.addAndGet(written);
+            spilledCount.increment();
+            spilledBytes.add(written);
+            // 事件已编码进段文件，原对象可以复用
+            PooledLogEvent.releaseIfPooled(event);
+            return true;
+        } catch (IOException e) {
+            log.error("写入溢出段文件失败: {}", e.getMessage(), e);
+            return false;
+        } finally {
+            spillLock.unlock();
+        }
+    }
+    
+    /**
+     * 回放一个溢出事件
+     * @return 没有可回放的事件时返回null
+     */
+    private LogEvent replay() {
+        List<LogEvent> events = new ArrayList<>(1);
+        return replayTo(events, 1) > 0 ? events.get(0) : null;
+    }
+    
+    /**
+     * 按写入顺序回放溢出事件
+     * @param collection 目标集合
+     * @param maxElements 最大回放数量
+     * @return 实际回放数量
+     */
+    private int replayTo(Collection<LogEvent> collection, int maxElements) {
+        int replayed = 0;
+        spillLock.lock();
+        try {
+            while (replayed < maxElements) {
+                Segment segment = segments.peekFirst();
+                if (segment == null) {
+                    break;
+                }
+                int before = segment.readPosition;
+                LogEvent event;
+                try {
+                    event = segment.next();
+                } catch (RuntimeException e) {
+                    // 读位置已越过该记录，跳过后继续回放后续记录
+                    segment.pendingEvents--;
+                    backlogEvents.decrementAndGet();
+                    backlogBytes.addAndGet(-(segment.readPosition - before));
+                    corruptCount.increment();
+                    log.warn("溢出段文件 {} 中的记录无法解码，已跳过: {}", segment.path, e.toString());
+                    continue;
+                }
+                if (event == null) {
+                    if (segment.sealed || segment != segments.peekLast()) {
+                        // 段已回放完毕，删除段文件；长度损坏导致无法读出的记录不再计入积压
+                        if (segment.pendingEvents > 0) {
+                            backlogEvents.addAndGet(-segment.pendingEvents);
+                            corruptCount.add(segment.pendingEvents);
+                            segment.pendingEvents = 0;
+                        }
+                        segments.pollFirst();
+                        segment.delete();
+                        continue;
+                    }
+                    break;
+                }
+                collection.add(event);
+                segment.pendingEvents--;
+                backlogEvents.decrementAndGet();
+                backlogBytes.addAndGet(-(segment.readPosition - before));
+                replayed++;
+            }
+            if (backlogEvents.get() == 0 && spilling) {
+                // 溢出事件已全部回放，之后的事件重新进入内存队列
+                spilling = false;
+                Segment segment = segments.peekLast();
+                if (segment != null) {
+                    segments.pollLast();
+                    segment.delete();
+                }
+                log.info("溢出事件已全部回放，恢复使用内存队列");
+            }
+        } finally {
+            spillLock.unlock();
+        }
+        replayedCount.add(replayed);
+        return replayed;
+    }
+    
+    /**
+     * 创建新的段文件，调用方必须持有锁
+     * @return 新的段
+     * @throws IOException 如果创建文件失败
+     */
+    private Segment openSegment() throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSegmentId++, SEGMENT_SUFFIX));
+        Segment segment = new Segment(path, map(path, segmentBytes), segmentBytes);
+        segments.addLast(segment);
+        return segment;
+    }
+    
+    /**
+     * 恢复上次运行遗留的段文件
+     * @throws IOException 如果读取目录失败
+     */
+    private void recoverSegments() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                paths.add(path);
+            }
+        }
+        paths.sort(null);
+        for (Path path : paths) {
+            long id = Long.parseLong(path.getFileName().toString()
+                    .substring(SEGMENT_PREFIX.length(), path.getFileName().toString().length() - SEGMENT_SUFFIX.length()));
+            nextSegmentId = Math.max(nextSegmentId, id + 1);
+            int size = (int) Files.size(path);
+            Segment segment = new Segment(path, map(path, size), size);
+            segment.recover();
+            if (segment.unsupportedRecords > 0) {
+                corruptCount.add(segment.unsupportedRecords);
+                log.warn("溢出段文件 {} 中有{}条记录编码版本不兼容，将被跳过", path, segment.unsupportedRecords);
+            }
+            if (segment.pendingEvents == 0) {
+                if (segment.unsupportedRecords > 0) {
+                    quarantine(path);
+                } else {
+                    segment.delete();
+                }
+                continue;
+            }
+            segments.addLast(segment);
+            backlogEvents.addAndGet(segment.pendingEvents);
+            backlogBytes.addAndGet(segment.writePosition);
+        }
+        if (backlogEvents.get() > 0) {
+            spilling = true;
+        }
+    }
+    
+    /**
+     * 隔离无法解码的段文件，改名后不再被恢复
+     * @param path 段文件路径
+     */
+    private static void quarantine(Path path) {
+        Path target = path.resolveSibling(path.getFileName() + QUARANTINE_SUFFIX);
+        try {
+            Files.move(path, target, StandardCopyOption.REPLACE_EXISTING);
+            log.warn("溢出段文件无法解码，已隔离: {}", target);
+        } catch (IOException e) {
+            log.warn("隔离溢出段文件失败: {}", path, e);
+        }
+    }
+    
+    /**
+     * 以读写模式映射文件
+     * 映射建立后即可关闭通道，映射在缓冲区被回收前一直有效
+     * @param path 文件路径
+     * @param size 映射大小
+     * @return 映射缓冲区
+     * @throws IOException 如果映射失败
+     */
+    private static MappedByteBuffer map(Path path, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+    
+    /**
+     * 段文件
+     */
+    private static final class Segment {
+        
+        private final Path path;
+        
+        private final MappedByteBuffer buffer;
+        
+        private final int size;
+        
+        private int writePosition;
+        
+        private int readPosition;
+        
+        private boolean sealed;
+        
+        /**
+         * 计入积压但尚未回放的记录数
+         */
+        private long pendingEvents;
+        
+        private long unsupportedRecords;
+        
+        Segment(Path path, MappedByteBuffer buffer, int size) {
+            this.path = path;
+            this.buffer = buffer;
+            this.size = size;
+        }
+        
+        /**
+         * 追加一条记录，先写内容再写长度
+         * @return 写入的字节数，剩余空间不足时返回-1
+         */
+        int append(LogEvent event) {
+            // 需要为本条记录的长度和结束标记各保留一个记录头
+            if (size - writePosition < HEADER_BYTES * 2) {
+                return -1;
+            }
+            buffer.limit(size - HEADER_BYTES);
+            buffer.position(writePosition + HEADER_BYTES);
+            int length;
+            try {
+                length = LogEventCodec.encode(event, buffer);
+            } catch (BufferOverflowException e) {
+                return -1;
+            }
+            buffer.putInt(writePosition, length);
+            writePosition += HEADER_BYTES + length;
+            pendingEvents++;
+            return HEADER_BYTES + length;
+        }
+        
+        /**
+         * 读取下一条记录，跳过恢复时已识别的版本不兼容记录
+         * 解码前先越过该记录，解码失败时抛出异常，但不会卡在同一条记录上
+         * @return 没有已写入的记录时返回null
+         */
+        LogEvent next() {
+            while (readPosition < writePosition) {
+                // 绝对位置读写受limit约束，先恢复完整范围
+                buffer.limit(size);
+                int start = readPosition + HEADER_BYTES;
+                int length = buffer.getInt(readPosition);
+                if (length <= 0 || start + length > writePosition) {
+                    readPosition = writePosition;
+                    throw new IllegalStateException("记录长度无效: " + length);
+                }
+                readPosition = start + length;
+                if (!LogEventCodec.isSupportedVersion(buffer.get(start))) {
+                    continue;
+                }
+                buffer.limit(start + length);
+                buffer.position(start);
+                return LogEventCodec.decode(buffer);
+            }
+            return null;
+        }
+        
+        /**
+         * 扫描已有记录恢复写位置，恢复后的段不再写入
+         * 长度无效时认为后面没有完整记录；编码版本不兼容的记录不计入恢复的事件数
+         */
+        void recover() {
+            while (writePosition + HEADER_BYTES <= size) {
+                int length = buffer.getInt(writePosition);
+                if (length <= 0 || writePosition + HEADER_BYTES + length > size) {
+                    break;
+                }
+                if (LogEventCodec.isSupportedVersion(buffer.get(writePosition + HEADER_BYTES))) {
+                    pendingEvents++;
+                } else {
+                    unsupportedRecords++;
+                }
+                writePosition += HEADER_BYTES + length;
+            }
+            sealed = true;
+        }
+        
+        void seal() {
+            sealed = true;
+        }
+        
+        void delete() {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("删除溢出段文件失败: {}", path, e);
+            }
+        }
+    }
+}
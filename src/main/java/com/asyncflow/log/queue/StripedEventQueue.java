@@ -0,0 +1,259 @@
+package com.asyncflow.log.queue;
+
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.queue.wait.BlockingWaitStrategy;
+import com.asyncflow.log.queue.wait.WaitStrategy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 分片事件队列
+ * 内部持有N个RingEventQueue分片（默认为CPU核数），每个生产者线程通过线程本地探针固定写入自己的分片，
+ * 分片写满时迁移到其他分片；消费者按轮询方式依次扫描各分片。
+ * 同一生产者在不迁移的情况下保持FIFO顺序，不同生产者之间不保证全局顺序。
+ */
+@Slf4j
+public class StripedEventQueue implements EventQueue {
+    
+    /**
+     * 为新线程分配初始探针
+     */
+    private static final AtomicInteger PROBE_GENERATOR = new AtomicInteger(0);
+    
+    /**
+     * 生产者线程的分片探针，所有队列实例共用，每个线程只占一个条目，按各队列的分片数取模使用
+     */
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(() -> new int[]{PROBE_GENERATOR.getAndIncrement()});
+    
+    /**
+     * 分片数组
+     */
+    private final RingEventQueue[] stripes;
+    
+    /**
+     * 总容量（各分片容量之和）
+     */
+    private final int capacity;
+    
+    /**
+     * 消费者扫描起点
+     */
+    private final AtomicInteger consumerCursor = new AtomicInteger(0);
+    
+    /**
+     * 消费者等待策略，跨分片统一等待和唤醒
+     */
+    private final WaitStrategy waitStrategy;
+    
+    /**
+     * 带容量的构造函数，分片数为CPU核数
+     * @param capacity 队列总容量
+     */
+    public StripedEventQueue(int capacity) {
+        this(capacity, Runtime.getRuntime().availableProcessors());
+    }
+    
+    /**
+     * 带容量和分片数的构造函数
+     * @param capacity 队列总容量
+     * @param stripeCount 分片数，小于等于0时使用CPU核数
+     */
+    public StripedEventQueue(int capacity, int stripeCount) {
+        if (stripeCount <= 0) {
+            stripeCount = Runtime.getRuntime().availableProcessors();
+        }
+        int stripeCapacity = Math.max(1, (capacity + stripeCount - 1) / stripeCount);
+        this.stripes = new RingEventQueue[stripeCount];
+        int total = 0;
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new RingEventQueue(stripeCapacity);
+            total += stripes[i].capacity();
+        }
+        this.capacity = total;
+        this.waitStrategy = new BlockingWaitStrategy();
+        log.info("创建StripedEventQueue，分片数: {}, 单分片容量: {}, 总容量: {}", 
+                stripeCount, stripes[0].capacity(), this.capacity);
+    }
+    
+    @Override
+    public boolean offer(LogEvent event) throws InterruptedException {
+        if (event == null) {
+            log.warn("尝试添加null事件到队列");
+            return false;
+        }
+        if (tryOffer(event)) {
+            waitStrategy.signalAllWhenBlocking();
+            return true;
+        }
+        return false;
+    }
+    
+    @Override
+    public void put(LogEvent event) throws InterruptedException {
+        if (event == null) {
+            log.warn("尝试添加null事件到队列");
+            return;
+        }
+        if (!tryOffer(event)) {
+            // 所有分片都已满，在自己的分片上阻塞等待
+            homeStripe().put(event);
+        }
+        waitStrategy.signalAllWhenBlocking();
+    }
+    
+    @Override
+    public boolean offer(LogEvent event, long timeout) throws InterruptedException {
+        if (event == null) {
+            log.warn("尝试添加null事件到队列");
+            return false;
+        }
+        if (tryOffer(event) || homeStripe().offer(event, timeout)) {
+            waitStrategy.signalAllWhenBlocking();
+            return true;
+        }
+        return false;
+    }
+    
+    @Override
+    public LogEvent poll() {
+        int start = consumerCursor.getAndIncrement();
+        for (int i = 0; i < stripes.length; i++) {
+            LogEvent event = stripes[Math.floorMod(start + i, stripes.length)].poll();
+            if (event != null) {
+                return event;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * 从当前生产者线程的分片中移除最旧的事件，腾出的空位随后由本线程写入，不会挤掉其他分片的事件
+     */
+    @Override
+    public LogEvent evictFor(LogEvent incoming) {
+        return homeStripe().poll();
+    }
+    
+    @Override
+    public LogEvent take() throws InterruptedException {
+        LogEvent event;
+        while ((event = poll()) == null) {
+            waitStrategy.waitFor(() -> !isEmpty(), Long.MAX_VALUE);
+        }
+        return event;
+    }
+    
+    @Override
+    public LogEvent poll(long timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        LogEvent event;
+        while ((event = poll()) == null) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            waitStrategy.waitFor(() -> !isEmpty(), remaining);
+        }
+        return event;
+    }
+    
+    @Override
+    public int drainTo(Collection<LogEvent> collection, int maxElements) {
+        int start = consumerCursor.getAndIncrement();
+        int count = 0;
+        for (int i = 0; i < stripes.length && count < maxElements; i++) {
+            count += stripes[Math.floorMod(start + i, stripes.length)].drainTo(collection, maxElements - count);
+        }
+        return count;
+    }
+    
+    @Override
+    public int size() {
+        int size = 0;
+        for (RingEventQueue stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+    
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+    
+    @Override
+    public boolean isFull() {
+        return size() >= capacity;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        for (RingEventQueue stripe : stripes) {
+            if (!stripe.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public void clear() {
+        for (RingEventQueue stripe : stripes) {
+            stripe.clear();
+        }
+    }
+    
+    @Override
+    public double getUsage() {
+        return (double) size() / capacity;
+    }
+    
+    /**
+     * 获取分片数
+     * @return 分片数
+     */
+    public int getStripeCount() {
+        return stripes.length;
+    }
+    
+    /**
+     * 获取指定分片中的事件数量
+     * @param index 分片下标
+     * @return 事件数量
+     */
+    public int getStripeSize(int index) {
+        return stripes[index].size();
+    }
+    
+    /**
+     * 先写入当前线程的分片，已满时依次尝试其他分片，
+     * 写入成功后将探针迁移到该分片，使线程后续留在较空闲的分片上
+     * @param event 日志事件
+     * @return 所有分片都已满时返回false
+     */
+    private boolean tryOffer(LogEvent event) {
+        int[] threadProbe = PROBE.get();
+        int home = threadProbe[0];
+        for (int i = 0; i < stripes.length; i++) {
+            int index = Math.floorMod(home + i, stripes.length);
+            if (stripes[index].tryPublish(event)) {
+                if (i != 0) {
+                    threadProbe[0] = index;
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 获取当前线程的分片
+     * @return 分片队列
+     */
+    private RingEventQueue homeStripe() {
+        return stripes[Math.floorMod(PROBE.get()[0], stripes.length)];
+    }
+}
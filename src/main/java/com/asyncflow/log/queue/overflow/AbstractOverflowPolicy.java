@@ -0,0 +1,117 @@
+package com.asyncflow.log.queue.overflow;
+
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.PooledLogEvent;
+import com.asyncflow.log.queue.EventQueue;
+import com.asyncflow.log.queue.EventSequencer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 溢出策略抽象基类
+ * 统一记录溢出次数和丢弃数，丢弃事件时通知监听器（通常用于累加全局丢弃指标），
+ * 开启有序写出时还向事件序号分配器报告被丢弃事件的序号
+ */
+@Slf4j
+public abstract class AbstractOverflowPolicy implements OverflowPolicy {
+    
+    /**
+     * 溢出次数
+     */
+    private final LongAdder overflowCount = new LongAdder();
+    
+    /**
+     * 丢弃数
+     */
+    private final LongAdder discardedCount = new LongAdder();
+    
+    /**
+     * 丢弃事件监听器
+     */
+    private volatile Runnable discardListener;
+    
+    /**
+     * 事件序号分配器，为null时不报告丢弃的序号
+     */
+    private volatile EventSequencer eventSequencer;
+    
+    @Override
+    public final boolean onOverflow(LogEvent event, EventQueue queue) throws InterruptedException {
+        overflowCount.increment();
+        return doOnOverflow(event, queue);
+    }
+    
+    /**
+     * 具体的溢出处理逻辑
+     * @param event 日志事件
+     * @param queue 已满的事件队列
+     * @return 事件最终被接收返回true，被丢弃返回false
+     * @throws InterruptedException 如果在等待过程中被中断
+     */
+    protected abstract boolean doOnOverflow(LogEvent event, EventQueue queue) throws InterruptedException;
+    
+    /**
+     * 丢弃事件并记录
+     * @param event 被丢弃的事件
+     * @return 始终返回false，便于直接作为处理结果返回
+     */
+    protected boolean discard(LogEvent event) {
+        discardedCount.increment();
+        Runnable listener = discardListener;
+        if (listener != null) {
+            listener.run();
+        }
+        EventSequencer sequencer = eventSequencer;
+        if (sequencer != null) {
+            sequencer.skip(event);
+        }
+        log.debug("日志队列已满，按{}策略丢弃日志: {}", getName(), event.getMessage());
+        PooledLogEvent.releaseIfPooled(event);
+        return false;
+    }
+    
+    /**
+     * 设置丢弃事件监听器
+     * @param discardListener 监听器
+     */
+    public void setDiscardListener(Runnable discardListener) {
+        this.discardListener = discardListener;
+    }
+    
+    /**
+     * 设置事件序号分配器，丢弃事件时报告其序号
+     * @param eventSequencer 事件序号分配器
+     */
+    public void setEventSequencer(EventSequencer eventSequencer) {
+        this.eventSequencer = eventSequencer;
+    }
+    
+    @Override
+    public long getOverflowCount() {
+        return overflowCount.sum();
+    }
+    
+    @Override
+    public long getDiscardedCount() {
+        return discardedCount.sum();
+    }
+    
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        counters.put("overflow", getOverflowCount());
+        counters.put("discarded", getDiscardedCount());
+        addCounters(counters);
+        return counters;
+    }
+    
+    /**
+     * 子类添加策略特有的计数
+     * @param counters 计数映射
+     */
+    protected void addCounters(Map<String, Long> counters) {
+    }
+}
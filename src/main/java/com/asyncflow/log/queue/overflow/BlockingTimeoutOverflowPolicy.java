@@ -0,0 +1,91 @@
+package com.asyncflow.log.queue.overflow;
+
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.queue.EventQueue;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 限时阻塞策略
+ * 队列已满时生产者最多等待指定时间，期间有空位则写入，超时后丢弃
+ */
+public class BlockingTimeoutOverflowPolicy extends AbstractOverflowPolicy {
+    
+    /**
+     * 策略名称
+     */
+    public static final String NAME = "block";
+    
+    /**
+     * 最长等待时间（毫秒）
+     */
+    private final long timeoutMillis;
+    
+    /**
+     * 等待超时的次数
+     */
+    private final LongAdder timeoutCount = new LongAdder();
+    
+    /**
+     * 生产者累计等待时间（纳秒）
+     */
+    private final LongAdder blockedNanos = new LongAdder();
+    
+    /**
+     * 构造函数
+     * @param timeoutMillis 最长等待时间（毫秒）
+     */
+    public BlockingTimeoutOverflowPolicy(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+    
+    @Override
+    protected boolean doOnOverflow(LogEvent event, EventQueue queue) throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            if (queue.offer(event, timeoutMillis)) {
+                return true;
+            }
+        } finally {
+            blockedNanos.add(System.nanoTime() - start);
+        }
+        timeoutCount.increment();
+        return discard(event);
+    }
+    
+    @Override
+    public String getName() {
+        return NAME;
+    }
+    
+    /**
+     * 获取最长等待时间
+     * @return 毫秒
+     */
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+    
+    /**
+     * 获取等待超时的次数
+     * @return 超时次数
+     */
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+    
+    /**
+     * 获取生产者累计等待时间
+     * @return 纳秒
+     */
+    public long getBlockedNanos() {
+        return blockedNanos.sum();
+    }
+    
+    @Override
+    protected void addCounters(Map<String, Long> counters) {
+        counters.put("timeout", getTimeoutCount());
+        counters.put("blocked_nanos", getBlockedNanos());
+    }
+}
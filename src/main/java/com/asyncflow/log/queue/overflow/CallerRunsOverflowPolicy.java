@@ -0,0 +1,83 @@
+package com.asyncflow.log.queue.overflow;
+
+import com.asyncflow.log.consumer.EventHandler;
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.PooledLogEvent;
+import com.asyncflow.log.queue.EventQueue;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 调用方执行策略
+ * 队列已满时由生产者线程直接调用事件处理器同步写出事件，不丢日志但会拖慢生产者。
+ * 同步写出与消费循环走同一个事件处理器：分片写入器中生产者线程不是登记的消费线程，只写入加锁的共享分片，
+ * 不会占用消费线程认领的分片；有序写出时事件带着入队前分配的序号进入重排序缓冲区，仍按入队顺序落盘，
+ * 生产者线程可能在序号窗口上等待消费循环追上。其他处理器下同步写出的事件可能先于队列中更早的事件落盘。
+ */
+@Slf4j
+public class CallerRunsOverflowPolicy extends AbstractOverflowPolicy {
+    
+    /**
+     * 策略名称
+     */
+    public static final String NAME = "caller-runs";
+    
+    /**
+     * 事件处理器
+     */
+    private final EventHandler eventHandler;
+    
+    /**
+     * 由生产者线程同步写出的事件数
+     */
+    private final LongAdder callerRunsCount = new LongAdder();
+    
+    /**
+     * 同步写出失败的事件数
+     */
+    private final LongAdder failedCount = new LongAdder();
+    
+    /**
+     * 构造函数
+     * @param eventHandler 事件处理器
+     */
+    public CallerRunsOverflowPolicy(EventHandler eventHandler) {
+        this.eventHandler = eventHandler;
+    }
+    
+    @Override
+    protected boolean doOnOverflow(LogEvent event, EventQueue queue) {
+        callerRunsCount.increment();
+        try {
+            if (eventHandler.handle(event)) {
+                PooledLogEvent.releaseIfPooled(event);
+                return true;
+            }
+        } catch (Exception e) {
+            log.error("同步写出日志事件异常: {}", e.getMessage(), e);
+        }
+        failedCount.increment();
+        return discard(event);
+    }
+    
+    @Override
+    public String getName() {
+        return NAME;
+    }
+    
+    /**
+     * 获取由生产者线程同步写出的事件数
+     * @return 事件数
+     */
+    public long getCallerRunsCount() {
+        return callerRunsCount.sum();
+    }
+    
+    @Override
+    protected void addCounters(Map<String, Long> counters) {
+        counters.put("caller_runs", getCallerRunsCount());
+        counters.put("failed", failedCount.sum());
+    }
+}
@@ -0,0 +1,26 @@
+package com.asyncflow.log.queue.overflow;
+
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.queue.EventQueue;
+
+/**
+ * 丢弃最新事件策略
+ * 队列已满时直接丢弃当前事件，生产者不产生任何额外延迟
+ */
+public class DropNewestOverflowPolicy extends AbstractOverflowPolicy {
+    
+    /**
+     * 策略名称
+     */
+    public static final String NAME = "drop-newest";
+    
+    @Override
+    protected boolean doOnOverflow(LogEvent event, EventQueue queue) {
+        return discard(event);
+    }
+    
+    @Override
+    public String getName() {
+        return NAME;
+    }
+}
@@ -0,0 +1,64 @@
+package com.asyncflow.log.queue.overflow;
+
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.queue.EventQueue;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 丢弃最旧事件策略
+ * 队列已满时移除一个最旧的事件腾出空位，再写入当前事件，保留最新的日志。
+ * 通过{@link EventQueue#evictFor}腾位：分道或分片的队列只从当前事件所在的通道或分片中移除，
+ * 例如不会为了写入DEBUG日志而挤掉ERROR日志。
+ */
+public class DropOldestOverflowPolicy extends AbstractOverflowPolicy {
+    
+    /**
+     * 策略名称
+     */
+    public static final String NAME = "drop-oldest";
+    
+    /**
+     * 腾位重试次数，空位可能被并发的生产者抢走
+     */
+    private static final int MAX_RETRIES = 3;
+    
+    /**
+     * 被挤出队列的事件数
+     */
+    private final LongAdder evictedCount = new LongAdder();
+    
+    @Override
+    protected boolean doOnOverflow(LogEvent event, EventQueue queue) throws InterruptedException {
+        for (int i = 0; i < MAX_RETRIES; i++) {
+            LogEvent evicted = queue.evictFor(event);
+            if (evicted != null) {
+                evictedCount.increment();
+                discard(evicted);
+            }
+            if (queue.offer(event)) {
+                return true;
+            }
+        }
+        return discard(event);
+    }
+    
+    @Override
+    public String getName() {
+        return NAME;
+    }
+    
+    /**
+     * 获取被挤出队列的事件数
+     * @return 事件数
+     */
+    public long getEvictedCount() {
+        return evictedCount.sum();
+    }
+    
+    @Override
+    protected void addCounters(Map<String, Long> counters) {
+        counters.put("evicted", getEvictedCount());
+    }
+}
@@ -0,0 +1,46 @@
+package com.asyncflow.log.queue.overflow;
+
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.queue.EventQueue;
+
+import java.util.Map;
+
+/**
+ * 队列溢出策略接口
+ * 定义事件队列已满、非阻塞提交失败时如何处理新事件，用于在日志丢失和生产者延迟之间取舍
+ */
+public interface OverflowPolicy {
+    
+    /**
+     * 处理无法直接入队的事件
+     * @param event 日志事件
+     * @param queue 已满的事件队列
+     * @return 事件最终被接收（入队或已同步写出）返回true，被丢弃返回false
+     * @throws InterruptedException 如果在等待过程中被中断
+     */
+    boolean onOverflow(LogEvent event, EventQueue queue) throws InterruptedException;
+    
+    /**
+     * 获取策略名称
+     * @return 策略名称
+     */
+    String getName();
+    
+    /**
+     * 获取触发溢出处理的次数
+     * @return 溢出次数
+     */
+    long getOverflowCount();
+    
+    /**
+     * 获取因溢出被丢弃的事件数
+     * @return 丢弃数
+     */
+    long getDiscardedCount();
+    
+    /**
+     * 获取策略的统计计数，包括通用计数和策略特有的计数
+     * @return 计数名称到计数值的映射
+     */
+    Map<String, Long> getCounters();
+}
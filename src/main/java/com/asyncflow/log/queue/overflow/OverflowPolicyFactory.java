@@ -0,0 +1,115 @@
+package com.asyncflow.log.queue.overflow;
+
+import com.asyncflow.log.consumer.EventHandler;
+import com.asyncflow.log.monitor.AsyncLogMetrics;
+import com.asyncflow.log.queue.EventSequencer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 溢出策略工厂类
+ * 根据配置创建队列溢出策略，并把丢弃事件接入全局丢弃指标
+ */
+@Slf4j
+@Component
+public class OverflowPolicyFactory {
+    
+    /**
+     * 溢出策略名称
+     */
+    @Value("${async.log.queue.overflow-policy:drop-newest}")
+    private String policyName;
+    
+    /**
+     * 限时阻塞策略和采样策略的最长等待时间（毫秒）
+     */
+    @Value("${async.log.queue.overflow.block-timeout:100}")
+    private long blockTimeout;
+    
+    /**
+     * 采样策略的采样率
+     */
+    @Value("${async.log.queue.overflow.sample-rate:0.1}")
+    private double sampleRate;
+    
+    /**
+     * 指标监控，延迟获取以避免与日志服务形成循环依赖
+     */
+    @Autowired
+    private ObjectProvider<AsyncLogMetrics> metricsProvider;
+    
+    /**
+     * 事件处理器，仅caller-runs策略使用
+     */
+    @Autowired
+    private ObjectProvider<EventHandler> eventHandlerProvider;
+    
+    /**
+     * 根据配置创建溢出策略
+     * 
+     * @return 溢出策略
+     */
+    public OverflowPolicy createPolicy() {
+        return createPolicy(policyName, null);
+    }
+    
+    /**
+     * 根据配置创建溢出策略，丢弃事件时向事件序号分配器报告其序号
+     * 
+     * @param eventSequencer 事件序号分配器，开启有序写出时存在，为null时不报告
+     * @return 溢出策略
+     */
+    public OverflowPolicy createPolicy(EventSequencer eventSequencer) {
+        return createPolicy(policyName, eventSequencer);
+    }
+    
+    private OverflowPolicy createPolicy(String name, EventSequencer eventSequencer) {
+        log.info("创建队列溢出策略: {}", name);
+        AbstractOverflowPolicy policy = createPolicy(name);
+        policy.setDiscardListener(() -> {
+            AsyncLogMetrics metrics = metricsProvider.getIfAvailable();
+            if (metrics != null) {
+                metrics.incrementDiscardedCount();
+            }
+        });
+        policy.setEventSequencer(eventSequencer);
+        return policy;
+    }
+    
+    /**
+     * 根据名称创建溢出策略
+     * 
+     * @param name 策略名称：drop-newest、drop-oldest、block、caller-runs、sampling
+     * @return 溢出策略
+     */
+    public AbstractOverflowPolicy createPolicy(String name) {
+        if (DropOldestOverflowPolicy.NAME.equalsIgnoreCase(name)) {
+            return new DropOldestOverflowPolicy();
+        }
+        if (BlockingTimeoutOverflowPolicy.NAME.equalsIgnoreCase(name)) {
+            return new BlockingTimeoutOverflowPolicy(blockTimeout);
+        }
+        if (CallerRunsOverflowPolicy.NAME.equalsIgnoreCase(name)) {
+            return new CallerRunsOverflowPolicy(eventHandlerProvider.getObject());
+        }
+        if (SamplingOverflowPolicy.NAME.equalsIgnoreCase(name)) {
+            return new SamplingOverflowPolicy(sampleRate, blockTimeout);
+        }
+        if (!DropNewestOverflowPolicy.NAME.equalsIgnoreCase(name)) {
+            log.warn("未知的溢出策略: {}, 使用默认的drop-newest策略", name);
+        }
+        return new DropNewestOverflowPolicy();
+    }
+    
+    /**
+     * 获取配置的溢出策略名称
+     * 
+     * @return 策略名称
+     */
+    public String getPolicyName() {
+        return policyName;
+    }
+}
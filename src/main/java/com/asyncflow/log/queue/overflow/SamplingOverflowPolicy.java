@@ -0,0 +1,89 @@
+package com.asyncflow.log.queue.overflow;
+
+import com.asyncflow.log.enums.LogLevel;
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.queue.EventQueue;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 概率采样策略
+ * 队列已满时按采样率随机保留事件，被保留的事件限时等待入队，其余直接丢弃。
+ * ERROR级别的事件始终保留。
+ */
+public class SamplingOverflowPolicy extends AbstractOverflowPolicy {
+    
+    /**
+     * 策略名称
+     */
+    public static final String NAME = "sampling";
+    
+    /**
+     * 采样率（0~1）
+     */
+    private final double sampleRate;
+    
+    /**
+     * 被保留事件的最长等待时间（毫秒）
+     */
+    private final long timeoutMillis;
+    
+    /**
+     * 被采样保留的事件数
+     */
+    private final LongAdder sampledCount = new LongAdder();
+    
+    /**
+     * 被采样淘汰的事件数
+     */
+    private final LongAdder rejectedCount = new LongAdder();
+    
+    /**
+     * 构造函数
+     * @param sampleRate 采样率（0~1）
+     * @param timeoutMillis 被保留事件的最长等待时间（毫秒）
+     */
+    public SamplingOverflowPolicy(double sampleRate, long timeoutMillis) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("采样率必须在0到1之间: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+        this.timeoutMillis = timeoutMillis;
+    }
+    
+    @Override
+    protected boolean doOnOverflow(LogEvent event, EventQueue queue) throws InterruptedException {
+        boolean keep = LogLevel.fromCode(event.getLevel()) == LogLevel.ERROR 
+                || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        if (!keep) {
+            rejectedCount.increment();
+            return discard(event);
+        }
+        sampledCount.increment();
+        if (queue.offer(event, timeoutMillis)) {
+            return true;
+        }
+        return discard(event);
+    }
+    
+    @Override
+    public String getName() {
+        return NAME;
+    }
+    
+    /**
+     * 获取采样率
+     * @return 采样率
+     */
+    public double getSampleRate() {
+        return sampleRate;
+    }
+    
+    @Override
+    protected void addCounters(Map<String, Long> counters) {
+        counters.put("sampled", sampledCount.sum());
+        counters.put("rejected", rejectedCount.sum());
+    }
+}
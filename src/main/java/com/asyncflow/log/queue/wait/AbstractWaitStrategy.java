@@ -0,0 +1,139 @@
+package com.asyncflow.log.queue.wait;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 等待策略抽象基类
+ * 负责统计唤醒延迟：只有存在等待者时，生产者才会记录发布时间，
+ * 消费者结束等待时用当前时间减去最近一次发布时间得到唤醒延迟。
+ */
+public abstract class AbstractWaitStrategy implements WaitStrategy {
+    
+    /**
+     * 策略名称
+     */
+    private final String name;
+    
+    /**
+     * 当前等待中的消费者数量
+     */
+    protected final AtomicInteger waiters = new AtomicInteger(0);
+    
+    /**
+     * 最近一次在有等待者时发布事件的时间（纳秒）
+     */
+    private volatile long lastSignalNanos;
+    
+    /**
+     * 唤醒次数
+     */
+    private final AtomicLong wakeupCount = new AtomicLong(0);
+    
+    /**
+     * 唤醒延迟累计（纳秒）
+     */
+    private final AtomicLong wakeupLatencyTotal = new AtomicLong(0);
+    
+    /**
+     * 最大唤醒延迟（纳秒）
+     */
+    private final AtomicLong wakeupLatencyMax = new AtomicLong(0);
+    
+    /**
+     * 构造函数
+     * @param name 策略名称
+     */
+    protected AbstractWaitStrategy(String name) {
+        this.name = name;
+    }
+    
+    @Override
+    public boolean waitFor(BooleanSupplier available, long timeoutNanos) throws InterruptedException {
+        if (available.getAsBoolean()) {
+            return true;
+        }
+        long waitStart = System.nanoTime();
+        waiters.incrementAndGet();
+        boolean result;
+        try {
+            result = doWaitFor(available, timeoutNanos);
+        } finally {
+            waiters.decrementAndGet();
+        }
+        if (result) {
+            recordWakeup(waitStart);
+        }
+        return result;
+    }
+    
+    @Override
+    public void signalAllWhenBlocking() {
+        if (waiters.get() > 0) {
+            lastSignalNanos = System.nanoTime();
+            doSignal();
+        }
+    }
+    
+    @Override
+    public String getName() {
+        return name;
+    }
+    
+    @Override
+    public long getWakeupCount() {
+        return wakeupCount.get();
+    }
+    
+    @Override
+    public double getAverageWakeupLatencyNanos() {
+        long count = wakeupCount.get();
+        return count > 0 ? (double) wakeupLatencyTotal.get() / count : 0.0;
+    }
+    
+    @Override
+    public long getMaxWakeupLatencyNanos() {
+        return wakeupLatencyMax.get();
+    }
+    
+    /**
+     * 记录一次唤醒延迟
+     * @param waitStart 开始等待的时间（纳秒）
+     */
+    private void recordWakeup(long waitStart) {
+        long signalNanos = lastSignalNanos;
+        if (signalNanos - waitStart < 0) {
+            // 等待期间没有观察到发布信号，无法计算延迟
+            return;
+        }
+        long latency = Math.max(0L, System.nanoTime() - signalNanos);
+        wakeupCount.incrementAndGet();
+        wakeupLatencyTotal.addAndGet(latency);
+        wakeupLatencyMax.accumulateAndGet(latency, Math::max);
+    }
+    
+    /**
+     * 检查当前线程是否被中断
+     * @throws InterruptedException 如果线程已被中断
+     */
+    protected static void checkInterrupted() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+    
+    /**
+     * 实际的等待逻辑
+     * @param available 可读条件
+     * @param timeoutNanos 最长等待时间（纳秒）
+     * @return 条件满足返回true，超时返回false
+     * @throws InterruptedException 如果在等待过程中被中断
+     */
+    protected abstract boolean doWaitFor(BooleanSupplier available, long timeoutNanos) throws InterruptedException;
+    
+    /**
+     * 实际的唤醒逻辑，仅在存在等待者时调用
+     */
+    protected abstract void doSignal();
+}
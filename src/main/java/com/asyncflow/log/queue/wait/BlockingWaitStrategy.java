@@ -0,0 +1,64 @@
+package com.asyncflow.log.queue.wait;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 阻塞等待策略
+ * 消费者在条件变量上挂起，空闲时不占用CPU，适合吞吐优先的批处理服务。
+ * 生产者只有在存在等待者时才会获取锁进行唤醒。
+ */
+public class BlockingWaitStrategy extends AbstractWaitStrategy {
+    
+    /**
+     * 策略名称
+     */
+    public static final String NAME = "blocking";
+    
+    /**
+     * 锁
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    /**
+     * 可读条件
+     */
+    private final Condition available = lock.newCondition();
+    
+    public BlockingWaitStrategy() {
+        super(NAME);
+    }
+    
+    @Override
+    protected boolean doWaitFor(BooleanSupplier condition, long timeoutNanos) throws InterruptedException {
+        long remaining = timeoutNanos;
+        lock.lockInterruptibly();
+        try {
+            // 等待者计数已在加锁前递增，这里再次检查条件即可避免丢失唤醒
+            while (!condition.getAsBoolean()) {
+                if (timeoutNanos == Long.MAX_VALUE) {
+                    available.await();
+                } else {
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    remaining = available.awaitNanos(remaining);
+                }
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    protected void doSignal() {
+        lock.lock();
+        try {
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
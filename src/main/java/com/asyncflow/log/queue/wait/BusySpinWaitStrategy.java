@@ -0,0 +1,37 @@
+package com.asyncflow.log.queue.wait;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * 忙等待策略
+ * 消费者持续自旋检查，唤醒延迟最低，但会独占一个CPU核心
+ */
+public class BusySpinWaitStrategy extends AbstractWaitStrategy {
+    
+    /**
+     * 策略名称
+     */
+    public static final String NAME = "busy-spin";
+    
+    public BusySpinWaitStrategy() {
+        super(NAME);
+    }
+    
+    @Override
+    protected boolean doWaitFor(BooleanSupplier available, long timeoutNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (!available.getAsBoolean()) {
+            checkInterrupted();
+            if (timeoutNanos != Long.MAX_VALUE && deadline - System.nanoTime() <= 0) {
+                return false;
+            }
+            Thread.onSpinWait();
+        }
+        return true;
+    }
+    
+    @Override
+    protected void doSignal() {
+        // 自旋等待不需要显式唤醒
+    }
+}
@@ -0,0 +1,86 @@
+package com.asyncflow.log.queue.wait;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 休眠等待策略
+ * 依次经历自旋、让步、短暂休眠三个阶段，
+ * 生产者无需任何唤醒操作，空闲时CPU占用低，唤醒延迟取决于休眠间隔
+ */
+public class SleepingWaitStrategy extends AbstractWaitStrategy {
+    
+    /**
+     * 策略名称
+     */
+    public static final String NAME = "sleep";
+    
+    /**
+     * 默认休眠间隔（纳秒）
+     */
+    private static final long DEFAULT_SLEEP_NANOS = 100_000L;
+    
+    /**
+     * 自旋次数
+     */
+    private static final int SPIN_TRIES = 100;
+    
+    /**
+     * 让步次数
+     */
+    private static final int YIELD_TRIES = 100;
+    
+    /**
+     * 休眠间隔（纳秒）
+     */
+    private final long sleepNanos;
+    
+    public SleepingWaitStrategy() {
+        this(DEFAULT_SLEEP_NANOS);
+    }
+    
+    /**
+     * 带休眠间隔的构造函数
+     * @param sleepNanos 休眠间隔（纳秒）
+     */
+    public SleepingWaitStrategy(long sleepNanos) {
+        super(NAME);
+        this.sleepNanos = sleepNanos;
+    }
+    
+    @Override
+    protected boolean doWaitFor(BooleanSupplier available, long timeoutNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        int counter = SPIN_TRIES + YIELD_TRIES;
+        while (!available.getAsBoolean()) {
+            checkInterrupted();
+            long remaining = deadline - System.nanoTime();
+            if (timeoutNanos != Long.MAX_VALUE && remaining <= 0) {
+                return false;
+            }
+            if (counter > YIELD_TRIES) {
+                counter--;
+                Thread.onSpinWait();
+            } else if (counter > 0) {
+                counter--;
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(timeoutNanos == Long.MAX_VALUE ? sleepNanos : Math.min(sleepNanos, remaining));
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    protected void doSignal() {
+        // 休眠等待依赖定时醒来，不需要显式唤醒
+    }
+    
+    /**
+     * 获取休眠间隔
+     * @return 休眠间隔（纳秒）
+     */
+    public long getSleepNanos() {
+        return sleepNanos;
+    }
+}
@@ -0,0 +1,48 @@
+package com.asyncflow.log.queue.wait;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * 消费者等待策略接口
+ * 定义消费者在队列为空时如何等待新事件，以及生产者发布事件后如何唤醒消费者
+ */
+public interface WaitStrategy {
+    
+    /**
+     * 等待直到条件满足或超时
+     * @param available 可读条件
+     * @param timeoutNanos 最长等待时间（纳秒），Long.MAX_VALUE表示无限等待
+     * @return 条件满足返回true，超时返回false
+     * @throws InterruptedException 如果在等待过程中被中断
+     */
+    boolean waitFor(BooleanSupplier available, long timeoutNanos) throws InterruptedException;
+    
+    /**
+     * 生产者发布事件后调用，唤醒等待中的消费者
+     */
+    void signalAllWhenBlocking();
+    
+    /**
+     * 获取策略名称
+     * @return 策略名称
+     */
+    String getName();
+    
+    /**
+     * 获取唤醒次数
+     * @return 消费者从等待状态被唤醒的次数
+     */
+    long getWakeupCount();
+    
+    /**
+     * 获取平均唤醒延迟
+     * @return 从事件发布到消费者感知的平均耗时（纳秒）
+     */
+    double getAverageWakeupLatencyNanos();
+    
+    /**
+     * 获取最大唤醒延迟
+     * @return 从事件发布到消费者感知的最大耗时（纳秒）
+     */
+    long getMaxWakeupLatencyNanos();
+}
@@ -0,0 +1,49 @@
+package com.asyncflow.log.queue.wait;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * 让步等待策略
+ * 先自旋一段时间，之后每次检查前调用Thread.yield()让出CPU，
+ * 延迟接近忙等待，同时允许其他线程使用该核心
+ */
+public class YieldingWaitStrategy extends AbstractWaitStrategy {
+    
+    /**
+     * 策略名称
+     */
+    public static final String NAME = "yield";
+    
+    /**
+     * 让步前的自旋次数
+     */
+    private static final int SPIN_TRIES = 100;
+    
+    public YieldingWaitStrategy() {
+        super(NAME);
+    }
+    
+    @Override
+    protected boolean doWaitFor(BooleanSupplier available, long timeoutNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        int counter = SPIN_TRIES;
+        while (!available.getAsBoolean()) {
+            checkInterrupted();
+            if (timeoutNanos != Long.MAX_VALUE && deadline - System.nanoTime() <= 0) {
+                return false;
+            }
+            if (counter > 0) {
+                counter--;
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    protected void doSignal() {
+        // 让步等待不需要显式唤醒
+    }
+}
@@ -1,5 +1,7 @@
 package com.asyncflow.log.service;
 
+import com.asyncflow.log.model.event.StructuredFields;
+
 import java.util.Map;
 
 /**
@@ -23,6 +25,15 @@ public interface AsyncLogService {
      */
     boolean error(String message, String exception);
     
+    /**
+     * 记录ERROR级别日志，带异常对象
+     * 调用线程只保存异常引用，调用栈在消费线程上渲染
+     * @param message 日志消息
+     * @param throwable 异常对象
+     * @return 是否成功提交到队列
+     */
+    boolean error(String message, Throwable throwable);
+    
     /**
      * 记录ERROR级别日志，带上下文信息
      * @param message 日志消息
@@ -40,6 +51,28 @@ public interface AsyncLogService {
      */
     boolean error(String message, String exception, Map<String, String> context);
     
+    /**
+     * 记录ERROR级别的参数化日志
+     * 模板和参数在调用线程上捕获，消息在消费线程上按"{}"占位符渲染。
+     * @param template 消息模板
+     * @param args 参数，最后一个参数为未被占位符使用的异常时记录为异常信息
+     * @return 是否成功提交到队列
+     */
+    boolean errorf(String template, Object... args);
+    
+    /**
+     * 记录ERROR级别的参数化日志
+     * @param template 消息模板
+     * @param args 参数
+     * @return 是否成功提交到队列
+     * @deprecated 只有一个String或Map参数时会匹配到error(String, String)或error(String, Map)重载，
+     * 参数不会填入模板，请使用{@link #errorf(String, Object...)}
+     */
+    @Deprecated
+    default boolean error(String template, Object... args) {
+        return errorf(template, args);
+    }
+    
     /**
      * 记录WARN级别日志
      * @param message 日志消息
@@ -55,6 +88,28 @@ public interface AsyncLogService {
      */
     boolean warn(String message, Map<String, String> context);
     
+    /**
+     * 记录WARN级别的参数化日志
+     * 模板和参数在调用线程上捕获，消息在消费线程上按"{}"占位符渲染。
+     * @param template 消息模板
+     * @param args 参数，最后一个参数为未被占位符使用的异常时记录为异常信息
+     * @return 是否成功提交到队列
+     */
+    boolean warnf(String template, Object... args);
+    
+    /**
+     * 记录WARN级别的参数化日志
+     * @param template 消息模板
+     * @param args 参数
+     * @return 是否成功提交到队列
+     * @deprecated 只有一个Map参数时会匹配到warn(String, Map)重载，
+     * 参数不会填入模板，请使用{@link #warnf(String, Object...)}
+     */
+    @Deprecated
+    default boolean warn(String template, Object... args) {
+        return warnf(template, args);
+    }
+    
     /**
      * 记录INFO级别日志
      * @param message 日志消息
@@ -70,6 +125,28 @@ public interface AsyncLogService {
      */
     boolean info(String message, Map<String, String> context);
     
+    /**
+     * 记录INFO级别的参数化日志
+     * 模板和参数在调用线程上捕获，消息在消费线程上按"{}"占位符渲染。
+     * @param template 消息模板
+     * @param args 参数，最后一个参数为未被占位符使用的异常时记录为异常信息
+     * @return 是否成功提交到队列
+     */
+    boolean infof(String template, Object... args);
+    
+    /**
+     * 记录INFO级别的参数化日志
+     * @param template 消息模板
+     * @param args 参数
+     * @return 是否成功提交到队列
+     * @deprecated 只有一个Map参数时会匹配到info(String, Map)重载，
+     * 参数不会填入模板，请使用{@link #infof(String, Object...)}
+     */
+    @Deprecated
+    default boolean info(String template, Object... args) {
+        return infof(template, args);
+    }
+    
     /**
      * 记录DEBUG级别日志
      * @param message 日志消息
@@ -85,6 +162,28 @@ public interface AsyncLogService {
      */
     boolean debug(String message, Map<String, String> context);
     
+    /**
+     * 记录DEBUG级别的参数化日志
+     * 模板和参数在调用线程上捕获，消息在消费线程上按"{}"占位符渲染。
+     * @param template 消息模板
+     * @param args 参数，最后一个参数为未被占位符使用的异常时记录为异常信息
+     * @return 是否成功提交到队列
+     */
+    boolean debugf(String template, Object... args);
+    
+    /**
+     * 记录DEBUG级别的参数化日志
+     * @param template 消息模板
+     * @param args 参数
+     * @return 是否成功提交到队列
+     * @deprecated 只有一个Map参数时会匹配到debug(String, Map)重载，
+     * 参数不会填入模板，请使用{@link #debugf(String, Object...)}
+     */
+    @Deprecated
+    default boolean debug(String template, Object... args) {
+        return debugf(template, args);
+    }
+    
     /**
      * 记录指定级别的日志
      * @param level 日志级别
@@ -111,6 +210,15 @@ public interface AsyncLogService {
      */
     boolean log(String level, String message, String exception);
     
+    /**
+     * 记录指定级别的日志，带异常对象
+     * @param level 日志级别
+     * @param message 日志消息
+     * @param throwable 异常对象，调用栈在消费线程上渲染
+     * @return 是否成功提交到队列
+     */
+    boolean log(String level, String message, Throwable throwable);
+    
     /**
      * 记录指定级别的日志，带异常和上下文信息
      * @param level 日志级别
@@ -142,6 +250,45 @@ public interface AsyncLogService {
      */
     boolean log(String level, String message, String className, String methodName, Map<String, String> context);
     
+    /**
+     * 记录指定级别的参数化日志，带上下文信息
+     * @param level 日志级别
+     * @param context 上下文信息，可为null
+     * @param template 消息模板，使用"{}"作为占位符
+     * @param args 参数，最后一个参数为未被占位符使用的异常时记录为异常信息
+     * @return 是否成功提交到队列
+     */
+    boolean log(String level, Map<String, String> context, String template, Object... args);
+    
+    /**
+     * 记录指定级别的参数化日志，带上下文和结构化字段
+     * 数值型字段（耗时、计数、状态码等）保存为基本类型，不需要先转为字符串放入上下文
+     * @param level 日志级别
+     * @param context 上下文信息，可为null
+     * @param fields 结构化字段，交给事件持有后调用方不能再修改，可为null
+     * @param template 消息模板，使用"{}"作为占位符
+     * @param args 参数
+     * @return 是否成功提交到队列
+     */
+    boolean log(String level, Map<String, String> context, StructuredFields fields, String template, Object... args);
+    
+    /**
+     * 判断指定级别的日志是否需要输出
+     * 被级别过滤的日志在各记录方法中直接返回false，不创建事件也不入队。
+     * 配置了分类级别时按调用方的类名判断
+     * @param level 日志级别
+     * @return 需要输出时返回true
+     */
+    boolean isEnabled(String level);
+    
+    /**
+     * 判断指定级别和分类的日志是否需要输出
+     * @param level 日志级别
+     * @param category 分类，通常为类名
+     * @return 需要输出时返回true
+     */
+    boolean isEnabled(String level, String category);
+    
     /**
      * 启动异步日志服务
      */
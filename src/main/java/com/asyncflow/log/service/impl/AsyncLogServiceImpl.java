@@ -1,9 +1,20 @@
 package com.asyncflow.log.service.impl;
 
 import com.asyncflow.log.consumer.ConsumerPool;
+import com.asyncflow.log.consumer.ConsumerScaler;
+import com.asyncflow.log.enums.LogLevel;
+import com.asyncflow.log.filter.LevelFilter;
+import com.asyncflow.log.location.CallerLocation;
+import com.asyncflow.log.location.CallerLocator;
 import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.LogEventDTO;
 import com.asyncflow.log.model.event.LogEventFactory;
+import com.asyncflow.log.model.event.PooledLogEvent;
+import com.asyncflow.log.model.event.StructuredFields;
 import com.asyncflow.log.queue.EventQueue;
+import com.asyncflow.log.queue.EventSequencer;
+import com.asyncflow.log.queue.ProducerBatcher;
+import com.asyncflow.log.queue.overflow.OverflowPolicy;
 import com.asyncflow.log.service.AsyncLogService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -41,6 +52,47 @@ public class AsyncLogServiceImpl implements AsyncLogService {
     @Autowired
     private ConsumerPool consumerPool;
     
+    /**
+     * 队列溢出策略，未配置时直接丢弃
+     */
+    @Autowired(required = false)
+    private OverflowPolicy overflowPolicy;
+    
+    /**
+     * 生产者端批量发布器，未启用时逐个事件入队
+     */
+    @Autowired(required = false)
+    private ProducerBatcher producerBatcher;
+    
+    /**
+     * 事件序号分配器，开启有序写出时入队前为事件分配序号
+     */
+    @Autowired(required = false)
+    private EventSequencer eventSequencer;
+    
+    /**
+     * 日志级别过滤器，未配置时不过滤
+     */
+    @Autowired(required = false)
+    private LevelFilter levelFilter;
+    
+    /**
+     * 调用位置定位器，未启用时只记录显式传入的位置
+     */
+    @Autowired(required = false)
+    private CallerLocator callerLocator;
+    
+    /**
+     * 未启用调用位置定位器时，按调用方类名判断分类级别所用的定位器
+     */
+    private final CallerLocator categoryLocator = new CallerLocator();
+    
+    /**
+     * 消费者弹性伸缩控制器，未启用时消费循环数固定
+     */
+    @Autowired(required = false)
+    private ConsumerScaler consumerScaler;
+    
     /**
      * 运行状态
      */
@@ -68,6 +120,12 @@ public class AsyncLogServiceImpl implements AsyncLogService {
             log.info("启动异步日志服务");
             consumerPool.setEventQueue(eventQueue);
             consumerPool.start();
+            if (consumerScaler != null) {
+                consumerScaler.start();
+            }
+            if (producerBatcher != null) {
+                producerBatcher.start();
+            }
         }
     }
     
@@ -75,6 +133,13 @@ public class AsyncLogServiceImpl implements AsyncLogService {
     public void shutdown() {
         if (running.compareAndSet(true, false)) {
             log.info("关闭异步日志服务");
+            if (producerBatcher != null) {
+                // 先把生产者缓冲区中的事件发布到队列，再关闭消费者
+                producerBatcher.shutdown();
+            }
+            if (consumerScaler != null) {
+                consumerScaler.shutdown();
+            }
             consumerPool.shutdown();
         }
     }
@@ -82,7 +147,10 @@ public class AsyncLogServiceImpl implements AsyncLogService {
     @Override
     public void flush() {
         log.debug("刷新异步日志服务");
-        // 这里不需要额外操作，因为消费者线程池已经在持续处理队列中的日志事件
+        // 消费者线程池会持续处理队列中的日志事件，这里只需发布生产者缓冲区中的事件
+        if (producerBatcher != null) {
+            producerBatcher.flushAll();
+        }
     }
     
     @Override
@@ -95,6 +163,11 @@ public class AsyncLogServiceImpl implements AsyncLogService {
         return log("ERROR", message, exception);
     }
     
+    @Override
+    public boolean error(String message, Throwable throwable) {
+        return log("ERROR", message, throwable);
+    }
+    
     @Override
     public boolean error(String message, Map<String, String> context) {
         return log("ERROR", message, context);
@@ -105,6 +178,11 @@ public class AsyncLogServiceImpl implements AsyncLogService {
         return log("ERROR", message, exception, context);
     }
     
+    @Override
+    public boolean errorf(String template, Object... args) {
+        return log("ERROR", null, template, args);
+    }
+    
     @Override
     public boolean warn(String message) {
         return log("WARN", message);
@@ -115,6 +193,11 @@ public class AsyncLogServiceImpl implements AsyncLogService {
         return log("WARN", message, context);
     }
     
+    @Override
+    public boolean warnf(String template, Object... args) {
+        return log("WARN", null, template, args);
+    }
+    
     @Override
     public boolean info(String message) {
         return log("INFO", message);
@@ -125,6 +208,11 @@ public class AsyncLogServiceImpl implements AsyncLogService {
         return log("INFO", message, context);
     }
     
+    @Override
+    public boolean infof(String template, Object... args) {
+        return log("INFO", null, template, args);
+    }
+    
     @Override
     public boolean debug(String message) {
         return log("DEBUG", message);
@@ -135,8 +223,17 @@ public class AsyncLogServiceImpl implements AsyncLogService {
         return log("DEBUG", message, context);
     }
     
+    @Override
+    public boolean debugf(String template, Object... args) {
+        return log("DEBUG", null, template, args);
+    }
+    
     @Override
     public boolean log(String level, String message) {
+        CallerLocation caller = locateCategoryCaller(level);
+        if (!isEnabledForCaller(level, caller)) {
+            return false;
+        }
         if (!running.get()) {
             log.warn("异步日志服务未启动");
             return false;
@@ -144,7 +241,7 @@ public class AsyncLogServiceImpl implements AsyncLogService {
         
         try {
             LogEvent event = eventFactory.createLogEvent(level, message);
-            return submitEvent(event);
+            return submitEvent(event, caller);
         } catch (Exception e) {
             log.error("创建日志事件异常: {}", e.getMessage(), e);
             return false;
@@ -153,6 +250,10 @@ public class AsyncLogServiceImpl implements AsyncLogService {
     
     @Override
     public boolean log(String level, String message, Map<String, String> context) {
+        CallerLocation caller = locateCategoryCaller(level);
+        if (!isEnabledForCaller(level, caller)) {
+            return false;
+        }
         if (!running.get()) {
             log.warn("异步日志服务未启动");
             return false;
@@ -160,7 +261,7 @@ public class AsyncLogServiceImpl implements AsyncLogService {
         
         try {
             LogEvent event = eventFactory.createLogEvent(level, message, context);
-            return submitEvent(event);
+            return submitEvent(event, caller);
         } catch (Exception e) {
             log.error("创建日志事件异常: {}", e.getMessage(), e);
             return false;
@@ -169,6 +270,10 @@ public class AsyncLogServiceImpl implements AsyncLogService {
     
     @Override
     public boolean log(String level, String message, String exception) {
+        CallerLocation caller = locateCategoryCaller(level);
+        if (!isEnabledForCaller(level, caller)) {
+            return false;
+        }
         if (!running.get()) {
             log.warn("异步日志服务未启动");
             return false;
@@ -176,7 +281,27 @@ public class AsyncLogServiceImpl implements AsyncLogService {
         
         try {
             LogEvent event = eventFactory.createLogEventWithException(level, message, exception);
-            return submitEvent(event);
+            return submitEvent(event, caller);
+        } catch (Exception e) {
+            log.error("创建日志事件异常: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+    
+    @Override
+    public boolean log(String level, String message, Throwable throwable) {
+        CallerLocation caller = locateCategoryCaller(level);
+        if (!isEnabledForCaller(level, caller)) {
+            return false;
+        }
+        if (!running.get()) {
+            log.warn("异步日志服务未启动");
+            return false;
+        }
+        
+        try {
+            LogEvent event = eventFactory.createLogEventWithThrowable(level, message, throwable);
+            return submitEvent(event, caller);
         } catch (Exception e) {
             log.error("创建日志事件异常: {}", e.getMessage(), e);
             return false;
@@ -185,6 +310,10 @@ public class AsyncLogServiceImpl implements AsyncLogService {
     
     @Override
     public boolean log(String level, String message, String exception, Map<String, String> context) {
+        CallerLocation caller = locateCategoryCaller(level);
+        if (!isEnabledForCaller(level, caller)) {
+            return false;
+        }
         if (!running.get()) {
             log.warn("异步日志服务未启动");
             return false;
@@ -193,7 +322,7 @@ public class AsyncLogServiceImpl implements AsyncLogService {
         try {
             // 创建完整日志事件
             LogEvent event = eventFactory.createFullLogEvent(level, message, context, null, null, exception);
-            return submitEvent(event);
+            return submitEvent(event, caller);
         } catch (Exception e) {
             log.error("创建日志事件异常: {}", e.getMessage(), e);
             return false;
@@ -202,6 +331,9 @@ public class AsyncLogServiceImpl implements AsyncLogService {
     
     @Override
     public boolean log(String level, String message, String className, String methodName) {
+        if (!isEnabled(level, className)) {
+            return false;
+        }
         if (!running.get()) {
             log.warn("异步日志服务未启动");
             return false;
@@ -218,6 +350,9 @@ public class AsyncLogServiceImpl implements AsyncLogService {
     
     @Override
     public boolean log(String level, String message, String className, String methodName, Map<String, String> context) {
+        if (!isEnabled(level, className)) {
+            return false;
+        }
         if (!running.get()) {
             log.warn("异步日志服务未启动");
             return false;
@@ -233,30 +368,157 @@ public class AsyncLogServiceImpl implements AsyncLogService {
         }
     }
     
+    @Override
+    public boolean log(String level, Map<String, String> context, String template, Object... args) {
+        CallerLocation caller = locateCategoryCaller(level);
+        if (!isEnabledForCaller(level, caller)) {
+            return false;
+        }
+        if (!running.get()) {
+            log.warn("异步日志服务未启动");
+            return false;
+        }
+        
+        try {
+            // 只捕获模板和参数，消息由消费线程渲染
+            LogEvent event = eventFactory.createTemplateLogEvent(level, context, template, args);
+            return submitEvent(event, caller);
+        } catch (Exception e) {
+            log.error("创建日志事件异常: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+    
+    @Override
+    public boolean log(String level, Map<String, String> context, StructuredFields fields, String template, Object... args) {
+        CallerLocation caller = locateCategoryCaller(level);
+        if (!isEnabledForCaller(level, caller)) {
+            return false;
+        }
+        if (!running.get()) {
+            log.warn("异步日志服务未启动");
+            return false;
+        }
+        
+        try {
+            LogEvent event = eventFactory.createStructuredLogEvent(level, context, fields, template, args);
+            return submitEvent(event, caller);
+        } catch (Exception e) {
+            log.error("创建日志事件异常: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+    
+    @Override
+    public boolean isEnabled(String level) {
+        return isEnabledForCaller(level, locateCategoryCaller(level));
+    }
+    
+    @Override
+    public boolean isEnabled(String level, String category) {
+        // 在创建事件之前判断，被过滤的日志不分配对象也不入队
+        return levelFilter == null || levelFilter.isEnabled(level, category);
+    }
+    
+    /**
+     * 定位用于判断分类级别的调用方
+     * 只有配置了分类级别、且该级别的结果取决于分类时才遍历栈帧；只按级别就能拒绝或放行的日志不遍历
+     * @param level 日志级别
+     * @return 调用方，不需要或找不到调用方时返回null
+     */
+    private CallerLocation locateCategoryCaller(String level) {
+        if (levelFilter == null || !levelFilter.dependsOnCategory(LogLevel.fromCode(level, LogLevel.INFO))) {
+            return null;
+        }
+        CallerLocator locator = callerLocator != null ? callerLocator : categoryLocator;
+        return locator.locateCaller();
+    }
+    
+    /**
+     * 按调用方类名判断级别是否输出
+     * @param level 日志级别
+     * @param caller 由{@link #locateCategoryCaller(String)}定位的调用方，为null时按根级别判断
+     * @return 需要输出时返回true
+     */
+    private boolean isEnabledForCaller(String level, CallerLocation caller) {
+        return levelFilter == null || levelFilter.isEnabled(level, caller != null ? caller.getClassName() : null);
+    }
+    
+    /**
+     * 为未带位置的事件附带调用位置，仍在调用线程上执行
+     * 判断分类级别时已定位过调用方的，直接复用，不再遍历栈帧
+     * @param event 日志事件
+     * @param caller 已定位的调用方，为null时重新定位
+     */
+    private void attachLocation(LogEventDTO event, CallerLocation caller) {
+        CallerLocation location = caller != null
+                ? callerLocator.locate(event.getLevel(), caller) : callerLocator.locate(event.getLevel());
+        if (location != null) {
+            event.withLocation(location.getClassName(), location.getMethodName());
+        }
+    }
+    
     /**
      * 提交日志事件到队列
      * @param event 日志事件
      * @return 是否成功提交
      */
     private boolean submitEvent(LogEvent event) {
+        return submitEvent(event, null);
+    }
+    
+    /**
+     * 提交日志事件到队列
+     * @param event 日志事件
+     * @param caller 判断分类级别时已定位的调用方，可能为null
+     * @return 是否成功提交
+     */
+    private boolean submitEvent(LogEvent event, CallerLocation caller) {
+        if (callerLocator != null && event.getClassName() == null && event instanceof LogEventDTO) {
+            attachLocation((LogEventDTO) event, caller);
+        }
+        if (producerBatcher != null) {
+            // 进入线程本地缓冲区，攒批后发布
+            return producerBatcher.submit(event);
+        }
+        if (eventSequencer != null) {
+            eventSequencer.stamp(event);
+        }
         try {
             // 先尝试非阻塞提交
-            boolean result = eventQueue.offer(event);
-            if (!result) {
-                // 如果队列已满，记录一条警告日志
-                log.warn("日志队列已满，丢弃日志: {}", event.getMessage());
+            if (eventQueue.offer(event)) {
+                return true;
             }
-            return result;
+            // 队列已满，交给溢出策略处理
+            if (overflowPolicy != null) {
+                return overflowPolicy.onOverflow(event, eventQueue);
+            }
+            log.warn("日志队列已满，丢弃日志: {}", event.getMessage());
+            skipSequence(event);
+            PooledLogEvent.releaseIfPooled(event);
+            return false;
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             log.error("提交日志事件被中断: {}", e.getMessage(), e);
+            skipSequence(event);
             return false;
         } catch (Exception e) {
             log.error("提交日志事件异常: {}", e.getMessage(), e);
+            skipSequence(event);
             return false;
         }
     }
     
+    /**
+     * 开启有序写出时报告未能入队事件的序号，写出端不必等待空洞超时
+     * @param event 日志事件
+     */
+    private void skipSequence(LogEvent event) {
+        if (eventSequencer != null) {
+            eventSequencer.skip(event);
+        }
+    }
+    
     @Override
     public int getQueueSize() {
         return eventQueue.size();
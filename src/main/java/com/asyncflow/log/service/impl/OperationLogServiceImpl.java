@@ -2,6 +2,7 @@ package com.asyncflow.log.service.impl;
 
 import com.asyncflow.log.mapper.OperationLogMapper;
 import com.asyncflow.log.model.entity.OperationLogRecord;
+import com.asyncflow.log.model.event.StructuredFields;
 import com.asyncflow.log.service.AsyncLogService;
 import com.asyncflow.log.service.OperationLogService;
 import com.asyncflow.log.util.JsonUtils;
@@ -48,12 +49,20 @@ public class OperationLogServiceImpl implements OperationLogService {
         context.put("userId", logRecord.getUserId());
         context.put("operation", logRecord.getOperationType());
         context.put("module", logRecord.getModule());
-        context.put("status", logRecord.getStatus().toString());
+        
+        // 状态和耗时作为数值字段记录，不转为字符串
+        StructuredFields fields = StructuredFields.create();
+        if (logRecord.getStatus() != null) {
+            fields.add("status", logRecord.getStatus());
+        }
+        if (logRecord.getDuration() != null) {
+            fields.add("duration", logRecord.getDuration());
+        }
         
         if (result) {
-            asyncLogService.log("INFO", "操作日志已保存: " + logRecord.getDescription(), context);
+            asyncLogService.log("INFO", context, fields, "操作日志已保存: {}", logRecord.getDescription());
         } else {
-            asyncLogService.log("ERROR", "操作日志保存失败: " + logRecord.getDescription(), context);
+            asyncLogService.log("ERROR", context, fields, "操作日志保存失败: {}", logRecord.getDescription());
         }
     }
     
@@ -0,0 +1,66 @@
+package com.asyncflow.log.symbol;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 符号
+ * 驻留在{@link SymbolTable}中的字符串，带有整数ID和预先编码的UTF-8字节
+ */
+public final class Symbol {
+    
+    /**
+     * 未登记到符号表的临时符号ID
+     */
+    public static final int UNREGISTERED = -1;
+    
+    /**
+     * 符号ID
+     */
+    private final int id;
+    
+    /**
+     * 字符串值
+     */
+    private final String value;
+    
+    /**
+     * UTF-8编码
+     */
+    private final byte[] utf8;
+    
+    Symbol(int id, String value) {
+        this.id = id;
+        this.value = value;
+        this.utf8 = value.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * 获取符号ID
+     * @return 符号ID，未登记时为{@link #UNREGISTERED}
+     */
+    public int getId() {
+        return id;
+    }
+    
+    /**
+     * 获取字符串值
+     * @return 字符串值
+     */
+    public String getValue() {
+        return value;
+    }
+    
+    /**
+     * 获取UTF-8编码
+     * 返回的是共享数组，调用方不能修改
+     * @return UTF-8字节
+     */
+    public byte[] getBytes() {
+        return utf8;
+    }
+    
+    @Override
+    public String toString() {
+        return value;
+    }
+}
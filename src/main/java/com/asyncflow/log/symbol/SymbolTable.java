@@ -0,0 +1,190 @@
+package com.asyncflow.log.symbol;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 并发符号表
+ * 将类名、方法名、线程名等反复出现的字符串映射为小整数ID，并缓存其UTF-8编码。
+ * 事件中保存的是驻留后的同一个字符串对象，写出时直接使用缓存的字节，不再逐次编码。
+ * 符号表只增不减，达到容量后新字符串不再登记，返回临时符号。
+ */
+@Slf4j
+public final class SymbolTable {
+    
+    /**
+     * 默认容量
+     */
+    public static final int DEFAULT_CAPACITY = 16384;
+    
+    /**
+     * 全局符号表
+     */
+    private static final SymbolTable DEFAULT = new SymbolTable(DEFAULT_CAPACITY);
+    
+    /**
+     * 字符串到符号的映射
+     */
+    private final ConcurrentHashMap<String, Symbol> symbols = new ConcurrentHashMap<>();
+    
+    /**
+     * 按ID索引的符号
+     */
+    private final AtomicReferenceArray<Symbol> byId;
+    
+    /**
+     * 下一个可分配的ID
+     */
+    private final AtomicInteger nextId = new AtomicInteger();
+    
+    /**
+     * 容量
+     */
+    private final int capacity;
+    
+    /**
+     * 查找次数
+     */
+    private final LongAdder lookupCount = new LongAdder();
+    
+    /**
+     * 未命中次数（新登记或超出容量）
+     */
+    private final LongAdder missCount = new LongAdder();
+    
+    /**
+     * 超出容量未能登记的次数
+     */
+    private final LongAdder overflowCount = new LongAdder();
+    
+    /**
+     * 构造函数
+     * @param capacity 最多登记的符号数
+     */
+    public SymbolTable(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("符号表容量必须大于0: " + capacity);
+        }
+        this.capacity = capacity;
+        this.byId = new AtomicReferenceArray<>(capacity);
+    }
+    
+    /**
+     * 获取全局符号表
+     * @return 全局符号表
+     */
+    public static SymbolTable getDefault() {
+        return DEFAULT;
+    }
+    
+    /**
+     * 查找或登记符号
+     * @param value 字符串
+     * @return 符号，value为null时返回null
+     */
+    public Symbol intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        lookupCount.increment();
+        Symbol symbol = symbols.get(value);
+        if (symbol != null) {
+            return symbol;
+        }
+        missCount.increment();
+        symbol = symbols.computeIfAbsent(value, this::register);
+        if (symbol == null) {
+            overflowCount.increment();
+            return new Symbol(Symbol.UNREGISTERED, value);
+        }
+        return symbol;
+    }
+    
+    /**
+     * 获取驻留后的字符串
+     * @param value 字符串
+     * @return 符号表中的同值字符串，value为null时返回null
+     */
+    public String internString(String value) {
+        Symbol symbol = intern(value);
+        return symbol != null ? symbol.getValue() : null;
+    }
+    
+    /**
+     * 按ID获取符号
+     * @param id 符号ID
+     * @return 符号，不存在时返回null
+     */
+    public Symbol get(int id) {
+        if (id < 0 || id >= capacity) {
+            return null;
+        }
+        return byId.get(id);
+    }
+    
+    /**
+     * 获取已登记的符号数
+     * @return 符号数
+     */
+    public int size() {
+        return symbols.size();
+    }
+    
+    /**
+     * 获取容量
+     * @return 容量
+     */
+    public int capacity() {
+        return capacity;
+    }
+    
+    /**
+     * 获取查找次数
+     * @return 查找次数
+     */
+    public long getLookupCount() {
+        return lookupCount.sum();
+    }
+    
+    /**
+     * 获取超出容量未能登记的次数
+     * @return 次数
+     */
+    public long getOverflowCount() {
+        return overflowCount.sum();
+    }
+    
+    /**
+     * 获取命中率
+     * @return 查找时符号已存在的比例，没有查找时返回1
+     */
+    public double getHitRate() {
+        long lookups = lookupCount.sum();
+        if (lookups == 0) {
+            return 1.0;
+        }
+        return 1.0 - (double) missCount.sum() / lookups;
+    }
+    
+    /**
+     * 登记新符号，在computeIfAbsent中对每个字符串只调用一次
+     * @param value 字符串
+     * @return 新符号，超出容量时返回null（不登记）
+     */
+    private Symbol register(String value) {
+        int id = nextId.getAndIncrement();
+        if (id >= capacity) {
+            if (id == capacity) {
+                log.warn("符号表已满，容量: {}，后续新字符串不再驻留", capacity);
+            }
+            return null;
+        }
+        Symbol symbol = new Symbol(id, value);
+        byId.set(id, symbol);
+        return symbol;
+    }
+}
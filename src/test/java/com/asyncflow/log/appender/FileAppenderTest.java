@@ -85,6 +85,24 @@ public class FileAppenderTest {
         assertTrue(lines.get(0).contains("测试单条日志消息"));
     }
     
+    @Test
+    public void testAppendStructuredFields() throws Exception {
+        appender.initialize();
+        
+        LogEvent event = new LogEventDTO("INFO", "请求完成")
+                .withField("duration", 125L)
+                .withField("ratio", 0.5)
+                .withField("cached", true)
+                .withField("offset", Long.MIN_VALUE);
+        assertTrue(appender.append(event));
+        appender.flush();
+        
+        String dateStr = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        List<String> lines = Files.readAllLines(Paths.get(testFilePath, String.format(testFileName, dateStr)));
+        assertTrue(lines.get(0).endsWith("请求完成 {duration=125, ratio=0.5, cached=true, offset=" + Long.MIN_VALUE + "}"),
+                "结构化字段应按类型写出: " + lines.get(0));
+    }
+    
     @Test
     public void testAppendBatch() throws Exception {
         // 初始化写入器
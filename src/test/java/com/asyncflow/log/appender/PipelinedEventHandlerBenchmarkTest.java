@@ -0,0 +1,109 @@
+package com.asyncflow.log.appender;
+
+import com.asyncflow.log.consumer.EventHandler;
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.LogEventDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 直接写入与流水线写入的吞吐对比基准
+ * 每个线程模拟一个消费循环，按批处理带异常信息的日志，统计不同消费循环数下的总吞吐，
+ * 流水线模式同时输出编码阶段和写出阶段的累计耗时，用于判断哪个阶段是瓶颈。
+ * 耗时与机器相关，默认不运行，使用 mvn test -Dtest=PipelinedEventHandlerBenchmarkTest -Dasynclog.benchmark=true 执行。
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "asynclog.benchmark", matches = "true")
+public class PipelinedEventHandlerBenchmarkTest {
+    
+    private static final int BATCH_SIZE = 100;
+    
+    private static final int BATCHES_PER_CONSUMER = 2_000;
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    public void benchmarkThroughputByConsumers() throws InterruptedException {
+        // 两种处理器先各完整运行一轮，使编码和写出路径完成编译
+        measure(direct("warmup-direct"), 2);
+        measure(pipelined("warmup-pipelined"), 2);
+        
+        for (int consumers : new int[]{1, 2, 4}) {
+            long directRate = measure(direct("direct-" + consumers), consumers);
+            PipelinedEventHandler pipelined = pipelined("pipelined-" + consumers);
+            long pipelinedRate = measure(pipelined, consumers);
+            log.info("消费循环数 {}: 直接写入 {} 事件/秒, 流水线写入 {} 事件/秒, 编码耗时 {}ms, 写出耗时 {}ms",
+                    consumers, directRate, pipelinedRate,
+                    pipelined.getEncodeNanos() / 1_000_000, pipelined.getWriteNanos() / 1_000_000);
+            assertEquals(pipelined.getEncodedCount(), pipelined.getWrittenCount(), "关闭后应写出全部已编码日志");
+        }
+    }
+    
+    private EventHandler direct(String directory) {
+        return new LogEventHandler(new FileAppender("DirectAppender", tempDir.resolve(directory).toString(),
+                "bench-%s.log"), BATCH_SIZE);
+    }
+    
+    private PipelinedEventHandler pipelined(String directory) {
+        return new PipelinedEventHandler(new FileAppender("PipelinedAppender", tempDir.resolve(directory).toString(),
+                "bench-%s.log"));
+    }
+    
+    private long measure(EventHandler handler, int consumers) throws InterruptedException {
+        handler.initialize();
+        // 预热
+        runConsumers(handler, consumers, BATCHES_PER_CONSUMER / 10);
+        long start = System.nanoTime();
+        runConsumers(handler, consumers, BATCHES_PER_CONSUMER);
+        // 计入写出阶段排空剩余字节块的时间
+        handler.close();
+        long elapsed = System.nanoTime() - start;
+        return (long) consumers * BATCHES_PER_CONSUMER * BATCH_SIZE * 1_000_000_000L / elapsed;
+    }
+    
+    private void runConsumers(EventHandler handler, int consumers, int batches) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < consumers; c++) {
+            IllegalStateException failure = new IllegalStateException("基准异常");
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int b = 0; b < batches; b++) {
+                    // 每批重新创建事件，消息和异常在处理时渲染
+                    List<LogEvent> batch = new ArrayList<>(BATCH_SIZE);
+                    for (int i = 0; i < BATCH_SIZE; i++) {
+                        LogEventDTO event = new LogEventDTO("INFO", null)
+                                .withTemplate("基准消息，消费者{}，序号{}", Thread.currentThread().getName(), i)
+                                .withField("index", i);
+                        if (i % 10 == 0) {
+                            event.withThrowable(failure);
+                        }
+                        batch.add(event);
+                    }
+                    handler.handleBatch(batch);
+                }
+            }, "bench-consumer-" + c);
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
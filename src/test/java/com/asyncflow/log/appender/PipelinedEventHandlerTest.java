@@ -0,0 +1,468 @@
+package com.asyncflow.log.appender;
+
+import com.asyncflow.log.consumer.ThreadPoolConsumer;
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.LogEventDTO;
+import com.asyncflow.log.queue.EventSequencer;
+import com.asyncflow.log.queue.LinkedEventQueue;
+import com.asyncflow.log.queue.overflow.DropNewestOverflowPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PipelinedEventHandler单元测试类
+ */
+public class PipelinedEventHandlerTest {
+    
+    private static final Pattern SEQUENCE = Pattern.compile("消费者(\\d+)-(\\d+)");
+    
+    @TempDir
+    Path tempDir;
+    
+    private FileAppender appender;
+    
+    private PipelinedEventHandler handler;
+    
+    @BeforeEach
+    public void setUp() {
+        appender = new FileAppender("TestAppender", tempDir.toString(), "pipeline-%s.log");
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        if (handler != null) {
+            handler.close();
+        }
+        if (appender.isInitialized()) {
+            appender.close();
+        }
+    }
+    
+    @Test
+    public void testWritesAllEventsInOrder() throws Exception {
+        // 字节块很小，每批会拆成多个字节块交给写出线程
+        handler = new PipelinedEventHandler(appender, 4, 256);
+        handler.initialize();
+        
+        List<LogEvent> batch = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            batch.add(new LogEventDTO("INFO", "消费者0-" + i));
+        }
+        assertEquals(500, handler.handleBatch(batch));
+        assertTrue(handler.handle(new LogEventDTO("INFO", "消费者0-500")));
+        handler.close();
+        
+        List<String> lines = readLogLines();
+        assertEquals(501, lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            assertTrue(lines.get(i).endsWith("消费者0-" + i), "写出顺序应与编码顺序一致: " + lines.get(i));
+        }
+        assertEquals(501, handler.getEncodedCount());
+        assertEquals(501, handler.getWrittenCount());
+        assertEquals(501, appender.getAppendCount());
+        assertEquals(0, handler.getPendingEvents());
+        assertEquals(0, handler.getWriteQueueDepth());
+    }
+    
+    @Test
+    public void testOversizedLineIsWritten() throws Exception {
+        handler = new PipelinedEventHandler(appender, 4, 64);
+        handler.initialize();
+        
+        String message = "超长消息".repeat(100);
+        List<LogEvent> batch = List.of(new LogEventDTO("INFO", "短消息"), new LogEventDTO("INFO", message));
+        assertEquals(2, handler.handleBatch(batch));
+        handler.close();
+        
+        List<String> lines = readLogLines();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).endsWith(message), "超过字节块大小的日志应完整写出");
+    }
+    
+    @Test
+    public void testPreservesOrderPerConsumer() throws Exception {
+        handler = new PipelinedEventHandler(appender, 8, 512);
+        handler.initialize();
+        
+        int consumers = 4;
+        int batches = 50;
+        int batchSize = 20;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < consumers; c++) {
+            int consumer = c;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int b = 0; b < batches; b++) {
+                    List<LogEvent> batch = new ArrayList<>();
+                    for (int i = 0; i < batchSize; i++) {
+                        batch.add(new LogEventDTO("INFO", "消费者" + consumer + "-" + (b * batchSize + i)));
+                    }
+                    handler.handleBatch(batch);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        handler.close();
+        
+        List<String> lines = readLogLines();
+        assertEquals(consumers * batches * batchSize, lines.size());
+        Map<String, Integer> next = new HashMap<>();
+        for (String line : lines) {
+            Matcher matcher = SEQUENCE.matcher(line);
+            assertTrue(matcher.find(), "日志行格式不正确: " + line);
+            int expected = next.getOrDefault(matcher.group(1), 0);
+            assertEquals(expected, Integer.parseInt(matcher.group(2)), "同一消费者的日志应保持顺序");
+            next.put(matcher.group(1), expected + 1);
+        }
+    }
+    
+    @Test
+    public void testFullWriteQueueBlocksEncodeStage() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch writing = new CountDownLatch(1);
+        FileAppender slowAppender = new FileAppender("SlowAppender", tempDir.toString(), "pipeline-%s.log") {
+            @Override
+            public int appendEncoded(byte[] data, int offset, int length, int events) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.appendEncoded(data, offset, length, events);
+            }
+        };
+        appender = slowAppender;
+        handler = new PipelinedEventHandler(slowAppender, 2, 1024);
+        handler.initialize();
+        
+        // 写出线程阻塞在第一批字节块上，随后的字节块填满写出队列，编码阶段阻塞
+        Thread consumer = new Thread(() -> {
+            for (int i = 0; i < 20; i++) {
+                handler.handle(new LogEventDTO("INFO", "消费者0-" + i));
+            }
+        });
+        consumer.start();
+        try {
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while ((consumer.getState() != Thread.State.WAITING || handler.getWriteQueueDepth() < 2)
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(Thread.State.WAITING, consumer.getState(), "写出队列满时编码阶段应阻塞");
+            assertEquals(2, handler.getWriteQueueDepth());
+            assertEquals(2, handler.getWriteQueueCapacity());
+            assertTrue(handler.getPendingEvents() > handler.getWriteQueueDepth(),
+                    "待写出日志应包括写出线程手中和正在交接的日志");
+        } finally {
+            release.countDown();
+        }
+        
+        consumer.join(5000);
+        handler.close();
+        assertEquals(20, readLogLines().size());
+        assertEquals(0, handler.getPendingEvents());
+    }
+    
+    @Test
+    public void testHandleAfterCloseWritesDirectly() throws Exception {
+        handler = new PipelinedEventHandler(appender);
+        handler.initialize();
+        handler.close();
+        
+        assertTrue(handler.handle(new LogEventDTO("INFO", "消费者0-0")));
+        appender.flush();
+        assertEquals(1, readLogLines().size());
+        assertEquals(1, handler.getWrittenCount());
+    }
+    
+    @Test
+    public void testOrderedAcrossConsumerLoops() throws Exception {
+        handler = new PipelinedEventHandler(appender, 8, 512);
+        handler.setOrdering(5000, 100_000);
+        EventSequencer sequencer = new EventSequencer();
+        LinkedEventQueue queue = new LinkedEventQueue(10_000);
+        ThreadPoolConsumer consumers = new ThreadPoolConsumer(2, 2, 60, 10, 50);
+        consumers.setEventQueue(queue);
+        consumers.setEventHandler(handler);
+        consumers.start();
+        
+        // 两个消费循环并行出队和编码，写出顺序应与入队序号一致
+        int total = 2000;
+        for (int i = 0; i < total; i++) {
+            LogEventDTO event = new LogEventDTO("INFO", "消费者0-" + i);
+            sequencer.stamp(event);
+            assertTrue(queue.offer(event));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (handler.getWrittenCount() < total && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        consumers.shutdown();
+        
+        List<String> lines = readLogLines();
+        assertEquals(total, lines.size());
+        for (int i = 0; i < total; i++) {
+            assertTrue(lines.get(i).endsWith("消费者0-" + i), "写出顺序应与入队顺序一致: " + lines.get(i));
+        }
+        assertEquals(0, handler.getSkippedSequenceCount());
+        assertEquals(0, handler.getLateEventCount());
+        assertEquals(0, handler.getReorderPendingEvents());
+    }
+    
+    @Test
+    public void testOrderedThroughputWithDroppingPolicy() throws Exception {
+        // 空洞超时远大于测试的等待时间，丢弃的序号若未报告，写出会长时间停顿
+        handler = new PipelinedEventHandler(appender, 8, 512);
+        handler.setOrdering(10_000, 100_000);
+        EventSequencer sequencer = new EventSequencer();
+        sequencer.setSkipListener(handler::skipSequence);
+        DropNewestOverflowPolicy policy = new DropNewestOverflowPolicy();
+        policy.setEventSequencer(sequencer);
+        LinkedEventQueue queue = new LinkedEventQueue(100);
+        ThreadPoolConsumer consumers = new ThreadPoolConsumer(2, 2, 60, 10, 50);
+        consumers.setEventQueue(queue);
+        consumers.setEventHandler(handler);
+        
+        // 消费者启动前队列填满，之后的事件被丢弃；启动后继续快速生产，丢弃与写出交替发生
+        int total = 5000;
+        int published = 0;
+        for (int i = 0; i < total; i++) {
+            if (i == 1000) {
+                consumers.start();
+            }
+            LogEventDTO event = new LogEventDTO("INFO", "消费者0-" + i);
+            sequencer.stamp(event);
+            if (queue.offer(event) || policy.onOverflow(event, queue)) {
+                published++;
+            }
+        }
+        assertTrue(policy.getDiscardedCount() >= 900, "消费者启动前的溢出事件应被丢弃");
+        assertEquals(total, published + policy.getDiscardedCount());
+        
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (handler.getWrittenCount() < published && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(published, handler.getWrittenCount(), "丢弃的序号报告后写出不应等待空洞超时");
+        consumers.shutdown();
+        
+        assertEquals(0, handler.getSkippedSequenceCount(), "不应有序号等到超时才跳过");
+        assertEquals(0, handler.getLateEventCount());
+        assertEquals(policy.getDiscardedCount(), handler.getDroppedSequenceCount());
+        List<String> lines = readLogLines();
+        assertEquals(published, lines.size());
+        int previous = -1;
+        for (String line : lines) {
+            Matcher matcher = SEQUENCE.matcher(line);
+            assertTrue(matcher.find(), "日志行格式不正确: " + line);
+            int current = Integer.parseInt(matcher.group(2));
+            assertTrue(current > previous, "写出顺序应与入队顺序一致: " + line);
+            previous = current;
+        }
+    }
+    
+    @Test
+    public void testOrderedTrickleAcrossLingeringConsumers() throws Exception {
+        // 消费循环凑批时持有已出队的事件直到各自的凑批窗口结束，空洞超时大于凑批等待时间时不应跳过这些序号
+        long linger = 200;
+        handler = new PipelinedEventHandler(appender, 8, 512);
+        handler.setOrdering(linger * 2, 100_000, linger);
+        EventSequencer sequencer = new EventSequencer();
+        LinkedEventQueue queue = new LinkedEventQueue(100);
+        // 两组消费循环错开半个凑批窗口启动，先出队的序号可能晚于后出队的序号交给写出线程
+        ThreadPoolConsumer early = new ThreadPoolConsumer(1, 1, 60, 10, linger);
+        ThreadPoolConsumer late = new ThreadPoolConsumer(1, 1, 60, 10, linger);
+        for (ThreadPoolConsumer consumers : List.of(early, late)) {
+            consumers.setEventQueue(queue);
+            consumers.setEventHandler(handler);
+        }
+        early.start();
+        Thread.sleep(linger / 2);
+        late.start();
+        
+        // 生产者低速、不均匀地逐条生产，批次凑不满，只能等到凑批窗口结束
+        Random random = new Random(42);
+        int total = 60;
+        for (int i = 0; i < total; i++) {
+            LogEventDTO event = new LogEventDTO("INFO", "消费者0-" + i);
+            sequencer.stamp(event);
+            assertTrue(queue.offer(event));
+            Thread.sleep(random.nextInt(60));
+        }
+        
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (handler.getWrittenCount() < total && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        early.shutdown();
+        late.shutdown();
+        
+        assertEquals(total, handler.getWrittenCount());
+        assertEquals(0, handler.getSkippedSequenceCount(), "凑批中的序号不应被当作空洞跳过");
+        assertEquals(0, handler.getLateEventCount());
+        List<String> lines = readLogLines();
+        assertEquals(total, lines.size());
+        for (int i = 0; i < total; i++) {
+            assertTrue(lines.get(i).endsWith("消费者0-" + i), "写出顺序应与入队顺序一致: " + lines.get(i));
+        }
+    }
+    
+    @Test
+    public void testGapTimeoutMustExceedConsumerLinger() {
+        handler = new PipelinedEventHandler(appender);
+        assertThrows(IllegalArgumentException.class, () -> handler.setOrdering(200, 1000, 1000));
+        assertThrows(IllegalArgumentException.class, () -> handler.setOrdering(1000, 1000, 1000));
+        handler.setOrdering(2000, 1000, 1000);
+        assertTrue(handler.isOrdered());
+    }
+    
+    @Test
+    public void testOrderedReleasesFailedSequence() throws Exception {
+        handler = new PipelinedEventHandler(appender, 4, 1024);
+        handler.setOrdering(5000, 100_000);
+        handler.initialize();
+        assertTrue(handler.isOrdered());
+        
+        LogEventDTO last = new LogEventDTO("INFO", "消费者0-2");
+        last.setSequence(2);
+        assertEquals(1, handler.handleBatch(List.of(last)));
+        
+        // 序号1的事件编码失败，仍要交出序号，序号2不必等待空洞超时
+        LogEventDTO first = new LogEventDTO("INFO", "消费者0-0");
+        first.setSequence(0);
+        LogEvent broken = Mockito.mock(LogEvent.class);
+        Mockito.when(broken.getSequence()).thenReturn(1L);
+        Mockito.when(broken.getMessage()).thenThrow(new IllegalStateException("渲染失败"));
+        assertEquals(1, handler.handleBatch(List.of(first, broken)));
+        
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (handler.getWrittenCount() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, handler.getWrittenCount(), "补齐序号后应立即写出，不等待空洞超时");
+        assertEquals(0, handler.getSkippedSequenceCount());
+        assertEquals(1, handler.getErrorCount());
+        handler.close();
+        
+        List<String> lines = readLogLines();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).endsWith("消费者0-0"));
+        assertTrue(lines.get(1).endsWith("消费者0-2"));
+    }
+    
+    @Test
+    public void testOrderedBoundsChunksInFlight() throws Exception {
+        // 写出队列容量2，在途字节块上限4；缺少序号0时后续字节块都在重排序缓冲区中等待
+        handler = new PipelinedEventHandler(appender, 2, 1024);
+        handler.setOrdering(5000, 100_000);
+        handler.initialize();
+        assertEquals(4, handler.getMaxInFlightChunks());
+        
+        Thread consumer = new Thread(() -> {
+            for (int i = 1; i <= 10; i++) {
+                LogEventDTO event = new LogEventDTO("INFO", "消费者1-" + i);
+                event.setSequence(i);
+                handler.handle(event);
+            }
+        });
+        consumer.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (consumer.getState() != Thread.State.TIMED_WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(Thread.State.TIMED_WAITING, consumer.getState(), "在途字节块达到上限时编码阶段应阻塞");
+        assertEquals(4, handler.getInFlightChunks());
+        assertEquals(4, handler.getReorderPendingEvents());
+        
+        // 持有下一个待写出序号的消费循环不受限制，补上序号0后全部按顺序写出
+        LogEventDTO head = new LogEventDTO("INFO", "消费者1-0");
+        head.setSequence(0);
+        assertTrue(handler.handle(head));
+        consumer.join(5000);
+        assertFalse(consumer.isAlive());
+        handler.close();
+        
+        List<String> lines = readLogLines();
+        assertEquals(11, lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            assertTrue(lines.get(i).endsWith("消费者1-" + i), "写出顺序应与入队顺序一致: " + lines.get(i));
+        }
+        assertEquals(0, handler.getSkippedSequenceCount());
+        assertEquals(0, handler.getInFlightChunks());
+    }
+    
+    @Test
+    public void testOrderedHandOffAfterCloseUsesResequencer() throws Exception {
+        handler = new PipelinedEventHandler(appender, 4, 1024);
+        handler.setOrdering(5000, 100_000);
+        handler.initialize();
+        handler.close();
+        
+        // 写出线程退出后交出的字节块仍经过重排序缓冲区
+        LogEventDTO later = new LogEventDTO("INFO", "消费者0-5");
+        later.setSequence(5);
+        assertTrue(handler.handle(later));
+        LogEventDTO earlier = new LogEventDTO("INFO", "消费者0-3");
+        earlier.setSequence(3);
+        assertTrue(handler.handle(earlier));
+        appender.flush();
+        
+        assertEquals(2, handler.getWrittenCount());
+        assertEquals(5, handler.getSkippedSequenceCount());
+        assertEquals(1, handler.getLateEventCount(), "序号已被跳过的日志按迟到处理");
+        assertEquals(0, handler.getReorderPendingEvents());
+        assertEquals(0, handler.getPendingEvents());
+        assertEquals(2, readLogLines().size());
+    }
+    
+    @Test
+    public void testOrderingMustBeSetBeforeInitialize() {
+        handler = new PipelinedEventHandler(appender);
+        handler.initialize();
+        assertThrows(IllegalStateException.class, () -> handler.setOrdering(100, 1000));
+    }
+    
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new PipelinedEventHandler(null));
+        assertThrows(IllegalArgumentException.class, () -> new PipelinedEventHandler(appender, 0, 1024));
+        assertThrows(IllegalArgumentException.class, () -> new PipelinedEventHandler(appender, 4, 0));
+    }
+    
+    private List<String> readLogLines() throws Exception {
+        String dateStr = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        return Files.readAllLines(tempDir.resolve(String.format("pipeline-%s.log", dateStr)));
+    }
+}
@@ -0,0 +1,148 @@
+package com.asyncflow.log.appender;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Resequencer单元测试类
+ * 通过传入的时间驱动空洞超时，不依赖真实等待
+ */
+public class ResequencerTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private Resequencer<String> resequencer;
+
+    private List<String> released;
+
+    @BeforeEach
+    public void setUp() {
+        resequencer = new Resequencer<>(100, 1000);
+        released = new ArrayList<>();
+    }
+
+    @Test
+    public void testInOrderSegmentsReleasedImmediately() {
+        resequencer.offer(0, 3, "0-2", 0, released::add);
+        resequencer.offer(3, 2, "3-4", 0, released::add);
+
+        assertEquals(List.of("0-2", "3-4"), released);
+        assertEquals(5, resequencer.getNextSequence());
+        assertEquals(0, resequencer.getPendingEvents());
+        assertEquals(5, resequencer.getReleasedCount());
+    }
+
+    @Test
+    public void testOutOfOrderSegmentsReleasedAsContiguousRun() {
+        resequencer.offer(10, 5, "10-14", 0, released::add);
+        resequencer.offer(5, 5, "5-9", 0, released::add);
+        assertTrue(released.isEmpty(), "缺少序号0时不应释放");
+        assertEquals(10, resequencer.getPendingEvents());
+
+        // 补上缺失的区间后，后面连续的日志段一起释放
+        resequencer.offer(0, 5, "0-4", 0, released::add);
+        assertEquals(List.of("0-4", "5-9", "10-14"), released);
+        assertEquals(0, resequencer.getPendingEvents());
+        assertEquals(0, resequencer.getSkippedCount());
+    }
+
+    @Test
+    public void testGapSkippedAfterTimeout() {
+        resequencer.offer(2, 3, "2-4", 0, released::add);
+        assertEquals(100 * MILLIS, resequencer.nanosUntilGapTimeout(0));
+
+        resequencer.release(99 * MILLIS, released::add);
+        assertTrue(released.isEmpty());
+        assertEquals(MILLIS, resequencer.nanosUntilGapTimeout(99 * MILLIS));
+
+        resequencer.release(100 * MILLIS, released::add);
+        assertEquals(List.of("2-4"), released, "缺失序号超时后应跳过");
+        assertEquals(2, resequencer.getSkippedCount());
+        assertEquals(Long.MAX_VALUE, resequencer.nanosUntilGapTimeout(100 * MILLIS));
+
+        // 被跳过的序号之后才到达，直接释放
+        resequencer.offer(0, 2, "0-1", 200 * MILLIS, released::add);
+        assertEquals(List.of("2-4", "0-1"), released);
+        assertEquals(2, resequencer.getLateCount());
+    }
+
+    @Test
+    public void testGapTimerRestartsForNextGap() {
+        resequencer.offer(1, 1, "1", 0, released::add);
+        resequencer.offer(3, 1, "3", 50 * MILLIS, released::add);
+
+        // 跳过序号0后释放序号1，开始等待序号2
+        resequencer.release(100 * MILLIS, released::add);
+        assertEquals(List.of("1"), released);
+        resequencer.release(150 * MILLIS, released::add);
+        assertEquals(List.of("1"), released, "新空洞应重新计时");
+        resequencer.release(200 * MILLIS, released::add);
+        assertEquals(List.of("1", "3"), released);
+        assertEquals(2, resequencer.getSkippedCount());
+    }
+
+    @Test
+    public void testGapSkippedWhenBufferFull() {
+        resequencer = new Resequencer<>(100, 10);
+        resequencer.offer(1, 6, "1-6", 0, released::add);
+        assertTrue(released.isEmpty());
+        resequencer.offer(7, 6, "7-12", 0, released::add);
+        assertEquals(List.of("1-6", "7-12"), released, "缓冲超过上限时应立即跳过缺失序号");
+        assertEquals(1, resequencer.getSkippedCount());
+    }
+
+    @Test
+    public void testSkippedSequenceReleasedWithoutTimeout() {
+        resequencer.offer(1, 2, "1-2", 0, released::add);
+        resequencer.offer(4, 1, "4", 0, released::add);
+
+        // 丢弃标记补上空洞，不等待超时，也不计为跳过
+        resequencer.skip(0, 0, released::add);
+        assertEquals(List.of("1-2"), released);
+        resequencer.skip(3, 0, released::add);
+        assertEquals(List.of("1-2", "4"), released);
+        assertEquals(2, resequencer.getDroppedCount());
+        assertEquals(0, resequencer.getSkippedCount());
+        assertEquals(3, resequencer.getReleasedCount());
+
+        // 已释放或已在缓冲中的序号忽略重复的丢弃标记
+        resequencer.offer(7, 2, "7-8", 0, released::add);
+        resequencer.skip(8, 0, released::add);
+        resequencer.skip(2, 0, released::add);
+        assertEquals(2, resequencer.getPendingEvents());
+        assertEquals(2, resequencer.getDroppedCount());
+        assertEquals(0, resequencer.getLateCount());
+    }
+
+    @Test
+    public void testUnsequencedSegmentsPassThrough() {
+        resequencer.offer(1, 1, "1", 0, released::add);
+        resequencer.offer(-1, 1, "未分配", 0, released::add);
+        assertEquals(List.of("未分配"), released);
+    }
+
+    @Test
+    public void testFlushReleasesAllInOrder() {
+        resequencer.offer(8, 2, "8-9", 0, released::add);
+        resequencer.offer(3, 2, "3-4", 0, released::add);
+        resequencer.offer(5, 1, "5", 0, released::add);
+
+        resequencer.flush(released::add);
+        assertEquals(List.of("3-4", "5", "8-9"), released);
+        assertEquals(10, resequencer.getNextSequence());
+        assertEquals(5, resequencer.getSkippedCount());
+        assertEquals(0, resequencer.getPendingEvents());
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new Resequencer<String>(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new Resequencer<String>(100, 0));
+    }
+}
@@ -0,0 +1,93 @@
+package com.asyncflow.log.appender;
+
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.LogEventDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 单锁文件写入与分片写入的吞吐对比基准
+ * 每个写入线程模拟一个消费者，按批写入相同数量的日志，统计不同消费者数量下的总写入吞吐。
+ * 耗时与机器相关，默认不运行，使用 mvn test -Dtest=ShardedFileAppenderBenchmarkTest -Dasynclog.benchmark=true 执行。
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "asynclog.benchmark", matches = "true")
+public class ShardedFileAppenderBenchmarkTest {
+    
+    private static final int BATCH_SIZE = 100;
+    
+    private static final int BATCHES_PER_CONSUMER = 2_000;
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    public void benchmarkThroughputByConsumers() throws InterruptedException {
+        // 两种写入器先各完整运行一轮，使编码和写出路径完成编译
+        measure(new FileAppender("WarmupLocked", tempDir.resolve("warmup-locked").toString(), "bench-%s.log"), 2);
+        measure(new ShardedFileAppender("WarmupSharded", tempDir.resolve("warmup-sharded").toString(),
+                "bench-%s.log", 2), 2);
+        
+        for (int consumers : new int[]{1, 2, 4, 8}) {
+            FileAppender locked = new FileAppender("LockedAppender", tempDir.resolve("locked-" + consumers).toString(),
+                    "bench-%s.log");
+            ShardedFileAppender sharded = new ShardedFileAppender("ShardedAppender",
+                    tempDir.resolve("sharded-" + consumers).toString(), "bench-%s.log", consumers);
+            long lockedRate = measure(locked, consumers);
+            long shardedRate = measure(sharded, consumers);
+            log.info("消费者数量 {}: 单锁写入 {} 事件/秒, 分片写入 {} 事件/秒",
+                    consumers, lockedRate, shardedRate);
+            assertEquals(0, sharded.getSharedWriteCount(), "分片数量等于消费者数量时不应使用共享分片");
+        }
+    }
+    
+    private long measure(LogAppender appender, int consumers) throws InterruptedException {
+        appender.initialize();
+        // 预热
+        runConsumers(appender, consumers, BATCHES_PER_CONSUMER / 10);
+        long start = System.nanoTime();
+        runConsumers(appender, consumers, BATCHES_PER_CONSUMER);
+        long elapsed = System.nanoTime() - start;
+        appender.close();
+        return (long) consumers * BATCHES_PER_CONSUMER * BATCH_SIZE * 1_000_000_000L / elapsed;
+    }
+    
+    private void runConsumers(LogAppender appender, int consumers, int batches) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < consumers; c++) {
+            List<LogEvent> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                batch.add(new LogEventDTO("INFO", "基准消息，序号" + i).withField("index", i));
+            }
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                appender.registerConsumerThread();
+                for (int b = 0; b < batches; b++) {
+                    appender.append(batch);
+                }
+                appender.unregisterConsumerThread();
+            }, "bench-consumer-" + c);
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
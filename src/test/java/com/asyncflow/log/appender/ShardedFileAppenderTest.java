@@ -0,0 +1,241 @@
+package com.asyncflow.log.appender;
+
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.LogEventDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ShardedFileAppender单元测试类
+ */
+public class ShardedFileAppenderTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private ShardedFileAppender appender;
+    
+    @BeforeEach
+    public void setUp() {
+        appender = new ShardedFileAppender("TestShardedAppender", tempDir.toString(), "test-log-%s.log", 4);
+        appender.initialize();
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        if (appender.isInitialized()) {
+            appender.close();
+        }
+    }
+    
+    @Test
+    public void testPartFileNames() {
+        LocalDate date = LocalDate.of(2026, 10, 17);
+        assertEquals("test-log-2026-10-17.part-2.log", appender.partFileName(date, 2));
+        assertEquals("test-log-2026-10-17.manifest", appender.manifestFileName(date));
+    }
+    
+    @Test
+    public void testEachThreadWritesOwnShard() throws Exception {
+        int threads = 3;
+        int perThread = 200;
+        runWriters(threads, perThread);
+        appender.flush();
+        
+        LocalDate today = LocalDate.now();
+        List<String> parts = Files.readAllLines(appender.getManifestFile(today));
+        assertEquals(threads, parts.size(), "每个写入线程应认领一个分片");
+        for (String part : parts) {
+            List<String> lines = Files.readAllLines(tempDir.resolve(part));
+            assertEquals(perThread, lines.size(), "分片只包含一个线程写入的日志");
+            String thread = lines.get(0).substring(lines.get(0).indexOf('['), lines.get(0).indexOf(']') + 1);
+            assertTrue(lines.stream().allMatch(line -> line.contains(thread)), "分片内的日志应来自同一线程");
+        }
+        assertEquals(0, appender.getSharedWriteCount());
+        assertEquals(threads * perThread, appender.getAppendCount());
+    }
+    
+    @Test
+    public void testOverflowThreadsUseSharedShard() throws Exception {
+        appender.close();
+        appender = new ShardedFileAppender("TestShardedAppender", tempDir.toString(), "overflow-%s.log", 1);
+        appender.initialize();
+        
+        // 同时存活的消费线程多于分片数量时，多出的线程写入共享分片
+        runWriters(3, 100);
+        appender.close();
+        
+        List<String> parts = Files.readAllLines(appender.getManifestFile(LocalDate.now()));
+        assertEquals(2, parts.size(), "应包含一个独占分片和共享分片");
+        assertEquals(200, appender.getSharedWriteCount());
+        long total = 0;
+        for (String part : parts) {
+            total += Files.readAllLines(tempDir.resolve(part)).size();
+        }
+        assertEquals(300, total, "所有日志都应写入");
+    }
+    
+    @Test
+    public void testShardReclaimedAfterOwnerExits() throws Exception {
+        appender.close();
+        appender = new ShardedFileAppender("TestShardedAppender", tempDir.toString(), "reclaim-%s.log", 1);
+        appender.initialize();
+        
+        for (int i = 0; i < 3; i++) {
+            Thread writer = new Thread(() -> {
+                appender.registerConsumerThread();
+                appender.append(new LogEventDTO("INFO", "依次写入"));
+            });
+            writer.start();
+            writer.join();
+        }
+        appender.close();
+        
+        List<String> parts = Files.readAllLines(appender.getManifestFile(LocalDate.now()));
+        assertEquals(1, parts.size(), "线程退出后分片应被下一个线程重新认领");
+        assertEquals(0, appender.getSharedWriteCount());
+        assertEquals(3, Files.readAllLines(tempDir.resolve(parts.get(0))).size());
+    }
+    
+    @Test
+    public void testUnregisteredThreadsUseSharedShard() throws Exception {
+        // 非消费线程（如拒绝策略下的提交线程）不认领分片
+        Thread caller = new Thread(() -> appender.append(new LogEventDTO("INFO", "提交线程写入")));
+        caller.start();
+        caller.join();
+        appender.append(new LogEventDTO("INFO", "测试线程写入"));
+        assertEquals(0, appender.getClaimedShardCount());
+        assertEquals(2, appender.getSharedWriteCount());
+        
+        // 消费线程注销后释放分片，注销后的写入进入共享分片
+        appender.registerConsumerThread();
+        assertEquals(1, appender.getClaimedShardCount());
+        appender.append(new LogEventDTO("INFO", "消费线程写入"));
+        appender.unregisterConsumerThread();
+        assertEquals(0, appender.getClaimedShardCount(), "注销后分片应可被其他消费线程认领");
+        appender.append(new LogEventDTO("INFO", "注销后写入"));
+        assertEquals(3, appender.getSharedWriteCount());
+        assertEquals(4, appender.getAppendCount());
+    }
+    
+    @Test
+    public void testMergeOrdersByTimestamp() throws Exception {
+        LocalDateTime base = LocalDateTime.of(2026, 10, 17, 8, 0);
+        CountDownLatch first = new CountDownLatch(1);
+        CountDownLatch second = new CountDownLatch(1);
+        Thread even = new Thread(() -> {
+            appender.registerConsumerThread();
+            for (int i = 0; i < 10; i += 2) {
+                appender.append(eventAt(base.plusSeconds(i), "消息" + i));
+            }
+            first.countDown();
+            // 保持存活，让另一个线程认领新的分片
+            try {
+                second.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Thread odd = new Thread(() -> {
+            try {
+                first.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            appender.registerConsumerThread();
+            List<LogEvent> batch = new ArrayList<>();
+            for (int i = 1; i < 10; i += 2) {
+                LogEventDTO event = eventAt(base.plusSeconds(i), "消息" + i);
+                if (i == 5) {
+                    event.withException("java.lang.IllegalStateException: 测试" + System.lineSeparator()
+                            + "\tat com.example.Demo.run(Demo.java:1)");
+                }
+                batch.add(event);
+            }
+            appender.append(batch);
+            second.countDown();
+        });
+        even.start();
+        odd.start();
+        even.join();
+        odd.join();
+        appender.flush();
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Path manifest = appender.getManifestFile(LocalDate.now());
+        assertEquals(2, Files.readAllLines(manifest).size());
+        long count = ShardedLogMerger.merge(manifest, out);
+        assertEquals(10, count);
+        
+        String[] lines = out.toString(StandardCharsets.UTF_8).split(System.lineSeparator());
+        assertEquals(11, lines.length, "异常调用栈应跟随所在的日志输出");
+        int message = 0;
+        for (String line : lines) {
+            if (ShardedLogMerger.isRecordStart(line)) {
+                assertTrue(line.contains("消息" + message), "合并后应按时间戳排序: " + line);
+                message++;
+            } else {
+                assertTrue(line.startsWith("\tat "), "续行应紧跟在所属日志之后: " + line);
+            }
+        }
+    }
+    
+    @Test
+    public void testMergeToFile() throws IOException {
+        appender.append(new LogEventDTO("INFO", "写入合并文件"));
+        appender.close();
+        
+        Path merged = tempDir.resolve("merged.log");
+        assertEquals(1, ShardedLogMerger.merge(appender.getManifestFile(LocalDate.now()), merged));
+        assertTrue(Files.readString(merged).contains("写入合并文件"));
+    }
+    
+    private void runWriters(int threads, int perThread) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch done = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread writer = new Thread(() -> {
+                appender.registerConsumerThread();
+                for (int i = 0; i < perThread; i++) {
+                    appender.append(new LogEventDTO("INFO", "并发写入" + i));
+                }
+                // 写完后保持存活，避免分片被其他线程重新认领
+                ready.countDown();
+                try {
+                    done.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "shard-writer-" + t);
+            writers.add(writer);
+            writer.start();
+        }
+        ready.await();
+        done.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+    }
+    
+    private static LogEventDTO eventAt(LocalDateTime time, String message) {
+        LogEventDTO event = new LogEventDTO("INFO", message);
+        event.setTimestamp(time);
+        return event;
+    }
+}
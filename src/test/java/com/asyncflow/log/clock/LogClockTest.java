@@ -0,0 +1,96 @@
+package com.asyncflow.log.clock;
+
+import com.asyncflow.log.model.event.LogEventDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 日志时钟单元测试类
+ */
+public class LogClockTest {
+    
+    @Test
+    public void testPreciseClockTracksSystemTime() {
+        LogClock clock = new PreciseLogClock();
+        long before = System.currentTimeMillis();
+        long nanos = clock.epochNanos();
+        long after = System.currentTimeMillis();
+        
+        long millis = nanos / 1_000_000L;
+        assertTrue(millis >= before && millis <= after);
+    }
+    
+    @Test
+    public void testCachedClockAdvancesAndStops() throws InterruptedException {
+        CachedLogClock clock = new CachedLogClock(1);
+        try {
+            long first = clock.epochNanos();
+            assertEquals(0, first % 1_000_000L, "缓存时钟应为毫秒精度");
+            assertTrue(Math.abs(first / 1_000_000L - System.currentTimeMillis()) < 1000);
+            
+            Thread.sleep(20);
+            assertTrue(clock.epochNanos() > first, "缓存时钟应随滴答线程前进");
+            assertTrue(clock.isRunning());
+        } finally {
+            clock.stop();
+        }
+        Thread.sleep(20);
+        assertFalse(clock.isRunning());
+    }
+    
+    @Test
+    public void testCreateByName() {
+        LogClock cached = LogClocks.create("cached", 5);
+        try {
+            assertTrue(cached instanceof CachedLogClock);
+        } finally {
+            cached.stop();
+        }
+        assertTrue(LogClocks.create("precise", 1) instanceof PreciseLogClock);
+        assertTrue(LogClocks.create("unknown", 1) instanceof PreciseLogClock);
+        assertThrows(IllegalArgumentException.class, () -> new CachedLogClock(0));
+    }
+    
+    @Test
+    public void testLocalDateTimeConversionRoundTrip() {
+        LocalDateTime dateTime = LocalDateTime.of(2024, 3, 15, 10, 20, 30, 123_456_789);
+        long nanos = LogClocks.toEpochNanos(dateTime);
+        assertEquals(dateTime, LogClocks.toLocalDateTime(nanos));
+    }
+    
+    @Test
+    public void testEventTimestampDerivedLazily() {
+        LogEventDTO event = new LogEventDTO("INFO", "测试消息");
+        assertTrue(event.getEpochNanos() > 0);
+        assertEquals(LogClocks.toLocalDateTime(event.getEpochNanos()), event.getTimestamp());
+        
+        LocalDateTime dateTime = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+        event.setTimestamp(dateTime);
+        assertEquals(dateTime, event.getTimestamp());
+        assertEquals(LogClocks.toEpochNanos(dateTime), event.getEpochNanos());
+        
+        event.setEpochNanos(0L);
+        assertNull(event.getTimestamp());
+    }
+    
+    @Test
+    public void testTimestampFormatterMatchesDateTimeFormatter() {
+        TimestampFormatter formatter = new TimestampFormatter();
+        DateTimeFormatter expected = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+        long base = LogClocks.toEpochNanos(LocalDateTime.of(2024, 6, 30, 23, 59, 59));
+        long[] offsets = {0L, 7_000_000L, 45_000_000L, 999_999_999L, 1_000_000_000L, 1_005_000_000L};
+        for (long offset : offsets) {
+            long nanos = base + offset;
+            String actual = formatter.format(nanos);
+            assertEquals(LogClocks.toLocalDateTime(nanos).format(expected), actual);
+        }
+        assertEquals(LocalDateTime.ofInstant(Instant.ofEpochSecond(0), ZoneId.systemDefault())
+                .format(expected), formatter.format(0L));
+    }
+}
@@ -0,0 +1,34 @@
+package com.asyncflow.log.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * OrderedHandlerCondition单元测试类
+ */
+public class OrderedHandlerConditionTest {
+    
+    @Test
+    public void testMatchesIgnoringCase() {
+        assertTrue(matches("ordered"));
+        assertTrue(matches("ORDERED"), "与AppenderFactory一样不区分大小写");
+        assertTrue(matches("Ordered"));
+        assertFalse(matches("pipelined"));
+        assertFalse(matches(null));
+    }
+    
+    private boolean matches(String handlerType) {
+        MockEnvironment environment = new MockEnvironment();
+        if (handlerType != null) {
+            environment.setProperty(OrderedHandlerCondition.HANDLER_TYPE_PROPERTY, handlerType);
+        }
+        ConditionContext context = mock(ConditionContext.class);
+        when(context.getEnvironment()).thenReturn(environment);
+        return new OrderedHandlerCondition().matches(context, null);
+    }
+}
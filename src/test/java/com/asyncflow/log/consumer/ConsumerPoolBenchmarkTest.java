@@ -0,0 +1,207 @@
+package com.asyncflow.log.consumer;
+
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.LogEventDTO;
+import com.asyncflow.log.model.event.StructuredFields;
+import com.asyncflow.log.queue.EventQueue;
+import com.asyncflow.log.queue.LinkedEventQueue;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 平台线程与虚拟线程消费者对比基准
+ * 写入器以固定的阻塞时间模拟文件或网络I/O，生产者按固定速率投递事件，
+ * 记录从入队到处理的延迟分布、吞吐、平台线程峰值和进程CPU时间。
+ * 耗时与机器相关，默认不运行，使用 mvn test -Dtest=ConsumerPoolBenchmarkTest -Dasynclog.benchmark=true 执行。
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "asynclog.benchmark", matches = "true")
+public class ConsumerPoolBenchmarkTest {
+    
+    private static final int CONSUMERS = 256;
+    
+    private static final int WARMUP_EVENTS = 5_000;
+    
+    private static final int MEASURE_EVENTS = 20_000;
+    
+    /**
+     * 每个事件模拟的阻塞I/O时间
+     */
+    private static final long IO_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    
+    /**
+     * 事件投递间隔，低于单核机器上的消费能力，测量的是未饱和时的延迟
+     */
+    private static final long PRODUCE_INTERVAL_NANOS = TimeUnit.MICROSECONDS.toNanos(40);
+    
+    private static final String ENQUEUED = "enqueued";
+    
+    @Test
+    public void benchmarkPlatformVersusVirtual() throws InterruptedException {
+        Result platform = run("平台线程", new ThreadPoolConsumer(CONSUMERS, CONSUMERS, 60));
+        Result virtual = run("虚拟线程", new VirtualThreadConsumer(CONSUMERS, 1, 50));
+        
+        assertEquals(MEASURE_EVENTS, platform.handled);
+        assertEquals(MEASURE_EVENTS, virtual.handled);
+        assertTrue(virtual.peakThreads < platform.peakThreads, "虚拟线程消费者应占用更少的平台线程");
+    }
+    
+    private Result run(String name, ConsumerPool pool) throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        
+        LatencyHandler handler = new LatencyHandler(WARMUP_EVENTS + MEASURE_EVENTS);
+        EventQueue queue = new LinkedEventQueue(WARMUP_EVENTS + MEASURE_EVENTS);
+        pool.setEventQueue(queue);
+        pool.setEventHandler(handler);
+        pool.start();
+        
+        produce(queue, WARMUP_EVENTS);
+        handler.awaitCount(WARMUP_EVENTS);
+        handler.reset();
+        threads.resetPeakThreadCount();
+        
+        long cpuStart = os.getProcessCpuTime();
+        long start = System.nanoTime();
+        produce(queue, MEASURE_EVENTS);
+        handler.awaitCount(MEASURE_EVENTS);
+        long elapsed = System.nanoTime() - start;
+        long cpu = os.getProcessCpuTime() - cpuStart;
+        int peakThreads = threads.getPeakThreadCount();
+        pool.shutdown();
+        awaitTermination(pool);
+        
+        long[] latencies = handler.latencies();
+        Arrays.sort(latencies);
+        log.info("{}: 吞吐 {} 事件/秒, 延迟 p50 {} µs, p99 {} µs, p99.9 {} µs, max {} µs, 平台线程峰值 {}, CPU时间 {} ms",
+                name,
+                MEASURE_EVENTS * 1_000_000_000L / elapsed,
+                micros(percentile(latencies, 0.50)),
+                micros(percentile(latencies, 0.99)),
+                micros(percentile(latencies, 0.999)),
+                micros(latencies[latencies.length - 1]),
+                peakThreads,
+                TimeUnit.NANOSECONDS.toMillis(cpu));
+        return new Result(latencies.length, peakThreads);
+    }
+    
+    /**
+     * 按固定速率投递事件，入队时间记录在结构化字段中
+     * 生产者在两次投递之间休眠而不是自旋，避免在CPU较少的机器上挤占消费者
+     */
+    private void produce(EventQueue queue, int count) throws InterruptedException {
+        long start = System.nanoTime();
+        int produced = 0;
+        while (produced < count) {
+            long due = Math.min(count, (System.nanoTime() - start) / PRODUCE_INTERVAL_NANOS + 1);
+            for (; produced < due; produced++) {
+                queue.put(new LogEventDTO("INFO", "基准消息").withField(ENQUEUED, System.nanoTime()));
+            }
+            LockSupport.parkNanos(PRODUCE_INTERVAL_NANOS);
+        }
+    }
+    
+    /**
+     * 等待消费者线程全部退出，避免计入下一轮的线程峰值
+     */
+    private static void awaitTermination(ConsumerPool pool) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!pool.isTerminated() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+    
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))];
+    }
+    
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+    
+    private static final class Result {
+        
+        private final int handled;
+        
+        private final int peakThreads;
+        
+        Result(int handled, int peakThreads) {
+            this.handled = handled;
+            this.peakThreads = peakThreads;
+        }
+    }
+    
+    /**
+     * 记录入队到处理的延迟，随后阻塞固定时间模拟写入
+     */
+    private static final class LatencyHandler implements EventHandler {
+        
+        private final long[] latencies;
+        
+        private final AtomicInteger count = new AtomicInteger();
+        
+        LatencyHandler(int capacity) {
+            this.latencies = new long[capacity];
+        }
+        
+        @Override
+        public boolean handle(LogEvent event) {
+            StructuredFields fields = event.getFields();
+            long latency = System.nanoTime() - fields.longAt(fields.indexOf(ENQUEUED));
+            int index = count.getAndIncrement();
+            if (index < latencies.length) {
+                latencies[index] = latency;
+            }
+            LockSupport.parkNanos(IO_NANOS);
+            return true;
+        }
+        
+        @Override
+        public int handleBatch(Iterable<LogEvent> events) {
+            int handled = 0;
+            for (LogEvent event : events) {
+                handle(event);
+                handled++;
+            }
+            return handled;
+        }
+        
+        @Override
+        public void handleException(LogEvent event, Throwable throwable) {
+        }
+        
+        @Override
+        public void initialize() {
+        }
+        
+        @Override
+        public void close() {
+        }
+        
+        void awaitCount(int expected) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            while (count.get() < expected && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+        }
+        
+        void reset() {
+            count.set(0);
+        }
+        
+        long[] latencies() {
+            return Arrays.copyOf(latencies, Math.min(count.get(), latencies.length));
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.asyncflow.log.consumer;
+
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.LogEventDTO;
+import com.asyncflow.log.queue.EventQueue;
+import com.asyncflow.log.queue.LinkedEventQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * ConsumerScaler单元测试类
+ * 直接调用sample()驱动控制器，不依赖采样线程的调度时间
+ */
+public class ConsumerScalerTest {
+    
+    private ThreadPoolConsumer consumerPool;
+    private EventQueue eventQueue;
+    private EventHandler eventHandler;
+    private CountDownLatch release;
+    private ConsumerScaler scaler;
+    
+    @BeforeEach
+    public void setUp() {
+        consumerPool = new ThreadPoolConsumer(1, 3, 60, 1, 50);
+        eventQueue = new LinkedEventQueue(10);
+        eventHandler = Mockito.mock(EventHandler.class);
+        release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        }).when(eventHandler).handle(any(LogEvent.class));
+        
+        consumerPool.setEventQueue(eventQueue);
+        consumerPool.setEventHandler(eventHandler);
+        consumerPool.start();
+        
+        scaler = new ConsumerScaler(consumerPool, 1000);
+        scaler.setSampleCounts(2, 3);
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        scaler.shutdown();
+        consumerPool.shutdown();
+    }
+    
+    @Test
+    public void testScaleUpOnBacklog() throws InterruptedException {
+        fillQueue(8);
+        
+        scaler.sample();
+        assertEquals(1, consumerPool.getTargetConsumerCount(), "一次采样不足以扩容");
+        scaler.sample();
+        assertEquals(2, consumerPool.getTargetConsumerCount());
+        scaler.sample();
+        scaler.sample();
+        assertEquals(3, consumerPool.getTargetConsumerCount());
+        scaler.sample();
+        scaler.sample();
+        assertEquals(3, consumerPool.getTargetConsumerCount(), "不能超过最大消费循环数");
+        assertEquals(2, scaler.getScaleUpCount());
+        assertTrue(scaler.getLastUsage() >= 0.5);
+    }
+    
+    @Test
+    public void testScaleDownAfterBurst() throws InterruptedException {
+        // 只有完全空闲才算满足缩容条件，放行后第一次采样计入阻塞期间的耗时，落在中间区间
+        scaler.setBusyThresholds(1.1, 0.0);
+        fillQueue(8);
+        scaler.sample();
+        scaler.sample();
+        assertEquals(2, consumerPool.getTargetConsumerCount());
+        
+        // 放行后队列清空，消费循环空闲
+        release.countDown();
+        awaitEmptyQueue();
+        scaler.sample();
+        assertTrue(scaler.getLastBusyRatio() > 0);
+        for (int i = 0; i < 2; i++) {
+            scaler.sample();
+            assertEquals(2, consumerPool.getTargetConsumerCount(), "缩容需要连续多次满足条件");
+        }
+        scaler.sample();
+        assertEquals(1, consumerPool.getTargetConsumerCount());
+        assertEquals(1, scaler.getScaleDownCount());
+        
+        scaler.sample();
+        scaler.sample();
+        scaler.sample();
+        assertEquals(1, consumerPool.getTargetConsumerCount(), "不能少于最少消费循环数");
+    }
+    
+    @Test
+    public void testDeadBandResetsStreak() throws InterruptedException {
+        scaler.setBusyThresholds(1.1, 0.3);
+        fillQueue(8);
+        scaler.sample();
+        
+        // 队列使用率落在两个阈值之间时不调整，并清除已累计的次数
+        drain(5);
+        assertEquals(0.2, eventQueue.getUsage(), 0.01);
+        scaler.sample();
+        
+        fillQueue(5);
+        scaler.sample();
+        assertEquals(1, consumerPool.getTargetConsumerCount(), "中间区间应打断连续扩容条件");
+        scaler.sample();
+        assertEquals(2, consumerPool.getTargetConsumerCount());
+    }
+    
+    @Test
+    public void testInvalidThresholds() {
+        scaler.setUsageThresholds(0.2, 0.5);
+        assertThrows(IllegalStateException.class, scaler::start);
+        assertThrows(IllegalArgumentException.class, () -> new ConsumerScaler(consumerPool, 0));
+    }
+    
+    private void fillQueue(int count) throws InterruptedException {
+        for (int i = 0; i < count; i++) {
+            eventQueue.put(new LogEventDTO("INFO", "积压消息" + i));
+        }
+        // 等待已启动的消费循环取走一个事件并阻塞，使队列深度稳定
+        Thread.sleep(100);
+    }
+    
+    private void drain(int count) {
+        for (int i = 0; i < count; i++) {
+            eventQueue.poll();
+        }
+    }
+    
+    private void awaitEmptyQueue() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!eventQueue.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+    }
+}
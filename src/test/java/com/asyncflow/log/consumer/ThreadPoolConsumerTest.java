@@ -1,5 +1,7 @@
 package com.asyncflow.log.consumer;
 
+import com.asyncflow.log.appender.FileAppender;
+import com.asyncflow.log.appender.LogEventHandler;
 import com.asyncflow.log.model.event.LogEvent;
 import com.asyncflow.log.model.event.LogEventDTO;
 import com.asyncflow.log.queue.EventQueue;
@@ -7,8 +9,14 @@ import com.asyncflow.log.queue.LinkedEventQueue;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -22,6 +30,9 @@ import static org.mockito.Mockito.*;
 @Slf4j
 public class ThreadPoolConsumerTest {
     
+    @TempDir
+    Path tempDir;
+    
     private ConsumerPool consumerPool;
     private EventQueue eventQueue;
     private EventHandler eventHandler;
@@ -56,6 +67,16 @@ public class ThreadPoolConsumerTest {
         assertTrue(consumerPool.isShutdown());
     }
     
+    @Test
+    public void testConsumerLoopsNotifyHandler() {
+        // 每个消费循环在自己的线程上登记和注销，写入器据此为消费线程分配分片
+        consumerPool.start();
+        verify(eventHandler, timeout(5000).times(2)).onConsumerStart();
+        
+        consumerPool.shutdown();
+        verify(eventHandler, timeout(5000).times(2)).onConsumerStop();
+    }
+    
     @Test
     public void testSubmit() throws InterruptedException {
         // 创建CountDownLatch用于等待事件处理完成
@@ -152,6 +173,110 @@ public class ThreadPoolConsumerTest {
         consumerPool.shutdown();
     }
     
+    @Test
+    public void testBatchConsume() throws InterruptedException {
+        ThreadPoolConsumer batchConsumer = new ThreadPoolConsumer(1, 1, 60, 10, 200);
+        batchConsumer.setEventQueue(eventQueue);
+        batchConsumer.setEventHandler(eventHandler);
+        
+        // 启动前先放入多个事件，消费者应一次性取出并批量处理
+        for (int i = 0; i < 5; i++) {
+            eventQueue.put(new LogEventDTO("INFO", "批量消息" + i));
+        }
+        
+        CountDownLatch latch = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            List<LogEvent> batch = invocation.getArgument(0);
+            assertEquals(5, batch.size());
+            latch.countDown();
+            return batch.size();
+        }).when(eventHandler).handleBatch(any());
+        
+        batchConsumer.start();
+        
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        verify(eventHandler, never()).handle(any(LogEvent.class));
+        assertEquals(10, batchConsumer.getBatchSize());
+        assertEquals(200, batchConsumer.getFlushInterval());
+        
+        // 清理
+        batchConsumer.shutdown();
+    }
+    
+    @Test
+    public void testAddAndRetireConsumer() throws InterruptedException {
+        ThreadPoolConsumer elastic = new ThreadPoolConsumer(1, 3, 60, 1, 50);
+        elastic.setEventQueue(eventQueue);
+        elastic.setEventHandler(eventHandler);
+        
+        // 每个事件阻塞到放行，同时处理的事件数等于运行中的消费循环数
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(3);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        }).when(eventHandler).handle(any(LogEvent.class));
+        
+        assertFalse(elastic.addConsumer(), "未启动时不能增加消费循环");
+        elastic.start();
+        assertEquals(1, elastic.getConsumerCount());
+        assertTrue(elastic.addConsumer());
+        assertTrue(elastic.addConsumer());
+        assertFalse(elastic.addConsumer(), "不能超过最大消费循环数");
+        assertEquals(3, elastic.getConsumerCount());
+        
+        for (int i = 0; i < 3; i++) {
+            eventQueue.put(new LogEventDTO("INFO", "并发消息" + i));
+        }
+        assertTrue(started.await(2, TimeUnit.SECONDS), "最大线程数应生效，三个消费循环同时处理");
+        release.countDown();
+        
+        assertTrue(elastic.retireConsumer());
+        assertTrue(elastic.retireConsumer());
+        assertFalse(elastic.retireConsumer(), "不能少于最少消费循环数");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (elastic.getConsumerCount() > 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, elastic.getConsumerCount(), "多出的消费循环应在当前批次后退出");
+        assertTrue(elastic.getBusyNanos() > 0);
+        
+        elastic.shutdown();
+    }
+    
+    @Test
+    public void testPartialBatchFailureRetriesOnlyUnwritten() throws Exception {
+        FileAppender appender = new FileAppender("PartialAppender", tempDir.toString(), "partial-%s.log");
+        ThreadPoolConsumer batchPool = new ThreadPoolConsumer(1, 1, 60, 10, 50);
+        batchPool.setEventQueue(eventQueue);
+        batchPool.setEventHandler(new LogEventHandler(appender));
+        
+        // 第三个事件渲染失败，批量写出中途中断，前两个事件已写出
+        LogEvent broken = Mockito.mock(LogEvent.class);
+        when(broken.getMessage()).thenThrow(new IllegalStateException("渲染失败"));
+        eventQueue.put(new LogEventDTO("INFO", "部分写出0"));
+        eventQueue.put(new LogEventDTO("INFO", "部分写出1"));
+        eventQueue.put(broken);
+        eventQueue.put(new LogEventDTO("INFO", "部分写出3"));
+        eventQueue.put(new LogEventDTO("INFO", "部分写出4"));
+        
+        batchPool.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (appender.getAppendCount() < 4 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        batchPool.shutdown();
+        appender.close();
+        
+        String dateStr = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        List<String> lines = Files.readAllLines(tempDir.resolve(String.format("partial-%s.log", dateStr)));
+        assertEquals(4, lines.size(), "已写出的日志不应重复写出: " + lines);
+        for (int i : new int[] {0, 1, 3, 4}) {
+            assertEquals(1, lines.stream().filter(line -> line.endsWith("部分写出" + i)).count());
+        }
+    }
+    
     @Test
     public void testGetters() {
         assertEquals(eventQueue, consumerPool.getEventQueue());
@@ -0,0 +1,206 @@
+package com.asyncflow.log.consumer;
+
+import com.asyncflow.log.appender.FileAppender;
+import com.asyncflow.log.appender.LogEventHandler;
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.LogEventDTO;
+import com.asyncflow.log.queue.EventQueue;
+import com.asyncflow.log.queue.LinkedEventQueue;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * VirtualThreadConsumer单元测试类
+ */
+@Slf4j
+public class VirtualThreadConsumerTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private VirtualThreadConsumer consumerPool;
+    private EventQueue eventQueue;
+    private EventHandler eventHandler;
+    
+    @BeforeEach
+    public void setUp() {
+        consumerPool = new VirtualThreadConsumer(2, 1, 50);
+        eventQueue = new LinkedEventQueue(100);
+        eventHandler = Mockito.mock(EventHandler.class);
+        
+        consumerPool.setEventQueue(eventQueue);
+        consumerPool.setEventHandler(eventHandler);
+    }
+    
+    @Test
+    public void testStartAndShutdown() {
+        consumerPool.start();
+        verify(eventHandler, times(1)).initialize();
+        assertFalse(consumerPool.isShutdown());
+        
+        consumerPool.shutdown();
+        verify(eventHandler, times(1)).close();
+        assertTrue(consumerPool.isShutdown());
+        assertTrue(consumerPool.isTerminated(), "关闭后消费者虚拟线程应已退出");
+        assertThrows(IllegalStateException.class, consumerPool::start, "关闭后不能重新启动");
+    }
+    
+    @Test
+    public void testConsumeFromQueue() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(10);
+        doAnswer(invocation -> {
+            assertTrue(Thread.currentThread().isVirtual(), "事件应在虚拟线程上处理");
+            latch.countDown();
+            return true;
+        }).when(eventHandler).handle(any(LogEvent.class));
+        
+        consumerPool.start();
+        for (int i = 0; i < 10; i++) {
+            eventQueue.put(new LogEventDTO("INFO", "测试消息" + i));
+        }
+        
+        assertTrue(latch.await(5, TimeUnit.SECONDS), "事件处理超时");
+        verify(eventHandler, times(10)).handle(any(LogEvent.class));
+        consumerPool.shutdown();
+    }
+    
+    @Test
+    public void testConsumeInBatches() throws InterruptedException {
+        VirtualThreadConsumer batchPool = new VirtualThreadConsumer(1, 8, 50);
+        batchPool.setEventQueue(eventQueue);
+        batchPool.setEventHandler(eventHandler);
+        for (int i = 0; i < 8; i++) {
+            eventQueue.put(new LogEventDTO("INFO", "批量消息" + i));
+        }
+        
+        CountDownLatch latch = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            latch.countDown();
+            return 8;
+        }).when(eventHandler).handleBatch(any());
+        
+        batchPool.start();
+        assertTrue(latch.await(5, TimeUnit.SECONDS), "批量处理超时");
+        verify(eventHandler, never()).handle(any(LogEvent.class));
+        batchPool.shutdown();
+    }
+    
+    @Test
+    public void testPartialBatchFailureRetriesOnlyUnwritten() throws InterruptedException {
+        VirtualThreadConsumer batchPool = new VirtualThreadConsumer(1, 5, 50);
+        batchPool.setEventQueue(eventQueue);
+        batchPool.setEventHandler(eventHandler);
+        List<LogEvent> events = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            LogEventDTO event = new LogEventDTO("INFO", "部分写出" + i);
+            events.add(event);
+            eventQueue.put(event);
+        }
+        
+        CountDownLatch latch = new CountDownLatch(3);
+        doThrow(new PartialBatchException(2, new IllegalStateException("写出失败")))
+                .when(eventHandler).handleBatch(any());
+        doAnswer(invocation -> {
+            latch.countDown();
+            return null;
+        }).when(eventHandler).handleException(any(LogEvent.class), any(Throwable.class));
+        
+        batchPool.start();
+        assertTrue(latch.await(5, TimeUnit.SECONDS), "剩余事件应交给异常处理");
+        batchPool.shutdown();
+        
+        // 前两个事件已写出，只有剩余三个事件交给异常处理
+        verify(eventHandler, never()).handleException(eq(events.get(0)), any(Throwable.class));
+        verify(eventHandler, never()).handleException(eq(events.get(1)), any(Throwable.class));
+        for (int i = 2; i < 5; i++) {
+            verify(eventHandler, times(1)).handleException(eq(events.get(i)), any(Throwable.class));
+        }
+    }
+    
+    @Test
+    public void testSubmit() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            latch.countDown();
+            return true;
+        }).when(eventHandler).handle(any(LogEvent.class));
+        
+        assertFalse(consumerPool.submit(new LogEventDTO("INFO", "未启动")), "未启动时不能提交");
+        
+        consumerPool.start();
+        assertTrue(consumerPool.submit(new LogEventDTO("INFO", "提交的消息")));
+        assertTrue(latch.await(5, TimeUnit.SECONDS), "任务处理超时");
+        consumerPool.shutdown();
+    }
+    
+    @Test
+    public void testHandleException() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        when(eventHandler.handle(any(LogEvent.class))).thenThrow(new RuntimeException("测试异常"));
+        doAnswer(invocation -> {
+            latch.countDown();
+            return null;
+        }).when(eventHandler).handleException(any(LogEvent.class), any(Throwable.class));
+        
+        consumerPool.start();
+        eventQueue.put(new LogEventDTO("ERROR", "异常消息"));
+        
+        assertTrue(latch.await(5, TimeUnit.SECONDS), "异常处理超时");
+        assertFalse(consumerPool.isTerminated(), "处理异常后消费者应继续运行");
+        consumerPool.shutdown();
+    }
+    
+    @Test
+    public void testFileWriteDoesNotPinCarrier() throws Exception {
+        FileAppender appender = new FileAppender("VirtualAppender", tempDir.toString(), "virtual-%s.log");
+        appender.setAutoFlush(true);
+        LogEventHandler handler = new LogEventHandler(appender);
+        VirtualThreadConsumer pool = new VirtualThreadConsumer(8, 1, 50);
+        EventQueue queue = new LinkedEventQueue(10000);
+        pool.setEventQueue(queue);
+        pool.setEventHandler(handler);
+        
+        Path jfrFile = tempDir.resolve("pinned.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+            recording.start();
+            
+            pool.start();
+            int total = 2000;
+            for (int i = 0; i < total; i++) {
+                queue.put(new LogEventDTO("INFO", "虚拟线程写入" + i));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (handler.getProcessedCount() < total && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            pool.shutdown();
+            
+            recording.stop();
+            recording.dump(jfrFile);
+            assertEquals(total, handler.getProcessedCount(), "所有事件都应写入文件");
+        }
+        
+        List<RecordedEvent> pinned = RecordingFile.readAllEvents(jfrFile);
+        pinned.forEach(event -> log.warn("虚拟线程被钉住: {}", event));
+        assertTrue(pinned.isEmpty(), "写文件时虚拟线程不应被钉在载体线程上");
+    }
+}
@@ -54,6 +54,7 @@ public class AsyncLogMonitorControllerTest {
         when(asyncLogService.isRunning()).thenReturn(true);
         when(eventQueue.capacity()).thenReturn(1000);
         when(eventQueue.size()).thenReturn(200); // 20% 使用率
+        when(eventQueue.getUsage()).thenReturn(0.2);
         when(consumerPool.getActiveCount()).thenReturn(2);
         when(consumerPool.isShutdown()).thenReturn(false);
         when(consumerPool.getCompletedTaskCount()).thenReturn(10000L);
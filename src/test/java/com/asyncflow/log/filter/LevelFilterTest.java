@@ -0,0 +1,82 @@
+package com.asyncflow.log.filter;
+
+import com.asyncflow.log.enums.LogLevel;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LevelFilter单元测试类
+ */
+public class LevelFilterTest {
+    
+    @Test
+    public void testLevelOrdering() {
+        assertTrue(LogLevel.ERROR.isEnabledFor(LogLevel.INFO));
+        assertTrue(LogLevel.INFO.isEnabledFor(LogLevel.INFO));
+        assertFalse(LogLevel.DEBUG.isEnabledFor(LogLevel.INFO));
+        assertEquals(LogLevel.WARN, LogLevel.fromCode("warn"));
+        assertNull(LogLevel.fromCode("TRACE"));
+        assertEquals(LogLevel.INFO, LogLevel.fromCode(null, LogLevel.INFO));
+    }
+    
+    @Test
+    public void testRootThreshold() {
+        LevelFilter filter = new LevelFilter(LogLevel.INFO);
+        assertTrue(filter.isEnabled(LogLevel.ERROR));
+        assertTrue(filter.isEnabled(LogLevel.INFO, "com.example.Service"));
+        assertFalse(filter.isEnabled(LogLevel.DEBUG, "com.example.Service"));
+        assertFalse(filter.isEnabled("DEBUG", null));
+        // 未知级别按INFO处理
+        assertTrue(filter.isEnabled("TRACE", null));
+    }
+    
+    @Test
+    public void testLongestPrefixWins() {
+        Map<String, LogLevel> levels = new LinkedHashMap<>();
+        levels.put("com.example", LogLevel.WARN);
+        levels.put("com.example.dao", LogLevel.DEBUG);
+        levels.put("com.example.dao.Noisy", LogLevel.ERROR);
+        LevelFilter filter = new LevelFilter(LogLevel.INFO, levels);
+        
+        assertEquals(LogLevel.WARN, filter.getEffectiveLevel("com.example.Service"));
+        assertEquals(LogLevel.DEBUG, filter.getEffectiveLevel("com.example.dao.UserDao"));
+        assertEquals(LogLevel.ERROR, filter.getEffectiveLevel("com.example.dao.Noisy"));
+        assertEquals(LogLevel.INFO, filter.getEffectiveLevel("org.other.Type"));
+        // 前缀按"."分段匹配，不匹配半截名称
+        assertEquals(LogLevel.INFO, filter.getEffectiveLevel("com.examples.Type"));
+        
+        assertFalse(filter.isEnabled(LogLevel.INFO, "com.example.Service"));
+        assertTrue(filter.isEnabled(LogLevel.DEBUG, "com.example.dao.UserDao"));
+        assertFalse(filter.isEnabled(LogLevel.WARN, "com.example.dao.Noisy"));
+        assertTrue(filter.isEnabled(LogLevel.INFO, null));
+        assertFalse(filter.isEnabled(LogLevel.DEBUG, null));
+        
+        // ERROR在所有分类下都输出，不需要定位调用方
+        assertFalse(filter.dependsOnCategory(LogLevel.ERROR));
+        assertTrue(filter.dependsOnCategory(LogLevel.INFO));
+        assertTrue(filter.dependsOnCategory(LogLevel.DEBUG));
+        assertFalse(new LevelFilter(LogLevel.INFO).dependsOnCategory(LogLevel.DEBUG));
+    }
+    
+    @Test
+    public void testRuntimeChangesReplaceCachedResults() {
+        LevelFilter filter = new LevelFilter(LogLevel.INFO);
+        assertFalse(filter.isEnabled(LogLevel.DEBUG, "com.example.Service"));
+        
+        filter.setLevel("com.example", LogLevel.DEBUG);
+        assertTrue(filter.isEnabled(LogLevel.DEBUG, "com.example.Service"));
+        assertFalse(filter.isEnabled(LogLevel.DEBUG, "org.other.Type"));
+        
+        filter.setLevel("com.example", null);
+        assertFalse(filter.isEnabled(LogLevel.DEBUG, "com.example.Service"));
+        assertTrue(filter.getCategoryLevels().isEmpty());
+        
+        filter.setRootLevel(LogLevel.ERROR);
+        assertFalse(filter.isEnabled(LogLevel.WARN, "com.example.Service"));
+        assertThrows(IllegalArgumentException.class, () -> filter.setRootLevel(null));
+    }
+}
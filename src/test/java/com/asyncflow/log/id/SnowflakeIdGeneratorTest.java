@@ -0,0 +1,86 @@
+package com.asyncflow.log.id;
+
+import com.asyncflow.log.model.event.LogEventDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SnowflakeIdGenerator单元测试类
+ */
+public class SnowflakeIdGeneratorTest {
+    
+    @Test
+    public void testIdsIncreaseWithinThread() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+        long previous = generator.nextId();
+        for (int i = 0; i < 100000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous, "ID应单调递增");
+            previous = id;
+        }
+    }
+    
+    @Test
+    public void testLayout() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(37);
+        long before = System.currentTimeMillis();
+        long id = generator.nextId();
+        long after = System.currentTimeMillis();
+        
+        assertTrue(id > 0);
+        assertEquals(37, (id >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE_ID);
+        long timestamp = SnowflakeIdGenerator.extractTimestamp(id);
+        assertTrue(timestamp >= before && timestamp <= after + 1);
+        assertTrue(id >= SnowflakeIdGenerator.minIdAt(before));
+    }
+    
+    @Test
+    public void testUniqueAcrossThreads() throws InterruptedException {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(2);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 20000;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(generator.nextId());
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        assertEquals(threads * perThread, ids.size());
+    }
+    
+    @Test
+    public void testInvalidNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(1024));
+    }
+    
+    @Test
+    public void testCreateByName() {
+        assertTrue(LogIds.create("snowflake", 5) instanceof SnowflakeIdGenerator);
+        assertEquals(5, ((SnowflakeIdGenerator) LogIds.create("snowflake", 5)).getNodeId());
+        assertTrue(LogIds.create("random", 0) instanceof RandomIdGenerator);
+        assertTrue(LogIds.create("unknown", -1) instanceof SnowflakeIdGenerator);
+        assertTrue(LogIds.defaultNodeId() <= SnowflakeIdGenerator.MAX_NODE_ID);
+    }
+    
+    @Test
+    public void testEventIdExposedAsLong() {
+        LogEventDTO first = new LogEventDTO("INFO", "测试消息");
+        LogEventDTO second = new LogEventDTO("INFO", "测试消息");
+        assertTrue(second.getId() > first.getId());
+        assertEquals(Long.toString(first.getId()), first.getLogId());
+        
+        first.setId(42L);
+        assertEquals("42", first.getLogId());
+    }
+}
@@ -0,0 +1,98 @@
+package com.asyncflow.log.location;
+
+import com.asyncflow.log.model.event.LogEventDTO;
+import com.asyncflow.log.model.event.LogEventFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 调用位置定位开销基准
+ * 对比显式传入类名、方法名与自动定位两种方式创建事件的单次耗时，并在不同调用栈深度下重复测量。
+ * 耗时与机器相关，默认不运行，使用 mvn test -Dtest=CallerLocatorBenchmarkTest -Dasynclog.benchmark=true 执行。
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "asynclog.benchmark", matches = "true")
+public class CallerLocatorBenchmarkTest {
+    
+    private static final int WARMUP_ITERATIONS = 200_000;
+    
+    private static final int MEASURE_ITERATIONS = 1_000_000;
+    
+    private final LogEventFactory factory = new LogEventFactory();
+    
+    private final CallerLocator locator = new CallerLocator();
+    
+    /**
+     * 防止结果被优化掉
+     */
+    private long sink;
+    
+    @Test
+    public void benchmarkExplicitVersusLocated() {
+        for (int depth : new int[]{0, 16, 64}) {
+            double explicit = atDepth(depth, this::measureExplicit);
+            double located = atDepth(depth, this::measureLocated);
+            log.info("调用栈深度 +{}: 显式位置 {} ns/次, 自动定位 {} ns/次, 额外开销 {} ns/次",
+                    depth, format(explicit), format(located), format(located - explicit));
+        }
+        assertTrue(sink != 0);
+        assertTrue(locator.getHitRate() > 0.99, "同一调用方法应命中位置缓存");
+    }
+    
+    private double measureExplicit() {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            explicitOnce();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            explicitOnce();
+        }
+        return (double) (System.nanoTime() - start) / MEASURE_ITERATIONS;
+    }
+    
+    private double measureLocated() {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            locatedOnce();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            locatedOnce();
+        }
+        return (double) (System.nanoTime() - start) / MEASURE_ITERATIONS;
+    }
+    
+    private void explicitOnce() {
+        LogEventDTO event = factory.createLogEventWithLocation("INFO", "基准消息",
+                "com.asyncflow.log.location.CallerLocatorBenchmarkTest", "locatedOnce");
+        sink += event.getClassName().length();
+    }
+    
+    private void locatedOnce() {
+        LogEventDTO event = factory.createLogEvent("INFO", "基准消息");
+        CallerLocation location = locator.locate("INFO");
+        event.withLocation(location.getClassName(), location.getMethodName());
+        sink += event.getClassName().length();
+    }
+    
+    /**
+     * 在额外的调用栈深度下执行测量
+     */
+    private double atDepth(int depth, Measurement measurement) {
+        if (depth == 0) {
+            return measurement.run();
+        }
+        return atDepth(depth - 1, measurement);
+    }
+    
+    private static String format(double nanos) {
+        return String.format("%.1f", nanos);
+    }
+    
+    @FunctionalInterface
+    private interface Measurement {
+        double run();
+    }
+}
@@ -0,0 +1,103 @@
+package com.asyncflow.log.location;
+
+import com.asyncflow.log.enums.LogLevel;
+import com.asyncflow.log.symbol.SymbolTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CallerLocator单元测试类
+ */
+public class CallerLocatorTest {
+    
+    @Test
+    public void testLocatesDirectCaller() {
+        CallerLocator locator = new CallerLocator();
+        CallerLocation location = locator.locate("INFO");
+        assertNotNull(location);
+        assertEquals(CallerLocatorTest.class.getName(), location.getClassName());
+        assertEquals("testLocatesDirectCaller", location.getMethodName());
+    }
+    
+    @Test
+    public void testSkipsWrapperClasses() {
+        CallerLocator locator = new CallerLocator(LogLevel.DEBUG, Collections.emptyList(),
+                Collections.singletonList(LogWrapper.class.getName()));
+        CallerLocation location = LogWrapper.log(locator);
+        assertEquals(CallerLocatorTest.class.getName(), location.getClassName());
+        assertEquals("testSkipsWrapperClasses", location.getMethodName());
+        
+        // 未配置跳过时定位到封装类本身
+        CallerLocation wrapper = LogWrapper.log(new CallerLocator());
+        assertEquals(LogWrapper.class.getName(), wrapper.getClassName());
+    }
+    
+    @Test
+    public void testLevelThreshold() {
+        CallerLocator locator = new CallerLocator(LogLevel.WARN, Collections.emptyList(), Collections.emptyList());
+        assertNull(locator.locate("INFO"));
+        assertNull(locator.locate("DEBUG"));
+        assertEquals(0, locator.getWalkCount(), "级别未开启时不应遍历栈帧");
+        assertNotNull(locator.locate("WARN"));
+        assertNotNull(locator.locate("ERROR"));
+    }
+    
+    @Test
+    public void testCategories() {
+        CallerLocator included = new CallerLocator(LogLevel.DEBUG,
+                Collections.singletonList("com.asyncflow.log.location"), Collections.emptyList());
+        assertNotNull(included.locate("INFO"));
+        
+        CallerLocator excluded = new CallerLocator(LogLevel.DEBUG,
+                Collections.singletonList("com.example"), Collections.emptyList());
+        assertNull(excluded.locate("INFO"));
+        assertNull(excluded.locate("INFO"));
+        assertEquals(1, excluded.getCachedSiteCount(), "分类外的调用方法同样缓存判断结果");
+        
+        // 判断分类级别时不受分类范围限制
+        CallerLocation caller = excluded.locateCaller();
+        assertNotNull(caller);
+        assertEquals(CallerLocatorTest.class.getName(), caller.getClassName());
+        
+        // 复用已定位的调用方时仍按分类范围和级别判断，不再遍历栈帧
+        long walks = excluded.getWalkCount();
+        assertNull(excluded.locate("ERROR", caller), "分类外的调用方不附带位置");
+        assertNull(excluded.locate("ERROR", null));
+        CallerLocation own = included.locateCaller();
+        assertSame(own, included.locate("INFO", own), "分类内的调用方直接复用");
+        assertEquals(walks, excluded.getWalkCount());
+    }
+    
+    @Test
+    public void testCachedPerCallingMethod() {
+        SymbolTable symbols = new SymbolTable(64);
+        CallerLocator locator = new CallerLocator(LogLevel.DEBUG, Collections.emptyList(),
+                Collections.emptyList(), symbols);
+        CallerLocation first = null;
+        for (int i = 0; i < 10; i++) {
+            CallerLocation location = locator.locate("INFO");
+            if (first == null) {
+                first = location;
+            }
+            assertSame(first, location);
+        }
+        assertEquals(10, locator.getWalkCount());
+        assertEquals(1, locator.getCachedSiteCount());
+        assertEquals(0.9, locator.getHitRate(), 1e-9);
+        // 类名和方法名驻留在符号表中
+        assertSame(symbols.internString(CallerLocatorTest.class.getName()), first.getClassName());
+    }
+    
+    /**
+     * 模拟业务封装的日志工具类
+     */
+    static final class LogWrapper {
+        
+        static CallerLocation log(CallerLocator locator) {
+            return locator.locate("INFO");
+        }
+    }
+}
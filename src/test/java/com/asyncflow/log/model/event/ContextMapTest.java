@@ -0,0 +1,103 @@
+package com.asyncflow.log.model.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ContextMap单元测试类
+ */
+public class ContextMapTest {
+    
+    @Test
+    public void testCopyOnWrite() {
+        ContextMap first = ContextMap.of("userId", "u1");
+        ContextMap second = first.with("traceId", "t1");
+        ContextMap replaced = second.with("userId", "u2");
+        
+        assertEquals(1, first.size());
+        assertEquals(2, second.size());
+        assertEquals("u1", second.get("userId"));
+        assertEquals("u2", replaced.get("userId"));
+        assertEquals("t1", replaced.get("traceId"));
+        assertSame(ContextMap.EMPTY, first.without("userId"));
+        assertSame(second, second.without("missing"));
+        assertEquals(ContextMap.of("traceId", "t1"), second.without("userId"));
+    }
+    
+    @Test
+    public void testImmutable() {
+        ContextMap context = ContextMap.of("userId", "u1");
+        assertThrows(UnsupportedOperationException.class, () -> context.put("a", "b"));
+        assertThrows(UnsupportedOperationException.class, () -> context.remove("userId"));
+        assertThrows(UnsupportedOperationException.class, context::clear);
+    }
+    
+    @Test
+    public void testEqualsAndIterationMatchHashMap() {
+        Map<String, String> source = new LinkedHashMap<>();
+        source.put("module", "order");
+        source.put("operation", "create");
+        source.put("status", "SUCCESS");
+        ContextMap context = ContextMap.of(source);
+        
+        assertEquals(new HashMap<>(source), context);
+        assertEquals(context, new HashMap<>(source));
+        assertEquals(new HashMap<>(source).hashCode(), context.hashCode());
+        
+        Map<String, String> visited = new LinkedHashMap<>();
+        context.forEach(visited::put);
+        assertEquals(source, visited);
+        assertEquals("module", context.keyAt(0));
+        assertEquals("create", context.valueAt(1));
+        
+        // 复制后修改源Map不影响上下文
+        source.put("module", "user");
+        assertEquals("order", context.get("module"));
+    }
+    
+    @Test
+    public void testKeysInternedAndEmptyShared() {
+        ContextMap first = ContextMap.of(new String("traceId"), "t1");
+        ContextMap second = ContextMap.builder().put(new String("traceId"), "t2").build();
+        assertSame(first.keyAt(0), second.keyAt(0));
+        
+        assertSame(ContextMap.EMPTY, ContextMap.of(new HashMap<>()));
+        assertSame(ContextMap.EMPTY, ContextMap.of((Map<String, String>) null));
+        assertSame(ContextMap.EMPTY, ContextMap.builder().build());
+        assertSame(first, ContextMap.of(first));
+    }
+    
+    @Test
+    public void testBuilderReplacesDuplicates() {
+        ContextMap.Builder builder = ContextMap.builder();
+        for (int i = 0; i < 10; i++) {
+            builder.put("key" + i, "value" + i);
+        }
+        builder.put("key3", "replaced");
+        ContextMap context = builder.build();
+        assertEquals(10, context.size());
+        assertEquals("replaced", context.get("key3"));
+        assertEquals("value9", context.get("key9"));
+    }
+    
+    @Test
+    public void testEventUsesCompactContext() {
+        LogEventDTO event = new LogEventDTO("INFO", "测试消息");
+        assertSame(ContextMap.EMPTY, event.getContext());
+        
+        Map<String, String> source = new HashMap<>();
+        source.put("userId", "u1");
+        event.setContext(source);
+        source.put("userId", "u2");
+        assertEquals("u1", event.getContext().get("userId"));
+        
+        event.addContext("traceId", "t1");
+        assertEquals(2, event.getContext().size());
+        assertTrue(event.estimateSize() > LogEventSizeEstimator.EVENT_OVERHEAD);
+    }
+}
@@ -0,0 +1,131 @@
+package com.asyncflow.log.model.event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LogEventPool单元测试类
+ */
+public class LogEventPoolTest {
+    
+    private LogEventPool pool;
+    private LogEventFactory factory;
+    
+    @BeforeEach
+    public void setUp() {
+        pool = new LogEventPool(8);
+        factory = new LogEventFactory();
+        ReflectionTestUtils.setField(factory, "eventPool", pool);
+    }
+    
+    @Test
+    public void testAcquireAndRelease() {
+        assertEquals(8, pool.getAvailable());
+        
+        LogEventDTO event = factory.createLogEvent("INFO", "测试消息");
+        assertTrue(event instanceof PooledLogEvent);
+        assertEquals(7, pool.getAvailable());
+        assertEquals("INFO", event.getLevel());
+        assertEquals("测试消息", event.getMessage());
+        assertNotNull(event.getTimestamp());
+        assertNotNull(event.getLogId());
+        assertTrue(event.getContext().isEmpty());
+        
+        PooledLogEvent.releaseIfPooled(event);
+        assertTrue(((PooledLogEvent) event).isReleased());
+        assertNull(event.getMessage());
+        assertEquals(8, pool.getAvailable());
+        assertEquals(1, pool.getRecycledCount());
+    }
+    
+    @Test
+    public void testReleaseTwiceIsIgnored() {
+        PooledLogEvent event = pool.acquire("INFO", "测试消息");
+        event.release();
+        event.release();
+        assertEquals(8, pool.getAvailable());
+        assertEquals(1, pool.getRecycledCount());
+    }
+    
+    @Test
+    public void testReusedEventIsReset() {
+        Map<String, String> context = new HashMap<>();
+        context.put("userId", "用户1");
+        LogEventDTO first = factory.createFullLogEvent("ERROR", "错误消息", context, "类名", "方法名", "异常");
+        String firstId = first.getLogId();
+        first.addContext("traceId", "追踪");
+        PooledLogEvent.releaseIfPooled(first);
+        
+        // 池为先进先出，取满一轮后复用第一个事件
+        LogEventDTO reused = null;
+        for (int i = 0; i < 8; i++) {
+            reused = factory.createLogEvent("INFO", "新消息" + i);
+        }
+        assertSame(first, reused);
+        assertEquals("新消息7", reused.getMessage());
+        assertNull(reused.getClassName());
+        assertNull(reused.getException());
+        assertTrue(reused.getContext().isEmpty());
+        assertNotEquals(firstId, reused.getLogId());
+        // 调用方提供的上下文被复制，事件既不修改也不清空它
+        assertEquals(1, context.size());
+        assertEquals("用户1", context.get("userId"));
+    }
+    
+    @Test
+    public void testEmptyPoolCreatesAndFullPoolDiscards() {
+        PooledLogEvent[] events = new PooledLogEvent[9];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = pool.acquire("INFO", "测试消息" + i);
+        }
+        assertEquals(1, pool.getCreatedCount());
+        assertEquals(0, pool.getAvailable());
+        
+        for (PooledLogEvent event : events) {
+            event.release();
+        }
+        assertEquals(8, pool.getAvailable());
+        assertEquals(1, pool.getDiscardedCount());
+        assertEquals(1.0 - 1.0 / 9, pool.getHitRate(), 0.0001);
+    }
+    
+    @Test
+    public void testSteadyStateAllocationLowerThanDto() {
+        com.sun.management.ThreadMXBean threadBean = 
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threadBean.isThreadAllocatedMemorySupported()) {
+            return;
+        }
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        LogEventFactory plainFactory = new LogEventFactory();
+        int iterations = 20000;
+        
+        // 预热
+        measure(threadBean, factory, iterations);
+        measure(threadBean, plainFactory, iterations);
+        
+        long pooledBytes = measure(threadBean, factory, iterations);
+        long plainBytes = measure(threadBean, plainFactory, iterations);
+        
+        // 日志ID改为long后普通事件不再分配UUID，两者差距主要来自事件对象与上下文Map
+        assertTrue(pooledBytes < plainBytes,
+                "每个事件分配字节数: 对象池=" + pooledBytes / iterations + ", 普通=" + plainBytes / iterations);
+    }
+    
+    private long measure(com.sun.management.ThreadMXBean threadBean, LogEventFactory eventFactory, int iterations) {
+        long threadId = Thread.currentThread().threadId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            LogEventDTO event = eventFactory.createLogEvent("INFO", "测试消息");
+            PooledLogEvent.releaseIfPooled(event);
+        }
+        return threadBean.getThreadAllocatedBytes(threadId) - before;
+    }
+}
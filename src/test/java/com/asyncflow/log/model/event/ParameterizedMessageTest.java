@@ -0,0 +1,95 @@
+package com.asyncflow.log.model.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ParameterizedMessage单元测试类
+ */
+public class ParameterizedMessageTest {
+    
+    @Test
+    public void testFormat() {
+        assertEquals("用户alice登录, 耗时12ms", ParameterizedMessage.format("用户{}登录, 耗时{}ms", "alice", 12));
+        assertEquals("a=1, b={}", ParameterizedMessage.format("a={}, b={}", 1));
+        assertEquals("a=1", ParameterizedMessage.format("a={}", 1, 2));
+        assertEquals("字面{}和2", ParameterizedMessage.format("字面\\{}和{}", 2));
+        assertEquals("null值: null", ParameterizedMessage.format("null值: {}", (Object) null));
+        assertEquals("数组: [1, 2]", ParameterizedMessage.format("数组: {}", (Object) new int[]{1, 2}));
+        assertEquals("无参数", ParameterizedMessage.format("无参数"));
+        assertNull(ParameterizedMessage.format(null, 1));
+    }
+    
+    @Test
+    public void testMutableArgumentsSnapshotted() {
+        List<String> items = new ArrayList<>();
+        items.add("a");
+        int[] numbers = {1, 2};
+        ParameterizedMessage message = ParameterizedMessage.capture("列表{} 数组{}", items, numbers);
+        
+        // 捕获后修改参数不影响渲染结果
+        items.add("b");
+        numbers[0] = 9;
+        assertEquals("列表[a] 数组[1, 2]", message.render());
+    }
+    
+    @Test
+    public void testTrailingThrowable() {
+        IllegalStateException error = new IllegalStateException("失败");
+        ParameterizedMessage message = ParameterizedMessage.capture("处理{}出错", "订单", error);
+        assertSame(error, message.getThrowable());
+        assertEquals("处理订单出错", message.render());
+        
+        // 被占位符使用的异常按普通参数处理
+        ParameterizedMessage consumed = ParameterizedMessage.capture("异常: {}", error);
+        assertNull(consumed.getThrowable());
+        assertEquals("异常: " + error, consumed.render());
+    }
+    
+    @Test
+    public void testToStringFailureDoesNotBreakLogging() {
+        Object broken = new Object() {
+            @Override
+            public String toString() {
+                throw new IllegalStateException("broken");
+            }
+        };
+        String rendered = ParameterizedMessage.capture("值: {}", broken).render();
+        assertTrue(rendered.startsWith("值: ["));
+    }
+    
+    @Test
+    public void testEventRendersLazily() {
+        LogEventDTO event = new LogEventDTO("INFO", null);
+        Object argument = new Object() {
+            private int calls;
+            
+            @Override
+            public String toString() {
+                return "调用" + (++calls);
+            }
+        };
+        event.withTemplate("参数: {}", 7, new RuntimeException("错误"));
+        assertTrue(event.hasPendingMessage());
+        assertTrue(event.estimateSize() > 0);
+        assertTrue(event.hasPendingMessage(), "估算大小不应触发渲染");
+        assertTrue(event.getThrowable() instanceof RuntimeException);
+        // 异常在读取时才渲染，带有调用栈
+        assertTrue(event.getException().startsWith("java.lang.RuntimeException: 错误" + System.lineSeparator() + "\tat "));
+        
+        assertEquals("参数: 7", event.getMessage());
+        assertFalse(event.hasPendingMessage());
+        assertEquals("参数: 7", event.getMessage());
+        
+        // 可变对象在捕获时即渲染一次
+        event.withTemplate("对象: {}", argument);
+        assertEquals("对象: 调用1", event.getMessage());
+        
+        event.setMessage("覆盖");
+        assertEquals("覆盖", event.getMessage());
+    }
+}
@@ -0,0 +1,108 @@
+package com.asyncflow.log.model.event;
+
+import com.asyncflow.log.util.JsonUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StructuredFields单元测试类
+ */
+public class StructuredFieldsTest {
+    
+    @Test
+    public void testTypedValues() {
+        StructuredFields fields = StructuredFields.create()
+                .add("count", 3)
+                .add("ratio", 0.75)
+                .add("ok", true);
+        
+        assertEquals(3, fields.size());
+        assertEquals(StructuredFields.Type.LONG, fields.typeAt(0));
+        assertEquals(3L, fields.longAt(0));
+        assertEquals(StructuredFields.Type.DOUBLE, fields.typeAt(1));
+        assertEquals(0.75, fields.doubleAt(1));
+        assertEquals(StructuredFields.Type.BOOLEAN, fields.typeAt(2));
+        assertTrue(fields.booleanAt(2));
+        assertEquals(1, fields.indexOf("ratio"));
+        assertEquals(-1, fields.indexOf("missing"));
+        assertThrows(IndexOutOfBoundsException.class, () -> fields.longAt(3));
+    }
+    
+    @Test
+    public void testReplaceAndGrow() {
+        StructuredFields fields = new StructuredFields(1);
+        for (int i = 0; i < 10; i++) {
+            fields.add("f" + i, i);
+        }
+        fields.add("f3", false);
+        
+        assertEquals(10, fields.size());
+        assertEquals(StructuredFields.Type.BOOLEAN, fields.typeAt(3));
+        assertFalse(fields.booleanAt(3));
+        assertEquals(9L, fields.longAt(9));
+    }
+    
+    @Test
+    public void testForEachVisitsByType() {
+        StructuredFields fields = StructuredFields.create()
+                .add("duration", 12L)
+                .add("ratio", 1.5)
+                .add("hit", false);
+        List<String> visited = new ArrayList<>();
+        fields.forEach(new StructuredFields.Visitor() {
+            @Override
+            public void visitLong(String name, long value) {
+                visited.add(name + ":long:" + value);
+            }
+            
+            @Override
+            public void visitDouble(String name, double value) {
+                visited.add(name + ":double:" + value);
+            }
+            
+            @Override
+            public void visitBoolean(String name, boolean value) {
+                visited.add(name + ":boolean:" + value);
+            }
+        });
+        assertEquals(List.of("duration:long:12", "ratio:double:1.5", "hit:boolean:false"), visited);
+        assertEquals("{duration=12, ratio=1.5, hit=false}", fields.toString());
+    }
+    
+    @Test
+    public void testCopyAndClear() {
+        StructuredFields fields = StructuredFields.create().add("a", 1L);
+        StructuredFields copy = fields.copy();
+        fields.add("b", 2L);
+        
+        assertEquals(1, copy.size());
+        assertNotEquals(fields, copy);
+        fields.clear();
+        assertTrue(fields.isEmpty());
+        assertEquals(-1, fields.indexOf("a"));
+    }
+    
+    @Test
+    public void testJsonWritesNumbers() {
+        StructuredFields fields = StructuredFields.create()
+                .add("status", 200)
+                .add("ratio", 0.5)
+                .add("cached", true);
+        assertEquals("{\"status\":200,\"ratio\":0.5,\"cached\":true}", JsonUtils.toJson(fields));
+    }
+    
+    @Test
+    public void testEventFields() {
+        LogEventDTO event = new LogEventDTO("INFO", "请求完成");
+        assertNull(event.getFields());
+        long before = LogEventSizeEstimator.estimate(event);
+        
+        event.withField("duration", 30L).withField("slow", false);
+        assertEquals(2, event.getFields().size());
+        assertTrue(LogEventSizeEstimator.estimate(event) > before);
+    }
+}
@@ -0,0 +1,119 @@
+package com.asyncflow.log.model.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ThrowableRenderer单元测试类
+ */
+public class ThrowableRendererTest {
+    
+    @Test
+    public void testMatchesPrintStackTrace() {
+        IllegalStateException cause = new IllegalStateException("底层错误");
+        RuntimeException error = new RuntimeException("上层错误", cause);
+        error.addSuppressed(new IllegalArgumentException("关闭失败"));
+        
+        ThrowableRenderer renderer = new ThrowableRenderer(16, false);
+        assertEquals(printStackTrace(error), renderer.render(error));
+        assertNull(renderer.render(null));
+    }
+    
+    @Test
+    public void testCircularCause() {
+        RuntimeException first = new RuntimeException("第一个");
+        RuntimeException second = new RuntimeException("第二个", first);
+        first.initCause(second);
+        
+        ThrowableRenderer renderer = new ThrowableRenderer(16, false);
+        String rendered = renderer.render(first);
+        assertEquals(printStackTrace(first), rendered);
+        assertTrue(rendered.contains("[CIRCULAR REFERENCE: "));
+    }
+    
+    @Test
+    public void testRepeatedTraceServedFromCache() {
+        ThrowableRenderer renderer = new ThrowableRenderer(16, false);
+        String first = null;
+        for (int i = 0; i < 10; i++) {
+            RuntimeException error = fail(i);
+            String rendered = renderer.render(error);
+            if (first == null) {
+                first = rendered;
+            }
+            // 消息不同，调用栈相同
+            assertEquals(printStackTrace(error), rendered);
+        }
+        assertEquals(10, renderer.getRenderCount());
+        assertEquals(1, renderer.getCacheSize());
+        assertEquals(0.9, renderer.getCacheHitRate(), 1e-9);
+    }
+    
+    @Test
+    public void testCacheBounded() {
+        ThrowableRenderer renderer = new ThrowableRenderer(2, false);
+        renderer.render(fail(1));
+        renderer.render(new RuntimeException("另一处"));
+        renderer.render(new IllegalStateException("第三处"));
+        assertTrue(renderer.getCacheSize() <= 2);
+    }
+    
+    @Test
+    public void testDeduplicateWritesReference() {
+        ThrowableRenderer renderer = new ThrowableRenderer(16, true);
+        RuntimeException[] errors = new RuntimeException[2];
+        for (int i = 0; i < errors.length; i++) {
+            errors[i] = fail(i + 1);
+        }
+        RuntimeException first = errors[0];
+        RuntimeException second = errors[1];
+        assertEquals(ThrowableRenderer.fingerprint(first), ThrowableRenderer.fingerprint(second));
+        String tag = Long.toHexString(ThrowableRenderer.fingerprint(first));
+        
+        String full = renderer.render(first);
+        assertTrue(full.startsWith(printStackTrace(first)));
+        assertTrue(full.endsWith("#" + tag));
+        
+        String reference = renderer.render(second);
+        assertEquals("java.lang.RuntimeException: 第2次" + System.lineSeparator() + "\t... 调用栈同 #" + tag, reference);
+        assertEquals(1, renderer.getReferenceCount());
+        
+        // 不同位置的异常仍完整输出
+        RuntimeException other = new RuntimeException("另一处");
+        assertNotEquals(ThrowableRenderer.fingerprint(first), ThrowableRenderer.fingerprint(other));
+        assertTrue(renderer.render(other).startsWith(printStackTrace(other)));
+    }
+    
+    @Test
+    public void testEventRendersLazily() {
+        LogEventDTO event = new LogEventDTO("ERROR", "处理失败");
+        RuntimeException error = fail(1);
+        event.withThrowable(error);
+        assertSame(error, event.getThrowable());
+        assertTrue(event.estimateExceptionSize() > 0);
+        
+        String rendered = event.getException();
+        assertEquals(printStackTrace(error), rendered);
+        assertSame(rendered, event.getException(), "渲染结果应被缓存");
+        
+        // 设置异常信息会丢弃异常对象
+        event.setException("文本异常");
+        assertNull(event.getThrowable());
+        assertEquals("文本异常", event.getException());
+    }
+    
+    private static RuntimeException fail(int attempt) {
+        return new RuntimeException("第" + attempt + "次");
+    }
+    
+    private static String printStackTrace(Throwable throwable) {
+        StringWriter writer = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(writer));
+        String text = writer.toString();
+        return text.substring(0, text.length() - System.lineSeparator().length());
+    }
+}
@@ -42,6 +42,7 @@ public class AsyncLogHealthIndicatorTest {
         when(asyncLogService.isRunning()).thenReturn(true);
         when(eventQueue.capacity()).thenReturn(1000);
         when(eventQueue.size()).thenReturn(200);
+        when(eventQueue.getUsage()).thenReturn(0.2);
         when(consumerPool.getActiveCount()).thenReturn(2);
         when(consumerPool.isShutdown()).thenReturn(false);
         when(consumerPool.getCompletedTaskCount()).thenReturn(10000L);
@@ -51,6 +52,7 @@ public class AsyncLogHealthIndicatorTest {
     public void testHealthUp() {
         // 正常状态：队列使用率低
         when(eventQueue.size()).thenReturn(200);  // 20% 使用率
+        when(eventQueue.getUsage()).thenReturn(0.2);
         
         Health health = healthIndicator.health();
         
@@ -68,6 +70,7 @@ public class AsyncLogHealthIndicatorTest {
     public void testHealthOutOfService() {
         // 警告状态：队列使用率较高
         when(eventQueue.size()).thenReturn(850);  // 85% 使用率
+        when(eventQueue.getUsage()).thenReturn(0.85);
         
         Health health = healthIndicator.health();
         
@@ -80,6 +83,7 @@ public class AsyncLogHealthIndicatorTest {
     public void testHealthDownQueueTooFull() {
         // 故障状态：队列接近满
         when(eventQueue.size()).thenReturn(960);  // 96% 使用率
+        when(eventQueue.getUsage()).thenReturn(0.96);
         
         Health health = healthIndicator.health();
         
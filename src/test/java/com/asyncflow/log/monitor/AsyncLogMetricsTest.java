@@ -46,6 +46,7 @@ public class AsyncLogMetricsTest {
         when(asyncLogService.isRunning()).thenReturn(true);
         when(eventQueue.capacity()).thenReturn(1000);
         when(eventQueue.size()).thenReturn(200); // 20% 使用率
+        when(eventQueue.getUsage()).thenReturn(0.2);
         when(consumerPool.getActiveCount()).thenReturn(2);
         when(consumerPool.getCompletedTaskCount()).thenReturn(10000L);
         
@@ -121,6 +122,7 @@ public class AsyncLogMetricsTest {
     public void testQueueUsage() {
         // 修改队列使用情况
         when(eventQueue.size()).thenReturn(800); // 80% 使用率
+        when(eventQueue.getUsage()).thenReturn(0.8);
         
         // 将指标绑定到注册表
         asyncLogMetrics.bindTo(registry);
@@ -0,0 +1,136 @@
+package com.asyncflow.log.queue;
+
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.LogEventDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ByteBudgetEventQueue单元测试类
+ */
+public class ByteBudgetEventQueueTest {
+    
+    private ByteBudgetEventQueue eventQueue;
+    private final long BUDGET_BYTES = 8 * 1024;
+    
+    @BeforeEach
+    public void setUp() {
+        eventQueue = new ByteBudgetEventQueue(BUDGET_BYTES);
+    }
+    
+    @Test
+    public void testEstimateSizeGrowsWithContent() {
+        LogEvent small = new LogEventDTO("INFO", "测试消息");
+        Map<String, String> context = new HashMap<>();
+        context.put("requestParams", repeat('x', 2000));
+        LogEvent large = new LogEventDTO("INFO", "测试消息", context);
+        
+        assertTrue(small.estimateSize() > 0);
+        assertTrue(large.estimateSize() > small.estimateSize() + 4000);
+    }
+    
+    @Test
+    public void testBoundedByBytesNotCount() throws InterruptedException {
+        Map<String, String> context = new HashMap<>();
+        context.put("requestParams", repeat('x', 1500));
+        int largeAccepted = 0;
+        while (eventQueue.offer(new LogEventDTO("INFO", "大消息", context))) {
+            largeAccepted++;
+        }
+        assertTrue(eventQueue.getUsage() > 0.6);
+        eventQueue.clear();
+        assertEquals(0, eventQueue.getUsedBytes());
+        
+        int smallAccepted = 0;
+        while (eventQueue.offer(new LogEventDTO("INFO", "小消息"))) {
+            smallAccepted++;
+        }
+        // 同样的字节预算可以容纳更多的小事件
+        assertTrue(smallAccepted > largeAccepted * 5);
+        assertTrue(eventQueue.getUsedBytes() <= BUDGET_BYTES);
+    }
+    
+    @Test
+    public void testUsageReflectsBytes() throws InterruptedException {
+        LogEvent event = new LogEventDTO("INFO", "测试消息");
+        assertTrue(eventQueue.offer(event));
+        assertEquals((double) event.estimateSize() / BUDGET_BYTES, eventQueue.getUsage(), 0.0001);
+        
+        // 事件入队后被修改，出队时仍按入队时的估算值扣减
+        ((LogEventDTO) event).setMessage(repeat('y', 500));
+        assertSame(event, eventQueue.poll());
+        assertEquals(0, eventQueue.getUsedBytes());
+        assertEquals(0.0, eventQueue.getUsage());
+    }
+    
+    @Test
+    public void testFifoAcrossGrowth() throws InterruptedException {
+        ByteBudgetEventQueue large = new ByteBudgetEventQueue(64L * 1024 * 1024);
+        for (int i = 0; i < 3000; i++) {
+            assertTrue(large.offer(new LogEventDTO("INFO", "测试消息" + i)));
+            if (i % 3 == 0) {
+                large.poll();
+            }
+        }
+        List<LogEvent> batch = new ArrayList<>();
+        large.drainTo(batch, Integer.MAX_VALUE);
+        assertEquals(2000, batch.size());
+        for (int i = 1; i < batch.size(); i++) {
+            int previous = Integer.parseInt(batch.get(i - 1).getMessage().substring(4));
+            int current = Integer.parseInt(batch.get(i).getMessage().substring(4));
+            assertTrue(current > previous);
+        }
+    }
+    
+    @Test
+    public void testOversizedEventRejectedWithoutBlocking() throws InterruptedException {
+        Map<String, String> context = new HashMap<>();
+        context.put("requestParams", repeat('x', (int) BUDGET_BYTES));
+        LogEvent oversized = new LogEventDTO("INFO", "超大消息", context);
+        assertTrue(oversized.estimateSize() > BUDGET_BYTES);
+        
+        // 超过整个字节预算的事件等待多久也无法入队，put和带超时的offer都应立即返回
+        assertFalse(eventQueue.offer(oversized));
+        long start = System.nanoTime();
+        assertFalse(eventQueue.offer(oversized, 5000));
+        eventQueue.put(oversized);
+        assertTrue(System.nanoTime() - start < 1_000_000_000L, "超大事件不应阻塞");
+        assertTrue(eventQueue.isEmpty());
+        assertEquals(3, eventQueue.getOversizedCount());
+    }
+    
+    @Test
+    public void testOfferWithTimeoutWaitsForSpace() throws InterruptedException {
+        while (eventQueue.offer(new LogEventDTO("INFO", "测试消息"))) {
+            // 写满
+        }
+        assertFalse(eventQueue.offer(new LogEventDTO("INFO", "测试消息"), 10));
+        
+        Thread consumer = new Thread(() -> {
+            try {
+                Thread.sleep(20);
+                eventQueue.poll();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+        assertTrue(eventQueue.offer(new LogEventDTO("INFO", "测试消息"), 1000));
+        consumer.join();
+    }
+    
+    private static String repeat(char c, int count) {
+        StringBuilder builder = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+}
@@ -5,6 +5,9 @@ import com.asyncflow.log.model.event.LogEventDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -138,4 +141,57 @@ public class LinkedEventQueueTest {
         
         assertEquals(1.0, eventQueue.getUsage(), 0.01);
     }
-} 
\ No newline at end of file
+    
+    @Test
+    public void testDrainTo() throws InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            eventQueue.put(new LogEventDTO("INFO", "测试消息" + i));
+        }
+        
+        List<LogEvent> events = new ArrayList<>();
+        assertEquals(3, eventQueue.drainTo(events, 3));
+        assertEquals("测试消息0", events.get(0).getMessage());
+        assertEquals(2, eventQueue.size());
+    }
+    
+    @Test
+    public void testDrainWithLinger() throws InterruptedException {
+        // 空队列在等待时间结束后返回空列表
+        assertTrue(eventQueue.drain(5, 20).isEmpty());
+        
+        for (int i = 0; i < 7; i++) {
+            eventQueue.put(new LogEventDTO("INFO", "测试消息" + i));
+        }
+        
+        // 事件充足时达到批量上限立即返回
+        List<LogEvent> batch = eventQueue.drain(5, 1000);
+        assertEquals(5, batch.size());
+        
+        // 剩余事件不足批量上限时，等待时间结束后返回已收集的事件
+        batch = eventQueue.drain(5, 20);
+        assertEquals(2, batch.size());
+        assertEquals("测试消息6", batch.get(1).getMessage());
+    }
+    
+    @Test
+    public void testDrainSharesOneLingerWindow() throws InterruptedException {
+        Thread producer = new Thread(() -> {
+            try {
+                Thread.sleep(300);
+                eventQueue.put(new LogEventDTO("INFO", "迟到的事件"));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        
+        long start = System.nanoTime();
+        List<LogEvent> batch = eventQueue.drain(5, 400);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        producer.join();
+        
+        assertEquals(1, batch.size());
+        // 首个事件的等待计入同一时间窗口，不会在收到首个事件后重新等待完整的lingerMillis
+        assertTrue(elapsedMillis < 600, "单次drain的等待不应超过一个时间窗口，实际耗时: " + elapsedMillis + "ms");
+    }
+}
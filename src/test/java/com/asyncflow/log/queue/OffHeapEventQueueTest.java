@@ -0,0 +1,196 @@
+package com.asyncflow.log.queue;
+
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.LogEventDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * OffHeapEventQueue单元测试类
+ */
+public class OffHeapEventQueueTest {
+    
+    private OffHeapEventQueue eventQueue;
+    private final int CAPACITY_BYTES = 1024;
+    
+    @BeforeEach
+    public void setUp() {
+        eventQueue = new OffHeapEventQueue(CAPACITY_BYTES);
+    }
+    
+    @Test
+    public void testCodecRoundTrip() {
+        Map<String, String> context = new HashMap<>();
+        context.put("userId", "用户1");
+        LogEventDTO event = new LogEventDTO("ERROR", "测试消息", context);
+        event.setException("java.lang.IllegalStateException: 测试异常");
+        event.withField("duration", 42L).withField("ratio", 0.25).withField("retry", false);
+        event.setSequence(7L);
+        
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        int written = LogEventCodec.encode(event, buffer);
+        buffer.flip();
+        assertEquals(written, buffer.remaining());
+        
+        LogEvent decoded = LogEventCodec.decode(buffer);
+        assertEquals(event.getLogId(), decoded.getLogId());
+        assertEquals(7L, decoded.getSequence());
+        assertEquals(event.getTimestamp(), decoded.getTimestamp());
+        assertEquals("ERROR", decoded.getLevel());
+        assertEquals("测试消息", decoded.getMessage());
+        assertEquals(event.getThreadName(), decoded.getThreadName());
+        assertEquals(event.getException(), decoded.getException());
+        assertEquals("用户1", decoded.getContext().get("userId"));
+        assertEquals(event.getFields(), decoded.getFields());
+        assertNull(decoded.getClassName());
+    }
+    
+    @Test
+    public void testCodecDefersMessageFormatting() {
+        LogEventDTO event = new LogEventDTO();
+        event.setLevel("ERROR");
+        event.withTemplate("用户{}下单{}件, 参数{}", "alice", 3, new int[] {1, 2}, new IllegalStateException("测试异常"));
+        
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        LogEventCodec.encode(event, buffer);
+        assertTrue(event.hasPendingMessage(), "编码不应在调用线程上拼接消息");
+        buffer.flip();
+        
+        LogEventDTO decoded = LogEventCodec.decode(buffer);
+        assertTrue(decoded.hasPendingMessage(), "解码后的消息应在第一次读取时才拼接");
+        assertEquals("用户alice下单3件, 参数[1, 2]", decoded.getMessage());
+        assertEquals(event.getMessage(), decoded.getMessage());
+        // 异常对象在编码时渲染为文本
+        assertTrue(decoded.getException().contains("java.lang.IllegalStateException: 测试异常"));
+        assertEquals(event.getException(), decoded.getException());
+    }
+    
+    @Test
+    public void testCodecRejectsUnknownFieldType() {
+        LogEventDTO event = new LogEventDTO("INFO", "测试消息");
+        event.withField("duration", 42L);
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        int written = LogEventCodec.encode(event, buffer);
+        
+        // 最后一个字段的类型字节位于字段值之前，损坏后解码应报告格式错误而不是数组越界
+        int typeOffset = written - Long.BYTES - 1;
+        for (byte corrupt : new byte[] {99, -1}) {
+            ByteBuffer copy = ByteBuffer.allocate(written);
+            copy.put(buffer.array(), 0, written).flip();
+            copy.put(typeOffset, corrupt);
+            assertThrows(IllegalStateException.class, () -> LogEventCodec.decode(copy));
+        }
+    }
+    
+    @Test
+    public void testOfferAndPollInOrder() throws InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(eventQueue.offer(new LogEventDTO("INFO", "测试消息" + i)));
+        }
+        assertFalse(eventQueue.offer(null));
+        assertEquals(5, eventQueue.size());
+        assertTrue(eventQueue.getUsedBytes() > 0);
+        
+        for (int i = 0; i < 5; i++) {
+            assertEquals("测试消息" + i, eventQueue.poll().getMessage());
+        }
+        assertNull(eventQueue.poll());
+        assertTrue(eventQueue.isEmpty());
+        assertEquals(0, eventQueue.getUsedBytes());
+    }
+    
+    @Test
+    public void testFullByBytesRejectsOffer() throws InterruptedException {
+        int accepted = 0;
+        while (eventQueue.offer(new LogEventDTO("INFO", "测试消息" + accepted))) {
+            accepted++;
+        }
+        
+        assertTrue(accepted > 0);
+        assertEquals(accepted, eventQueue.size());
+        assertTrue(eventQueue.getUsage() > 0.5);
+        assertFalse(eventQueue.offer(new LogEventDTO("INFO", "溢出消息"), 10));
+        
+        // 消费一条后可以继续写入
+        assertNotNull(eventQueue.poll());
+        assertTrue(eventQueue.offer(new LogEventDTO("INFO", "新消息")));
+    }
+    
+    @Test
+    public void testWrapAroundKeepsOrder() throws InterruptedException {
+        // 多轮写满再读空一半，使写位置多次回绕
+        int next = 0;
+        int expected = 0;
+        for (int round = 0; round < 20; round++) {
+            while (eventQueue.offer(new LogEventDTO("INFO", "测试消息" + next))) {
+                next++;
+            }
+            int half = eventQueue.size() / 2 + 1;
+            for (int i = 0; i < half; i++) {
+                assertEquals("测试消息" + expected++, eventQueue.poll().getMessage());
+            }
+        }
+        LogEvent event;
+        while ((event = eventQueue.poll()) != null) {
+            assertEquals("测试消息" + expected++, event.getMessage());
+        }
+        assertEquals(next, expected);
+    }
+    
+    @Test
+    public void testOversizedEventRejected() throws InterruptedException {
+        StringBuilder message = new StringBuilder();
+        for (int i = 0; i < CAPACITY_BYTES; i++) {
+            message.append('x');
+        }
+        assertFalse(eventQueue.offer(new LogEventDTO("INFO", message.toString())));
+        assertTrue(eventQueue.isEmpty());
+    }
+    
+    @Test
+    public void testDrainTo() throws InterruptedException {
+        for (int i = 0; i < 6; i++) {
+            eventQueue.offer(new LogEventDTO("INFO", "测试消息" + i));
+        }
+        
+        List<LogEvent> batch = new ArrayList<>();
+        assertEquals(4, eventQueue.drainTo(batch, 4));
+        assertEquals("测试消息0", batch.get(0).getMessage());
+        assertEquals("测试消息3", batch.get(3).getMessage());
+        assertEquals(2, eventQueue.size());
+    }
+    
+    @Test
+    public void testTakeBlocksUntilEventArrives() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicReference<LogEvent> taken = new AtomicReference<>();
+        Thread consumer = new Thread(() -> {
+            try {
+                started.countDown();
+                taken.set(eventQueue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+        
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        assertNull(taken.get());
+        
+        eventQueue.offer(new LogEventDTO("WARN", "测试消息"));
+        consumer.join(1000);
+        assertEquals("测试消息", taken.get().getMessage());
+    }
+}
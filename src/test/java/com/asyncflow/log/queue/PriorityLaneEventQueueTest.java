@@ -0,0 +1,82 @@
+package com.asyncflow.log.queue;
+
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.LogEventDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PriorityLaneEventQueue单元测试类
+ */
+public class PriorityLaneEventQueueTest {
+    
+    private PriorityLaneEventQueue eventQueue;
+    
+    @BeforeEach
+    public void setUp() {
+        eventQueue = new PriorityLaneEventQueue(4, 4, 8, 8);
+    }
+    
+    @Test
+    public void testDebugFloodDoesNotDropErrors() throws InterruptedException {
+        // DEBUG通道写满后继续写入会被拒绝
+        for (int i = 0; i < 8; i++) {
+            assertTrue(eventQueue.offer(new LogEventDTO("DEBUG", "调试消息" + i)));
+        }
+        assertFalse(eventQueue.offer(new LogEventDTO("DEBUG", "溢出消息")));
+        assertEquals(1, eventQueue.getLaneDroppedCount("DEBUG"));
+        
+        // ERROR通道不受影响
+        assertTrue(eventQueue.offer(new LogEventDTO("ERROR", "错误消息")));
+        assertEquals(0, eventQueue.getLaneDroppedCount("ERROR"));
+        assertEquals(1, eventQueue.getLaneSize("ERROR"));
+        assertEquals(8, eventQueue.getLaneSize("DEBUG"));
+        assertEquals(9, eventQueue.size());
+        assertEquals(24, eventQueue.capacity());
+    }
+    
+    @Test
+    public void testConsumersDrainHigherPriorityFirst() throws InterruptedException {
+        eventQueue.offer(new LogEventDTO("DEBUG", "调试消息"));
+        eventQueue.offer(new LogEventDTO("INFO", "信息消息"));
+        eventQueue.offer(new LogEventDTO("WARN", "警告消息"));
+        eventQueue.offer(new LogEventDTO("ERROR", "错误消息"));
+        eventQueue.offer(new LogEventDTO("CUSTOM", "未知级别消息"));
+        
+        assertEquals("ERROR", eventQueue.poll().getLevel());
+        assertEquals("WARN", eventQueue.poll().getLevel());
+        
+        // 未知级别归入INFO通道
+        assertEquals(2, eventQueue.getLaneSize("INFO"));
+        
+        List<LogEvent> remaining = new ArrayList<>();
+        assertEquals(3, eventQueue.drainTo(remaining, 10));
+        assertEquals("信息消息", remaining.get(0).getMessage());
+        assertEquals("未知级别消息", remaining.get(1).getMessage());
+        assertEquals("调试消息", remaining.get(2).getMessage());
+        assertTrue(eventQueue.isEmpty());
+    }
+    
+    @Test
+    public void testTakeWaitsAcrossLanes() throws InterruptedException {
+        LogEvent event = new LogEventDTO("WARN", "延迟消息");
+        Thread producer = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+                eventQueue.put(event);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        
+        assertSame(event, eventQueue.take());
+        assertNull(eventQueue.poll(20));
+        producer.join();
+    }
+}
@@ -0,0 +1,175 @@
+package com.asyncflow.log.queue;
+
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.LogEventDTO;
+import com.asyncflow.log.queue.overflow.DropNewestOverflowPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ProducerBatcher单元测试类
+ */
+public class ProducerBatcherTest {
+    
+    private RingEventQueue eventQueue;
+    private ProducerBatcher batcher;
+    private final int BATCH_SIZE = 8;
+    
+    @BeforeEach
+    public void setUp() {
+        // 容量足够容纳并发测试的全部事件，避免消费者较慢时丢弃
+        eventQueue = new RingEventQueue(8192);
+        batcher = new ProducerBatcher(eventQueue, null, BATCH_SIZE, 2000);
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        batcher.shutdown();
+    }
+    
+    @Test
+    public void testPublishWhenBatchFull() {
+        for (int i = 0; i < BATCH_SIZE - 1; i++) {
+            assertTrue(batcher.submit(new LogEventDTO("INFO", "测试消息" + i)));
+        }
+        // 未攒满一批时事件留在缓冲区
+        assertEquals(0, eventQueue.size());
+        assertEquals(BATCH_SIZE - 1, batcher.getBufferedCount());
+        
+        assertTrue(batcher.submit(new LogEventDTO("INFO", "测试消息" + (BATCH_SIZE - 1))));
+        assertEquals(BATCH_SIZE, eventQueue.size());
+        assertEquals(1, batcher.getPublishedBatchCount());
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            assertEquals("测试消息" + i, eventQueue.poll().getMessage());
+        }
+    }
+    
+    @Test
+    public void testSequenceAssignedAtPublish() {
+        EventSequencer sequencer = new EventSequencer();
+        batcher.setEventSequencer(sequencer);
+        LogEventDTO buffered = new LogEventDTO("INFO", "测试消息0");
+        batcher.submit(buffered);
+        assertEquals(-1L, buffered.getSequence(), "缓冲中的事件还未分配序号");
+        
+        for (int i = 1; i < BATCH_SIZE * 2; i++) {
+            batcher.submit(new LogEventDTO("INFO", "测试消息" + i));
+        }
+        assertEquals(BATCH_SIZE * 2, sequencer.getNextSequence());
+        for (int i = 0; i < BATCH_SIZE * 2; i++) {
+            assertEquals(i, eventQueue.poll().getSequence(), "整批事件应按发布顺序分配连续序号");
+        }
+    }
+    
+    @Test
+    public void testRejectedEventsReportSequence() {
+        batcher.shutdown();
+        eventQueue = new RingEventQueue(4);
+        batcher = new ProducerBatcher(eventQueue, null, BATCH_SIZE, 2000);
+        EventSequencer sequencer = new EventSequencer();
+        List<Long> skipped = new ArrayList<>();
+        sequencer.setSkipListener(skipped::add);
+        batcher.setEventSequencer(sequencer);
+        
+        // 队列只能接收半批，其余事件被丢弃，序号报告给写出端
+        for (int i = 0; i < BATCH_SIZE - 1; i++) {
+            assertTrue(batcher.submit(new LogEventDTO("INFO", "测试消息" + i)));
+        }
+        assertFalse(batcher.submit(new LogEventDTO("INFO", "测试消息" + (BATCH_SIZE - 1))));
+        assertEquals(4, eventQueue.size());
+        assertEquals(Arrays.asList(4L, 5L, 6L, 7L), skipped);
+    }
+    
+    @Test
+    public void testSweeperPublishesIdleBuffer() throws InterruptedException {
+        batcher.start();
+        batcher.submit(new LogEventDTO("INFO", "测试消息"));
+        
+        LogEvent event = eventQueue.poll(1000);
+        assertNotNull(event);
+        assertEquals("测试消息", event.getMessage());
+    }
+    
+    @Test
+    public void testFlushAndShutdownPublishRemaining() throws InterruptedException {
+        batcher.submit(new LogEventDTO("INFO", "测试消息0"));
+        batcher.flush();
+        assertEquals(1, eventQueue.size());
+        
+        Thread producer = new Thread(() -> batcher.submit(new LogEventDTO("INFO", "测试消息1")));
+        producer.start();
+        producer.join();
+        
+        batcher.start();
+        batcher.shutdown();
+        assertEquals(2, eventQueue.size());
+    }
+    
+    @Test
+    public void testRejectedEventsGoToOverflowPolicy() {
+        DropNewestOverflowPolicy policy = new DropNewestOverflowPolicy();
+        ProducerBatcher small = new ProducerBatcher(new RingEventQueue(4), policy, BATCH_SIZE, 2000);
+        boolean lastResult = true;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            lastResult = small.submit(new LogEventDTO("INFO", "测试消息" + i));
+        }
+        
+        assertFalse(lastResult);
+        assertEquals(4, small.getPublishedEventCount());
+        assertEquals(4, small.getRejectedEventCount());
+        assertEquals(4, policy.getDiscardedCount());
+    }
+    
+    @Test
+    public void testRingOfferAllClaimsContiguousRange() throws InterruptedException {
+        RingEventQueue ring = new RingEventQueue(8);
+        ring.offer(new LogEventDTO("INFO", "已有消息"));
+        
+        List<LogEvent> batch = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            batch.add(new LogEventDTO("INFO", "测试消息" + i));
+        }
+        // 只剩7个空位
+        assertEquals(7, ring.offerAll(batch));
+        assertTrue(ring.isFull());
+        assertEquals(0, ring.offerAll(Arrays.asList(new LogEventDTO("INFO", "溢出消息"))));
+        
+        assertEquals("已有消息", ring.poll().getMessage());
+        for (int i = 0; i < 7; i++) {
+            assertEquals("测试消息" + i, ring.poll().getMessage());
+        }
+    }
+    
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        batcher.start();
+        int producers = 4;
+        int perProducer = 1000;
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    batcher.submit(new LogEventDTO("INFO", "测试消息" + i));
+                }
+                done.countDown();
+            }).start();
+        }
+        
+        int consumed = 0;
+        while (consumed < producers * perProducer) {
+            LogEvent event = eventQueue.poll(1000);
+            assertNotNull(event, "已消费" + consumed + "个事件后超时");
+            consumed++;
+        }
+        done.await();
+        assertEquals(producers * perProducer, batcher.getPublishedEventCount());
+    }
+}
@@ -0,0 +1,127 @@
+package com.asyncflow.log.queue;
+
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.LogEventDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RingEventQueue单元测试类
+ */
+public class RingEventQueueTest {
+    
+    private EventQueue eventQueue;
+    private final int CAPACITY = 16;
+    
+    @BeforeEach
+    public void setUp() {
+        eventQueue = new RingEventQueue(CAPACITY);
+    }
+    
+    @Test
+    public void testCapacityRoundedToPowerOfTwo() {
+        assertEquals(16, new RingEventQueue(10).capacity());
+        assertEquals(16, new RingEventQueue(16).capacity());
+        assertEquals(1024, new RingEventQueue(1000).capacity());
+    }
+    
+    @Test
+    public void testOfferAndPoll() throws InterruptedException {
+        LogEvent event = new LogEventDTO("INFO", "测试消息");
+        
+        assertTrue(eventQueue.offer(event));
+        assertFalse(eventQueue.offer(null));
+        assertEquals(1, eventQueue.size());
+        
+        LogEvent result = eventQueue.poll();
+        assertSame(event, result);
+        assertNull(eventQueue.poll());
+        assertTrue(eventQueue.isEmpty());
+    }
+    
+    @Test
+    public void testFullQueueRejectsOffer() throws InterruptedException {
+        for (int i = 0; i < CAPACITY; i++) {
+            assertTrue(eventQueue.offer(new LogEventDTO("INFO", "测试消息" + i)));
+        }
+        
+        assertTrue(eventQueue.isFull());
+        assertEquals(1.0, eventQueue.getUsage(), 0.01);
+        assertFalse(eventQueue.offer(new LogEventDTO("INFO", "溢出消息")));
+        assertFalse(eventQueue.offer(new LogEventDTO("INFO", "溢出消息"), 10));
+        
+        // 出队后可以继续写入，且保持FIFO顺序
+        assertEquals("测试消息0", eventQueue.poll().getMessage());
+        assertTrue(eventQueue.offer(new LogEventDTO("INFO", "新消息")));
+        
+        eventQueue.clear();
+        assertTrue(eventQueue.isEmpty());
+        assertEquals(0.0, eventQueue.getUsage(), 0.01);
+    }
+    
+    @Test
+    public void testTimedPollReturnsNullWhenEmpty() throws InterruptedException {
+        assertNull(eventQueue.poll(20));
+    }
+    
+    @Test
+    public void testTakeBlocksUntilEventPublished() throws InterruptedException {
+        LogEvent event = new LogEventDTO("INFO", "延迟消息");
+        Thread producer = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+                eventQueue.put(event);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        
+        assertSame(event, eventQueue.take());
+        producer.join();
+    }
+    
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 5000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        
+        for (int p = 0; p < producers; p++) {
+            int producerId = p;
+            executor.submit(() -> {
+                try {
+                    for (int i = 0; i < perProducer; i++) {
+                        eventQueue.put(new LogEventDTO("INFO", producerId + "-" + i));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        
+        // 单消费者持续出队，验证没有丢失或重复
+        Set<String> received = new HashSet<>();
+        while (received.size() < producers * perProducer) {
+            LogEvent event = eventQueue.poll(1000);
+            assertNotNull(event, "等待事件超时");
+            assertTrue(received.add(event.getMessage()));
+        }
+        
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(eventQueue.isEmpty());
+    }
+}
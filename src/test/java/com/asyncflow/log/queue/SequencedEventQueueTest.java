@@ -0,0 +1,86 @@
+package com.asyncflow.log.queue;
+
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.LogEventDTO;
+import com.asyncflow.log.queue.wait.BlockingWaitStrategy;
+import com.asyncflow.log.queue.wait.BusySpinWaitStrategy;
+import com.asyncflow.log.queue.wait.SleepingWaitStrategy;
+import com.asyncflow.log.queue.wait.WaitStrategy;
+import com.asyncflow.log.queue.wait.YieldingWaitStrategy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SequencedEventQueue单元测试类
+ */
+public class SequencedEventQueueTest {
+    
+    static Stream<Arguments> waitStrategies() {
+        return Stream.of(
+                Arguments.of(new BusySpinWaitStrategy()),
+                Arguments.of(new YieldingWaitStrategy()),
+                Arguments.of(new SleepingWaitStrategy()),
+                Arguments.of(new BlockingWaitStrategy())
+        );
+    }
+    
+    @ParameterizedTest
+    @MethodSource("waitStrategies")
+    public void testTakeWakesUpAndRecordsLatency(WaitStrategy waitStrategy) throws InterruptedException {
+        SequencedEventQueue queue = new SequencedEventQueue(16, waitStrategy);
+        LogEvent event = new LogEventDTO("INFO", "延迟消息");
+        
+        Thread producer = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+                queue.put(event);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        
+        assertSame(event, queue.take());
+        producer.join();
+        
+        assertEquals(1, waitStrategy.getWakeupCount());
+        assertTrue(waitStrategy.getMaxWakeupLatencyNanos() >= 0);
+        assertSame(waitStrategy, queue.getWaitStrategy());
+    }
+    
+    @ParameterizedTest
+    @MethodSource("waitStrategies")
+    public void testTimedPollReturnsNullWhenEmpty(WaitStrategy waitStrategy) throws InterruptedException {
+        SequencedEventQueue queue = new SequencedEventQueue(16, waitStrategy);
+        
+        assertNull(queue.poll(20));
+        assertEquals(0, waitStrategy.getWakeupCount());
+    }
+    
+    @Test
+    public void testNoWakeupRecordedWhenEventAlreadyAvailable() throws InterruptedException {
+        WaitStrategy waitStrategy = new BlockingWaitStrategy();
+        SequencedEventQueue queue = new SequencedEventQueue(16, waitStrategy);
+        
+        queue.offer(new LogEventDTO("INFO", "消息"));
+        assertNotNull(queue.take());
+        assertEquals(0, waitStrategy.getWakeupCount());
+    }
+    
+    @Test
+    public void testFactoryCreatesConfiguredStrategy() {
+        QueueFactory factory = new QueueFactory();
+        
+        assertEquals("busy-spin", factory.createWaitStrategy("busy-spin").getName());
+        assertEquals("yield", factory.createWaitStrategy("yield").getName());
+        assertEquals("sleep", factory.createWaitStrategy("sleep").getName());
+        assertEquals("blocking", factory.createWaitStrategy("blocking").getName());
+        assertEquals("blocking", factory.createWaitStrategy("unknown").getName());
+    }
+}
@@ -0,0 +1,212 @@
+package com.asyncflow.log.queue;
+
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.LogEventDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SpillEventQueue单元测试类
+ */
+public class SpillEventQueueTest {
+    
+    private SpillEventQueue eventQueue;
+    private final int CAPACITY = 4;
+    private final int SEGMENT_BYTES = 512;
+    
+    @TempDir
+    Path spillDir;
+    
+    @BeforeEach
+    public void setUp() {
+        eventQueue = new SpillEventQueue(new LinkedEventQueue(CAPACITY), spillDir, SEGMENT_BYTES, 1024 * 1024);
+    }
+    
+    @Test
+    public void testSpillWhenMemoryQueueFull() throws InterruptedException {
+        for (int i = 0; i < CAPACITY; i++) {
+            assertTrue(eventQueue.offer(new LogEventDTO("INFO", "测试消息" + i)));
+        }
+        assertFalse(eventQueue.isSpilling());
+        
+        // 内存队列已满，继续写入应溢出到磁盘而不是丢弃
+        assertTrue(eventQueue.offer(new LogEventDTO("INFO", "测试消息" + CAPACITY)));
+        assertTrue(eventQueue.isSpilling());
+        assertEquals(1, eventQueue.getBacklogEvents());
+        assertTrue(eventQueue.getSpilledBytes() > 0);
+        assertEquals(CAPACITY + 1, eventQueue.size());
+        assertEquals(1, countSegmentFiles());
+    }
+    
+    @Test
+    public void testReplayKeepsOrder() throws InterruptedException {
+        int total = 50;
+        for (int i = 0; i < total; i++) {
+            assertTrue(eventQueue.offer(new LogEventDTO("INFO", "测试消息" + i)));
+        }
+        // 段文件很小，应滚动出多个段
+        assertTrue(eventQueue.getSegmentCount() > 1);
+        
+        for (int i = 0; i < total; i++) {
+            LogEvent event = eventQueue.poll();
+            assertNotNull(event);
+            assertEquals("测试消息" + i, event.getMessage());
+        }
+        assertNull(eventQueue.poll());
+        assertTrue(eventQueue.isEmpty());
+        assertFalse(eventQueue.isSpilling());
+        assertEquals(total - CAPACITY, eventQueue.getReplayedCount());
+        assertEquals(0, eventQueue.getBacklogBytes());
+        // 回放完成后段文件被删除
+        assertEquals(0, countSegmentFiles());
+    }
+    
+    @Test
+    public void testNewEventsFollowSpillUntilDrained() throws InterruptedException {
+        for (int i = 0; i < CAPACITY + 2; i++) {
+            eventQueue.offer(new LogEventDTO("INFO", "测试消息" + i));
+        }
+        // 内存队列腾出空位后，新事件仍应排在溢出事件之后
+        assertEquals("测试消息0", eventQueue.poll().getMessage());
+        eventQueue.offer(new LogEventDTO("INFO", "测试消息" + (CAPACITY + 2)));
+        
+        List<LogEvent> batch = new ArrayList<>();
+        assertEquals(CAPACITY + 2, eventQueue.drainTo(batch, 100));
+        for (int i = 0; i < batch.size(); i++) {
+            assertEquals("测试消息" + (i + 1), batch.get(i).getMessage());
+        }
+    }
+    
+    @Test
+    public void testRecoverSegmentsAfterRestart() throws InterruptedException {
+        for (int i = 0; i < CAPACITY + 3; i++) {
+            eventQueue.offer(new LogEventDTO("WARN", "测试消息" + i));
+        }
+        
+        // 模拟重启：内存队列中的事件丢失，段文件中的事件可以恢复
+        SpillEventQueue restarted = new SpillEventQueue(new LinkedEventQueue(CAPACITY), spillDir, SEGMENT_BYTES, 1024 * 1024);
+        assertEquals(3, restarted.getBacklogEvents());
+        assertTrue(restarted.isSpilling());
+        for (int i = CAPACITY; i < CAPACITY + 3; i++) {
+            LogEvent event = restarted.poll(100);
+            assertEquals("测试消息" + i, event.getMessage());
+            assertEquals("WARN", event.getLevel());
+        }
+        assertNull(restarted.poll());
+    }
+    
+    @Test
+    public void testRecoverSkipsUnsupportedVersionRecord() throws Exception {
+        for (int i = 0; i < CAPACITY + 3; i++) {
+            eventQueue.offer(new LogEventDTO("WARN", "测试消息" + i));
+        }
+        // 把第二条溢出记录改为旧版本编码
+        Path segment = singleSegmentFile();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_BYTES);
+            int second = Integer.BYTES + buffer.getInt(0);
+            buffer.put(second + Integer.BYTES, (byte) 4);
+            buffer.force();
+        }
+        
+        SpillEventQueue restarted = new SpillEventQueue(new LinkedEventQueue(CAPACITY), spillDir, SEGMENT_BYTES, 1024 * 1024);
+        assertEquals(2, restarted.getBacklogEvents(), "版本不兼容的记录不应计入积压");
+        assertEquals(1, restarted.getCorruptCount());
+        assertEquals("测试消息" + CAPACITY, restarted.poll(100).getMessage());
+        assertEquals("测试消息" + (CAPACITY + 2), restarted.poll(100).getMessage());
+        assertNull(restarted.poll());
+        assertFalse(restarted.isSpilling(), "回放完成后应恢复使用内存队列");
+        assertEquals(0, restarted.getBacklogBytes());
+    }
+    
+    @Test
+    public void testCorruptRecordDoesNotBlockReplay() throws Exception {
+        for (int i = 0; i < CAPACITY + 3; i++) {
+            eventQueue.offer(new LogEventDTO("WARN", "测试消息" + i));
+        }
+        // 版本正确但内容损坏：第一条溢出记录的级别字符串长度超出记录范围
+        Path segment = singleSegmentFile();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_BYTES);
+            buffer.putInt(Integer.BYTES + 1 + Long.BYTES * 3, 100_000);
+            buffer.force();
+        }
+        
+        SpillEventQueue restarted = new SpillEventQueue(new LinkedEventQueue(CAPACITY), spillDir, SEGMENT_BYTES, 1024 * 1024);
+        assertEquals(3, restarted.getBacklogEvents());
+        List<LogEvent> drained = new ArrayList<>();
+        assertEquals(2, restarted.drainTo(drained, 10), "损坏的记录应被跳过，后续记录继续回放");
+        assertEquals("测试消息" + (CAPACITY + 1), drained.get(0).getMessage());
+        assertEquals("测试消息" + (CAPACITY + 2), drained.get(1).getMessage());
+        assertEquals(1, restarted.getCorruptCount());
+        assertEquals(0, restarted.getBacklogEvents());
+        assertFalse(restarted.isSpilling());
+    }
+    
+    @Test
+    public void testQuarantineSegmentWithoutDecodableRecords() throws Exception {
+        for (int i = 0; i < CAPACITY + 1; i++) {
+            eventQueue.offer(new LogEventDTO("WARN", "测试消息" + i));
+        }
+        Path segment = singleSegmentFile();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_BYTES);
+            buffer.put(Integer.BYTES, (byte) 4);
+            buffer.force();
+        }
+        
+        SpillEventQueue restarted = new SpillEventQueue(new LinkedEventQueue(CAPACITY), spillDir, SEGMENT_BYTES, 1024 * 1024);
+        assertEquals(0, restarted.getBacklogEvents());
+        assertFalse(restarted.isSpilling());
+        assertEquals(0, restarted.getSegmentCount());
+        assertTrue(Files.exists(segment.resolveSibling(segment.getFileName() + ".corrupt")), "无法解码的段应改名隔离");
+        assertFalse(Files.exists(segment));
+    }
+    
+    @Test
+    public void testRejectWhenBacklogLimitReached() throws InterruptedException {
+        SpillEventQueue limited = new SpillEventQueue(new LinkedEventQueue(CAPACITY), spillDir, SEGMENT_BYTES, 1);
+        for (int i = 0; i < CAPACITY; i++) {
+            assertTrue(limited.offer(new LogEventDTO("INFO", "测试消息" + i)));
+        }
+        assertTrue(limited.offer(new LogEventDTO("INFO", "溢出消息")));
+        assertFalse(limited.offer(new LogEventDTO("INFO", "超限消息")));
+        assertTrue(limited.isFull());
+        
+        // 拒绝的事件只计数，不渲染消息
+        LogEvent rejected = Mockito.mock(LogEvent.class);
+        assertFalse(limited.offer(rejected));
+        Mockito.verify(rejected, Mockito.never()).getMessage();
+        assertEquals(2, limited.getRejectedCount());
+    }
+    
+    private Path singleSegmentFile() throws Exception {
+        try (Stream<Path> files = Files.list(spillDir)) {
+            List<Path> segments = files.collect(Collectors.toList());
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+    
+    private long countSegmentFiles() {
+        try (Stream<Path> files = Files.list(spillDir)) {
+            return files.count();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.asyncflow.log.queue;
+
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.LogEventDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StripedEventQueue单元测试类
+ */
+public class StripedEventQueueTest {
+    
+    private StripedEventQueue eventQueue;
+    
+    @BeforeEach
+    public void setUp() {
+        // 4个分片，每个分片容量为4
+        eventQueue = new StripedEventQueue(16, 4);
+    }
+    
+    @Test
+    public void testCapacityAggregatesStripes() {
+        assertEquals(4, eventQueue.getStripeCount());
+        assertEquals(16, eventQueue.capacity());
+    }
+    
+    @Test
+    public void testSingleProducerOverflowsToOtherStripes() throws InterruptedException {
+        // 单个线程写满所有分片，写满自己的分片后应迁移到其他分片
+        for (int i = 0; i < 16; i++) {
+            assertTrue(eventQueue.offer(new LogEventDTO("INFO", "测试消息" + i)));
+        }
+        
+        assertEquals(16, eventQueue.size());
+        assertTrue(eventQueue.isFull());
+        assertEquals(1.0, eventQueue.getUsage(), 0.01);
+        assertFalse(eventQueue.offer(new LogEventDTO("INFO", "溢出消息")));
+        for (int i = 0; i < eventQueue.getStripeCount(); i++) {
+            assertEquals(4, eventQueue.getStripeSize(i));
+        }
+        
+        List<LogEvent> events = new ArrayList<>();
+        assertEquals(16, eventQueue.drainTo(events, 100));
+        assertTrue(eventQueue.isEmpty());
+        assertEquals(0.0, eventQueue.getUsage(), 0.01);
+    }
+    
+    @Test
+    public void testTakeWaitsAcrossStripes() throws InterruptedException {
+        LogEvent event = new LogEventDTO("INFO", "延迟消息");
+        Thread producer = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+                eventQueue.put(event);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        
+        assertSame(event, eventQueue.take());
+        assertNull(eventQueue.poll(20));
+        producer.join();
+    }
+    
+    @Test
+    public void testConcurrentProducersKeepPerProducerOrder() throws InterruptedException {
+        StripedEventQueue queue = new StripedEventQueue(4096, 4);
+        int producers = 4;
+        int perProducer = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        
+        for (int p = 0; p < producers; p++) {
+            int producerId = p;
+            executor.submit(() -> {
+                try {
+                    for (int i = 0; i < perProducer; i++) {
+                        queue.put(new LogEventDTO("INFO", producerId + "-" + i));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        
+        // 队列容量充足时生产者不会迁移分片，同一生产者的事件保持顺序
+        int[] lastSeen = new int[producers];
+        Arrays.fill(lastSeen, -1);
+        Set<String> received = new HashSet<>();
+        LogEvent event;
+        while ((event = queue.poll()) != null) {
+            String[] parts = event.getMessage().split("-");
+            int producerId = Integer.parseInt(parts[0]);
+            int seq = Integer.parseInt(parts[1]);
+            assertTrue(seq > lastSeen[producerId]);
+            lastSeen[producerId] = seq;
+            assertTrue(received.add(event.getMessage()));
+        }
+        assertEquals(producers * perProducer, received.size());
+    }
+}
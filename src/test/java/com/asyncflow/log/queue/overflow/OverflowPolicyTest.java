@@ -0,0 +1,303 @@
+package com.asyncflow.log.queue.overflow;
+
+import com.asyncflow.log.appender.FileAppender;
+import com.asyncflow.log.appender.LogEventHandler;
+import com.asyncflow.log.appender.PipelinedEventHandler;
+import com.asyncflow.log.appender.ShardedFileAppender;
+import com.asyncflow.log.model.event.LogEvent;
+import com.asyncflow.log.model.event.LogEventDTO;
+import com.asyncflow.log.queue.EventQueue;
+import com.asyncflow.log.queue.EventSequencer;
+import com.asyncflow.log.queue.LinkedEventQueue;
+import com.asyncflow.log.queue.PriorityLaneEventQueue;
+import com.asyncflow.log.queue.StripedEventQueue;
+import com.asyncflow.log.util.MemoryEventHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 队列溢出策略单元测试类
+ */
+public class OverflowPolicyTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private EventQueue eventQueue;
+    private AtomicInteger discardNotified;
+    private final int CAPACITY = 2;
+    
+    @BeforeEach
+    public void setUp() throws InterruptedException {
+        eventQueue = new LinkedEventQueue(CAPACITY);
+        for (int i = 0; i < CAPACITY; i++) {
+            eventQueue.offer(new LogEventDTO("INFO", "测试消息" + i));
+        }
+        discardNotified = new AtomicInteger();
+    }
+    
+    @Test
+    public void testDropNewest() throws InterruptedException {
+        AbstractOverflowPolicy policy = withListener(new DropNewestOverflowPolicy());
+        
+        assertFalse(policy.onOverflow(new LogEventDTO("INFO", "溢出消息"), eventQueue));
+        assertEquals(1, policy.getOverflowCount());
+        assertEquals(1, policy.getDiscardedCount());
+        assertEquals(1, discardNotified.get());
+        assertEquals("测试消息0", eventQueue.poll().getMessage());
+    }
+    
+    @Test
+    public void testDiscardReportsSequence() throws InterruptedException {
+        EventSequencer sequencer = new EventSequencer();
+        List<Long> skipped = new ArrayList<>();
+        sequencer.setSkipListener(skipped::add);
+        DropOldestOverflowPolicy policy = new DropOldestOverflowPolicy();
+        policy.setEventSequencer(sequencer);
+        
+        // 被挤出的最旧事件和未分配序号的事件：只报告已分配的序号
+        eventQueue.clear();
+        LogEventDTO oldest = new LogEventDTO("INFO", "最旧消息");
+        sequencer.stamp(oldest);
+        eventQueue.offer(oldest);
+        eventQueue.offer(new LogEventDTO("INFO", "未分配序号"));
+        LogEventDTO overflow = new LogEventDTO("INFO", "溢出消息");
+        sequencer.stamp(overflow);
+        assertTrue(policy.onOverflow(overflow, eventQueue));
+        assertEquals(List.of(0L), skipped, "被挤出事件的序号应报告给写出端");
+        
+        AbstractOverflowPolicy dropNewest = new DropNewestOverflowPolicy();
+        dropNewest.setEventSequencer(sequencer);
+        LogEventDTO dropped = new LogEventDTO("INFO", "丢弃消息");
+        sequencer.stamp(dropped);
+        assertFalse(dropNewest.onOverflow(dropped, eventQueue));
+        assertEquals(List.of(0L, 2L), skipped);
+        assertEquals(2, sequencer.getSkippedCount());
+    }
+    
+    @Test
+    public void testDropOldest() throws InterruptedException {
+        DropOldestOverflowPolicy policy = new DropOldestOverflowPolicy();
+        withListener(policy);
+        
+        assertTrue(policy.onOverflow(new LogEventDTO("INFO", "溢出消息"), eventQueue));
+        assertEquals(1, policy.getEvictedCount());
+        assertEquals(1, policy.getDiscardedCount());
+        assertEquals(1, discardNotified.get());
+        assertEquals("测试消息1", eventQueue.poll().getMessage());
+        assertEquals("溢出消息", eventQueue.poll().getMessage());
+    }
+    
+    @Test
+    public void testDropOldestEvictsFromOwnLane() throws InterruptedException {
+        PriorityLaneEventQueue laneQueue = new PriorityLaneEventQueue(2);
+        assertTrue(laneQueue.offer(new LogEventDTO("ERROR", "错误消息")));
+        int debugCount = 0;
+        while (laneQueue.offer(new LogEventDTO("DEBUG", "调试消息" + debugCount))) {
+            debugCount++;
+        }
+        DropOldestOverflowPolicy policy = new DropOldestOverflowPolicy();
+        
+        // DEBUG通道已满，只能挤掉DEBUG通道中最旧的事件，ERROR事件保留
+        LogEventDTO incoming = new LogEventDTO("DEBUG", "调试消息" + debugCount);
+        assertTrue(policy.onOverflow(incoming, laneQueue));
+        assertEquals(1, policy.getEvictedCount());
+        assertEquals("错误消息", laneQueue.poll().getMessage());
+        for (int i = 1; i <= debugCount; i++) {
+            assertEquals("调试消息" + i, laneQueue.poll().getMessage());
+        }
+        assertNull(laneQueue.poll());
+    }
+    
+    @Test
+    public void testDropOldestEvictsFromOwnStripe() throws InterruptedException {
+        StripedEventQueue stripedQueue = new StripedEventQueue(4, 2);
+        int stripeCapacity = stripedQueue.capacity() / 2;
+        // 先由另一个线程写满它的分片，再由当前线程写满自己的分片
+        Thread other = new Thread(() -> {
+            try {
+                for (int i = 0; i < stripeCapacity; i++) {
+                    stripedQueue.offer(new LogEventDTO("INFO", "其他分片" + i));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        other.start();
+        other.join();
+        int ownCount = 0;
+        while (stripedQueue.offer(new LogEventDTO("INFO", "本分片" + ownCount))) {
+            ownCount++;
+        }
+        assertEquals(stripeCapacity, ownCount);
+        DropOldestOverflowPolicy policy = new DropOldestOverflowPolicy();
+        
+        assertTrue(policy.onOverflow(new LogEventDTO("INFO", "本分片" + ownCount), stripedQueue));
+        List<String> messages = new ArrayList<>();
+        for (LogEvent event; (event = stripedQueue.poll()) != null; ) {
+            messages.add(event.getMessage());
+        }
+        assertEquals(stripeCapacity * 2, messages.size());
+        for (int i = 0; i < stripeCapacity; i++) {
+            assertTrue(messages.contains("其他分片" + i), "不应挤掉其他分片的事件: " + messages);
+        }
+        assertFalse(messages.contains("本分片0"), "应挤掉本分片最旧的事件");
+        assertTrue(messages.contains("本分片" + ownCount));
+    }
+    
+    @Test
+    public void testBlockingTimeout() throws InterruptedException {
+        BlockingTimeoutOverflowPolicy policy = new BlockingTimeoutOverflowPolicy(20);
+        withListener(policy);
+        
+        // 没有消费者腾出空位，等待超时后丢弃
+        assertFalse(policy.onOverflow(new LogEventDTO("INFO", "溢出消息"), eventQueue));
+        assertEquals(1, policy.getTimeoutCount());
+        assertTrue(policy.getBlockedNanos() >= 10_000_000L);
+        
+        // 等待期间有空位则写入
+        Thread consumer = new Thread(() -> {
+            try {
+                Thread.sleep(5);
+                eventQueue.poll();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+        BlockingTimeoutOverflowPolicy longer = new BlockingTimeoutOverflowPolicy(1000);
+        assertTrue(longer.onOverflow(new LogEventDTO("INFO", "溢出消息"), eventQueue));
+        consumer.join();
+        assertEquals(0, longer.getTimeoutCount());
+    }
+    
+    @Test
+    public void testCallerRuns() throws InterruptedException {
+        MemoryEventHandler handler = new MemoryEventHandler();
+        CallerRunsOverflowPolicy policy = new CallerRunsOverflowPolicy(handler);
+        withListener(policy);
+        
+        assertTrue(policy.onOverflow(new LogEventDTO("INFO", "溢出消息"), eventQueue));
+        assertEquals(1, policy.getCallerRunsCount());
+        assertEquals(0, policy.getDiscardedCount());
+        assertEquals("溢出消息", handler.getEvents().get(0).getMessage());
+        assertEquals(CAPACITY, eventQueue.size());
+    }
+    
+    @Test
+    public void testCallerRunsWithShardedAppenderUsesSharedShard() throws Exception {
+        ShardedFileAppender appender = new ShardedFileAppender("TestShardedAppender", tempDir.toString(), "caller-runs-%s.log", 2);
+        LogEventHandler handler = new LogEventHandler(appender);
+        handler.initialize();
+        CallerRunsOverflowPolicy policy = new CallerRunsOverflowPolicy(handler);
+        
+        // 消费线程认领一个分片并保持存活，生产者线程同步写出时不能占用或写入该分片
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread consumer = new Thread(() -> {
+            handler.onConsumerStart();
+            handler.handle(new LogEventDTO("INFO", "消费线程写入"));
+            claimed.countDown();
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            handler.onConsumerStop();
+        });
+        consumer.start();
+        assertTrue(claimed.await(5, TimeUnit.SECONDS));
+        
+        assertTrue(policy.onOverflow(new LogEventDTO("INFO", "溢出消息"), eventQueue));
+        done.countDown();
+        consumer.join();
+        handler.close();
+        
+        assertEquals(1, policy.getCallerRunsCount());
+        assertEquals(1, appender.getSharedWriteCount(), "生产者线程只能写入共享分片");
+        List<String> parts = Files.readAllLines(appender.getManifestFile(LocalDate.now()));
+        assertEquals(2, parts.size(), "应包含消费线程的独占分片和共享分片");
+        for (String part : parts) {
+            assertEquals(1, Files.readAllLines(tempDir.resolve(part)).size());
+        }
+    }
+    
+    @Test
+    public void testCallerRunsWithOrderedHandlerKeepsSequence() throws Exception {
+        FileAppender appender = new FileAppender("TestAppender", tempDir.toString(), "caller-runs-%s.log");
+        PipelinedEventHandler handler = new PipelinedEventHandler(appender, 4, 1024);
+        handler.setOrdering(10_000, 1000);
+        handler.initialize();
+        EventSequencer sequencer = new EventSequencer();
+        sequencer.setSkipListener(handler::skipSequence);
+        CallerRunsOverflowPolicy policy = new CallerRunsOverflowPolicy(handler);
+        policy.setEventSequencer(sequencer);
+        
+        // 队列中的事件先分配序号，生产者线程同步写出的较新事件经重排序缓冲区等待它
+        LogEventDTO queued = new LogEventDTO("INFO", "队列中的消息");
+        sequencer.stamp(queued);
+        LogEventDTO overflow = new LogEventDTO("INFO", "溢出消息");
+        sequencer.stamp(overflow);
+        assertTrue(policy.onOverflow(overflow, eventQueue));
+        Thread.sleep(100);
+        assertEquals(0, handler.getWrittenCount(), "更早的序号未写出前，同步写出的事件不应落盘");
+        
+        assertTrue(handler.handle(queued));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (handler.getWrittenCount() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        handler.close();
+        appender.close();
+        
+        assertEquals(0, handler.getSkippedSequenceCount());
+        String dateStr = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        List<String> lines = Files.readAllLines(tempDir.resolve(String.format("caller-runs-%s.log", dateStr)));
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).endsWith("队列中的消息"), "写出顺序应与入队序号一致: " + lines.get(0));
+        assertTrue(lines.get(1).endsWith("溢出消息"), "写出顺序应与入队序号一致: " + lines.get(1));
+    }
+    
+    @Test
+    public void testSampling() throws InterruptedException {
+        SamplingOverflowPolicy dropAll = new SamplingOverflowPolicy(0.0, 1);
+        withListener(dropAll);
+        
+        assertFalse(dropAll.onOverflow(new LogEventDTO("INFO", "溢出消息"), eventQueue));
+        assertEquals(1L, dropAll.getCounters().get("rejected"));
+        assertEquals(1, discardNotified.get());
+        
+        // ERROR事件始终保留，队列有空位时写入
+        eventQueue.poll();
+        assertTrue(dropAll.onOverflow(new LogEventDTO("ERROR", "错误消息"), eventQueue));
+        assertEquals(1L, dropAll.getCounters().get("sampled"));
+        
+        assertThrows(IllegalArgumentException.class, () -> new SamplingOverflowPolicy(1.5, 1));
+    }
+    
+    @Test
+    public void testCountersContainCommonKeys() {
+        DropOldestOverflowPolicy policy = new DropOldestOverflowPolicy();
+        assertTrue(policy.getCounters().containsKey("overflow"));
+        assertTrue(policy.getCounters().containsKey("discarded"));
+        assertTrue(policy.getCounters().containsKey("evicted"));
+    }
+    
+    private <T extends AbstractOverflowPolicy> T withListener(T policy) {
+        policy.setDiscardListener(discardNotified::incrementAndGet);
+        return policy;
+    }
+}
@@ -2,16 +2,21 @@ package com.asyncflow.log.service;
 
 import com.asyncflow.log.consumer.ConsumerPool;
 import com.asyncflow.log.consumer.EventHandler;
+import com.asyncflow.log.enums.LogLevel;
+import com.asyncflow.log.filter.LevelFilter;
+import com.asyncflow.log.location.CallerLocator;
 import com.asyncflow.log.model.event.LogEvent;
 import com.asyncflow.log.model.event.LogEventDTO;
 import com.asyncflow.log.model.event.LogEventFactory;
 import com.asyncflow.log.queue.EventQueue;
+import com.asyncflow.log.queue.overflow.OverflowPolicy;
 import com.asyncflow.log.service.impl.AsyncLogServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -137,6 +142,18 @@ public class AsyncLogServiceTest {
         }
     }
     
+    @Test
+    public void testErrorWithThrowable() throws InterruptedException {
+        RuntimeException error = new RuntimeException("连接失败");
+        when(eventFactory.createLogEventWithThrowable("ERROR", "调用下游失败", error)).thenReturn(mockEventDTO);
+        
+        assertTrue(asyncLogService.error("调用下游失败", error));
+        // 异常对象原样交给事件，不在调用线程上转为字符串
+        verify(eventFactory).createLogEventWithThrowable("ERROR", "调用下游失败", error);
+        verify(eventFactory, never()).createLogEventWithException(anyString(), anyString(), anyString());
+        verify(eventQueue).offer(mockEventDTO);
+    }
+    
     @Test
     public void testConvenienceMethods() {
         // 测试便捷方法
@@ -153,6 +170,107 @@ public class AsyncLogServiceTest {
         verify(eventFactory).createLogEvent("DEBUG", "调试日志");
     }
     
+    @Test
+    public void testTemplateMethods() throws InterruptedException {
+        when(eventFactory.createTemplateLogEvent(eq("INFO"), isNull(), eq("用户{}登录, 耗时{}ms"), eq("alice"), eq(12)))
+                .thenReturn(mockEventDTO);
+        when(eventFactory.createTemplateLogEvent(eq("WARN"), anyMap(), eq("重试第{}次"), eq(3)))
+                .thenReturn(mockEventDTO);
+        
+        assertTrue(asyncLogService.infof("用户{}登录, 耗时{}ms", "alice", 12));
+        verify(eventFactory).createTemplateLogEvent(eq("INFO"), isNull(), eq("用户{}登录, 耗时{}ms"), eq("alice"), eq(12));
+        
+        Map<String, String> context = new HashMap<>();
+        context.put("module", "test");
+        assertTrue(asyncLogService.log("WARN", context, "重试第{}次", 3));
+        verify(eventFactory).createTemplateLogEvent(eq("WARN"), eq(context), eq("重试第{}次"), eq(3));
+        
+        // 模板方法不应在调用线程上拼接消息
+        verify(eventFactory, never()).createLogEvent(anyString(), anyString());
+        verify(eventQueue, times(2)).offer(mockEventDTO);
+    }
+    
+    @Test
+    public void testCategoryLevelAppliesToCaller() throws InterruptedException {
+        // 通用记录方法按调用方类名判断分类级别
+        Map<String, LogLevel> levels = new HashMap<>();
+        levels.put("com.asyncflow.log.service", LogLevel.DEBUG);
+        ReflectionTestUtils.setField(asyncLogService, "levelFilter", new LevelFilter(LogLevel.INFO, levels));
+        
+        assertTrue(asyncLogService.isEnabled("DEBUG"), "调用方所在分类开启了DEBUG");
+        assertTrue(asyncLogService.debug("调试消息"));
+        verify(eventQueue, times(1)).offer(mockEventDTO);
+        
+        levels.put("com.asyncflow.log.service", LogLevel.WARN);
+        ReflectionTestUtils.setField(asyncLogService, "levelFilter", new LevelFilter(LogLevel.INFO, levels));
+        assertFalse(asyncLogService.info("信息消息"), "调用方所在分类只输出WARN及以上");
+        assertTrue(asyncLogService.warn("警告消息"));
+        verify(eventQueue, times(2)).offer(mockEventDTO);
+    }
+    
+    @Test
+    public void testCategoryCallerLocatedOnce() throws InterruptedException {
+        CallerLocator locator = new CallerLocator();
+        ReflectionTestUtils.setField(asyncLogService, "callerLocator", locator);
+        Map<String, LogLevel> levels = new HashMap<>();
+        levels.put("com.asyncflow.log.service", LogLevel.DEBUG);
+        ReflectionTestUtils.setField(asyncLogService, "levelFilter", new LevelFilter(LogLevel.INFO, levels));
+        when(mockEventDTO.getLevel()).thenReturn("DEBUG");
+        
+        // 判断分类级别时定位的调用方直接用作事件位置，只遍历一次栈帧
+        assertTrue(asyncLogService.debug("调试消息"));
+        assertEquals(1, locator.getWalkCount(), "判断级别和附带位置应共用一次栈遍历");
+        verify(mockEventDTO).withLocation(eq(getClass().getName()), eq("testCategoryCallerLocatedOnce"));
+        
+        // 只按级别就能拒绝的日志不遍历栈帧
+        levels.put("com.asyncflow.log.service", LogLevel.WARN);
+        ReflectionTestUtils.setField(asyncLogService, "levelFilter", new LevelFilter(LogLevel.INFO, levels));
+        assertFalse(asyncLogService.debug("调试消息"));
+        assertEquals(1, locator.getWalkCount(), "所有分类都不输出的级别不应遍历栈帧");
+        verify(eventQueue, times(1)).offer(mockEventDTO);
+    }
+    
+    @Test
+    public void testTemplateMethodsWithSingleArgument() throws InterruptedException {
+        when(eventFactory.createTemplateLogEvent(anyString(), isNull(), anyString(), any())).thenReturn(mockEventDTO);
+        
+        // 只有一个String参数时，error(String, Object...)会匹配error(String, String)重载，参数被当作异常信息
+        assertTrue(asyncLogService.errorf("调用{}失败", "下游服务"));
+        verify(eventFactory).createTemplateLogEvent(eq("ERROR"), isNull(), eq("调用{}失败"), eq("下游服务"));
+        verify(eventFactory, never()).createLogEventWithException(anyString(), anyString(), anyString());
+        
+        // 只有一个Map参数时同理，不应匹配到带上下文的重载
+        Map<String, String> argument = new HashMap<>();
+        argument.put("orderId", "1001");
+        assertTrue(asyncLogService.infof("订单参数{}", argument));
+        verify(eventFactory).createTemplateLogEvent(eq("INFO"), isNull(), eq("订单参数{}"), eq(argument));
+        verify(eventFactory, never()).createLogEvent(anyString(), anyString(), anyMap());
+        
+        assertTrue(asyncLogService.warnf("重试{}", "失败"));
+        assertTrue(asyncLogService.debugf("缓存{}", "命中"));
+        verify(eventFactory).createTemplateLogEvent(eq("WARN"), isNull(), eq("重试{}"), eq("失败"));
+        verify(eventFactory).createTemplateLogEvent(eq("DEBUG"), isNull(), eq("缓存{}"), eq("命中"));
+        verify(eventQueue, times(4)).offer(mockEventDTO);
+    }
+    
+    @Test
+    public void testLevelFilterSkipsEventCreation() throws InterruptedException {
+        Map<String, LogLevel> levels = new HashMap<>();
+        levels.put("com.example.dao", LogLevel.DEBUG);
+        ReflectionTestUtils.setField(asyncLogService, "levelFilter", new LevelFilter(LogLevel.INFO, levels));
+        
+        assertFalse(asyncLogService.debug("调试消息"));
+        assertFalse(asyncLogService.isEnabled("DEBUG"));
+        verify(eventFactory, never()).createLogEvent(anyString(), anyString());
+        verify(eventQueue, never()).offer(any(LogEvent.class));
+        
+        when(eventFactory.createLogEventWithLocation(anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(mockEventDTO);
+        assertTrue(asyncLogService.log("DEBUG", "数据访问", "com.example.dao.UserDao", "find"));
+        assertTrue(asyncLogService.info("信息消息"));
+        verify(eventQueue, times(2)).offer(mockEventDTO);
+    }
+    
     @Test
     public void testQueueRejection() {
         // 模拟队列已满
@@ -169,6 +287,22 @@ public class AsyncLogServiceTest {
         assertFalse(result);
     }
     
+    @Test
+    public void testQueueRejectionUsesOverflowPolicy() throws InterruptedException {
+        // 模拟队列已满，由溢出策略接收事件
+        OverflowPolicy overflowPolicy = mock(OverflowPolicy.class);
+        ReflectionTestUtils.setField(asyncLogService, "overflowPolicy", overflowPolicy);
+        when(eventQueue.offer(any(LogEvent.class))).thenReturn(false);
+        when(overflowPolicy.onOverflow(mockEventDTO, eventQueue)).thenReturn(true);
+        
+        // 记录日志
+        boolean result = asyncLogService.info("测试队列已满");
+        
+        // 验证结果
+        assertTrue(result);
+        verify(overflowPolicy).onOverflow(mockEventDTO, eventQueue);
+    }
+    
     @Test
     public void testQueueInterruption() {
         // 模拟中断异常
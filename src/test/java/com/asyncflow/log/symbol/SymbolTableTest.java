@@ -0,0 +1,91 @@
+package com.asyncflow.log.symbol;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SymbolTable单元测试类
+ */
+public class SymbolTableTest {
+    
+    @Test
+    public void testInternReturnsSameSymbol() {
+        SymbolTable table = new SymbolTable(16);
+        Symbol first = table.intern(new String("com.example.OrderService"));
+        Symbol second = table.intern(new String("com.example.OrderService"));
+        
+        assertSame(first, second);
+        assertSame(first.getValue(), table.internString(new String("com.example.OrderService")));
+        assertSame(first, table.get(first.getId()));
+        assertArrayEquals("com.example.OrderService".getBytes(StandardCharsets.UTF_8), first.getBytes());
+        assertEquals(1, table.size());
+        assertNull(table.intern(null));
+        assertNull(table.get(99));
+    }
+    
+    @Test
+    public void testUtf8Bytes() {
+        SymbolTable table = new SymbolTable(16);
+        Symbol symbol = table.intern("消费线程-1");
+        assertArrayEquals("消费线程-1".getBytes(StandardCharsets.UTF_8), symbol.getBytes());
+    }
+    
+    @Test
+    public void testHitRate() {
+        SymbolTable table = new SymbolTable(16);
+        assertEquals(1.0, table.getHitRate());
+        table.intern("a");
+        table.intern("a");
+        table.intern("a");
+        table.intern("b");
+        assertEquals(4, table.getLookupCount());
+        assertEquals(0.5, table.getHitRate(), 0.0001);
+    }
+    
+    @Test
+    public void testOverflowReturnsUnregisteredSymbol() {
+        SymbolTable table = new SymbolTable(2);
+        table.intern("a");
+        table.intern("b");
+        Symbol overflow = table.intern("c");
+        
+        assertEquals(Symbol.UNREGISTERED, overflow.getId());
+        assertEquals("c", overflow.getValue());
+        assertArrayEquals("c".getBytes(StandardCharsets.UTF_8), overflow.getBytes());
+        assertEquals(2, table.size());
+        assertEquals(1, table.getOverflowCount());
+        // 已登记的符号不受影响
+        assertEquals(0, table.intern("a").getId());
+    }
+    
+    @Test
+    public void testConcurrentInternAssignsUniqueIds() throws InterruptedException {
+        SymbolTable table = new SymbolTable(1024);
+        int threads = 8;
+        Set<Symbol> seen = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    seen.add(table.intern("name-" + (i % 100)));
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        
+        assertEquals(100, seen.size());
+        assertEquals(100, table.size());
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        for (Symbol symbol : seen) {
+            assertTrue(ids.add(symbol.getId()));
+            assertSame(symbol, table.get(symbol.getId()));
+        }
+    }
+}